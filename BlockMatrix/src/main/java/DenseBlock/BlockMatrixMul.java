@@ -0,0 +1,218 @@
+package DenseBlock;
+
+public class BlockMatrixMul {
+    public static final int DEFAULT_BLOCK_SIZE = 32;
+    public static final int DEFAULT_PANEL_WIDTH = 512;
+
+    public static void multiplyNaive(double[][] a, double[][] b, double[][] c) {
+        checkDimensions(a, b, c);
+        multiplyNaive(a, b, c, 0, a.length);
+    }
+
+    public static void multiplyNaive(double[][] a, double[][] b, double[][] c, int rowStart, int rowEnd) {
+        int inner = b.length;
+        int cols = inner == 0 ? 0 : b[0].length;
+
+        for (int i = rowStart; i < rowEnd; i++) {
+            for (int j = 0; j < cols; j++) {
+                double sum = c[i][j];
+                for (int k = 0; k < inner; k++) {
+                    sum += a[i][k] * b[k][j];
+                }
+                c[i][j] = sum;
+            }
+        }
+    }
+
+    public static void multiplyIKJ(double[][] a, double[][] b, double[][] c) {
+        checkDimensions(a, b, c);
+        multiplyIKJ(a, b, c, 0, a.length);
+    }
+
+    public static void multiplyIKJ(double[][] a, double[][] b, double[][] c, int rowStart, int rowEnd) {
+        int inner = b.length;
+        int cols = inner == 0 ? 0 : b[0].length;
+
+        for (int i = rowStart; i < rowEnd; i++) {
+            double[] rowA = a[i];
+            double[] rowC = c[i];
+            for (int k = 0; k < inner; k++) {
+                double valA = rowA[k];
+                double[] rowB = b[k];
+                for (int j = 0; j < cols; j++) {
+                    rowC[j] += valA * rowB[j];
+                }
+            }
+        }
+    }
+
+    public static void multiplyBlocked(double[][] a, double[][] b, double[][] c) {
+        multiplyBlocked(a, b, c, DEFAULT_BLOCK_SIZE);
+    }
+
+    public static void multiplyBlocked(double[][] a, double[][] b, double[][] c, int blockSize) {
+        checkDimensions(a, b, c);
+        multiplyBlocked(a, b, c, blockSize, 0, a.length);
+    }
+
+    public static void multiplyBlocked(double[][] a, double[][] b, double[][] c, int blockSize, int rowStart, int rowEnd) {
+        multiplyBlocked(a, b, c, blockSize, rowStart, rowEnd, 0, b.length == 0 ? 0 : b[0].length);
+    }
+
+    public static void multiplyBlocked(double[][] a, double[][] b, double[][] c, int blockSize,
+                                       int rowStart, int rowEnd, int colStart, int colEnd) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive.");
+        }
+        if (VectorSupport.isEnabled()) {
+            VectorMatrixMul.multiplyBlocked(a, b, c, blockSize, rowStart, rowEnd, colStart, colEnd);
+            return;
+        }
+
+        int inner = b.length;
+
+        for (int i = rowStart; i < rowEnd; i += blockSize) {
+            int iEnd = Math.min(i + blockSize, rowEnd);
+            for (int k = 0; k < inner; k += blockSize) {
+                int kEnd = Math.min(k + blockSize, inner);
+                for (int j = colStart; j < colEnd; j += blockSize) {
+                    int jEnd = Math.min(j + blockSize, colEnd);
+
+                    for (int ii = i; ii < iEnd; ii++) {
+                        double[] rowA = a[ii];
+                        double[] rowC = c[ii];
+                        for (int kk = k; kk < kEnd; kk++) {
+                            double valA = rowA[kk];
+                            double[] rowB = b[kk];
+                            for (int jj = j; jj < jEnd; jj++) {
+                                rowC[jj] += valA * rowB[jj];
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    public static void multiplyNaive(DenseMatrix a, DenseMatrix b, DenseMatrix c) {
+        checkDimensions(a, b, c);
+        multiplyNaive(a, b, c, 0, a.rows);
+    }
+
+    public static void multiplyNaive(DenseMatrix a, DenseMatrix b, DenseMatrix c, int rowStart, int rowEnd) {
+        double[] aData = a.data;
+        double[] bData = b.data;
+        double[] cData = c.data;
+
+        for (int i = rowStart; i < rowEnd; i++) {
+            int aRow = a.index(i, 0);
+            int cRow = c.index(i, 0);
+            for (int j = 0; j < b.cols; j++) {
+                double sum = cData[cRow + j];
+                int bIndex = b.offset + j;
+                for (int k = 0; k < b.rows; k++) {
+                    sum += aData[aRow + k] * bData[bIndex];
+                    bIndex += b.rowStride;
+                }
+                cData[cRow + j] = sum;
+            }
+        }
+    }
+
+    public static void multiplyIKJ(DenseMatrix a, DenseMatrix b, DenseMatrix c) {
+        checkDimensions(a, b, c);
+        multiplyIKJ(a, b, c, 0, a.rows);
+    }
+
+    public static void multiplyIKJ(DenseMatrix a, DenseMatrix b, DenseMatrix c, int rowStart, int rowEnd) {
+        double[] aData = a.data;
+        double[] bData = b.data;
+        double[] cData = c.data;
+        int cols = b.cols;
+
+        for (int i = rowStart; i < rowEnd; i++) {
+            int aRow = a.index(i, 0);
+            int cRow = c.index(i, 0);
+            for (int k = 0; k < b.rows; k++) {
+                double valA = aData[aRow + k];
+                int bRow = b.index(k, 0);
+                for (int j = 0; j < cols; j++) {
+                    cData[cRow + j] += valA * bData[bRow + j];
+                }
+            }
+        }
+    }
+
+    public static void multiplyBlocked(DenseMatrix a, DenseMatrix b, DenseMatrix c) {
+        multiplyBlocked(a, b, c, DEFAULT_BLOCK_SIZE);
+    }
+
+    public static void multiplyBlocked(DenseMatrix a, DenseMatrix b, DenseMatrix c, int blockSize) {
+        checkDimensions(a, b, c);
+        multiplyBlocked(a, b, c, blockSize, 0, a.rows, 0, b.cols);
+    }
+
+    public static void multiplyBlocked(DenseMatrix a, DenseMatrix b, DenseMatrix c, int blockSize,
+                                       int rowStart, int rowEnd, int colStart, int colEnd) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive.");
+        }
+        if (VectorSupport.isEnabled()) {
+            VectorMatrixMul.multiplyBlocked(a, b, c, blockSize, rowStart, rowEnd, colStart, colEnd);
+            return;
+        }
+
+        double[] aData = a.data;
+        double[] bData = b.data;
+        double[] cData = c.data;
+        int inner = b.rows;
+        int panelWidth = Math.min(Math.max(blockSize, DEFAULT_PANEL_WIDTH), Math.max(1, colEnd - colStart));
+
+        // B rows of the current block and the C row segment are copied into buffers indexed from zero,
+        // so the inner loop reads both operands with the same index and the JIT can vectorize it.
+        double[][] panel = new double[Math.min(blockSize, Math.max(1, inner))][panelWidth];
+        double[] rowBuffer = new double[panelWidth];
+
+        for (int k = 0; k < inner; k += blockSize) {
+            int kEnd = Math.min(k + blockSize, inner);
+            for (int j = colStart; j < colEnd; j += panelWidth) {
+                int width = Math.min(panelWidth, colEnd - j);
+
+                for (int kk = k; kk < kEnd; kk++) {
+                    System.arraycopy(bData, b.index(kk, j), panel[kk - k], 0, width);
+                }
+
+                for (int i = rowStart; i < rowEnd; i++) {
+                    int aRow = a.index(i, 0);
+                    int cIndex = c.index(i, j);
+                    System.arraycopy(cData, cIndex, rowBuffer, 0, width);
+
+                    for (int kk = k; kk < kEnd; kk++) {
+                        double valA = aData[aRow + kk];
+                        double[] panelRow = panel[kk - k];
+                        for (int jj = 0; jj < width; jj++) {
+                            rowBuffer[jj] += valA * panelRow[jj];
+                        }
+                    }
+
+                    System.arraycopy(rowBuffer, 0, cData, cIndex, width);
+                }
+            }
+        }
+    }
+
+    public static void checkDimensions(DenseMatrix a, DenseMatrix b, DenseMatrix c) {
+        if (a.cols != b.rows || c.rows != a.rows || c.cols != b.cols) {
+            throw new IllegalArgumentException("Matrix dimensions do not match for multiplication.");
+        }
+    }
+
+    public static void checkDimensions(double[][] a, double[][] b, double[][] c) {
+        int inner = a.length == 0 ? 0 : a[0].length;
+        int cols = b.length == 0 ? 0 : b[0].length;
+
+        if (inner != b.length || c.length != a.length || (c.length > 0 && c[0].length != cols)) {
+            throw new IllegalArgumentException("Matrix dimensions do not match for multiplication.");
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package DenseBlock;
+
+import java.util.Arrays;
+
+public class DenseMatrix {
+    final double[] data;
+    final int offset;
+    final int rowStride;
+
+    final int rows, cols;
+
+    public DenseMatrix(int rows, int cols) {
+        this(new double[Math.multiplyExact(rows, cols)], 0, rows, cols, cols);
+    }
+
+    public DenseMatrix(double[] data, int offset, int rows, int cols, int rowStride) {
+        if (rows < 0 || cols < 0 || offset < 0 || rowStride < cols) {
+            throw new IllegalArgumentException("Invalid matrix layout.");
+        }
+        if (rows > 0 && (long) offset + (long) (rows - 1) * rowStride + cols > data.length) {
+            throw new IllegalArgumentException("Matrix layout exceeds the backing array.");
+        }
+        this.data = data;
+        this.offset = offset;
+        this.rows = rows;
+        this.cols = cols;
+        this.rowStride = rowStride;
+    }
+
+    public static DenseMatrix fromArray(double[][] matrix) {
+        int rows = matrix.length;
+        int cols = rows == 0 ? 0 : matrix[0].length;
+        DenseMatrix result = new DenseMatrix(rows, cols);
+
+        for (int i = 0; i < rows; i++) {
+            System.arraycopy(matrix[i], 0, result.data, i * cols, cols);
+        }
+        return result;
+    }
+
+    public double[][] toArray() {
+        double[][] matrix = new double[rows][cols];
+        for (int i = 0; i < rows; i++) {
+            System.arraycopy(data, index(i, 0), matrix[i], 0, cols);
+        }
+        return matrix;
+    }
+
+    public DenseMatrix view(int rowStart, int colStart, int viewRows, int viewCols) {
+        if (rowStart < 0 || colStart < 0 || viewRows < 0 || viewCols < 0
+                || rowStart > rows - viewRows || colStart > cols - viewCols) {
+            throw new IllegalArgumentException("View exceeds matrix bounds.");
+        }
+        // An empty view may start one row past the end, where index() is not bounded by the layout check.
+        int start = viewRows == 0 ? offset : index(rowStart, colStart);
+        return new DenseMatrix(data, start, viewRows, viewCols, rowStride);
+    }
+
+    public double get(int i, int j) {
+        return data[index(i, j)];
+    }
+
+    public void set(int i, int j, double value) {
+        data[index(i, j)] = value;
+    }
+
+    public void fill(double value) {
+        for (int i = 0; i < rows; i++) {
+            int rowStart = index(i, 0);
+            Arrays.fill(data, rowStart, rowStart + cols, value);
+        }
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getRowStride() {
+        return rowStride;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public double[] getData() {
+        return data;
+    }
+
+    // The constructor bounds offset + (rows - 1) * rowStride + cols by data.length in long arithmetic, so for
+    // 0 <= i < rows and 0 <= j <= cols this cannot overflow.
+    int index(int i, int j) {
+        return offset + i * rowStride + j;
+    }
+}
@@ -0,0 +1,101 @@
+package DenseBlock;
+
+import java.util.Arrays;
+
+// DenseMatrix with float storage: the same row-major layout, offset and row stride, at half the bytes per entry.
+public class FloatDenseMatrix {
+    final float[] data;
+    final int offset;
+    final int rowStride;
+
+    final int rows, cols;
+
+    public FloatDenseMatrix(int rows, int cols) {
+        this(new float[Math.multiplyExact(rows, cols)], 0, rows, cols, cols);
+    }
+
+    public FloatDenseMatrix(float[] data, int offset, int rows, int cols, int rowStride) {
+        if (rows < 0 || cols < 0 || offset < 0 || rowStride < cols) {
+            throw new IllegalArgumentException("Invalid matrix layout.");
+        }
+        if (rows > 0 && (long) offset + (long) (rows - 1) * rowStride + cols > data.length) {
+            throw new IllegalArgumentException("Matrix layout exceeds the backing array.");
+        }
+        this.data = data;
+        this.offset = offset;
+        this.rows = rows;
+        this.cols = cols;
+        this.rowStride = rowStride;
+    }
+
+    // Rounds every entry to the nearest float.
+    public static FloatDenseMatrix fromDouble(DenseMatrix matrix) {
+        FloatDenseMatrix result = new FloatDenseMatrix(matrix.rows, matrix.cols);
+        for (int i = 0; i < matrix.rows; i++) {
+            int from = matrix.index(i, 0);
+            int to = i * matrix.cols;
+            for (int j = 0; j < matrix.cols; j++) {
+                result.data[to + j] = (float) matrix.data[from + j];
+            }
+        }
+        return result;
+    }
+
+    public DenseMatrix toDouble() {
+        DenseMatrix result = new DenseMatrix(rows, cols);
+        for (int i = 0; i < rows; i++) {
+            int from = index(i, 0);
+            int to = i * cols;
+            for (int j = 0; j < cols; j++) {
+                result.data[to + j] = data[from + j];
+            }
+        }
+        return result;
+    }
+
+    public FloatDenseMatrix view(int rowStart, int colStart, int viewRows, int viewCols) {
+        if (rowStart < 0 || colStart < 0 || rowStart + viewRows > rows || colStart + viewCols > cols) {
+            throw new IllegalArgumentException("View exceeds matrix bounds.");
+        }
+        return new FloatDenseMatrix(data, index(rowStart, colStart), viewRows, viewCols, rowStride);
+    }
+
+    public float get(int i, int j) {
+        return data[index(i, j)];
+    }
+
+    public void set(int i, int j, float value) {
+        data[index(i, j)] = value;
+    }
+
+    public void fill(float value) {
+        for (int i = 0; i < rows; i++) {
+            int rowStart = index(i, 0);
+            Arrays.fill(data, rowStart, rowStart + cols, value);
+        }
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getRowStride() {
+        return rowStride;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public float[] getData() {
+        return data;
+    }
+
+    int index(int i, int j) {
+        return offset + i * rowStride + j;
+    }
+}
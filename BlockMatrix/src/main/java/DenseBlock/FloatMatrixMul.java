@@ -0,0 +1,209 @@
+package DenseBlock;
+
+import MatrixPrecision.Accumulation;
+
+import java.util.Arrays;
+
+// C += A * B on float matrices. C is computed in column panels; each group of ROWS rows of a panel is kept in
+// accumulator rows of the chosen precision for the whole inner dimension and rounded into C once, so the float
+// mode rounds at every term while the double and Kahan modes round only at the end. The B panel is packed into
+// one array per row, as PackedMatrixMul packs B, so every inner loop indexes B and the accumulators alike and the
+// JIT vectorizes it, at twice the lanes of the double kernels in float mode; the panel is reused by every row group.
+public class FloatMatrixMul {
+    public static final int PANEL_WIDTH = 128;
+    private static final int ROWS = 4;
+
+    public static void multiply(FloatDenseMatrix a, FloatDenseMatrix b, FloatDenseMatrix c, Accumulation accumulation) {
+        checkDimensions(a, b, c);
+        multiply(a, b, c, accumulation, 0, a.rows, 0, b.cols);
+    }
+
+    public static void multiply(FloatDenseMatrix a, FloatDenseMatrix b, FloatDenseMatrix c, Accumulation accumulation,
+                                int rowStart, int rowEnd, int colStart, int colEnd) {
+        if (rowStart >= rowEnd || colStart >= colEnd) {
+            return;
+        }
+        int width = Math.min(PANEL_WIDTH, colEnd - colStart);
+        float[][] panel = new float[a.cols][width];
+        switch (accumulation) {
+            case FLOAT: {
+                float[][] sums = new float[ROWS][width];
+                for (int jc = colStart; jc < colEnd; jc += PANEL_WIDTH) {
+                    packPanel(b, jc, Math.min(PANEL_WIDTH, colEnd - jc), panel);
+                    panelFloat(a, panel, c, rowStart, rowEnd, jc, Math.min(PANEL_WIDTH, colEnd - jc), sums);
+                }
+                break;
+            }
+            case DOUBLE: {
+                double[][] sums = new double[ROWS][width];
+                for (int jc = colStart; jc < colEnd; jc += PANEL_WIDTH) {
+                    packPanel(b, jc, Math.min(PANEL_WIDTH, colEnd - jc), panel);
+                    panelDouble(a, panel, c, rowStart, rowEnd, jc, Math.min(PANEL_WIDTH, colEnd - jc), sums);
+                }
+                break;
+            }
+            case KAHAN: {
+                float[][] sums = new float[ROWS][width];
+                float[][] compensations = new float[ROWS][width];
+                for (int jc = colStart; jc < colEnd; jc += PANEL_WIDTH) {
+                    packPanel(b, jc, Math.min(PANEL_WIDTH, colEnd - jc), panel);
+                    panelKahan(a, panel, c, rowStart, rowEnd, jc, Math.min(PANEL_WIDTH, colEnd - jc), sums, compensations);
+                }
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown accumulation: " + accumulation);
+        }
+    }
+
+    // Bound on max |C - A * B| when multiply ran on a C that was all zeros: every entry of |A| |B| is at most
+    // max_i sum_k |a_ik| * max |b_kj|, which costs O(size of A and B) instead of a second product. multiply adds
+    // into C, so for any other starting C this does not hold: the final rounding of C + A * B to float adds up to
+    // u * |C + A * B| per entry, and C's own error carries over.
+    public static double errorBound(FloatDenseMatrix a, FloatDenseMatrix b, Accumulation accumulation) {
+        checkInner(a, b);
+        double maxRowSum = 0.0;
+        for (int i = 0; i < a.rows; i++) {
+            double rowSum = 0.0;
+            for (int k = 0; k < a.cols; k++) {
+                rowSum += Math.abs(a.data[a.index(i, k)]);
+            }
+            maxRowSum = Math.max(maxRowSum, rowSum);
+        }
+        double maxB = 0.0;
+        for (int k = 0; k < b.rows; k++) {
+            for (int j = 0; j < b.cols; j++) {
+                maxB = Math.max(maxB, Math.abs(b.data[b.index(k, j)]));
+            }
+        }
+        return accumulation.errorCoefficient(a.cols) * maxRowSum * maxB;
+    }
+
+    public static void checkDimensions(FloatDenseMatrix a, FloatDenseMatrix b, FloatDenseMatrix c) {
+        checkInner(a, b);
+        if (c.rows != a.rows || c.cols != b.cols) {
+            throw new IllegalArgumentException("Matrix dimensions do not match for multiplication.");
+        }
+    }
+
+    private static void checkInner(FloatDenseMatrix a, FloatDenseMatrix b) {
+        if (a.cols != b.rows) {
+            throw new IllegalArgumentException("Matrix dimensions do not match for multiplication.");
+        }
+    }
+
+    private static void packPanel(FloatDenseMatrix b, int col, int width, float[][] panel) {
+        for (int k = 0; k < b.rows; k++) {
+            System.arraycopy(b.data, b.index(k, col), panel[k], 0, width);
+        }
+    }
+
+    // A group shorter than ROWS repeats its last row of A; the extra accumulator rows are computed and dropped.
+    private static int rowIndex(FloatDenseMatrix a, int row, int rowEnd) {
+        return a.index(Math.min(row, rowEnd - 1), 0);
+    }
+
+    private static void panelFloat(FloatDenseMatrix a, float[][] panel, FloatDenseMatrix c,
+                                   int rowStart, int rowEnd, int col, int width, float[][] sums) {
+        float[] dataA = a.data, dataC = c.data;
+        float[] c0 = sums[0], c1 = sums[1], c2 = sums[2], c3 = sums[3];
+        int inner = a.cols;
+        for (int i = rowStart; i < rowEnd; i += ROWS) {
+            int mr = Math.min(ROWS, rowEnd - i);
+            for (int r = 0; r < mr; r++) {
+                System.arraycopy(dataC, c.index(i + r, col), sums[r], 0, width);
+            }
+            int a0 = rowIndex(a, i, rowEnd), a1 = rowIndex(a, i + 1, rowEnd);
+            int a2 = rowIndex(a, i + 2, rowEnd), a3 = rowIndex(a, i + 3, rowEnd);
+            for (int k = 0; k < inner; k++) {
+                float[] rowB = panel[k];
+                float v0 = dataA[a0 + k], v1 = dataA[a1 + k], v2 = dataA[a2 + k], v3 = dataA[a3 + k];
+                for (int j = 0; j < width; j++) {
+                    float valB = rowB[j];
+                    c0[j] += v0 * valB;
+                    c1[j] += v1 * valB;
+                    c2[j] += v2 * valB;
+                    c3[j] += v3 * valB;
+                }
+            }
+            for (int r = 0; r < mr; r++) {
+                System.arraycopy(sums[r], 0, dataC, c.index(i + r, col), width);
+            }
+        }
+    }
+
+    private static void panelDouble(FloatDenseMatrix a, float[][] panel, FloatDenseMatrix c,
+                                    int rowStart, int rowEnd, int col, int width, double[][] sums) {
+        float[] dataA = a.data, dataC = c.data;
+        double[] c0 = sums[0], c1 = sums[1], c2 = sums[2], c3 = sums[3];
+        int inner = a.cols;
+        for (int i = rowStart; i < rowEnd; i += ROWS) {
+            int mr = Math.min(ROWS, rowEnd - i);
+            for (int r = 0; r < mr; r++) {
+                int rowC = c.index(i + r, col);
+                for (int j = 0; j < width; j++) {
+                    sums[r][j] = dataC[rowC + j];
+                }
+            }
+            int a0 = rowIndex(a, i, rowEnd), a1 = rowIndex(a, i + 1, rowEnd);
+            int a2 = rowIndex(a, i + 2, rowEnd), a3 = rowIndex(a, i + 3, rowEnd);
+            for (int k = 0; k < inner; k++) {
+                float[] rowB = panel[k];
+                double v0 = dataA[a0 + k], v1 = dataA[a1 + k], v2 = dataA[a2 + k], v3 = dataA[a3 + k];
+                for (int j = 0; j < width; j++) {
+                    double valB = rowB[j];
+                    c0[j] += v0 * valB;
+                    c1[j] += v1 * valB;
+                    c2[j] += v2 * valB;
+                    c3[j] += v3 * valB;
+                }
+            }
+            for (int r = 0; r < mr; r++) {
+                int rowC = c.index(i + r, col);
+                for (int j = 0; j < width; j++) {
+                    dataC[rowC + j] = (float) sums[r][j];
+                }
+            }
+        }
+    }
+
+    private static void panelKahan(FloatDenseMatrix a, float[][] panel, FloatDenseMatrix c,
+                                   int rowStart, int rowEnd, int col, int width, float[][] sums, float[][] compensations) {
+        float[] dataA = a.data, dataC = c.data;
+        float[] s0 = sums[0], s1 = sums[1], s2 = sums[2], s3 = sums[3];
+        float[] e0 = compensations[0], e1 = compensations[1], e2 = compensations[2], e3 = compensations[3];
+        int inner = a.cols;
+        for (int i = rowStart; i < rowEnd; i += ROWS) {
+            int mr = Math.min(ROWS, rowEnd - i);
+            for (int r = 0; r < ROWS; r++) {
+                if (r < mr) {
+                    System.arraycopy(dataC, c.index(i + r, col), sums[r], 0, width);
+                }
+                Arrays.fill(compensations[r], 0, width, 0.0f);
+            }
+            int a0 = rowIndex(a, i, rowEnd), a1 = rowIndex(a, i + 1, rowEnd);
+            int a2 = rowIndex(a, i + 2, rowEnd), a3 = rowIndex(a, i + 3, rowEnd);
+            for (int k = 0; k < inner; k++) {
+                float[] rowB = panel[k];
+                float v0 = dataA[a0 + k], v1 = dataA[a1 + k], v2 = dataA[a2 + k], v3 = dataA[a3 + k];
+                kahanRow(v0, rowB, s0, e0, width);
+                kahanRow(v1, rowB, s1, e1, width);
+                kahanRow(v2, rowB, s2, e2, width);
+                kahanRow(v3, rowB, s3, e3, width);
+            }
+            for (int r = 0; r < mr; r++) {
+                System.arraycopy(sums[r], 0, dataC, c.index(i + r, col), width);
+            }
+        }
+    }
+
+    // One row at a time: with three arrays in the loop the JIT vectorizes it, with all four rows fused it does not.
+    private static void kahanRow(float valA, float[] rowB, float[] sum, float[] compensation, int width) {
+        for (int j = 0; j < width; j++) {
+            float term = valA * rowB[j] - compensation[j];
+            float next = sum[j] + term;
+            compensation[j] = (next - sum[j]) - term;
+            sum[j] = next;
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package DenseBlock;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+public class PackedMatrixMul {
+    public static final int MR = 4;
+
+    public static class BlockSizes {
+        static final long DEFAULT_L1_BYTES = 32 * 1024;
+        static final long DEFAULT_L2_BYTES = 256 * 1024;
+        static final long DEFAULT_L3_BYTES = 8 * 1024 * 1024;
+
+        private static volatile BlockSizes detected;
+
+        final int mc;
+        final int kc;
+        final int nc;
+        final int nr;
+
+        public BlockSizes(int mc, int kc, int nc, int nr) {
+            if (mc <= 0 || kc <= 0 || nc <= 0 || nr <= 0) {
+                throw new IllegalArgumentException("Block sizes must be positive.");
+            }
+            this.mc = roundUpTo(mc, MR);
+            this.kc = kc;
+            this.nr = nr;
+            this.nc = roundUpTo(nc, nr);
+        }
+
+        public static BlockSizes detect() {
+            BlockSizes sizes = detected;
+            if (sizes == null) {
+                sizes = fromCacheSizes(
+                        readCacheSize(1, DEFAULT_L1_BYTES),
+                        readCacheSize(2, DEFAULT_L2_BYTES),
+                        readCacheSize(3, DEFAULT_L3_BYTES));
+                detected = sizes;
+            }
+            return sizes;
+        }
+
+        public static BlockSizes fromCacheSizes(long l1Bytes, long l2Bytes, long l3Bytes) {
+            // The MR accumulator rows and one packed B row of width nr share half of L1, the kc x nr strip
+            // of packed B and the mc x kc block of packed A split half of L2, and the kc x nc panel of B
+            // takes half of L3.
+            int nr = clamp(l1Bytes / 2 / ((MR + 1) * Double.BYTES), 16, 1024) / 8 * 8;
+            int kc = clamp(l2Bytes / 4 / ((long) nr * Double.BYTES), 32, 512);
+            int mc = clamp(l2Bytes / 4 / ((long) kc * Double.BYTES), MR, 1024);
+            int nc = clamp(l3Bytes / 2 / ((long) kc * Double.BYTES), nr, 8192);
+            return new BlockSizes(mc, kc, nc, nr);
+        }
+
+        public int getMc() {
+            return mc;
+        }
+
+        public int getKc() {
+            return kc;
+        }
+
+        public int getNc() {
+            return nc;
+        }
+
+        public int getNr() {
+            return nr;
+        }
+
+        @Override
+        public String toString() {
+            return "BlockSizes{mc=" + mc + ", kc=" + kc + ", nc=" + nc + ", nr=" + nr + "}";
+        }
+
+        private static long readCacheSize(int level, long fallback) {
+            Path cacheDir = Paths.get("/sys/devices/system/cpu/cpu0/cache");
+            for (int index = 0; index < 8; index++) {
+                Path entry = cacheDir.resolve("index" + index);
+                try {
+                    int entryLevel = Integer.parseInt(readLine(entry.resolve("level")));
+                    String type = readLine(entry.resolve("type"));
+                    if (entryLevel == level && !type.equals("Instruction")) {
+                        return parseSize(readLine(entry.resolve("size")));
+                    }
+                } catch (IOException | RuntimeException e) {
+                    return fallback;
+                }
+            }
+            return fallback;
+        }
+
+        private static String readLine(Path path) throws IOException {
+            return new String(Files.readAllBytes(path), StandardCharsets.US_ASCII).trim();
+        }
+
+        private static long parseSize(String size) {
+            char unit = Character.toUpperCase(size.charAt(size.length() - 1));
+            if (unit == 'K') {
+                return Long.parseLong(size.substring(0, size.length() - 1)) * 1024;
+            }
+            if (unit == 'M') {
+                return Long.parseLong(size.substring(0, size.length() - 1)) * 1024 * 1024;
+            }
+            return Long.parseLong(size);
+        }
+
+        private static int clamp(long value, int min, int max) {
+            return (int) Math.max(min, Math.min(max, value));
+        }
+    }
+
+    public static void multiply(DenseMatrix a, DenseMatrix b, DenseMatrix c) {
+        multiply(a, b, c, BlockSizes.detect());
+    }
+
+    public static void multiply(DenseMatrix a, DenseMatrix b, DenseMatrix c, BlockSizes sizes) {
+        BlockMatrixMul.checkDimensions(a, b, c);
+
+        int m = a.rows;
+        int n = b.cols;
+        int k = a.cols;
+        if (m == 0 || n == 0 || k == 0) {
+            return;
+        }
+
+        int nr = Math.min(sizes.nr, n);
+        int nc = Math.min(roundUpTo(sizes.nc, nr), roundUpTo(n, nr));
+        int kc = Math.min(sizes.kc, k);
+        int mc = Math.min(sizes.mc, roundUpTo(m, MR));
+
+        double[] packedA = new double[mc * kc];
+        double[][] packedB = new double[nc / nr * kc][nr];
+        double[][] rowTile = new double[MR][nr];
+
+        for (int jc = 0; jc < n; jc += nc) {
+            int ncActual = Math.min(nc, n - jc);
+            for (int pc = 0; pc < k; pc += kc) {
+                int kcActual = Math.min(kc, k - pc);
+                packB(b, pc, jc, kcActual, ncActual, nr, packedB);
+
+                for (int ic = 0; ic < m; ic += mc) {
+                    int mcActual = Math.min(mc, m - ic);
+                    packA(a, ic, pc, mcActual, kcActual, packedA);
+
+                    for (int jr = 0; jr < ncActual; jr += nr) {
+                        int width = Math.min(nr, ncActual - jr);
+                        int strip = jr / nr * kcActual;
+                        for (int ir = 0; ir < mcActual; ir += MR) {
+                            int mr = Math.min(MR, mcActual - ir);
+                            microKernel(kcActual, packedA, ir * kcActual, packedB, strip, width,
+                                    c, ic + ir, jc + jr, mr, rowTile);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    static void packA(DenseMatrix a, int rowStart, int colStart, int rows, int depth, double[] packed) {
+        double[] data = a.data;
+        int position = 0;
+        for (int ir = 0; ir < rows; ir += MR) {
+            int mr = Math.min(MR, rows - ir);
+            for (int p = 0; p < depth; p++) {
+                int index = a.index(rowStart + ir, colStart + p);
+                for (int r = 0; r < mr; r++) {
+                    packed[position + r] = data[index];
+                    index += a.rowStride;
+                }
+                for (int r = mr; r < MR; r++) {
+                    packed[position + r] = 0.0;
+                }
+                position += MR;
+            }
+        }
+    }
+
+    static void packB(DenseMatrix b, int rowStart, int colStart, int depth, int cols, int nr, double[][] packed) {
+        double[] data = b.data;
+        int strip = 0;
+        for (int jr = 0; jr < cols; jr += nr) {
+            int width = Math.min(nr, cols - jr);
+            for (int p = 0; p < depth; p++) {
+                System.arraycopy(data, b.index(rowStart + p, colStart + jr), packed[strip + p], 0, width);
+            }
+            strip += depth;
+        }
+    }
+
+    // Computes an MR x width tile of C. The MR accumulator rows are indexed like the packed B row,
+    // so the JIT vectorizes the inner loop and each loaded B value is reused for MR rows of A.
+    static void microKernel(int depth, double[] packedA, int aOffset, double[][] packedB, int bStrip, int width,
+                            DenseMatrix c, int row, int col, int mr, double[][] rowTile) {
+        double[] data = c.data;
+        for (int r = 0; r < mr; r++) {
+            System.arraycopy(data, c.index(row + r, col), rowTile[r], 0, width);
+        }
+
+        double[] c0 = rowTile[0];
+        double[] c1 = rowTile[1];
+        double[] c2 = rowTile[2];
+        double[] c3 = rowTile[3];
+
+        int ai = aOffset;
+        for (int p = 0; p < depth; p++) {
+            double a0 = packedA[ai];
+            double a1 = packedA[ai + 1];
+            double a2 = packedA[ai + 2];
+            double a3 = packedA[ai + 3];
+            double[] rowB = packedB[bStrip + p];
+
+            for (int j = 0; j < width; j++) {
+                double valB = rowB[j];
+                c0[j] += a0 * valB;
+                c1[j] += a1 * valB;
+                c2[j] += a2 * valB;
+                c3[j] += a3 * valB;
+            }
+            ai += MR;
+        }
+
+        for (int r = 0; r < mr; r++) {
+            System.arraycopy(rowTile[r], 0, data, c.index(row + r, col), width);
+        }
+    }
+
+    static int roundUpTo(int value, int multiple) {
+        return (value + multiple - 1) / multiple * multiple;
+    }
+}
@@ -0,0 +1,263 @@
+package DenseBlock;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Supplier;
+
+public class RecursiveMatrixMul {
+    public static final int NO_STRASSEN = Integer.MAX_VALUE;
+
+    public static class Settings {
+        public static final int DEFAULT_LEAF_SIZE = 128;
+        public static final long DEFAULT_PARALLEL_CUTOFF = 1L << 21;
+        public static final int DEFAULT_STRASSEN_CROSSOVER = 1024;
+
+        final int leafSize;
+        final int blockSize;
+        final long parallelCutoff;
+        final int strassenCrossover;
+
+        public Settings(int leafSize, int blockSize, long parallelCutoff, int strassenCrossover) {
+            if (leafSize <= 0 || blockSize <= 0 || parallelCutoff < 0 || strassenCrossover < 2) {
+                throw new IllegalArgumentException("Invalid recursive multiply settings.");
+            }
+            this.leafSize = leafSize;
+            this.blockSize = blockSize;
+            this.parallelCutoff = parallelCutoff;
+            this.strassenCrossover = strassenCrossover;
+        }
+
+        public static Settings cacheOblivious() {
+            return new Settings(DEFAULT_LEAF_SIZE, BlockMatrixMul.DEFAULT_BLOCK_SIZE, DEFAULT_PARALLEL_CUTOFF, NO_STRASSEN);
+        }
+
+        public static Settings strassen() {
+            return strassen(DEFAULT_STRASSEN_CROSSOVER);
+        }
+
+        public static Settings strassen(int crossover) {
+            return new Settings(DEFAULT_LEAF_SIZE, BlockMatrixMul.DEFAULT_BLOCK_SIZE, DEFAULT_PARALLEL_CUTOFF, crossover);
+        }
+
+        public int getLeafSize() {
+            return leafSize;
+        }
+
+        public int getBlockSize() {
+            return blockSize;
+        }
+
+        public long getParallelCutoff() {
+            return parallelCutoff;
+        }
+
+        public int getStrassenCrossover() {
+            return strassenCrossover;
+        }
+
+        @Override
+        public String toString() {
+            return "Settings{leafSize=" + leafSize + ", blockSize=" + blockSize + ", parallelCutoff=" + parallelCutoff
+                    + ", strassenCrossover=" + (strassenCrossover == NO_STRASSEN ? "off" : strassenCrossover) + "}";
+        }
+    }
+
+    public static void multiply(DenseMatrix a, DenseMatrix b, DenseMatrix c) {
+        multiply(a, b, c, Settings.cacheOblivious());
+    }
+
+    public static void multiply(DenseMatrix a, DenseMatrix b, DenseMatrix c, Settings settings) {
+        multiply(a, b, c, settings, ForkJoinPool.commonPool());
+    }
+
+    public static void multiply(DenseMatrix a, DenseMatrix b, DenseMatrix c, Settings settings, ForkJoinPool pool) {
+        BlockMatrixMul.checkDimensions(a, b, c);
+        pool.invoke(new MultiplyTask(a, b, c, settings));
+    }
+
+    private static class MultiplyTask extends RecursiveAction {
+        private final DenseMatrix a;
+        private final DenseMatrix b;
+        private final DenseMatrix c;
+        private final Settings settings;
+
+        MultiplyTask(DenseMatrix a, DenseMatrix b, DenseMatrix c, Settings settings) {
+            this.a = a;
+            this.b = b;
+            this.c = c;
+            this.settings = settings;
+        }
+
+        @Override
+        protected void compute() {
+            int m = a.rows;
+            int n = b.cols;
+            int k = a.cols;
+            if (m == 0 || n == 0 || k == 0) {
+                return;
+            }
+            if (Math.min(m, Math.min(n, k)) >= settings.strassenCrossover) {
+                strassenWinograd(m, n, k);
+                return;
+            }
+            if (Math.max(m, Math.max(n, k)) <= settings.leafSize) {
+                BlockMatrixMul.multiplyBlocked(a, b, c, settings.blockSize, 0, m, 0, n);
+                return;
+            }
+
+            // Halving the largest dimension keeps every sub-problem roughly cubic, so some level of the
+            // recursion fits each cache level without knowing its size. Row and column halves write
+            // disjoint parts of C and run in parallel; inner halves both update C and run one after another.
+            boolean parallel = (long) m * n * k > settings.parallelCutoff;
+            if (m >= n && m >= k) {
+                int half = m / 2;
+                run(parallel,
+                        new MultiplyTask(a.view(0, 0, half, k), b, c.view(0, 0, half, n), settings),
+                        new MultiplyTask(a.view(half, 0, m - half, k), b, c.view(half, 0, m - half, n), settings));
+            } else if (n >= k) {
+                int half = n / 2;
+                run(parallel,
+                        new MultiplyTask(a, b.view(0, 0, k, half), c.view(0, 0, m, half), settings),
+                        new MultiplyTask(a, b.view(0, half, k, n - half), c.view(0, half, m, n - half), settings));
+            } else {
+                int half = k / 2;
+                new MultiplyTask(a.view(0, 0, m, half), b.view(0, 0, half, n), c, settings).compute();
+                new MultiplyTask(a.view(0, half, m, k - half), b.view(half, 0, k - half, n), c, settings).compute();
+            }
+        }
+
+        // One Strassen-Winograd step (7 half-size products instead of 8) on the even-sized leading part,
+        // followed by thin fix-up products for an odd last row, column or inner index.
+        private void strassenWinograd(int m, int n, int k) {
+            int mh = m / 2;
+            int nh = n / 2;
+            int kh = k / 2;
+
+            DenseMatrix a11 = a.view(0, 0, mh, kh);
+            DenseMatrix a12 = a.view(0, kh, mh, kh);
+            DenseMatrix a21 = a.view(mh, 0, mh, kh);
+            DenseMatrix a22 = a.view(mh, kh, mh, kh);
+            DenseMatrix b11 = b.view(0, 0, kh, nh);
+            DenseMatrix b12 = b.view(0, nh, kh, nh);
+            DenseMatrix b21 = b.view(kh, 0, kh, nh);
+            DenseMatrix b22 = b.view(kh, nh, kh, nh);
+
+            DenseMatrix[] p = new DenseMatrix[7];
+            for (int i = 0; i < p.length; i++) {
+                p[i] = new DenseMatrix(mh, nh);
+            }
+
+            invokeAll(
+                    new ProductTask(() -> a11, () -> b11, p[0], settings),
+                    new ProductTask(() -> a12, () -> b21, p[1], settings),
+                    new ProductTask(() -> {
+                        DenseMatrix s4 = sum(a21, a22, 1.0);
+                        accumulate(s4, a11, -1.0);
+                        sum(a12, s4, -1.0, s4);
+                        return s4;
+                    }, () -> b22, p[2], settings),
+                    new ProductTask(() -> a22, () -> {
+                        DenseMatrix t4 = sum(b12, b11, -1.0);
+                        sum(b22, t4, -1.0, t4);
+                        accumulate(t4, b21, -1.0);
+                        return t4;
+                    }, p[3], settings),
+                    new ProductTask(() -> sum(a21, a22, 1.0), () -> sum(b12, b11, -1.0), p[4], settings),
+                    new ProductTask(() -> {
+                        DenseMatrix s2 = sum(a21, a22, 1.0);
+                        accumulate(s2, a11, -1.0);
+                        return s2;
+                    }, () -> {
+                        DenseMatrix t2 = sum(b12, b11, -1.0);
+                        sum(b22, t2, -1.0, t2);
+                        return t2;
+                    }, p[5], settings),
+                    new ProductTask(() -> sum(a11, a21, -1.0), () -> sum(b22, b12, -1.0), p[6], settings));
+
+            DenseMatrix c11 = c.view(0, 0, mh, nh);
+            DenseMatrix c12 = c.view(0, nh, mh, nh);
+            DenseMatrix c21 = c.view(mh, 0, mh, nh);
+            DenseMatrix c22 = c.view(mh, nh, mh, nh);
+
+            accumulate(c11, p[0], 1.0);
+            accumulate(c11, p[1], 1.0);
+
+            DenseMatrix u2 = p[5];
+            accumulate(u2, p[0], 1.0);
+            accumulate(c12, u2, 1.0);
+            accumulate(c12, p[4], 1.0);
+            accumulate(c12, p[2], 1.0);
+
+            DenseMatrix u3 = p[6];
+            accumulate(u3, u2, 1.0);
+            accumulate(c21, u3, 1.0);
+            accumulate(c21, p[3], -1.0);
+            accumulate(c22, u3, 1.0);
+            accumulate(c22, p[4], 1.0);
+
+            int me = 2 * mh;
+            int ne = 2 * nh;
+            int ke = 2 * kh;
+            if (k > ke) {
+                new MultiplyTask(a.view(0, ke, me, k - ke), b.view(ke, 0, k - ke, ne), c.view(0, 0, me, ne), settings).compute();
+            }
+            if (n > ne) {
+                new MultiplyTask(a, b.view(0, ne, k, n - ne), c.view(0, ne, m, n - ne), settings).compute();
+            }
+            if (m > me) {
+                new MultiplyTask(a.view(me, 0, m - me, k), b.view(0, 0, k, ne), c.view(me, 0, m - me, ne), settings).compute();
+            }
+        }
+
+        private static void run(boolean parallel, MultiplyTask first, MultiplyTask second) {
+            if (parallel) {
+                invokeAll(first, second);
+            } else {
+                first.compute();
+                second.compute();
+            }
+        }
+    }
+
+    // A Strassen product whose operands are sums of quadrants. The operands are built inside the task,
+    // so only the products that are actually running hold temporaries.
+    private static class ProductTask extends RecursiveAction {
+        private final Supplier<DenseMatrix> left;
+        private final Supplier<DenseMatrix> right;
+        private final DenseMatrix product;
+        private final Settings settings;
+
+        ProductTask(Supplier<DenseMatrix> left, Supplier<DenseMatrix> right, DenseMatrix product, Settings settings) {
+            this.left = left;
+            this.right = right;
+            this.product = product;
+            this.settings = settings;
+        }
+
+        @Override
+        protected void compute() {
+            new MultiplyTask(left.get(), right.get(), product, settings).compute();
+        }
+    }
+
+    static DenseMatrix sum(DenseMatrix x, DenseMatrix y, double sign) {
+        DenseMatrix out = new DenseMatrix(x.rows, x.cols);
+        sum(x, y, sign, out);
+        return out;
+    }
+
+    static void sum(DenseMatrix x, DenseMatrix y, double sign, DenseMatrix out) {
+        for (int i = 0; i < out.rows; i++) {
+            int xi = x.index(i, 0);
+            int yi = y.index(i, 0);
+            int oi = out.index(i, 0);
+            for (int j = 0; j < out.cols; j++) {
+                out.data[oi + j] = x.data[xi + j] + sign * y.data[yi + j];
+            }
+        }
+    }
+
+    static void accumulate(DenseMatrix target, DenseMatrix source, double sign) {
+        sum(target, source, sign, target);
+    }
+}
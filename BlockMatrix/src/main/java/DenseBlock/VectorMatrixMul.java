@@ -0,0 +1,160 @@
+package DenseBlock;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+class VectorMatrixMul {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final int ROWS = 4;
+
+    static void multiplyBlocked(double[][] a, double[][] b, double[][] c, int blockSize,
+                                int rowStart, int rowEnd, int colStart, int colEnd) {
+        int inner = b.length;
+        double[] column = new double[Math.max(1, inner)];
+
+        for (int i = rowStart; i < rowEnd; i += blockSize) {
+            int iEnd = Math.min(i + blockSize, rowEnd);
+            for (int k = 0; k < inner; k += blockSize) {
+                int kEnd = Math.min(k + blockSize, inner);
+                for (int j = colStart; j < colEnd; j += blockSize) {
+                    int jEnd = Math.min(j + blockSize, colEnd);
+                    int vectorEnd = j + SPECIES.loopBound(jEnd - j);
+
+                    int ii = i;
+                    for (; ii + ROWS <= iEnd; ii += ROWS) {
+                        double[] a0 = a[ii];
+                        double[] a1 = a[ii + 1];
+                        double[] a2 = a[ii + 2];
+                        double[] a3 = a[ii + 3];
+                        double[] c0 = c[ii];
+                        double[] c1 = c[ii + 1];
+                        double[] c2 = c[ii + 2];
+                        double[] c3 = c[ii + 3];
+
+                        for (int jj = j; jj < vectorEnd; jj += SPECIES.length()) {
+                            DoubleVector acc0 = DoubleVector.fromArray(SPECIES, c0, jj);
+                            DoubleVector acc1 = DoubleVector.fromArray(SPECIES, c1, jj);
+                            DoubleVector acc2 = DoubleVector.fromArray(SPECIES, c2, jj);
+                            DoubleVector acc3 = DoubleVector.fromArray(SPECIES, c3, jj);
+                            for (int kk = k; kk < kEnd; kk++) {
+                                DoubleVector vb = DoubleVector.fromArray(SPECIES, b[kk], jj);
+                                acc0 = vb.fma(DoubleVector.broadcast(SPECIES, a0[kk]), acc0);
+                                acc1 = vb.fma(DoubleVector.broadcast(SPECIES, a1[kk]), acc1);
+                                acc2 = vb.fma(DoubleVector.broadcast(SPECIES, a2[kk]), acc2);
+                                acc3 = vb.fma(DoubleVector.broadcast(SPECIES, a3[kk]), acc3);
+                            }
+                            acc0.intoArray(c0, jj);
+                            acc1.intoArray(c1, jj);
+                            acc2.intoArray(c2, jj);
+                            acc3.intoArray(c3, jj);
+                        }
+                    }
+
+                    for (; ii < iEnd; ii++) {
+                        double[] rowA = a[ii];
+                        double[] rowC = c[ii];
+                        for (int jj = j; jj < vectorEnd; jj += SPECIES.length()) {
+                            DoubleVector acc = DoubleVector.fromArray(SPECIES, rowC, jj);
+                            for (int kk = k; kk < kEnd; kk++) {
+                                DoubleVector vb = DoubleVector.fromArray(SPECIES, b[kk], jj);
+                                acc = vb.fma(DoubleVector.broadcast(SPECIES, rowA[kk]), acc);
+                            }
+                            acc.intoArray(rowC, jj);
+                        }
+                    }
+
+                    for (int jj = vectorEnd; jj < jEnd; jj++) {
+                        for (int kk = k; kk < kEnd; kk++) {
+                            column[kk] = b[kk][jj];
+                        }
+                        for (ii = i; ii < iEnd; ii++) {
+                            double[] rowA = a[ii];
+                            double sum = c[ii][jj];
+                            for (int kk = k; kk < kEnd; kk++) {
+                                sum += rowA[kk] * column[kk];
+                            }
+                            c[ii][jj] = sum;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    static void multiplyBlocked(DenseMatrix a, DenseMatrix b, DenseMatrix c, int blockSize,
+                                int rowStart, int rowEnd, int colStart, int colEnd) {
+        double[] aData = a.data;
+        double[] bData = b.data;
+        double[] cData = c.data;
+        int inner = b.rows;
+        int aStride = a.rowStride;
+        int bStride = b.rowStride;
+        int cStride = c.rowStride;
+
+        for (int i = rowStart; i < rowEnd; i += blockSize) {
+            int iEnd = Math.min(i + blockSize, rowEnd);
+            for (int k = 0; k < inner; k += blockSize) {
+                int kEnd = Math.min(k + blockSize, inner);
+                for (int j = colStart; j < colEnd; j += blockSize) {
+                    int jEnd = Math.min(j + blockSize, colEnd);
+                    int vectorEnd = j + SPECIES.loopBound(jEnd - j);
+
+                    int ii = i;
+                    for (; ii + ROWS <= iEnd; ii += ROWS) {
+                        int a0 = a.index(ii, 0);
+                        int c0 = c.index(ii, 0);
+
+                        for (int jj = j; jj < vectorEnd; jj += SPECIES.length()) {
+                            DoubleVector acc0 = DoubleVector.fromArray(SPECIES, cData, c0 + jj);
+                            DoubleVector acc1 = DoubleVector.fromArray(SPECIES, cData, c0 + cStride + jj);
+                            DoubleVector acc2 = DoubleVector.fromArray(SPECIES, cData, c0 + 2 * cStride + jj);
+                            DoubleVector acc3 = DoubleVector.fromArray(SPECIES, cData, c0 + 3 * cStride + jj);
+                            int bIndex = b.index(k, jj);
+                            for (int kk = k; kk < kEnd; kk++) {
+                                DoubleVector vb = DoubleVector.fromArray(SPECIES, bData, bIndex);
+                                acc0 = vb.fma(DoubleVector.broadcast(SPECIES, aData[a0 + kk]), acc0);
+                                acc1 = vb.fma(DoubleVector.broadcast(SPECIES, aData[a0 + aStride + kk]), acc1);
+                                acc2 = vb.fma(DoubleVector.broadcast(SPECIES, aData[a0 + 2 * aStride + kk]), acc2);
+                                acc3 = vb.fma(DoubleVector.broadcast(SPECIES, aData[a0 + 3 * aStride + kk]), acc3);
+                                bIndex += bStride;
+                            }
+                            acc0.intoArray(cData, c0 + jj);
+                            acc1.intoArray(cData, c0 + cStride + jj);
+                            acc2.intoArray(cData, c0 + 2 * cStride + jj);
+                            acc3.intoArray(cData, c0 + 3 * cStride + jj);
+                        }
+                    }
+
+                    for (; ii < iEnd; ii++) {
+                        int aRow = a.index(ii, 0);
+                        int cRow = c.index(ii, 0);
+                        for (int jj = j; jj < vectorEnd; jj += SPECIES.length()) {
+                            DoubleVector acc = DoubleVector.fromArray(SPECIES, cData, cRow + jj);
+                            int bIndex = b.index(k, jj);
+                            for (int kk = k; kk < kEnd; kk++) {
+                                DoubleVector vb = DoubleVector.fromArray(SPECIES, bData, bIndex);
+                                acc = vb.fma(DoubleVector.broadcast(SPECIES, aData[aRow + kk]), acc);
+                                bIndex += bStride;
+                            }
+                            acc.intoArray(cData, cRow + jj);
+                        }
+                    }
+
+                    for (int jj = vectorEnd; jj < jEnd; jj++) {
+                        for (ii = i; ii < iEnd; ii++) {
+                            int aRow = a.index(ii, 0);
+                            int cIndex = c.index(ii, jj);
+                            double sum = cData[cIndex];
+                            int bIndex = b.index(k, jj);
+                            for (int kk = k; kk < kEnd; kk++) {
+                                sum += aData[aRow + kk] * bData[bIndex];
+                                bIndex += bStride;
+                            }
+                            cData[cIndex] = sum;
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
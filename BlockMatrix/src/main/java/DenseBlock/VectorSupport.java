@@ -0,0 +1,22 @@
+package DenseBlock;
+
+public class VectorSupport {
+    public static final String DISABLE_PROPERTY = "matrix.vector.disabled";
+
+    private static final boolean AVAILABLE = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+            && !Boolean.getBoolean(DISABLE_PROPERTY);
+
+    private static volatile boolean enabled = AVAILABLE;
+
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean value) {
+        enabled = value && AVAILABLE;
+    }
+}
@@ -0,0 +1,124 @@
+package DenseOutOfCore;
+
+import DenseBlock.DenseMatrix;
+import DenseBlock.PackedMatrixMul;
+import DenseBlock.PackedMatrixMul.BlockSizes;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// C += A * B on tiled matrix files, so none of the three has to fit in memory. C is produced one tile at a time:
+// the tile is read, the row of A tiles and the column of B tiles meeting it are streamed through the packed kernel,
+// and the tile is written back before the next one starts. A single I/O thread copies the next A and B tiles (and
+// the next C tile) out of the mappings while the current pair is multiplied, and writes finished C tiles back, so
+// page faults and copies overlap compute. The heap holds six tiles plus the kernel's packing buffers, whatever the
+// size of the matrices. Each step reads 16 t^2 bytes for 2 t^3 flops, so with the default tile size of 1024 the
+// kernel rather than the disk sets the pace as long as storage delivers a byte per 128 flops.
+public class OutOfCoreMatrixMul {
+
+    public static void multiply(TiledMatrixFile a, TiledMatrixFile b, TiledMatrixFile c) throws IOException {
+        multiply(a, b, c, BlockSizes.detect());
+    }
+
+    public static void multiply(TiledMatrixFile a, TiledMatrixFile b, TiledMatrixFile c, BlockSizes sizes)
+            throws IOException {
+        if (a.getCols() != b.getRows() || c.getRows() != a.getRows() || c.getCols() != b.getCols()) {
+            throw new IllegalArgumentException("Matrix dimensions do not match for multiplication.");
+        }
+        if (a.getTileSize() != b.getTileSize() || a.getTileSize() != c.getTileSize()) {
+            throw new IllegalArgumentException("Tile sizes do not match.");
+        }
+        if (!c.isWritable()) {
+            throw new IllegalArgumentException("The result file must be opened for writing.");
+        }
+        if (a.getRows() == 0 || b.getCols() == 0 || a.getCols() == 0) {
+            return;
+        }
+
+        int tileSize = a.getTileSize();
+        int tileCols = c.getTileCols();
+        int tiles = c.getTileRows() * tileCols;
+        int depthTiles = a.getTileCols();
+        long steps = (long) tiles * depthTiles;
+
+        // Step s multiplies A(i, k) by B(k, j) for C tile s / depthTiles and k = s % depthTiles. Steps and C
+        // tiles alternate between two buffers each: the I/O thread fills one while the other is in use, and, being a
+        // single thread, runs a buffer's write-back before any later read into the same buffer.
+        double[][] aTiles = new double[2][tileSize * tileSize];
+        double[][] bTiles = new double[2][tileSize * tileSize];
+        double[][] cTiles = new double[2][tileSize * tileSize];
+
+        ExecutorService io = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tile-io");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Future<?> operands = io.submit(() -> loadOperands(a, b, tileCols, depthTiles, 0, aTiles[0], bTiles[0]));
+            Future<?> nextC = io.submit(() -> c.readTile(0, 0, cTiles[0]));
+            Future<?> written = null;
+            long step = 0;
+            for (int t = 0; t < tiles; t++) {
+                int tileRow = t / tileCols, tileCol = t % tileCols;
+                double[] cTile = cTiles[t & 1];
+                await(nextC);
+                if (t + 1 < tiles) {
+                    int next = t + 1;
+                    nextC = io.submit(() -> c.readTile(next / tileCols, next % tileCols, cTiles[next & 1]));
+                }
+
+                DenseMatrix cView = new DenseMatrix(cTile, 0, c.tileHeight(tileRow), c.tileWidth(tileCol), tileSize);
+                for (int k = 0; k < depthTiles; k++, step++) {
+                    await(operands);
+                    if (step + 1 < steps) {
+                        long next = step + 1;
+                        int nextBuffer = (int) (next & 1);
+                        operands = io.submit(() -> loadOperands(a, b, tileCols, depthTiles, next,
+                                aTiles[nextBuffer], bTiles[nextBuffer]));
+                    }
+                    int buffer = (int) (step & 1);
+                    DenseMatrix aView = new DenseMatrix(aTiles[buffer], 0, a.tileHeight(tileRow), a.tileWidth(k), tileSize);
+                    DenseMatrix bView = new DenseMatrix(bTiles[buffer], 0, b.tileHeight(k), b.tileWidth(tileCol), tileSize);
+                    PackedMatrixMul.multiply(aView, bView, cView, sizes);
+                }
+
+                written = io.submit(() -> c.writeTile(tileRow, tileCol, cTile));
+            }
+            await(written);
+            c.force();
+        } finally {
+            io.shutdownNow();
+        }
+    }
+
+    private static void loadOperands(TiledMatrixFile a, TiledMatrixFile b, int tileCols, int depthTiles, long step,
+                                     double[] aTile, double[] bTile) {
+        int t = (int) (step / depthTiles);
+        int k = (int) (step % depthTiles);
+        a.readTile(t / tileCols, k, aTile);
+        b.readTile(k, t % tileCols, bTile);
+    }
+
+    private static void await(Future<?> future) throws IOException {
+        try {
+            future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for tile I/O.");
+        }
+    }
+}
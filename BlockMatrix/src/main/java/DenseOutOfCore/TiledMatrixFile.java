@@ -0,0 +1,248 @@
+package DenseOutOfCore;
+
+import DenseBlock.DenseMatrix;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// A dense matrix on disk, cut into tileSize x tileSize tiles. Tiles are stored in row-major tile order, each one
+// row-major with stride tileSize; tiles on the right and bottom edges are padded with zeros to full size, so every
+// tile sits at a fixed offset. Layout:
+//   bytes 0..4095   header: magic, version, rows, cols, tileSize (little-endian)
+//   bytes 4096..    tiles, tileSize * tileSize little-endian doubles each
+// The tile region is mapped once at open as a single segment in a shared Arena, with no per-mapping size limit,
+// and close() unmaps it, so a larger-than-RAM file releases its mapping deterministically instead of at GC.
+public class TiledMatrixFile implements Closeable {
+    public static final int DEFAULT_TILE_SIZE = 1024;
+    static final long MAGIC = 0x54494c45444d4154L; // "TILEDMAT"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 4096;
+    private static final ValueLayout.OfDouble DOUBLE = ValueLayout.JAVA_DOUBLE_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+    private final FileChannel channel;
+    private final int rows, cols, tileSize;
+    private final int tileRows, tileCols;
+    private final long tileBytes;
+    private final boolean writable;
+    private final Arena arena;
+    private final MemorySegment tiles;
+
+    private TiledMatrixFile(FileChannel channel, int rows, int cols, int tileSize, boolean writable) throws IOException {
+        this.channel = channel;
+        this.rows = rows;
+        this.cols = cols;
+        this.tileSize = tileSize;
+        this.writable = writable;
+        this.tileRows = (rows + tileSize - 1) / tileSize;
+        this.tileCols = (cols + tileSize - 1) / tileSize;
+        this.tileBytes = (long) tileSize * tileSize * Double.BYTES;
+
+        long tileCount = (long) tileRows * tileCols;
+        if (channel.size() < HEADER_BYTES + tileCount * tileBytes) {
+            throw new IOException("Tiled matrix file is truncated.");
+        }
+        FileChannel.MapMode mode = writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+        this.arena = Arena.ofShared();
+        try {
+            this.tiles = channel.map(mode, HEADER_BYTES, tileCount * tileBytes, arena);
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    // Creates a zero-filled file; on most file systems it is sparse until tiles are written.
+    public static TiledMatrixFile create(Path path, int rows, int cols) throws IOException {
+        return create(path, rows, cols, DEFAULT_TILE_SIZE);
+    }
+
+    public static TiledMatrixFile create(Path path, int rows, int cols, int tileSize) throws IOException {
+        if (rows < 0 || cols < 0) {
+            throw new IllegalArgumentException("Invalid matrix layout.");
+        }
+        checkTileSize(tileSize);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putLong(MAGIC).putInt(VERSION).putInt(rows).putInt(cols).putInt(tileSize).rewind();
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            long tiles = (long) ((rows + tileSize - 1) / tileSize) * ((cols + tileSize - 1) / tileSize);
+            long size = HEADER_BYTES + tiles * tileSize * tileSize * Double.BYTES;
+            if (size > HEADER_BYTES) {
+                // Extends the file by writing its last byte.
+                channel.write(ByteBuffer.allocate(1), size - 1);
+            }
+            return new TiledMatrixFile(channel, rows, cols, tileSize, true);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public static TiledMatrixFile open(Path path) throws IOException {
+        return open(path, false);
+    }
+
+    public static TiledMatrixFile open(Path path, boolean writable) throws IOException {
+        FileChannel channel = writable
+                ? FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(24).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) {
+                    break;
+                }
+            }
+            header.flip();
+            if (header.remaining() < 24 || header.getLong() != MAGIC) {
+                throw new IOException("Not a tiled matrix file: " + path);
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported tiled matrix file version " + version + ".");
+            }
+            int rows = header.getInt();
+            int cols = header.getInt();
+            int tileSize = header.getInt();
+            if (rows < 0 || cols < 0 || tileSize <= 0) {
+                throw new IOException("Corrupt tiled matrix header in " + path);
+            }
+            checkTileSize(tileSize);
+            return new TiledMatrixFile(channel, rows, cols, tileSize, writable);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public static TiledMatrixFile write(Path path, DenseMatrix matrix, int tileSize) throws IOException {
+        TiledMatrixFile file = create(path, matrix.getRows(), matrix.getCols(), tileSize);
+        try {
+            double[] tile = new double[tileSize * tileSize];
+            for (int tileRow = 0; tileRow < file.tileRows; tileRow++) {
+                for (int tileCol = 0; tileCol < file.tileCols; tileCol++) {
+                    int rowStart = tileRow * tileSize, colStart = tileCol * tileSize;
+                    int height = file.tileHeight(tileRow), width = file.tileWidth(tileCol);
+                    if (height < tileSize || width < tileSize) {
+                        Arrays.fill(tile, 0.0);
+                    }
+                    double[] data = matrix.getData();
+                    for (int r = 0; r < height; r++) {
+                        int from = matrix.getOffset() + (rowStart + r) * matrix.getRowStride() + colStart;
+                        System.arraycopy(data, from, tile, r * tileSize, width);
+                    }
+                    file.writeTile(tileRow, tileCol, tile);
+                }
+            }
+            return file;
+        } catch (RuntimeException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    public DenseMatrix toDenseMatrix() {
+        DenseMatrix matrix = new DenseMatrix(rows, cols);
+        double[] tile = new double[tileSize * tileSize];
+        for (int tileRow = 0; tileRow < tileRows; tileRow++) {
+            for (int tileCol = 0; tileCol < tileCols; tileCol++) {
+                readTile(tileRow, tileCol, tile);
+                int height = tileHeight(tileRow), width = tileWidth(tileCol);
+                for (int r = 0; r < height; r++) {
+                    System.arraycopy(tile, r * tileSize, matrix.getData(),
+                            (tileRow * tileSize + r) * cols + tileCol * tileSize, width);
+                }
+            }
+        }
+        return matrix;
+    }
+
+    // Copies a whole padded tile into tile[0, tileSize * tileSize). Safe to call from several threads.
+    public void readTile(int tileRow, int tileCol, double[] tile) {
+        MemorySegment.copy(tiles, DOUBLE, tileOffset(tileRow, tileCol), tile, 0, tileSize * tileSize);
+    }
+
+    // Writes tile[0, tileSize * tileSize) back to the mapping. Entries of an edge tile beyond the matrix should be
+    // zero; they are stored but never read as matrix entries.
+    public void writeTile(int tileRow, int tileCol, double[] tile) {
+        MemorySegment.copy(tile, 0, tiles, DOUBLE, tileOffset(tileRow, tileCol), tileSize * tileSize);
+    }
+
+    // Flushes written tiles to the storage device.
+    public void force() {
+        if (writable) {
+            tiles.force();
+        }
+    }
+
+    public boolean isWritable() {
+        return writable;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    public int getTileRows() {
+        return tileRows;
+    }
+
+    public int getTileCols() {
+        return tileCols;
+    }
+
+    // Rows of the matrix that fall in tile row `tileRow`; less than tileSize only on the bottom edge.
+    public int tileHeight(int tileRow) {
+        return Math.min(tileSize, rows - tileRow * tileSize);
+    }
+
+    public int tileWidth(int tileCol) {
+        return Math.min(tileSize, cols - tileCol * tileSize);
+    }
+
+    // Unmaps the tiles; no tile may be read or written concurrently with or after close.
+    @Override
+    public void close() throws IOException {
+        try {
+            arena.close();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private long tileOffset(int tileRow, int tileCol) {
+        if (tileRow < 0 || tileRow >= tileRows || tileCol < 0 || tileCol >= tileCols) {
+            throw new IllegalArgumentException("Tile (" + tileRow + ", " + tileCol + ") is outside the matrix.");
+        }
+        return ((long) tileRow * tileCols + tileCol) * tileBytes;
+    }
+
+    // A tile is read into and written from a double[], so it must fit in one array. The largest valid tileSize is
+    // 46340.
+    private static void checkTileSize(int tileSize) {
+        if (tileSize <= 0 || (long) tileSize * tileSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Tile size must be positive and a tile must fit in one double[].");
+        }
+    }
+}
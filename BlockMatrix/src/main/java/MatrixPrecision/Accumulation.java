@@ -0,0 +1,48 @@
+package MatrixPrecision;
+
+// How the float kernels sum products. Operands are always stored as float and every result is rounded to float
+// once; only the running sums differ.
+//
+// errorCoefficient(n) is the e in |computed - exact| <= e * sum_k |a_k b_k| for one entry of a product that sums n
+// terms, e.g. (|A| |B|)_ij or (|A| |x|)_i. "exact" is the product of the stored float values; for operands
+// rounded from double, add INPUT_ROUNDING to the coefficient. Bounds follow Higham, Accuracy and Stability of
+// Numerical Algorithms, ch. 3-4; the KAHAN one is a first-order estimate, see errorCoefficient.
+public enum Accumulation {
+    // Float sums: half the register and cache footprint, but the error grows linearly with n.
+    FLOAT,
+    // Float products widened to double are exact, so only the double sums and the final rounding to float count.
+    DOUBLE,
+    // Float sums with Kahan compensation: the error no longer grows with n, at four flops per term instead of one.
+    KAHAN;
+
+    public static final double FLOAT_UNIT_ROUNDOFF = 0x1p-24;
+    public static final double DOUBLE_UNIT_ROUNDOFF = 0x1p-53;
+    // Relative error of a product whose two factors were each rounded from double to float: (1 + u)^2 - 1.
+    public static final double INPUT_ROUNDING = 2 * FLOAT_UNIT_ROUNDOFF + FLOAT_UNIT_ROUNDOFF * FLOAT_UNIT_ROUNDOFF;
+
+    public double errorCoefficient(long terms) {
+        if (terms <= 0) {
+            return 0.0;
+        }
+        double u = FLOAT_UNIT_ROUNDOFF;
+        switch (this) {
+            case FLOAT:
+                return gamma(terms, u);
+            case DOUBLE:
+                return u + gamma(terms, DOUBLE_UNIT_ROUNDOFF) * (1 + u);
+            case KAHAN:
+                // u for rounding each product, then Kahan's 2u + O(n u^2) (Higham (4.8)). Higham gives no explicit
+                // constant for the second-order term, so taking it as n u^2 makes this a first-order estimate, not a
+                // proven bound; what it leaves out only matters once n u is no longer small.
+                return 3 * u + terms * u * u;
+            default:
+                throw new IllegalStateException("Unknown accumulation: " + this);
+        }
+    }
+
+    // gamma_n = n u / (1 - n u); there is no bound once n u reaches 1.
+    static double gamma(long terms, double unitRoundoff) {
+        double nu = terms * unitRoundoff;
+        return nu < 1 ? nu / (1 - nu) : Double.POSITIVE_INFINITY;
+    }
+}
@@ -1,54 +1,51 @@
 package testBenchmark;
 
+import DenseBlock.BlockMatrixMul;
+import DenseBlock.VectorSupport;
 import org.openjdk.jmh.annotations.*;
 
+import java.util.Arrays;
 import java.util.Random;
 import java.util.concurrent.TimeUnit;
 
 @BenchmarkMode(Mode.AverageTime)
 @OutputTimeUnit(TimeUnit.MILLISECONDS)
 @State(Scope.Thread)
-@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.MILLISECONDS)
-@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.MILLISECONDS)
-@Fork(1)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
 public class BlockMultiplicationMatrixBenchmark {
     @Param({"10", "100", "1024"})
     int n;
-    static double[][] a;
-    static double[][] b;
-    static double[][] c;
+    @Param({"scalar", "vector"})
+    String simd;
+    private double[][] a;
+    private double[][] b;
+    private double[][] c;
 
     @Setup(Level.Trial)
     public void setup() {
+        VectorSupport.setEnabled(simd.equals("vector"));
         a = new double[n][n];
         b = new double[n][n];
         c = new double[n][n];
 
-        Random random = new Random();
+        Random random = new Random(42);
         for (int i = 0; i < n; i++) {
             for (int j = 0; j < n; j++) {
                 a[i][j] = random.nextDouble();
                 b[i][j] = random.nextDouble();
-                c[i][j] = 0;
             }
         }
     }
 
+    // The kernel accumulates into c, so it is cleared first; O(n^2) against the O(n^3) product.
     @Benchmark
-    public void testBlockMultiplication() {
-        int blockSize = 32;
-        for (int i = 0; i < n; i += blockSize) {
-            for (int j = 0; j < n; j += blockSize) {
-                for (int k = 0; k < n; k += blockSize) {
-                    for (int ii = i; ii < Math.min(i + blockSize, n); ii++) {
-                        for (int jj = j; jj < Math.min(j + blockSize, n); jj++) {
-                            for (int kk = k; kk < Math.min(k + blockSize, n); kk++) {
-                                c[ii][jj] += a[ii][kk] * b[kk][jj];
-                            }
-                        }
-                    }
-                }
-            }
+    public double[][] testBlockMultiplication() {
+        for (double[] row : c) {
+            Arrays.fill(row, 0);
         }
+        BlockMatrixMul.multiplyBlocked(a, b, c);
+        return c;
     }
 }
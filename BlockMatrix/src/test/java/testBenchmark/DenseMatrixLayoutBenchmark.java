@@ -0,0 +1,91 @@
+package testBenchmark;
+
+import DenseBlock.BlockMatrixMul;
+import DenseBlock.DenseMatrix;
+import DenseBlock.PackedMatrixMul;
+import DenseBlock.RecursiveMatrixMul;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 2, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class DenseMatrixLayoutBenchmark {
+    @Param({"1024", "2048", "4096"})
+    int n;
+
+    double[][] a;
+    double[][] b;
+    double[][] c;
+
+    DenseMatrix flatA;
+    DenseMatrix flatB;
+    DenseMatrix flatC;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        a = new double[n][n];
+        b = new double[n][n];
+        c = new double[n][n];
+
+        Random random = new Random(42);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                a[i][j] = random.nextDouble();
+                b[i][j] = random.nextDouble();
+            }
+        }
+
+        flatA = DenseMatrix.fromArray(a);
+        flatB = DenseMatrix.fromArray(b);
+        flatC = new DenseMatrix(n, n);
+    }
+
+    @Benchmark
+    public double[][] blockedArray() {
+        clear(c);
+        BlockMatrixMul.multiplyBlocked(a, b, c);
+        return c;
+    }
+
+    @Benchmark
+    public DenseMatrix blockedFlat() {
+        flatC.fill(0);
+        BlockMatrixMul.multiplyBlocked(flatA, flatB, flatC);
+        return flatC;
+    }
+
+    @Benchmark
+    public DenseMatrix packedFlat() {
+        flatC.fill(0);
+        PackedMatrixMul.multiply(flatA, flatB, flatC);
+        return flatC;
+    }
+
+    @Benchmark
+    public DenseMatrix recursiveFlat() {
+        flatC.fill(0);
+        RecursiveMatrixMul.multiply(flatA, flatB, flatC, RecursiveMatrixMul.Settings.cacheOblivious());
+        return flatC;
+    }
+
+    @Benchmark
+    public DenseMatrix strassenFlat() {
+        flatC.fill(0);
+        RecursiveMatrixMul.multiply(flatA, flatB, flatC, RecursiveMatrixMul.Settings.strassen());
+        return flatC;
+    }
+
+    // The kernels accumulate into C; clearing it is O(n^2) against the O(n^3) product.
+    private static void clear(double[][] matrix) {
+        for (double[] row : matrix) {
+            Arrays.fill(row, 0);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package testBenchmark;
+
+import DenseBlock.DenseMatrix;
+import DenseBlock.FloatDenseMatrix;
+import DenseBlock.FloatMatrixMul;
+import DenseBlock.PackedMatrixMul;
+import MatrixPrecision.Accumulation;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// The packed double kernel against the float panel kernel in each accumulation mode, on the same inputs. The
+// float operands are half the bytes; the tear-down prints each mode's largest error against the double product
+// next to the bound FloatMatrixMul.errorBound reports for it.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 2, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class FloatMatrixBenchmark {
+    @Param({"1024"})
+    int n;
+
+    DenseMatrix a;
+    DenseMatrix b;
+    DenseMatrix c;
+
+    FloatDenseMatrix floatA;
+    FloatDenseMatrix floatB;
+    FloatDenseMatrix floatC;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+        a = new DenseMatrix(n, n);
+        b = new DenseMatrix(n, n);
+        c = new DenseMatrix(n, n);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                a.set(i, j, random.nextDouble());
+                b.set(i, j, random.nextDouble());
+            }
+        }
+        floatA = FloatDenseMatrix.fromDouble(a);
+        floatB = FloatDenseMatrix.fromDouble(b);
+        floatC = new FloatDenseMatrix(n, n);
+    }
+
+    @TearDown(Level.Trial)
+    public void reportAccuracy() {
+        DenseMatrix reference = new DenseMatrix(n, n);
+        PackedMatrixMul.multiply(floatA.toDouble(), floatB.toDouble(), reference);
+        for (Accumulation accumulation : Accumulation.values()) {
+            FloatDenseMatrix result = new FloatDenseMatrix(n, n);
+            FloatMatrixMul.multiply(floatA, floatB, result, accumulation);
+            double error = 0.0;
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    error = Math.max(error, Math.abs(result.get(i, j) - reference.get(i, j)));
+                }
+            }
+            System.out.printf("%n%s: max error %.3e, bound %.3e%n", accumulation, error,
+                    FloatMatrixMul.errorBound(floatA, floatB, accumulation));
+        }
+    }
+
+    @Benchmark
+    public DenseMatrix packedDouble() {
+        c.fill(0);
+        PackedMatrixMul.multiply(a, b, c);
+        return c;
+    }
+
+    @Benchmark
+    public FloatDenseMatrix floatAccumulation() {
+        floatC.fill(0);
+        FloatMatrixMul.multiply(floatA, floatB, floatC, Accumulation.FLOAT);
+        return floatC;
+    }
+
+    @Benchmark
+    public FloatDenseMatrix doubleAccumulation() {
+        floatC.fill(0);
+        FloatMatrixMul.multiply(floatA, floatB, floatC, Accumulation.DOUBLE);
+        return floatC;
+    }
+
+    @Benchmark
+    public FloatDenseMatrix kahanAccumulation() {
+        floatC.fill(0);
+        FloatMatrixMul.multiply(floatA, floatB, floatC, Accumulation.KAHAN);
+        return floatC;
+    }
+}
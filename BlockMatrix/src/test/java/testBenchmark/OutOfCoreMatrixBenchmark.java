@@ -0,0 +1,82 @@
+package testBenchmark;
+
+import DenseBlock.DenseMatrix;
+import DenseBlock.PackedMatrixMul;
+import DenseOutOfCore.OutOfCoreMatrixMul;
+import DenseOutOfCore.TiledMatrixFile;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// The packed kernel on heap matrices against the same kernel streaming tiles from mapped files. The files are
+// written in setup, so they sit in the page cache: this measures the cost of tiling, copying and prefetching, not
+// the disk. The result file is not cleared between invocations; it only accumulates.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 2, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class OutOfCoreMatrixBenchmark {
+    @Param({"2048"})
+    int n;
+
+    @Param({"256", "1024"})
+    int tileSize;
+
+    DenseMatrix a;
+    DenseMatrix b;
+    DenseMatrix c;
+
+    Path directory;
+    TiledMatrixFile fileA;
+    TiledMatrixFile fileB;
+    TiledMatrixFile fileC;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        Random random = new Random(42);
+        a = new DenseMatrix(n, n);
+        b = new DenseMatrix(n, n);
+        c = new DenseMatrix(n, n);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                a.set(i, j, random.nextDouble());
+                b.set(i, j, random.nextDouble());
+            }
+        }
+
+        directory = Files.createTempDirectory("out-of-core");
+        fileA = TiledMatrixFile.write(directory.resolve("a.tiles"), a, tileSize);
+        fileB = TiledMatrixFile.write(directory.resolve("b.tiles"), b, tileSize);
+        fileC = TiledMatrixFile.create(directory.resolve("c.tiles"), n, n, tileSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        fileA.close();
+        fileB.close();
+        fileC.close();
+        Files.deleteIfExists(directory.resolve("a.tiles"));
+        Files.deleteIfExists(directory.resolve("b.tiles"));
+        Files.deleteIfExists(directory.resolve("c.tiles"));
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public DenseMatrix inMemory() {
+        c.fill(0);
+        PackedMatrixMul.multiply(a, b, c);
+        return c;
+    }
+
+    @Benchmark
+    public TiledMatrixFile outOfCore() throws IOException {
+        OutOfCoreMatrixMul.multiply(fileA, fileB, fileC);
+        return fileC;
+    }
+}
@@ -0,0 +1,155 @@
+package BenchmarkChecks;
+
+import SparseRowCSR.SparseMatrixCSRMul.CSRMatrix;
+
+import java.util.Random;
+
+// Verifies a kernel's output before it is timed, so a fast but wrong kernel fails the run instead of winning it.
+// Products are checked with Freivalds' test: C x must equal A (B x) for random x. That is O(n^2) for dense and
+// O(nnz) for sparse, cheap enough to run on every benchmark input, and a wrong entry survives a random x with
+// negligible probability. The tolerance scales with |A| (|B| |x|), the rounding bound of the product.
+public class ProductCheck {
+    private static final int TRIALS = 2;
+    private static final double TOLERANCE = 1e-9;
+
+    public static void verifyProduct(CSRMatrix a, CSRMatrix b, CSRMatrix c) {
+        if (c.getRows() != a.getRows() || c.getCols() != b.getCols()) {
+            throw mismatch("product is " + c.getRows() + "x" + c.getCols() + ", expected "
+                    + a.getRows() + "x" + b.getCols());
+        }
+        verifyStructure(c);
+        Random random = new Random(c.getRows() * 31L + c.getCols());
+        for (int t = 0; t < TRIALS; t++) {
+            double[] x = randomVector(b.getCols(), random);
+            double[] expected = multiply(a, multiply(b, x));
+            double[] bound = multiplyAbs(a, multiplyAbs(b, abs(x)));
+            compare(multiply(c, x), expected, bound);
+        }
+    }
+
+    public static void verifyProduct(double[][] a, double[][] b, double[][] c) {
+        int cols = b.length == 0 ? 0 : b[0].length;
+        if (c.length != a.length || (c.length > 0 && c[0].length != cols)) {
+            throw mismatch("product has the wrong shape");
+        }
+        Random random = new Random(c.length * 31L + cols);
+        for (int t = 0; t < TRIALS; t++) {
+            double[] x = randomVector(cols, random);
+            double[] expected = multiply(a, multiply(b, x));
+            double[] bound = multiplyAbs(a, multiplyAbs(b, abs(x)));
+            compare(multiply(c, x), expected, bound);
+        }
+    }
+
+    public static void verifyProduct(CSRMatrix a, double[] x, double[] y) {
+        if (y.length != a.getRows()) {
+            throw mismatch("result has length " + y.length + ", expected " + a.getRows());
+        }
+        compare(y, multiply(a, x), multiplyAbs(a, abs(x)));
+    }
+
+    // Row pointers must be monotone and columns strictly increasing within each row; kernels downstream rely on
+    // sorted rows.
+    public static void verifyStructure(CSRMatrix c) {
+        int[] rowPointers = c.getRowPointers();
+        int[] columnIndices = c.getColumnIndices();
+        if (rowPointers[0] != 0 || rowPointers[c.getRows()] > columnIndices.length
+                || columnIndices.length != c.getValues().length) {
+            throw mismatch("inconsistent CSR arrays");
+        }
+        for (int i = 0; i < c.getRows(); i++) {
+            if (rowPointers[i + 1] < rowPointers[i]) {
+                throw mismatch("row pointers decrease at row " + i);
+            }
+            for (int p = rowPointers[i]; p < rowPointers[i + 1]; p++) {
+                int column = columnIndices[p];
+                if (column < 0 || column >= c.getCols() || (p > rowPointers[i] && column <= columnIndices[p - 1])) {
+                    throw mismatch("row " + i + " has unsorted or out-of-range columns");
+                }
+            }
+        }
+    }
+
+    private static void compare(double[] actual, double[] expected, double[] bound) {
+        for (int i = 0; i < expected.length; i++) {
+            double allowed = TOLERANCE * bound[i] + Double.MIN_NORMAL;
+            if (!(Math.abs(actual[i] - expected[i]) <= allowed)) {
+                throw mismatch("row " + i + " gives " + actual[i] + ", expected " + expected[i]);
+            }
+        }
+    }
+
+    private static IllegalStateException mismatch(String detail) {
+        return new IllegalStateException("Result check failed: " + detail + ".");
+    }
+
+    private static double[] multiply(CSRMatrix a, double[] x) {
+        int[] rowPointers = a.getRowPointers();
+        int[] columnIndices = a.getColumnIndices();
+        double[] values = a.getValues();
+        double[] y = new double[a.getRows()];
+        for (int i = 0; i < y.length; i++) {
+            double sum = 0;
+            for (int p = rowPointers[i]; p < rowPointers[i + 1]; p++) {
+                sum += values[p] * x[columnIndices[p]];
+            }
+            y[i] = sum;
+        }
+        return y;
+    }
+
+    private static double[] multiplyAbs(CSRMatrix a, double[] x) {
+        int[] rowPointers = a.getRowPointers();
+        int[] columnIndices = a.getColumnIndices();
+        double[] values = a.getValues();
+        double[] y = new double[a.getRows()];
+        for (int i = 0; i < y.length; i++) {
+            double sum = 0;
+            for (int p = rowPointers[i]; p < rowPointers[i + 1]; p++) {
+                sum += Math.abs(values[p]) * x[columnIndices[p]];
+            }
+            y[i] = sum;
+        }
+        return y;
+    }
+
+    private static double[] multiply(double[][] a, double[] x) {
+        double[] y = new double[a.length];
+        for (int i = 0; i < a.length; i++) {
+            double sum = 0;
+            for (int j = 0; j < x.length; j++) {
+                sum += a[i][j] * x[j];
+            }
+            y[i] = sum;
+        }
+        return y;
+    }
+
+    private static double[] multiplyAbs(double[][] a, double[] x) {
+        double[] y = new double[a.length];
+        for (int i = 0; i < a.length; i++) {
+            double sum = 0;
+            for (int j = 0; j < x.length; j++) {
+                sum += Math.abs(a[i][j]) * x[j];
+            }
+            y[i] = sum;
+        }
+        return y;
+    }
+
+    private static double[] abs(double[] x) {
+        double[] y = new double[x.length];
+        for (int i = 0; i < x.length; i++) {
+            y[i] = Math.abs(x[i]);
+        }
+        return y;
+    }
+
+    private static double[] randomVector(int length, Random random) {
+        double[] x = new double[length];
+        for (int i = 0; i < length; i++) {
+            x[i] = random.nextDouble() * 2 - 1;
+        }
+        return x;
+    }
+}
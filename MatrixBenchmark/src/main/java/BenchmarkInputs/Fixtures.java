@@ -0,0 +1,53 @@
+package BenchmarkInputs;
+
+import SparseIO.MatrixMarketReader;
+import SparseRowCSR.SparseMatrixCSRMul.CSRMatrix;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+// Matrix Market fixtures, e.g. SuiteSparse downloads. A name resolves, in order, to
+//   1. an existing file path,
+//   2. a file in the directory given by -Dmatrix.fixtures=<dir>,
+//   3. a fixture bundled under /fixtures on the classpath.
+// Real SuiteSparse matrices are too large to ship with the repo; point matrix.fixtures at a download and pass
+// -p fixture=bcsstk17.mtx,cant.mtx,... to benchmark them.
+public class Fixtures {
+    public static final String DIRECTORY_PROPERTY = "matrix.fixtures";
+
+    public static CSRMatrix load(String name) {
+        try {
+            return MatrixMarketReader.readCSR(resolve(name));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read fixture " + name, e);
+        }
+    }
+
+    static Path resolve(String name) throws IOException {
+        Path direct = Path.of(name);
+        if (Files.isRegularFile(direct)) {
+            return direct;
+        }
+        String directory = System.getProperty(DIRECTORY_PROPERTY);
+        if (directory != null) {
+            Path candidate = Path.of(directory, name);
+            if (Files.isRegularFile(candidate)) {
+                return candidate;
+            }
+        }
+        // The reader maps files into memory, so a bundled fixture is copied out of the jar first.
+        try (InputStream bundled = Fixtures.class.getResourceAsStream("/fixtures/" + name)) {
+            if (bundled == null) {
+                throw new IOException("Fixture not found: " + name);
+            }
+            Path copy = Files.createTempFile("fixture-", "-" + Path.of(name).getFileName());
+            copy.toFile().deleteOnExit();
+            Files.copy(bundled, copy, StandardCopyOption.REPLACE_EXISTING);
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package BenchmarkInputs;
+
+import SparseRowCSR.SparseMatrixCSRMul.CSRMatrix;
+
+import java.util.Arrays;
+import java.util.Random;
+
+// Seeded generators, so every run and every version benchmarks exactly the same matrices. Rows are built
+// directly in CSR with sorted columns; nothing goes through a dense n x n array.
+public class MatrixGenerator {
+
+    public enum Structure {
+        UNIFORM,
+        POWER_LAW,
+        BANDED
+    }
+
+    private static final double POWER_LAW_EXPONENT = 2.1;
+
+    // n x n with about `degree` non-zeros per row on average, in the given structure.
+    public static CSRMatrix sparse(Structure structure, int n, int degree, long seed) {
+        switch (structure) {
+            case UNIFORM:
+                return uniform(n, n, Math.min(1.0, (double) degree / n), seed);
+            case POWER_LAW:
+                return powerLaw(n, degree, POWER_LAW_EXPONENT, seed);
+            case BANDED:
+                return banded(n, degree, 0.5, seed);
+            default:
+                throw new IllegalArgumentException("Unknown structure: " + structure);
+        }
+    }
+
+    // Every entry is non-zero with probability `density`. Gaps between non-zeros are drawn geometrically, so the
+    // cost is O(nnz) rather than O(rows * cols).
+    public static CSRMatrix uniform(int rows, int cols, double density, long seed) {
+        if (density < 0 || density > 1) {
+            throw new IllegalArgumentException("Density must be in [0, 1].");
+        }
+        Random random = new Random(seed);
+        Builder builder = new Builder(rows, cols, (long) Math.ceil(rows * (double) cols * density * 1.1) + 16);
+        double logSkip = density < 1 ? Math.log(1 - density) : 0;
+        for (int i = 0; i < rows; i++) {
+            if (density > 0) {
+                int j = density < 1 ? skip(random, logSkip) : 0;
+                while (j < cols) {
+                    builder.add(j, value(random));
+                    j += 1 + (density < 1 ? skip(random, logSkip) : 0);
+                }
+            }
+            builder.endRow();
+        }
+        return builder.build();
+    }
+
+    // Chung-Lu style graph: row and column weights follow a power law with the given exponent, so a few hub rows
+    // and hub columns hold a large share of the non-zeros. Hubs are scattered by a seeded permutation instead of
+    // sitting at the top, the way real graphs arrive.
+    public static CSRMatrix powerLaw(int n, double averageDegree, double exponent, long seed) {
+        if (exponent <= 1) {
+            throw new IllegalArgumentException("Power-law exponent must be greater than 1.");
+        }
+        Random random = new Random(seed);
+        double alpha = 1.0 / (exponent - 1);
+        double[] weights = new double[n];
+        double total = 0;
+        for (int i = 0; i < n; i++) {
+            weights[i] = Math.pow(i + 1, -alpha);
+            total += weights[i];
+        }
+        int[] permutation = permutation(n, random);
+        double[] cumulative = new double[n];
+        double running = 0;
+        for (int i = 0; i < n; i++) {
+            running += weights[permutation[i]];
+            cumulative[i] = running / total;
+        }
+
+        Builder builder = new Builder(n, n, (long) (n * averageDegree * 1.1) + 16);
+        int[] stamp = new int[n];
+        int[] row = new int[n];
+        for (int i = 0; i < n; i++) {
+            double expected = averageDegree * n * weights[permutation[i]] / total;
+            int degree = (int) Math.min(n, Math.max(1, Math.round(expected)));
+            int count = 0;
+            // Collisions get frequent only for the largest hubs; the attempt cap keeps those rows bounded.
+            for (int attempt = 0; count < degree && attempt < 4 * degree + 16; attempt++) {
+                int j = Arrays.binarySearch(cumulative, random.nextDouble());
+                j = Math.min(n - 1, j < 0 ? -j - 1 : j);
+                if (stamp[j] != i + 1) {
+                    stamp[j] = i + 1;
+                    row[count++] = j;
+                }
+            }
+            Arrays.sort(row, 0, count);
+            for (int e = 0; e < count; e++) {
+                builder.add(row[e], value(random));
+            }
+            builder.endRow();
+        }
+        return builder.build();
+    }
+
+    // Entries within `bandwidth` of the diagonal, each present with probability `density`; the diagonal is
+    // always present, as in the discretised operators this stands in for.
+    public static CSRMatrix banded(int n, int bandwidth, double density, long seed) {
+        Random random = new Random(seed);
+        Builder builder = new Builder(n, n, (long) n * (2L * bandwidth + 1));
+        for (int i = 0; i < n; i++) {
+            int from = Math.max(0, i - bandwidth), to = Math.min(n - 1, i + bandwidth);
+            for (int j = from; j <= to; j++) {
+                if (j == i || random.nextDouble() < density) {
+                    builder.add(j, value(random));
+                }
+            }
+            builder.endRow();
+        }
+        return builder.build();
+    }
+
+    public static double[][] dense(int rows, int cols, long seed) {
+        Random random = new Random(seed);
+        double[][] matrix = new double[rows][cols];
+        for (double[] row : matrix) {
+            for (int j = 0; j < cols; j++) {
+                row[j] = value(random);
+            }
+        }
+        return matrix;
+    }
+
+    public static double[] vector(int length, long seed) {
+        Random random = new Random(seed);
+        double[] x = new double[length];
+        for (int i = 0; i < length; i++) {
+            x[i] = value(random);
+        }
+        return x;
+    }
+
+    private static double value(Random random) {
+        return random.nextDouble() * 2 - 1;
+    }
+
+    private static int skip(Random random, double logSkip) {
+        double gap = Math.floor(Math.log(1 - random.nextDouble()) / logSkip);
+        return gap >= Integer.MAX_VALUE ? Integer.MAX_VALUE - 1 : (int) gap;
+    }
+
+    private static int[] permutation(int n, Random random) {
+        int[] permutation = new int[n];
+        for (int i = 0; i < n; i++) {
+            permutation[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = permutation[i];
+            permutation[i] = permutation[j];
+            permutation[j] = t;
+        }
+        return permutation;
+    }
+
+    private static class Builder {
+        private final int rows, cols;
+        private final int[] rowPointers;
+        private int[] columnIndices;
+        private double[] values;
+        private int row, nonZeros;
+
+        Builder(int rows, int cols, long capacity) {
+            this.rows = rows;
+            this.cols = cols;
+            this.rowPointers = new int[rows + 1];
+            int initial = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(16, capacity));
+            this.columnIndices = new int[initial];
+            this.values = new double[initial];
+        }
+
+        void add(int column, double value) {
+            if (nonZeros == columnIndices.length) {
+                int grown = (int) Math.min(Integer.MAX_VALUE - 8, (long) nonZeros * 2);
+                columnIndices = Arrays.copyOf(columnIndices, grown);
+                values = Arrays.copyOf(values, grown);
+            }
+            columnIndices[nonZeros] = column;
+            values[nonZeros++] = value;
+        }
+
+        void endRow() {
+            rowPointers[++row] = nonZeros;
+        }
+
+        CSRMatrix build() {
+            return new CSRMatrix(Arrays.copyOf(values, nonZeros), Arrays.copyOf(columnIndices, nonZeros),
+                    rowPointers, rows, cols);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package BenchmarkRegression;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// One row of a JMH JSON result file: the primary score with its error bar, plus the allocation per operation
+// when the run used the gc profiler.
+public class BenchmarkResult {
+    static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+    private final String key;
+    private final String mode;
+    private final double score;
+    private final double error;
+    private final String unit;
+    private final double allocatedBytes;
+
+    BenchmarkResult(String key, String mode, double score, double error, String unit, double allocatedBytes) {
+        this.key = key;
+        this.mode = mode;
+        this.score = score;
+        this.error = error;
+        this.unit = unit;
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    public static List<BenchmarkResult> read(Path path) throws IOException {
+        Object parsed = JsonReader.parse(Files.readString(path));
+        if (!(parsed instanceof List)) {
+            throw new IllegalArgumentException(path + " is not a JMH JSON result file.");
+        }
+        List<BenchmarkResult> results = new ArrayList<>();
+        for (Object entry : (List<?>) parsed) {
+            Map<?, ?> run = (Map<?, ?>) entry;
+            Map<?, ?> primary = (Map<?, ?>) run.get("primaryMetric");
+            Map<?, ?> secondary = (Map<?, ?>) run.get("secondaryMetrics");
+            double allocated = Double.NaN;
+            if (secondary != null) {
+                for (Map.Entry<?, ?> metric : secondary.entrySet()) {
+                    // Older JMH versions prefix profiler metrics with a middle dot.
+                    if (String.valueOf(metric.getKey()).replace("\u00b7", "").equals(ALLOCATION_METRIC)) {
+                        allocated = number(((Map<?, ?>) metric.getValue()).get("score"));
+                    }
+                }
+            }
+            results.add(new BenchmarkResult(key(run), (String) run.get("mode"), number(primary.get("score")),
+                    number(primary.get("scoreError")), (String) primary.get("scoreUnit"), allocated));
+        }
+        return results;
+    }
+
+    // Benchmark name plus its parameters in a fixed order, so the same configuration matches across files.
+    private static String key(Map<?, ?> run) {
+        StringBuilder key = new StringBuilder((String) run.get("benchmark"));
+        Object params = run.get("params");
+        if (params instanceof Map) {
+            String separator = ":";
+            for (Map.Entry<?, ?> param : new TreeMap<>((Map<?, ?>) params).entrySet()) {
+                key.append(separator).append(param.getKey()).append('=').append(param.getValue());
+                separator = ",";
+            }
+        }
+        return key.toString();
+    }
+
+    private static double number(Object value) {
+        if (value instanceof Double) {
+            return (Double) value;
+        }
+        if (value instanceof String) {
+            try {
+                return Double.parseDouble((String) value);
+            } catch (NumberFormatException e) {
+                return Double.NaN;
+            }
+        }
+        return Double.NaN;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public double getError() {
+        return error;
+    }
+
+    public String getUnit() {
+        return unit;
+    }
+
+    public double getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    // Throughput scores go up when things get faster; every other JMH mode reports time per operation.
+    public boolean isHigherBetter() {
+        return "thrpt".equals(mode);
+    }
+}
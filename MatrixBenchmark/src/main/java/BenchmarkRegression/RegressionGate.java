@@ -0,0 +1,109 @@
+package BenchmarkRegression;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Diffs two JMH JSON result files and fails on regressions. A benchmark regresses when its score is worse by
+// more than the threshold *and* the two error intervals do not overlap, so run-to-run noise on a short run does
+// not fail the gate. Allocation per operation is compared on the threshold alone, since it barely varies.
+//   java BenchmarkRegression.RegressionGate baseline.json current.json [threshold, default 0.10]
+// Exits with status 1 when anything regressed.
+public class RegressionGate {
+    public static final double DEFAULT_THRESHOLD = 0.10;
+
+    // Small absolute slack so a benchmark allocating a few bytes per op cannot fail on rounding.
+    private static final double ALLOCATION_SLACK_BYTES = 1024;
+
+    private final double threshold;
+
+    public RegressionGate(double threshold) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("Threshold must be non-negative.");
+        }
+        this.threshold = threshold;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: RegressionGate <baseline.json> <current.json> [threshold]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD;
+        List<String> regressions = new RegressionGate(threshold)
+                .compare(BenchmarkResult.read(Path.of(args[0])), BenchmarkResult.read(Path.of(args[1])), System.out);
+        if (!regressions.isEmpty()) {
+            System.out.println(regressions.size() + " regression(s) beyond " + percent(threshold) + ".");
+            System.exit(1);
+        }
+        System.out.println("No regressions beyond " + percent(threshold) + ".");
+    }
+
+    // Prints one line per benchmark and returns the regressions.
+    public List<String> compare(List<BenchmarkResult> baseline, List<BenchmarkResult> current, Appendable out)
+            throws IOException {
+        Map<String, BenchmarkResult> before = new LinkedHashMap<>();
+        for (BenchmarkResult result : baseline) {
+            before.put(result.getKey(), result);
+        }
+        List<String> regressions = new ArrayList<>();
+        for (BenchmarkResult now : current) {
+            BenchmarkResult then = before.remove(now.getKey());
+            if (then == null) {
+                out.append(String.format(Locale.ROOT, "  new       %s %.3f %s%n", now.getKey(), now.getScore(), now.getUnit()));
+                continue;
+            }
+            double change = relativeChange(then, now);
+            boolean slower = change > threshold && !overlaps(then, now);
+            boolean allocates = allocationRegressed(then, now);
+            String status = slower || allocates ? "REGRESSED" : change < -threshold && !overlaps(then, now) ? "improved" : "ok";
+            out.append(String.format(Locale.ROOT, "  %-9s %s %.3f -> %.3f %s (%+.1f%%)%s%n", status, now.getKey(),
+                    then.getScore(), now.getScore(), now.getUnit(), change * 100, allocationNote(then, now)));
+            if (slower) {
+                regressions.add(now.getKey() + " time " + String.format(Locale.ROOT, "%+.1f%%", change * 100));
+            }
+            if (allocates) {
+                regressions.add(now.getKey() + " allocation " + String.format(Locale.ROOT, "%.0f -> %.0f B/op",
+                        then.getAllocatedBytes(), now.getAllocatedBytes()));
+            }
+        }
+        for (BenchmarkResult missing : before.values()) {
+            out.append(String.format(Locale.ROOT, "  missing   %s%n", missing.getKey()));
+        }
+        return regressions;
+    }
+
+    // Positive means worse, whichever direction the mode counts in.
+    private static double relativeChange(BenchmarkResult then, BenchmarkResult now) {
+        double change = (now.getScore() - then.getScore()) / then.getScore();
+        return now.isHigherBetter() ? -change : change;
+    }
+
+    private static boolean overlaps(BenchmarkResult then, BenchmarkResult now) {
+        double thenError = Double.isNaN(then.getError()) ? 0 : then.getError();
+        double nowError = Double.isNaN(now.getError()) ? 0 : now.getError();
+        return Math.abs(now.getScore() - then.getScore()) <= thenError + nowError;
+    }
+
+    private boolean allocationRegressed(BenchmarkResult then, BenchmarkResult now) {
+        if (Double.isNaN(then.getAllocatedBytes()) || Double.isNaN(now.getAllocatedBytes())) {
+            return false;
+        }
+        return now.getAllocatedBytes() > then.getAllocatedBytes() * (1 + threshold) + ALLOCATION_SLACK_BYTES;
+    }
+
+    private static String allocationNote(BenchmarkResult then, BenchmarkResult now) {
+        if (Double.isNaN(then.getAllocatedBytes()) || Double.isNaN(now.getAllocatedBytes())) {
+            return "";
+        }
+        return String.format(Locale.ROOT, ", alloc %.0f -> %.0f B/op", then.getAllocatedBytes(), now.getAllocatedBytes());
+    }
+
+    private static String percent(double fraction) {
+        return String.format(Locale.ROOT, "%.0f%%", fraction * 100);
+    }
+}
@@ -0,0 +1,77 @@
+package BenchmarkSuite;
+
+import BenchmarkRegression.BenchmarkResult;
+import BenchmarkRegression.RegressionGate;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.profile.LinuxPerfNormProfiler;
+import org.openjdk.jmh.profile.ProfilerException;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+// Entry point of benchmarks.jar. Runs the suite with the gc profiler (and perfnorm where Linux perf is
+// available), writes JMH JSON, and optionally gates the run against a saved baseline:
+//   java -jar MatrixBenchmark/target/benchmarks.jar [--baseline old.json [--threshold 0.1]] [JMH options]
+// Any JMH option passes through, e.g. a benchmark regex, -p size=4096 or -rff results.json.
+public class BenchmarkRunner {
+    static final String DEFAULT_RESULT_FILE = "benchmark-results.json";
+
+    public static void main(String[] args) throws Exception {
+        String baseline = null;
+        double threshold = RegressionGate.DEFAULT_THRESHOLD;
+        List<String> jmhArgs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--baseline") && i + 1 < args.length) {
+                baseline = args[++i];
+            } else if (args[i].equals("--threshold") && i + 1 < args.length) {
+                threshold = Double.parseDouble(args[++i]);
+            } else {
+                jmhArgs.add(args[i]);
+            }
+        }
+
+        CommandLineOptions commandLine = new CommandLineOptions(jmhArgs.toArray(new String[0]));
+        String resultFile = commandLine.getResult().orElse(DEFAULT_RESULT_FILE);
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile);
+        if (commandLine.getIncludes().isEmpty()) {
+            options.include(BenchmarkRunner.class.getPackageName() + "\\.");
+        }
+        if (perfAvailable()) {
+            options.addProfiler(LinuxPerfNormProfiler.class);
+        } else {
+            System.out.println("Linux perf is not available; running without the perfnorm profiler.");
+        }
+
+        new Runner(options.build()).run();
+
+        if (baseline != null) {
+            List<String> regressions = new RegressionGate(threshold).compare(
+                    BenchmarkResult.read(Path.of(baseline)), BenchmarkResult.read(Path.of(resultFile)), System.out);
+            if (!regressions.isEmpty()) {
+                System.out.println(regressions.size() + " regression(s) against " + baseline + ".");
+                System.exit(1);
+            }
+        }
+    }
+
+    // The perfnorm profiler refuses to start without a working perf binary and permissions; probing first keeps
+    // the run going on machines (containers, macOS) where it cannot work.
+    private static boolean perfAvailable() {
+        try {
+            new LinuxPerfNormProfiler("");
+            return true;
+        } catch (ProfilerException | RuntimeException e) {
+            return false;
+        }
+    }
+}
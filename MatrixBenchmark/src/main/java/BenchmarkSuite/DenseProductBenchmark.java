@@ -0,0 +1,88 @@
+package BenchmarkSuite;
+
+import BenchmarkChecks.ProductCheck;
+import BenchmarkInputs.MatrixGenerator;
+import DenseBlock.BlockMatrixMul;
+import DenseBlock.DenseMatrix;
+import DenseBlock.PackedMatrixMul;
+import DenseBlock.RecursiveMatrixMul;
+import DenseParallel.MatrixScheduler;
+import MatrixDispatch.MatrixEngine;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BinaryOperator;
+
+// Dense GEMM kernels on the same seeded inputs. Every invocation computes a fresh C = A B: the kernels
+// accumulate into C, so reusing one output would time C += A B on a C that grows without bound.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@Warmup(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+public class DenseProductBenchmark {
+
+    @Param({"256", "1024"})
+    private int size;
+
+    @Param({"ikj", "blocked", "packed", "recursive", "parallel", "engine"})
+    private String kernel;
+
+    private double[][] a;
+    private double[][] b;
+    private BinaryOperator<double[][]> multiply;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        a = MatrixGenerator.dense(size, size, 1);
+        b = MatrixGenerator.dense(size, size, 2);
+        multiply = kernel(kernel);
+        ProductCheck.verifyProduct(a, b, multiply.apply(a, b));
+    }
+
+    @Benchmark
+    public double[][] multiply() {
+        return multiply.apply(a, b);
+    }
+
+    static BinaryOperator<double[][]> kernel(String name) {
+        switch (name) {
+            case "ikj":
+                return (a, b) -> {
+                    double[][] c = new double[a.length][b[0].length];
+                    BlockMatrixMul.multiplyIKJ(a, b, c);
+                    return c;
+                };
+            case "blocked":
+                return (a, b) -> {
+                    double[][] c = new double[a.length][b[0].length];
+                    BlockMatrixMul.multiplyBlocked(a, b, c);
+                    return c;
+                };
+            // The flat kernels convert in and out, as a caller holding double[][] would have to.
+            case "packed":
+                return (a, b) -> {
+                    DenseMatrix c = new DenseMatrix(a.length, b[0].length);
+                    PackedMatrixMul.multiply(DenseMatrix.fromArray(a), DenseMatrix.fromArray(b), c);
+                    return c.toArray();
+                };
+            case "recursive":
+                return (a, b) -> {
+                    DenseMatrix c = new DenseMatrix(a.length, b[0].length);
+                    RecursiveMatrixMul.multiply(DenseMatrix.fromArray(a), DenseMatrix.fromArray(b), c);
+                    return c.toArray();
+                };
+            case "parallel":
+                return (a, b) -> {
+                    double[][] c = new double[a.length][b[0].length];
+                    MatrixScheduler.shared().multiply(a, b, c);
+                    return c;
+                };
+            case "engine":
+                return MatrixEngine.shared()::multiply;
+            default:
+                throw new IllegalArgumentException("Unknown dense kernel: " + name);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package BenchmarkSuite;
+
+import BenchmarkChecks.ProductCheck;
+import BenchmarkInputs.Fixtures;
+import BenchmarkInputs.MatrixGenerator;
+import MatrixDispatch.MatrixEngine;
+import SparseRowCSR.SparseMatrixCSRMul.CSRMatrix;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Real matrices from Matrix Market files. The bundled fixture keeps the suite runnable anywhere; for SuiteSparse
+// matrices run with -Dmatrix.fixtures=<dir> -p fixture=<name>.mtx (see Fixtures). The product is A A for square
+// fixtures and A A^T otherwise.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+public class FixtureBenchmark {
+
+    @Param({"laplace2d_32.mtx"})
+    private String fixture;
+
+    private CSRMatrix a;
+    private CSRMatrix b;
+    private double[] x;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        a = Fixtures.load(fixture);
+        b = a.getRows() == a.getCols() ? a : a.transpose();
+        x = MatrixGenerator.vector(a.getCols(), 1);
+        ProductCheck.verifyProduct(a, b, a.multiplyTwoPass(b));
+        ProductCheck.verifyProduct(a, b, MatrixEngine.shared().multiply(a, b));
+        ProductCheck.verifyProduct(a, x, a.multiply(x));
+    }
+
+    @Benchmark
+    public CSRMatrix productTwoPass() {
+        return a.multiplyTwoPass(b);
+    }
+
+    @Benchmark
+    public CSRMatrix productEngine() {
+        return MatrixEngine.shared().multiply(a, b);
+    }
+
+    @Benchmark
+    public double[] multiplyVector() {
+        return a.multiply(x);
+    }
+}
@@ -0,0 +1,68 @@
+package BenchmarkSuite;
+
+import BenchmarkChecks.ProductCheck;
+import BenchmarkInputs.MatrixGenerator;
+import BenchmarkInputs.MatrixGenerator.Structure;
+import MatrixDispatch.MatrixEngine;
+import SparseRowCSR.SparseMatrixCSRMul.CSRMatrix;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BinaryOperator;
+
+// SpGEMM across sparsity structures. Uniform inputs are the easy case; power-law rows unbalance both the
+// accumulators and the parallel split, and banded inputs produce dense-ish rows with perfect locality.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+public class SparseProductBenchmark {
+
+    @Param({"uniform", "power_law", "banded"})
+    private String structure;
+
+    @Param({"20000"})
+    private int size;
+
+    @Param({"8"})
+    private int degree;
+
+    @Param({"baseline", "twoPass", "parallel", "engine"})
+    private String kernel;
+
+    private CSRMatrix a;
+    private CSRMatrix b;
+    private BinaryOperator<CSRMatrix> multiply;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Structure shape = Structure.valueOf(structure.toUpperCase(Locale.ROOT));
+        a = MatrixGenerator.sparse(shape, size, degree, 1);
+        b = MatrixGenerator.sparse(shape, size, degree, 2);
+        multiply = kernel(kernel);
+        ProductCheck.verifyProduct(a, b, multiply.apply(a, b));
+    }
+
+    @Benchmark
+    public CSRMatrix multiply() {
+        return multiply.apply(a, b);
+    }
+
+    static BinaryOperator<CSRMatrix> kernel(String name) {
+        switch (name) {
+            case "baseline":
+                return CSRMatrix::multiply;
+            case "twoPass":
+                return CSRMatrix::multiplyTwoPass;
+            case "parallel":
+                return CSRMatrix::multiplyParallel;
+            case "engine":
+                return MatrixEngine.shared()::multiply;
+            default:
+                throw new IllegalArgumentException("Unknown sparse kernel: " + name);
+        }
+    }
+}
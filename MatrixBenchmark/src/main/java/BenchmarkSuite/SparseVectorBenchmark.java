@@ -0,0 +1,72 @@
+package BenchmarkSuite;
+
+import BenchmarkChecks.ProductCheck;
+import BenchmarkInputs.MatrixGenerator;
+import BenchmarkInputs.MatrixGenerator.Structure;
+import SparseBlockBSR.SparseMatrixBSRMul;
+import SparseBlockBSR.SparseMatrixBSRMul.BSRMatrix;
+import SparseRowCSR.SparseMatrixCSRMul.CSRMatrix;
+import SparseSlicedELL.SparseMatrixSELLMul;
+import SparseSlicedELL.SparseMatrixSELLMul.SELLMatrix;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+// SpMV per storage format. Conversions happen once in setup; only y = A x is timed.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+public class SparseVectorBenchmark {
+
+    @Param({"uniform", "power_law", "banded"})
+    private String structure;
+
+    @Param({"200000"})
+    private int size;
+
+    @Param({"16"})
+    private int degree;
+
+    @Param({"csr", "csrParallel", "sell", "bsr"})
+    private String format;
+
+    private double[] x;
+    private UnaryOperator<double[]> multiply;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        CSRMatrix a = MatrixGenerator.sparse(Structure.valueOf(structure.toUpperCase(Locale.ROOT)), size, degree, 1);
+        x = MatrixGenerator.vector(size, 2);
+        multiply = kernel(format, a);
+        ProductCheck.verifyProduct(a, x, multiply.apply(x));
+    }
+
+    @Benchmark
+    public double[] multiply() {
+        return multiply.apply(x);
+    }
+
+    static UnaryOperator<double[]> kernel(String name, CSRMatrix a) {
+        switch (name) {
+            case "csr":
+                return a::multiply;
+            case "csrParallel":
+                return a::multiplyParallel;
+            case "sell": {
+                SELLMatrix sell = SparseMatrixSELLMul.convertToSELL(a, 8, 256);
+                return sell::multiply;
+            }
+            case "bsr": {
+                BSRMatrix bsr = SparseMatrixBSRMul.convertToBSR(a, 4, 4);
+                return bsr::multiply;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown SpMV format: " + name);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package MatrixCache;
+
+import DenseParallel.DenseMatrixMul;
+import MatrixDispatch.MatrixEngine;
+import SparseKernels.ContentHash;
+import SparseRowCSR.SparseMatrixCSRMul.CSRMatrix;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BinaryOperator;
+
+// Memoizes products by the 128-bit content fingerprints of their operands, evicting least recently used results
+// once the cached entries exceed a byte budget. The result is stored and returned as-is, on a hit and on the
+// miss that computed it, so callers must treat it as read-only; operands must likewise not change once passed in.
+public class ProductCache {
+    private static final int DENSE = 0;
+    private static final int SPARSE = 1;
+
+    private final long maxBytes;
+    private final BinaryOperator<CSRMatrix> sparseMultiply;
+    private final BinaryOperator<double[][]> denseMultiply;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public ProductCache(long maxBytes) {
+        this(maxBytes, CSRMatrix::multiplyTwoPass, denseProduct(new DenseMatrixMul(DenseMatrixMul.Strategy.PACKED)));
+    }
+
+    public ProductCache(long maxBytes, MatrixEngine engine) {
+        this(maxBytes, engine::multiply, engine::multiply);
+    }
+
+    public ProductCache(long maxBytes, BinaryOperator<CSRMatrix> sparseMultiply, BinaryOperator<double[][]> denseMultiply) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("Cache size must be non-negative.");
+        }
+        this.maxBytes = maxBytes;
+        this.sparseMultiply = sparseMultiply;
+        this.denseMultiply = denseMultiply;
+    }
+
+    public CSRMatrix multiply(CSRMatrix a, CSRMatrix b) {
+        if (a.getCols() != b.getRows()) {
+            throw new IllegalArgumentException("Matrix dimensions do not match for multiplication.");
+        }
+        Key key = new Key(SPARSE, a.fingerprint(), a.fingerprintHigh(), b.fingerprint(), b.fingerprintHigh(),
+                a.getRows(), a.getCols(), b.getCols(), a.getRowPointers()[a.getRows()], b.getRowPointers()[b.getRows()]);
+        Entry entry = lookup(key);
+        if (entry != null) {
+            return (CSRMatrix) entry.result;
+        }
+
+        CSRMatrix product = sparseMultiply.apply(a, b);
+        long size = product.sizeInBytes();
+        if (size <= maxBytes) {
+            store(key, new Entry(product, size));
+        }
+        return product;
+    }
+
+    // Dense operands carry no place to cache a fingerprint, so both are hashed on every call: O(mk + kn)
+    // instead of the O(mkn) product.
+    public double[][] multiply(double[][] a, double[][] b) {
+        int inner = a.length == 0 ? 0 : a[0].length;
+        if (inner != b.length) {
+            throw new IllegalArgumentException("Matrix dimensions do not match for multiplication.");
+        }
+        int cols = b.length == 0 ? 0 : b[0].length;
+        Key key = new Key(DENSE, ContentHash.hash(a), ContentHash.hashHigh(a), ContentHash.hash(b), ContentHash.hashHigh(b),
+                a.length, inner, cols, 0, 0);
+        Entry entry = lookup(key);
+        if (entry != null) {
+            return (double[][]) entry.result;
+        }
+
+        double[][] product = denseMultiply.apply(a, b);
+        long size = denseBytes(a.length, cols);
+        if (size <= maxBytes) {
+            store(key, new Entry(product, size));
+        }
+        return product;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("ProductCache[entries=%d, bytes=%d/%d, hits=%d, misses=%d, evictions=%d]",
+                entries.size(), bytes, maxBytes, hits, misses, evictions);
+    }
+
+    private synchronized Entry lookup(Key key) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return entry;
+    }
+
+    // The product is computed outside the lock, so two threads missing on the same key both compute it and the
+    // second store simply replaces the first.
+    private synchronized void store(Key key, Entry entry) {
+        Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            bytes -= previous.size;
+        }
+        bytes += entry.size;
+
+        Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+        while (bytes > maxBytes) {
+            Entry evicted = eldest.next().getValue();
+            eldest.remove();
+            bytes -= evicted.size;
+            evictions++;
+        }
+    }
+
+    private static BinaryOperator<double[][]> denseProduct(DenseMatrixMul dense) {
+        return (a, b) -> {
+            double[][] c = new double[a.length][b.length == 0 ? 0 : b[0].length];
+            dense.multiply(a, b, c);
+            return c;
+        };
+    }
+
+    private static long denseBytes(int rows, int cols) {
+        return 16L + rows * (16L + 8L * cols);
+    }
+
+    private static class Entry {
+        final Object result;
+        final long size;
+
+        Entry(Object result, long size) {
+            this.result = result;
+            this.size = size;
+        }
+    }
+
+    // Two independently mixed 64-bit hashes per operand, plus the shape and stored counts, so a false hit needs a
+    // 128-bit collision between operands of the same size.
+    private static class Key {
+        final int kind;
+        final long left, leftHigh;
+        final long right, rightHigh;
+        final int rows;
+        final int inner;
+        final int cols;
+        final int leftNonZeros, rightNonZeros;
+
+        Key(int kind, long left, long leftHigh, long right, long rightHigh, int rows, int inner, int cols,
+            int leftNonZeros, int rightNonZeros) {
+            this.kind = kind;
+            this.left = left;
+            this.leftHigh = leftHigh;
+            this.right = right;
+            this.rightHigh = rightHigh;
+            this.rows = rows;
+            this.inner = inner;
+            this.cols = cols;
+            this.leftNonZeros = leftNonZeros;
+            this.rightNonZeros = rightNonZeros;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return kind == other.kind && left == other.left && leftHigh == other.leftHigh
+                    && right == other.right && rightHigh == other.rightHigh
+                    && rows == other.rows && inner == other.inner && cols == other.cols
+                    && leftNonZeros == other.leftNonZeros && rightNonZeros == other.rightNonZeros;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(left * 31 + right) ^ kind;
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package MatrixDispatch;
+
+import DenseBlock.DenseMatrix;
+import DenseBlock.PackedMatrixMul;
+import DenseParallel.MatrixScheduler;
+import SparseRowCSR.SparseMatrixCSRMul;
+import SparseRowCSR.SparseMatrixCSRMul.CSRMatrix;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+// Per-operation costs of this machine, measured once by short micro-benchmarks. Every rate is the
+// best timed run, in seconds per unit of work, so the engine can compare a dense product (2 m k n
+// flops) against a sparse one (multiply-adds) and sequential against parallel.
+public class Calibration {
+    static final int DENSE_SIZE = 160;
+    static final int SPARSE_SIZE = 4096;
+    static final int SPARSE_ROW_LENGTH = 8;
+    static final int LONG_ROW_SPARSE_SIZE = 1024;
+    static final int LONG_ROW_LENGTH = 32;
+    static final int CONVERSION_SIZE = 512;
+    static final int STABLE_RUNS = 20;
+    static final long BUDGET_NANOS = 500_000_000L;
+
+    final int threads;
+    final double densePackedSecondsPerFlop;
+    final double denseParallelSecondsPerFlop;
+    final double sparseSecondsPerRow;
+    final double sparseSecondsPerMultiplyAdd;
+    final double sparseParallelSecondsPerRow;
+    final double sparseParallelSecondsPerMultiplyAdd;
+    final double spmvSecondsPerNonZero;
+    final double spmvParallelSecondsPerNonZero;
+    final double conversionSecondsPerEntry;
+    final double forkJoinSeconds;
+
+    public Calibration(int threads, double densePackedSecondsPerFlop, double denseParallelSecondsPerFlop,
+                       double sparseSecondsPerRow, double sparseSecondsPerMultiplyAdd,
+                       double sparseParallelSecondsPerRow, double sparseParallelSecondsPerMultiplyAdd,
+                       double spmvSecondsPerNonZero, double spmvParallelSecondsPerNonZero,
+                       double conversionSecondsPerEntry, double forkJoinSeconds) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Thread count must be positive.");
+        }
+        this.threads = threads;
+        this.densePackedSecondsPerFlop = densePackedSecondsPerFlop;
+        this.denseParallelSecondsPerFlop = denseParallelSecondsPerFlop;
+        this.sparseSecondsPerRow = sparseSecondsPerRow;
+        this.sparseSecondsPerMultiplyAdd = sparseSecondsPerMultiplyAdd;
+        this.sparseParallelSecondsPerRow = sparseParallelSecondsPerRow;
+        this.sparseParallelSecondsPerMultiplyAdd = sparseParallelSecondsPerMultiplyAdd;
+        this.spmvSecondsPerNonZero = spmvSecondsPerNonZero;
+        this.spmvParallelSecondsPerNonZero = spmvParallelSecondsPerNonZero;
+        this.conversionSecondsPerEntry = conversionSecondsPerEntry;
+        this.forkJoinSeconds = forkJoinSeconds;
+    }
+
+    public static Calibration measure(MatrixScheduler scheduler) {
+        ForkJoinPool pool = scheduler.getPool();
+        Random random = new Random(42);
+
+        DenseMatrix a = randomDense(DENSE_SIZE, random);
+        DenseMatrix b = randomDense(DENSE_SIZE, random);
+        DenseMatrix c = new DenseMatrix(DENSE_SIZE, DENSE_SIZE);
+        double denseFlops = 2.0 * DENSE_SIZE * DENSE_SIZE * DENSE_SIZE;
+        double packed = bestOf(() -> PackedMatrixMul.multiply(a, b, c)) / denseFlops;
+        double parallel = bestOf(() -> scheduler.multiply(a, b, c)) / denseFlops;
+
+        // Sparse products pay per row (workspace reset, sorting the output) as well as per multiply-add,
+        // so the two costs are separated by timing one short-row and one long-row product.
+        CSRMatrix sparseA = randomSparse(SPARSE_SIZE, SPARSE_ROW_LENGTH, random);
+        CSRMatrix sparseB = randomSparse(SPARSE_SIZE, SPARSE_ROW_LENGTH, random);
+        CSRMatrix longRowA = randomSparse(LONG_ROW_SPARSE_SIZE, LONG_ROW_LENGTH, random);
+        CSRMatrix longRowB = randomSparse(LONG_ROW_SPARSE_SIZE, LONG_ROW_LENGTH, random);
+        double shortMultiplyAdds = MatrixProfile.of(sparseA, sparseB).multiplyAdds;
+        double longMultiplyAdds = MatrixProfile.of(longRowA, longRowB).multiplyAdds;
+        double[] sparse = fitRowAndMultiplyAdd(
+                SPARSE_SIZE, shortMultiplyAdds, bestOf(() -> sparseA.multiplyTwoPass(sparseB)),
+                LONG_ROW_SPARSE_SIZE, longMultiplyAdds, bestOf(() -> longRowA.multiplyTwoPass(longRowB)));
+        double[] sparseParallel = fitRowAndMultiplyAdd(
+                SPARSE_SIZE, shortMultiplyAdds, bestOf(() -> sparseA.multiplyParallel(sparseB, pool)),
+                LONG_ROW_SPARSE_SIZE, longMultiplyAdds, bestOf(() -> longRowA.multiplyParallel(longRowB, pool)));
+
+        double[] x = new double[SPARSE_SIZE];
+        double[] y = new double[SPARSE_SIZE];
+        for (int j = 0; j < SPARSE_SIZE; j++) {
+            x[j] = random.nextDouble();
+        }
+        double nonZeros = sparseA.getRowPointers()[SPARSE_SIZE];
+        double spmv = bestOf(() -> sparseA.multiply(x, y)) / nonZeros;
+        double spmvParallel = bestOf(() -> sparseA.multiplyParallel(x, y, pool)) / nonZeros;
+
+        double[][] conversionInput = new double[CONVERSION_SIZE][CONVERSION_SIZE];
+        for (int i = 0; i < CONVERSION_SIZE; i++) {
+            for (int k = 0; k < SPARSE_ROW_LENGTH; k++) {
+                conversionInput[i][random.nextInt(CONVERSION_SIZE)] = random.nextDouble();
+            }
+        }
+        double conversion = bestOf(() -> SparseMatrixCSRMul.convertToCSR(conversionInput))
+                / ((double) CONVERSION_SIZE * CONVERSION_SIZE);
+
+        double forkJoin = bestOf(() -> pool.invoke(ForkJoinTask.adapt(() -> { })));
+
+        return new Calibration(scheduler.getParallelism(), packed, parallel, sparse[0], sparse[1],
+                sparseParallel[0], sparseParallel[1], spmv, spmvParallel, conversion, forkJoin);
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public double getDensePackedSecondsPerFlop() {
+        return densePackedSecondsPerFlop;
+    }
+
+    public double getDenseParallelSecondsPerFlop() {
+        return denseParallelSecondsPerFlop;
+    }
+
+    public double getSparseSecondsPerRow() {
+        return sparseSecondsPerRow;
+    }
+
+    public double getSparseSecondsPerMultiplyAdd() {
+        return sparseSecondsPerMultiplyAdd;
+    }
+
+    public double getSparseParallelSecondsPerRow() {
+        return sparseParallelSecondsPerRow;
+    }
+
+    public double getSparseParallelSecondsPerMultiplyAdd() {
+        return sparseParallelSecondsPerMultiplyAdd;
+    }
+
+    public double getSpmvSecondsPerNonZero() {
+        return spmvSecondsPerNonZero;
+    }
+
+    public double getSpmvParallelSecondsPerNonZero() {
+        return spmvParallelSecondsPerNonZero;
+    }
+
+    public double getConversionSecondsPerEntry() {
+        return conversionSecondsPerEntry;
+    }
+
+    public double getForkJoinSeconds() {
+        return forkJoinSeconds;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Calibration{threads=%d, dense packed=%.2f GFLOP/s, dense parallel=%.2f GFLOP/s, "
+                        + "sparse=%.0f ns/row + %.1f ns/madd, sparse parallel=%.0f ns/row + %.1f ns/madd, spmv=%.2f ns/nnz, "
+                        + "spmv parallel=%.2f ns/nnz, conversion=%.2f ns/entry, fork/join=%.1f us}",
+                threads, 1e-9 / densePackedSecondsPerFlop, 1e-9 / denseParallelSecondsPerFlop,
+                sparseSecondsPerRow * 1e9, sparseSecondsPerMultiplyAdd * 1e9,
+                sparseParallelSecondsPerRow * 1e9, sparseParallelSecondsPerMultiplyAdd * 1e9,
+                spmvSecondsPerNonZero * 1e9, spmvParallelSecondsPerNonZero * 1e9,
+                conversionSecondsPerEntry * 1e9, forkJoinSeconds * 1e6);
+    }
+
+    // A kernel only reaches its compiled speed a few hundred milliseconds in, so instead of a fixed
+    // warm-up it is rerun until the best time has stopped improving for STABLE_RUNS runs.
+    private static double bestOf(Runnable run) {
+        long start = System.nanoTime();
+        long best = Long.MAX_VALUE;
+        int sinceImprovement = 0;
+        while (sinceImprovement < STABLE_RUNS && System.nanoTime() - start < BUDGET_NANOS) {
+            long runStart = System.nanoTime();
+            run.run();
+            long elapsed = System.nanoTime() - runStart;
+            if (elapsed < best - best / 32) {
+                best = elapsed;
+                sinceImprovement = 0;
+            } else {
+                sinceImprovement++;
+            }
+        }
+        return Math.max(1, best) * 1e-9;
+    }
+
+    // Solves rows * perRow + multiplyAdds * perMultiplyAdd = seconds for the two samples. Timing noise
+    // can push one term below zero, in which case the whole time is charged to the other.
+    private static double[] fitRowAndMultiplyAdd(double rows1, double multiplyAdds1, double seconds1,
+                                                 double rows2, double multiplyAdds2, double seconds2) {
+        double determinant = rows1 * multiplyAdds2 - rows2 * multiplyAdds1;
+        double perRow = (seconds1 * multiplyAdds2 - seconds2 * multiplyAdds1) / determinant;
+        double perMultiplyAdd = (rows1 * seconds2 - rows2 * seconds1) / determinant;
+        if (perRow < 0) {
+            return new double[]{0.0, seconds2 / multiplyAdds2};
+        }
+        if (perMultiplyAdd < 0) {
+            return new double[]{seconds1 / rows1, 0.0};
+        }
+        return new double[]{perRow, perMultiplyAdd};
+    }
+
+    private static DenseMatrix randomDense(int size, Random random) {
+        DenseMatrix matrix = new DenseMatrix(size, size);
+        double[] data = matrix.getData();
+        for (int e = 0; e < data.length; e++) {
+            data[e] = random.nextDouble();
+        }
+        return matrix;
+    }
+
+    private static CSRMatrix randomSparse(int size, int rowLength, Random random) {
+        int count = size * rowLength;
+        int[] rowIndices = new int[count];
+        int[] columnIndices = new int[count];
+        double[] values = new double[count];
+        for (int i = 0, e = 0; i < size; i++) {
+            for (int k = 0; k < rowLength; k++, e++) {
+                rowIndices[e] = i;
+                columnIndices[e] = random.nextInt(size);
+                values[e] = random.nextDouble();
+            }
+        }
+        return SparseMatrixCSRMul.convertCOOToCSR(size, size, rowIndices, columnIndices, values, count);
+    }
+}
@@ -0,0 +1,63 @@
+package MatrixDispatch;
+
+import java.util.Locale;
+
+public class Decision {
+
+    public enum Format {
+        DENSE,
+        CSR
+    }
+
+    public enum Kernel {
+        DENSE_PACKED(Format.DENSE),
+        DENSE_PARALLEL_BLOCKED(Format.DENSE),
+        CSR_GUSTAVSON(Format.CSR),
+        CSR_SPMV(Format.CSR);
+
+        private final Format format;
+
+        Kernel(Format format) {
+            this.format = format;
+        }
+
+        public Format getFormat() {
+            return format;
+        }
+    }
+
+    final Kernel kernel;
+    final int threads;
+    final double predictedSeconds;
+    // Operation name for MultiplyTrace, built once so a disabled trace allocates nothing per call.
+    final String operation;
+
+    Decision(Kernel kernel, int threads, double predictedSeconds) {
+        this.kernel = kernel;
+        this.threads = threads;
+        this.predictedSeconds = predictedSeconds;
+        this.operation = "engine." + kernel.name().toLowerCase(Locale.ROOT);
+    }
+
+    public Kernel getKernel() {
+        return kernel;
+    }
+
+    public Format getFormat() {
+        return kernel.getFormat();
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public double getPredictedSeconds() {
+        return predictedSeconds;
+    }
+
+    @Override
+    public String toString() {
+        return "Decision{" + kernel + ", threads=" + threads
+                + ", predicted=" + String.format("%.3f ms", predictedSeconds * 1e3) + "}";
+    }
+}
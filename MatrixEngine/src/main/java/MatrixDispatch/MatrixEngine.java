@@ -0,0 +1,220 @@
+package MatrixDispatch;
+
+import DenseParallel.DenseMatrixMul;
+import DenseParallel.MatrixScheduler;
+import MatrixDispatch.Decision.Kernel;
+import MatrixMetrics.MultiplyTrace;
+import MatrixMetrics.Phase;
+import SparseRowCSR.SparseMatrixCSRMul;
+import SparseRowCSR.SparseMatrixCSRMul.CSRMatrix;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Picks the format, kernel and thread count for each product from a cost model fitted to this machine
+// at construction. The first profile seen in a shape class fixes the decision for that class.
+public class MatrixEngine {
+    private final MatrixScheduler scheduler;
+    private final Calibration calibration;
+    private final DenseMatrixMul packed;
+    private final Map<ShapeClass, Decision> decisions = new ConcurrentHashMap<>();
+
+    public MatrixEngine() {
+        this(MatrixScheduler.shared());
+    }
+
+    public MatrixEngine(MatrixScheduler scheduler) {
+        this(scheduler, Calibration.measure(scheduler));
+    }
+
+    public MatrixEngine(MatrixScheduler scheduler, Calibration calibration) {
+        this.scheduler = scheduler;
+        this.calibration = calibration;
+        this.packed = new DenseMatrixMul(DenseMatrixMul.Strategy.PACKED, scheduler.getBlockSize(), scheduler);
+    }
+
+    public static MatrixEngine shared() {
+        return SharedHolder.ENGINE;
+    }
+
+    public Calibration getCalibration() {
+        return calibration;
+    }
+
+    public Map<ShapeClass, Decision> getDecisions() {
+        return new LinkedHashMap<>(decisions);
+    }
+
+    public Decision decide(MatrixProfile profile) {
+        return decisions.computeIfAbsent(profile.shapeClass(), shape -> plan(profile));
+    }
+
+    public double[][] multiply(double[][] a, double[][] b) {
+        MatrixProfile profile = MatrixProfile.of(a, b);
+        if (profile.rows == 0 || profile.cols == 0 || profile.inner == 0) {
+            return new double[profile.rows][profile.cols];
+        }
+
+        Decision decision = decide(profile);
+        // Outer, so the sparse kernel's own trace is suppressed and the product is recorded once.
+        MultiplyTrace trace = MultiplyTrace.startOuter(decision.operation, decision.threads);
+        try {
+            // The result is allocated per branch: the sparse one builds its own from the CSR product.
+            double[][] c;
+            switch (decision.kernel) {
+                case DENSE_PACKED:
+                    c = new double[profile.rows][profile.cols];
+                    packed.multiply(a, b, c);
+                    break;
+                case DENSE_PARALLEL_BLOCKED:
+                    c = new double[profile.rows][profile.cols];
+                    scheduler.multiply(a, b, c);
+                    break;
+                case CSR_GUSTAVSON:
+                    CSRMatrix sparseA = SparseMatrixCSRMul.convertToCSR(a);
+                    CSRMatrix sparseB = SparseMatrixCSRMul.convertToCSR(b);
+                    if (trace != null) {
+                        trace.endPhase(Phase.PREPARE);
+                    }
+                    CSRMatrix product = multiplySparse(sparseA, sparseB, decision.threads);
+                    if (trace != null) {
+                        trace.endPhase(Phase.NUMERIC);
+                    }
+                    c = SparseMatrixCSRMul.convertToDense(product);
+                    if (trace != null) {
+                        trace.endPhase(Phase.ASSEMBLE);
+                        trace.finish(profile.rows, profile.inner, profile.cols, profile.nonZerosA, profile.nonZerosB,
+                                product.getRowPointers()[profile.rows], profile.multiplyAdds);
+                    }
+                    return c;
+                default:
+                    throw new IllegalStateException("Unexpected kernel for a dense product: " + decision.kernel);
+            }
+            if (trace != null) {
+                trace.endPhase(Phase.NUMERIC);
+                trace.finish(profile.rows, profile.inner, profile.cols, profile.nonZerosA, profile.nonZerosB,
+                        (long) profile.rows * profile.cols, (long) profile.rows * profile.inner * profile.cols);
+            }
+            return c;
+        } finally {
+            if (trace != null) {
+                trace.close();
+            }
+        }
+    }
+
+    public CSRMatrix multiply(CSRMatrix a, CSRMatrix b) {
+        MatrixProfile profile = MatrixProfile.of(a, b);
+        if (profile.rows == 0 || profile.cols == 0 || profile.inner == 0) {
+            return a.multiplyTwoPass(b);
+        }
+
+        Decision decision = decide(profile);
+        switch (decision.kernel) {
+            case CSR_GUSTAVSON:
+                // The kernel records this product itself.
+                return multiplySparse(a, b, decision.threads);
+            case DENSE_PACKED:
+            case DENSE_PARALLEL_BLOCKED: {
+                MultiplyTrace trace = MultiplyTrace.start(decision.operation, decision.threads);
+                double[][] denseA = SparseMatrixCSRMul.convertToDense(a);
+                double[][] denseB = SparseMatrixCSRMul.convertToDense(b);
+                double[][] c = new double[profile.rows][profile.cols];
+                if (trace != null) {
+                    trace.endPhase(Phase.PREPARE);
+                }
+                if (decision.kernel == Kernel.DENSE_PACKED) {
+                    packed.multiply(denseA, denseB, c);
+                } else {
+                    scheduler.multiply(denseA, denseB, c);
+                }
+                if (trace != null) {
+                    trace.endPhase(Phase.NUMERIC);
+                }
+                CSRMatrix result = SparseMatrixCSRMul.convertToCSR(c);
+                if (trace != null) {
+                    trace.endPhase(Phase.ASSEMBLE);
+                    trace.finish(profile.rows, profile.inner, profile.cols, profile.nonZerosA, profile.nonZerosB,
+                            result.getRowPointers()[profile.rows], (long) profile.rows * profile.inner * profile.cols);
+                }
+                return result;
+            }
+            default:
+                throw new IllegalStateException("Unexpected kernel for a sparse product: " + decision.kernel);
+        }
+    }
+
+    public double[] multiply(CSRMatrix a, double[] x) {
+        double[] y = new double[a.getRows()];
+        Decision decision = decide(MatrixProfile.of(a));
+        MultiplyTrace trace = MultiplyTrace.startOuter(decision.operation, decision.threads);
+        try {
+            if (decision.threads > 1) {
+                a.multiplyParallel(x, y, scheduler.getPool());
+            } else {
+                a.multiply(x, y);
+            }
+            if (trace != null) {
+                trace.endPhase(Phase.NUMERIC);
+                trace.finishVector(a.getRows(), a.getCols(), 1, a.getRowPointers()[a.getRows()]);
+            }
+            return y;
+        } finally {
+            if (trace != null) {
+                trace.close();
+            }
+        }
+    }
+
+    Decision plan(MatrixProfile profile) {
+        Calibration cost = calibration;
+        boolean parallel = cost.threads > 1;
+        double multiplyAdds = profile.multiplyAdds;
+        double maxRowMultiplyAdds = profile.maxRowMultiplyAdds;
+
+        if (profile.operation == MatrixProfile.Operation.SPARSE_VECTOR) {
+            Decision best = new Decision(Kernel.CSR_SPMV, 1, multiplyAdds * cost.spmvSecondsPerNonZero);
+            if (parallel) {
+                best = cheaper(best, new Decision(Kernel.CSR_SPMV, cost.threads, cost.forkJoinSeconds
+                        + Math.max(multiplyAdds * cost.spmvParallelSecondsPerNonZero,
+                        maxRowMultiplyAdds * cost.spmvSecondsPerNonZero)));
+            }
+            return best;
+        }
+
+        double rows = profile.rows;
+        double inner = profile.inner;
+        double cols = profile.cols;
+        double denseFlops = 2.0 * rows * inner * cols;
+        // Moving between formats touches every entry of both inputs and of the result once.
+        double conversion = (rows * inner + inner * cols + rows * cols) * cost.conversionSecondsPerEntry;
+        double denseOverhead = profile.operation == MatrixProfile.Operation.SPARSE_PRODUCT ? conversion : 0.0;
+        double sparseOverhead = profile.operation == MatrixProfile.Operation.DENSE_PRODUCT ? conversion : 0.0;
+
+        Decision best = new Decision(Kernel.DENSE_PACKED, 1, denseOverhead + denseFlops * cost.densePackedSecondsPerFlop);
+        best = cheaper(best, new Decision(Kernel.CSR_GUSTAVSON, 1, sparseOverhead
+                + rows * cost.sparseSecondsPerRow + multiplyAdds * cost.sparseSecondsPerMultiplyAdd));
+        if (parallel) {
+            best = cheaper(best, new Decision(Kernel.DENSE_PARALLEL_BLOCKED, cost.threads,
+                    denseOverhead + cost.forkJoinSeconds + denseFlops * cost.denseParallelSecondsPerFlop));
+            // A single heavy row cannot be split, so skewed inputs are bounded by their longest row.
+            best = cheaper(best, new Decision(Kernel.CSR_GUSTAVSON, cost.threads, sparseOverhead + cost.forkJoinSeconds
+                    + Math.max(rows * cost.sparseParallelSecondsPerRow + multiplyAdds * cost.sparseParallelSecondsPerMultiplyAdd,
+                    cost.sparseSecondsPerRow + maxRowMultiplyAdds * cost.sparseSecondsPerMultiplyAdd)));
+        }
+        return best;
+    }
+
+    private CSRMatrix multiplySparse(CSRMatrix a, CSRMatrix b, int threads) {
+        return threads > 1 ? a.multiplyParallel(b, scheduler.getPool()) : a.multiplyTwoPass(b);
+    }
+
+    private static Decision cheaper(Decision current, Decision candidate) {
+        return candidate.predictedSeconds < current.predictedSeconds ? candidate : current;
+    }
+
+    private static class SharedHolder {
+        static final MatrixEngine ENGINE = new MatrixEngine();
+    }
+}
@@ -0,0 +1,192 @@
+package MatrixDispatch;
+
+import SparseRowCSR.SparseMatrixCSRMul.CSRMatrix;
+
+// The features the engine dispatches on. multiplyAdds is the exact Gustavson work
+// sum over nonzeros a(i,j) of nnz(row j of B), which a dense kernel would spend m * k * n on.
+public class MatrixProfile {
+
+    public enum Operation {
+        DENSE_PRODUCT,
+        SPARSE_PRODUCT,
+        SPARSE_VECTOR
+    }
+
+    final Operation operation;
+    final int rows;
+    final int inner;
+    final int cols;
+    final long nonZerosA;
+    final long nonZerosB;
+    final long multiplyAdds;
+    final long maxRowMultiplyAdds;
+    final double rowLengthVariation;
+
+    MatrixProfile(Operation operation, int rows, int inner, int cols, long nonZerosA, long nonZerosB,
+                  long multiplyAdds, long maxRowMultiplyAdds, double rowLengthVariation) {
+        this.operation = operation;
+        this.rows = rows;
+        this.inner = inner;
+        this.cols = cols;
+        this.nonZerosA = nonZerosA;
+        this.nonZerosB = nonZerosB;
+        this.multiplyAdds = multiplyAdds;
+        this.maxRowMultiplyAdds = maxRowMultiplyAdds;
+        this.rowLengthVariation = rowLengthVariation;
+    }
+
+    public static MatrixProfile of(double[][] a, double[][] b) {
+        int rows = a.length;
+        int inner = rows == 0 ? b.length : a[0].length;
+        int cols = b.length == 0 ? 0 : b[0].length;
+        if (inner != b.length) {
+            throw new IllegalArgumentException("Matrix dimensions do not match for multiplication.");
+        }
+
+        long[] innerRowLengths = new long[inner];
+        long nonZerosB = 0;
+        for (int j = 0; j < inner; j++) {
+            double[] row = b[j];
+            long count = 0;
+            for (int c = 0; c < cols; c++) {
+                if (row[c] != 0) {
+                    count++;
+                }
+            }
+            innerRowLengths[j] = count;
+            nonZerosB += count;
+        }
+
+        RowStatistics statistics = new RowStatistics();
+        for (int i = 0; i < rows; i++) {
+            double[] row = a[i];
+            long count = 0;
+            long rowMultiplyAdds = 0;
+            for (int j = 0; j < inner; j++) {
+                if (row[j] != 0) {
+                    count++;
+                    rowMultiplyAdds += innerRowLengths[j];
+                }
+            }
+            statistics.add(count, rowMultiplyAdds);
+        }
+        return statistics.toProfile(Operation.DENSE_PRODUCT, rows, inner, cols, nonZerosB);
+    }
+
+    public static MatrixProfile of(CSRMatrix a, CSRMatrix b) {
+        if (a.getCols() != b.getRows()) {
+            throw new IllegalArgumentException("Matrix dimensions do not match for multiplication.");
+        }
+        int[] rowPointers = a.getRowPointers();
+        int[] columnIndices = a.getColumnIndices();
+        int[] innerPointers = b.getRowPointers();
+
+        RowStatistics statistics = new RowStatistics();
+        for (int i = 0; i < a.getRows(); i++) {
+            long rowMultiplyAdds = 0;
+            for (int p = rowPointers[i]; p < rowPointers[i + 1]; p++) {
+                int j = columnIndices[p];
+                rowMultiplyAdds += innerPointers[j + 1] - innerPointers[j];
+            }
+            statistics.add(rowPointers[i + 1] - rowPointers[i], rowMultiplyAdds);
+        }
+        return statistics.toProfile(Operation.SPARSE_PRODUCT, a.getRows(), a.getCols(), b.getCols(),
+                innerPointers[b.getRows()]);
+    }
+
+    public static MatrixProfile of(CSRMatrix a) {
+        int[] rowPointers = a.getRowPointers();
+        RowStatistics statistics = new RowStatistics();
+        for (int i = 0; i < a.getRows(); i++) {
+            int length = rowPointers[i + 1] - rowPointers[i];
+            statistics.add(length, length);
+        }
+        return statistics.toProfile(Operation.SPARSE_VECTOR, a.getRows(), a.getCols(), 1, a.getCols());
+    }
+
+    public Operation getOperation() {
+        return operation;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getInner() {
+        return inner;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public long getNonZerosA() {
+        return nonZerosA;
+    }
+
+    public long getNonZerosB() {
+        return nonZerosB;
+    }
+
+    public long getMultiplyAdds() {
+        return multiplyAdds;
+    }
+
+    public long getMaxRowMultiplyAdds() {
+        return maxRowMultiplyAdds;
+    }
+
+    public double getRowLengthVariation() {
+        return rowLengthVariation;
+    }
+
+    public double getDensityA() {
+        return density(nonZerosA, rows, inner);
+    }
+
+    public double getDensityB() {
+        return density(nonZerosB, inner, cols);
+    }
+
+    public ShapeClass shapeClass() {
+        return new ShapeClass(this);
+    }
+
+    @Override
+    public String toString() {
+        return "MatrixProfile{" + operation + " " + rows + "x" + inner + " * " + inner + "x" + cols
+                + ", densityA=" + getDensityA() + ", densityB=" + getDensityB() + ", multiplyAdds=" + multiplyAdds
+                + ", rowLengthVariation=" + rowLengthVariation + "}";
+    }
+
+    private static double density(long nonZeros, int rows, int cols) {
+        return rows == 0 || cols == 0 ? 0.0 : (double) nonZeros / ((double) rows * cols);
+    }
+
+    private static class RowStatistics {
+        long rows;
+        long nonZeros;
+        double sumOfSquares;
+        long multiplyAdds;
+        long maxRowMultiplyAdds;
+
+        void add(long rowLength, long rowMultiplyAdds) {
+            rows++;
+            nonZeros += rowLength;
+            sumOfSquares += (double) rowLength * rowLength;
+            multiplyAdds += rowMultiplyAdds;
+            maxRowMultiplyAdds = Math.max(maxRowMultiplyAdds, rowMultiplyAdds);
+        }
+
+        MatrixProfile toProfile(Operation operation, int rowCount, int inner, int cols, long nonZerosB) {
+            double variation = 0.0;
+            if (nonZeros > 0) {
+                double mean = (double) nonZeros / rows;
+                double variance = Math.max(0.0, sumOfSquares / rows - mean * mean);
+                variation = Math.sqrt(variance) / mean;
+            }
+            return new MatrixProfile(operation, rowCount, inner, cols, nonZeros, nonZerosB, multiplyAdds,
+                    maxRowMultiplyAdds, variation);
+        }
+    }
+}
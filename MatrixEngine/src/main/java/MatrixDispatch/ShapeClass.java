@@ -0,0 +1,72 @@
+package MatrixDispatch;
+
+import java.util.Objects;
+
+// Profiles that land in the same class share one cached decision. Dimensions are bucketed by bit
+// length, densities by half powers of two and row-length variation into uniform, moderate and skewed.
+public class ShapeClass {
+    static final int EMPTY_DENSITY_BUCKET = Integer.MIN_VALUE;
+
+    final MatrixProfile.Operation operation;
+    final int rowBits;
+    final int innerBits;
+    final int colBits;
+    final int densityBucketA;
+    final int densityBucketB;
+    final int skewBucket;
+
+    ShapeClass(MatrixProfile profile) {
+        this.operation = profile.operation;
+        this.rowBits = bitLength(profile.rows);
+        this.innerBits = bitLength(profile.inner);
+        this.colBits = bitLength(profile.cols);
+        this.densityBucketA = densityBucket(profile.getDensityA());
+        this.densityBucketB = densityBucket(profile.getDensityB());
+        this.skewBucket = profile.rowLengthVariation < 0.5 ? 0 : profile.rowLengthVariation < 2.0 ? 1 : 2;
+    }
+
+    public MatrixProfile.Operation getOperation() {
+        return operation;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof ShapeClass)) {
+            return false;
+        }
+        ShapeClass that = (ShapeClass) other;
+        return operation == that.operation && rowBits == that.rowBits && innerBits == that.innerBits
+                && colBits == that.colBits && densityBucketA == that.densityBucketA
+                && densityBucketB == that.densityBucketB && skewBucket == that.skewBucket;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(operation, rowBits, innerBits, colBits, densityBucketA, densityBucketB, skewBucket);
+    }
+
+    @Override
+    public String toString() {
+        return "ShapeClass{" + operation + ", dims<2^" + rowBits + "x2^" + innerBits + "x2^" + colBits
+                + ", density~" + densityLabel(densityBucketA) + "/" + densityLabel(densityBucketB)
+                + ", skew=" + skewBucket + "}";
+    }
+
+    private static int bitLength(int value) {
+        return 32 - Integer.numberOfLeadingZeros(value);
+    }
+
+    private static int densityBucket(double density) {
+        if (density <= 0.0) {
+            return EMPTY_DENSITY_BUCKET;
+        }
+        return (int) Math.floor(2.0 * Math.log(density) / Math.log(2.0));
+    }
+
+    private static String densityLabel(int bucket) {
+        return bucket == EMPTY_DENSITY_BUCKET ? "0" : String.format("2^%.1f", bucket / 2.0);
+    }
+}
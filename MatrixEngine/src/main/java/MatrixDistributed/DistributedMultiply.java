@@ -0,0 +1,270 @@
+package MatrixDistributed;
+
+import SparseRowCSR.SparseMatrixCSRMul.CSRMatrix;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Coordinator for products spread over MatrixWorker processes. Each worker keeps one connection, driven by its
+// own coordinator thread, so sending to one worker overlaps with the others computing. Concurrent calls are safe:
+// each request/response exchange holds its connection's lock, so calls sharing a worker queue up on it.
+//   sparse: A is cut into row blocks of roughly equal flops and B is broadcast; C is the row blocks stacked.
+//   dense:  SUMMA on a pr x pc worker grid. Worker (i,j) owns C(i,j) and receives the A(i,s), B(s,j) panels
+//           in turn, multiplying each while the next is in flight.
+public class DistributedMultiply implements Closeable {
+    // Width of a SUMMA panel along the shared dimension; small enough that a worker starts early, large enough
+    // that each panel product is still a real GEMM.
+    private static final int PANEL_WIDTH = 256;
+
+    private final List<MatrixWire> wires = new ArrayList<>();
+    private final ExecutorService senders;
+
+    public DistributedMultiply(List<InetSocketAddress> workers) throws IOException {
+        if (workers.isEmpty()) {
+            throw new IllegalArgumentException("At least one worker is required.");
+        }
+        try {
+            for (InetSocketAddress address : workers) {
+                wires.add(new MatrixWire(SocketChannel.open(address)));
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+        this.senders = Executors.newFixedThreadPool(workers.size(), runnable -> {
+            Thread thread = new Thread(runnable, "matrix-coordinator");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public int getWorkerCount() {
+        return wires.size();
+    }
+
+    public CSRMatrix multiply(CSRMatrix A, CSRMatrix B) throws IOException {
+        if (A.getCols() != B.getRows()) {
+            throw new IllegalArgumentException("Matrix dimensions do not match for multiplication.");
+        }
+        int[] bounds = balanceRows(A, B, wires.size());
+        int blocks = bounds.length - 1;
+
+        List<Callable<CSRMatrix>> tasks = new ArrayList<>(blocks);
+        for (int w = 0; w < blocks; w++) {
+            MatrixWire wire = wires.get(w);
+            int rowStart = bounds[w], rowEnd = bounds[w + 1];
+            tasks.add(() -> {
+                synchronized (wire) {
+                    wire.writeInt(MatrixWire.MULTIPLY_CSR);
+                    wire.writeCSRRows(A, rowStart, rowEnd);
+                    wire.writeCSR(B);
+                    wire.flush();
+                    wire.readStatus();
+                    return wire.readCSR();
+                }
+            });
+        }
+        List<CSRMatrix> parts = runAll(tasks);
+        return stack(parts, A.getRows(), B.getCols());
+    }
+
+    // 1D dense distribution: each worker gets a band of A's rows and all of B.
+    public double[][] multiplyRows(double[][] A, double[][] B) throws IOException {
+        int inner = checkDimensions(A, B);
+        int rows = A.length, cols = B.length == 0 ? 0 : B[0].length;
+        double[][] C = new double[rows][cols];
+        if (rows == 0 || cols == 0 || inner == 0) {
+            return C;
+        }
+        int blocks = Math.min(wires.size(), rows);
+        List<Callable<Void>> tasks = new ArrayList<>(blocks);
+        for (int w = 0; w < blocks; w++) {
+            MatrixWire wire = wires.get(w);
+            int rowStart = (int) ((long) rows * w / blocks), rowEnd = (int) ((long) rows * (w + 1) / blocks);
+            tasks.add(() -> {
+                synchronized (wire) {
+                    wire.writeInt(MatrixWire.MULTIPLY_DENSE);
+                    wire.writeDense(A, rowStart, rowEnd, 0, inner);
+                    wire.writeDense(B, 0, inner, 0, cols);
+                    wire.flush();
+                    wire.readStatus();
+                    wire.readDenseInto(C, rowStart, 0);
+                    return null;
+                }
+            });
+        }
+        runAll(tasks);
+        return C;
+    }
+
+    public double[][] multiply(double[][] A, double[][] B) throws IOException {
+        int inner = checkDimensions(A, B);
+        int rows = A.length, cols = B.length == 0 ? 0 : B[0].length;
+        double[][] C = new double[rows][cols];
+        if (rows == 0 || cols == 0 || inner == 0) {
+            return C;
+        }
+        int gridRows = gridRows(wires.size());
+        int gridCols = wires.size() / gridRows;
+        gridRows = Math.min(gridRows, rows);
+        gridCols = Math.min(gridCols, cols);
+        int panels = (inner + PANEL_WIDTH - 1) / PANEL_WIDTH;
+
+        List<Callable<Void>> tasks = new ArrayList<>(gridRows * gridCols);
+        for (int gi = 0; gi < gridRows; gi++) {
+            for (int gj = 0; gj < gridCols; gj++) {
+                MatrixWire wire = wires.get(gi * gridCols + gj);
+                int r0 = (int) ((long) rows * gi / gridRows), r1 = (int) ((long) rows * (gi + 1) / gridRows);
+                int c0 = (int) ((long) cols * gj / gridCols), c1 = (int) ((long) cols * (gj + 1) / gridCols);
+                tasks.add(() -> {
+                    synchronized (wire) {
+                        wire.writeInt(MatrixWire.SUMMA_TILE);
+                        wire.writeInt(r1 - r0);
+                        wire.writeInt(c1 - c0);
+                        wire.writeInt(panels);
+                        for (int s = 0; s < panels; s++) {
+                            int k0 = s * PANEL_WIDTH, k1 = Math.min(inner, k0 + PANEL_WIDTH);
+                            wire.writeDense(A, r0, r1, k0, k1);
+                            wire.writeDense(B, k0, k1, c0, c1);
+                            wire.flush();
+                        }
+                        wire.readStatus();
+                        wire.readDenseInto(C, r0, c0);
+                        return null;
+                    }
+                });
+            }
+        }
+        runAll(tasks);
+        return C;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (senders != null) {
+            senders.shutdownNow();
+        }
+        IOException failure = null;
+        for (MatrixWire wire : wires) {
+            try {
+                wire.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    // Row block boundaries so each block does about the same number of multiply-adds; rows of A hitting long
+    // rows of B are what unbalance a plain even split on power-law inputs.
+    static int[] balanceRows(CSRMatrix A, CSRMatrix B, int parts) {
+        int rows = A.getRows();
+        int[] aRowPointers = A.getRowPointers();
+        int[] aColumns = A.getColumnIndices();
+        int[] bRowPointers = B.getRowPointers();
+        long[] flopPrefix = new long[rows + 1];
+        for (int i = 0; i < rows; i++) {
+            long flops = 1;
+            for (int p = aRowPointers[i]; p < aRowPointers[i + 1]; p++) {
+                int k = aColumns[p];
+                flops += bRowPointers[k + 1] - bRowPointers[k];
+            }
+            flopPrefix[i + 1] = flopPrefix[i] + flops;
+        }
+
+        int blocks = Math.max(1, Math.min(parts, rows));
+        int[] bounds = new int[blocks + 1];
+        bounds[blocks] = rows;
+        for (int w = 1; w < blocks; w++) {
+            long target = flopPrefix[rows] * w / blocks;
+            int row = Arrays.binarySearch(flopPrefix, target);
+            row = row < 0 ? -row - 1 : row;
+            bounds[w] = Math.max(bounds[w - 1], Math.min(row, rows));
+        }
+        return bounds;
+    }
+
+    // Largest divisor of p not above sqrt(p), so the grid is as square as the worker count allows.
+    static int gridRows(int p) {
+        int best = 1;
+        for (int r = 1; (long) r * r <= p; r++) {
+            if (p % r == 0) {
+                best = r;
+            }
+        }
+        return best;
+    }
+
+    private static CSRMatrix stack(List<CSRMatrix> parts, int rows, int cols) {
+        int nonZeros = 0;
+        for (CSRMatrix part : parts) {
+            nonZeros = Math.addExact(nonZeros, part.getRowPointers()[part.getRows()]);
+        }
+        double[] values = new double[nonZeros];
+        int[] columnIndices = new int[nonZeros];
+        int[] rowPointers = new int[rows + 1];
+        int row = 0, offset = 0;
+        for (CSRMatrix part : parts) {
+            int[] partPointers = part.getRowPointers();
+            int partNonZeros = partPointers[part.getRows()];
+            System.arraycopy(part.getValues(), 0, values, offset, partNonZeros);
+            System.arraycopy(part.getColumnIndices(), 0, columnIndices, offset, partNonZeros);
+            for (int i = 1; i <= part.getRows(); i++) {
+                rowPointers[row + i] = offset + partPointers[i];
+            }
+            row += part.getRows();
+            offset += partNonZeros;
+        }
+        return new CSRMatrix(values, columnIndices, rowPointers, rows, cols);
+    }
+
+    private static int checkDimensions(double[][] A, double[][] B) {
+        int inner = A.length == 0 ? 0 : A[0].length;
+        if (inner != B.length) {
+            throw new IllegalArgumentException("Matrix dimensions do not match for multiplication.");
+        }
+        return inner;
+    }
+
+    private <T> List<T> runAll(List<Callable<T>> tasks) throws IOException {
+        List<Future<T>> futures = new ArrayList<>(tasks.size());
+        for (Callable<T> task : tasks) {
+            futures.add(senders.submit(task));
+        }
+        List<T> results = new ArrayList<>(tasks.size());
+        IOException failure = null;
+        for (Future<T> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException) {
+                    failure = (IOException) cause;
+                } else if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                } else {
+                    throw new IOException(cause);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for workers.", e);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return results;
+    }
+}
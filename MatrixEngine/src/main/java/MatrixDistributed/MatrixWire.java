@@ -0,0 +1,262 @@
+package MatrixDistributed;
+
+import SparseRowCSR.SparseMatrixCSRMul.CSRMatrix;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+
+// One end of a worker connection. Arrays move through a direct buffer in bulk, little-endian like
+// SparseBinaryFormat. Matrices go over the wire as
+//   CSR:   int rows, int cols, int nonzeros, rows + 1 row pointers, column indices, values
+//   dense: int rows, int cols, rows * cols values in row-major order
+// and both writers can send a sub-range of a larger matrix without copying it first. Every length read off the
+// socket is checked against the others and against maxElements before anything is allocated; a frame that fails
+// raises ProtocolException, after which the rest of the stream can no longer be located.
+class MatrixWire implements Closeable {
+    static final int MULTIPLY_CSR = 1;
+    static final int MULTIPLY_DENSE = 2;
+    static final int SUMMA_TILE = 3;
+
+    static final int STATUS_OK = 0;
+    static final int STATUS_ERROR = 1;
+
+    // Largest array a frame may ask for: 2^28 entries, i.e. 2 GiB of doubles.
+    static final int DEFAULT_MAX_ELEMENTS = 1 << 28;
+
+    private static final int BUFFER_BYTES = 1 << 20;
+
+    private final SocketChannel channel;
+    private final int maxElements;
+    private final ByteBuffer out = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    private final ByteBuffer in = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+    MatrixWire(SocketChannel channel) throws IOException {
+        this(channel, DEFAULT_MAX_ELEMENTS);
+    }
+
+    MatrixWire(SocketChannel channel, int maxElements) throws IOException {
+        if (maxElements <= 0) {
+            throw new IllegalArgumentException("maxElements must be positive.");
+        }
+        this.channel = channel;
+        this.maxElements = maxElements;
+        channel.configureBlocking(true);
+        channel.socket().setTcpNoDelay(true);
+        in.limit(0);
+    }
+
+    void writeInt(int value) throws IOException {
+        reserve(Integer.BYTES);
+        out.putInt(value);
+    }
+
+    void writeInts(int[] data, int from, int to) throws IOException {
+        while (from < to) {
+            reserve(Integer.BYTES);
+            int count = Math.min(to - from, out.remaining() / Integer.BYTES);
+            out.asIntBuffer().put(data, from, count);
+            out.position(out.position() + count * Integer.BYTES);
+            from += count;
+        }
+    }
+
+    void writeDoubles(double[] data, int from, int to) throws IOException {
+        while (from < to) {
+            reserve(Double.BYTES);
+            int count = Math.min(to - from, out.remaining() / Double.BYTES);
+            out.asDoubleBuffer().put(data, from, count);
+            out.position(out.position() + count * Double.BYTES);
+            from += count;
+        }
+    }
+
+    void writeString(String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeInt(bytes.length);
+        for (byte b : bytes) {
+            reserve(1);
+            out.put(b);
+        }
+    }
+
+    void writeCSR(CSRMatrix matrix) throws IOException {
+        writeCSRRows(matrix, 0, matrix.getRows());
+    }
+
+    // Rows [rowStart, rowEnd) as a standalone CSR matrix; the row pointers are rebased to start at zero.
+    void writeCSRRows(CSRMatrix matrix, int rowStart, int rowEnd) throws IOException {
+        int[] rowPointers = matrix.getRowPointers();
+        int base = rowPointers[rowStart];
+        writeInt(rowEnd - rowStart);
+        writeInt(matrix.getCols());
+        writeInt(rowPointers[rowEnd] - base);
+        for (int i = rowStart; i <= rowEnd; i++) {
+            writeInt(rowPointers[i] - base);
+        }
+        writeInts(matrix.getColumnIndices(), base, rowPointers[rowEnd]);
+        writeDoubles(matrix.getValues(), base, rowPointers[rowEnd]);
+    }
+
+    void writeDense(double[][] matrix, int rowStart, int rowEnd, int colStart, int colEnd) throws IOException {
+        writeInt(rowEnd - rowStart);
+        writeInt(colEnd - colStart);
+        for (int i = rowStart; i < rowEnd; i++) {
+            writeDoubles(matrix[i], colStart, colEnd);
+        }
+    }
+
+    void flush() throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        out.clear();
+    }
+
+    int readInt() throws IOException {
+        require(Integer.BYTES);
+        return in.getInt();
+    }
+
+    void readInts(int[] data, int from, int to) throws IOException {
+        while (from < to) {
+            require(Integer.BYTES);
+            int count = Math.min(to - from, in.remaining() / Integer.BYTES);
+            in.asIntBuffer().get(data, from, count);
+            in.position(in.position() + count * Integer.BYTES);
+            from += count;
+        }
+    }
+
+    void readDoubles(double[] data, int from, int to) throws IOException {
+        while (from < to) {
+            require(Double.BYTES);
+            int count = Math.min(to - from, in.remaining() / Double.BYTES);
+            in.asDoubleBuffer().get(data, from, count);
+            in.position(in.position() + count * Double.BYTES);
+            from += count;
+        }
+    }
+
+    String readString() throws IOException {
+        byte[] bytes = new byte[readLength("string length")];
+        for (int i = 0; i < bytes.length; i++) {
+            require(1);
+            bytes[i] = in.get();
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    CSRMatrix readCSR() throws IOException {
+        int rows = readLength("rows");
+        int cols = readDimension("cols");
+        int nonZeros = readLength("nonzeros");
+        if (rows >= maxElements) {
+            throw new ProtocolException("CSR frame has too many rows: " + rows);
+        }
+        int[] rowPointers = new int[rows + 1];
+        readInts(rowPointers, 0, rows + 1);
+        if (rowPointers[0] != 0 || rowPointers[rows] != nonZeros) {
+            throw new ProtocolException("CSR row pointers do not span the " + nonZeros + " nonzeros.");
+        }
+        for (int i = 0; i < rows; i++) {
+            if (rowPointers[i] > rowPointers[i + 1]) {
+                throw new ProtocolException("CSR row pointers decrease at row " + i + ".");
+            }
+        }
+        int[] columnIndices = new int[nonZeros];
+        readInts(columnIndices, 0, nonZeros);
+        for (int k = 0; k < nonZeros; k++) {
+            if (columnIndices[k] < 0 || columnIndices[k] >= cols) {
+                throw new ProtocolException("CSR column index out of range: " + columnIndices[k]);
+            }
+        }
+        double[] values = new double[nonZeros];
+        readDoubles(values, 0, nonZeros);
+        return new CSRMatrix(values, columnIndices, rowPointers, rows, cols);
+    }
+
+    double[][] readDense() throws IOException {
+        int rows = readDimension("rows");
+        int cols = readDimension("cols");
+        checkDenseSize(rows, cols);
+        double[][] matrix = new double[rows][cols];
+        for (double[] row : matrix) {
+            readDoubles(row, 0, cols);
+        }
+        return matrix;
+    }
+
+    // Reads a dense block straight into c[rowOffset.., colOffset..], which lets tiles land in the final result.
+    void readDenseInto(double[][] c, int rowOffset, int colOffset) throws IOException {
+        int rows = readDimension("rows");
+        int cols = readDimension("cols");
+        if (rows > c.length - rowOffset || (rows > 0 && cols > c[rowOffset].length - colOffset)) {
+            throw new ProtocolException("Dense frame of " + rows + " x " + cols + " does not fit the result.");
+        }
+        for (int i = 0; i < rows; i++) {
+            readDoubles(c[rowOffset + i], colOffset, colOffset + cols);
+        }
+    }
+
+    // Throws with the worker's message if the reply carries an error status.
+    void readStatus() throws IOException {
+        if (readInt() != STATUS_OK) {
+            throw new IOException("Worker failed: " + readString());
+        }
+    }
+
+    // A count of array entries: non-negative and at most maxElements.
+    int readLength(String what) throws IOException {
+        int length = readInt();
+        if (length < 0 || length > maxElements) {
+            throw new ProtocolException("Invalid " + what + ": " + length);
+        }
+        return length;
+    }
+
+    // A matrix dimension, which may exceed maxElements on its own (a 1 x n row, an empty n x 0 block).
+    int readDimension(String what) throws IOException {
+        int dimension = readInt();
+        if (dimension < 0) {
+            throw new ProtocolException("Invalid " + what + ": " + dimension);
+        }
+        return dimension;
+    }
+
+    void checkDenseSize(int rows, int cols) throws ProtocolException {
+        if ((long) rows * cols > maxElements || (cols == 0 && rows > maxElements)) {
+            throw new ProtocolException("Dense frame of " + rows + " x " + cols + " exceeds " + maxElements + " entries.");
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void reserve(int bytes) throws IOException {
+        if (out.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    private void require(int bytes) throws IOException {
+        if (in.remaining() >= bytes) {
+            return;
+        }
+        in.compact();
+        while (in.position() < bytes) {
+            if (channel.read(in) < 0) {
+                throw new EOFException("Connection closed by peer.");
+            }
+        }
+        in.flip();
+    }
+}
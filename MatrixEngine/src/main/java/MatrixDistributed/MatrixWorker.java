@@ -0,0 +1,191 @@
+package MatrixDistributed;
+
+import DenseParallel.MatrixScheduler;
+import SparseRowCSR.SparseMatrixCSRMul.CSRMatrix;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ProtocolException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+// Serves multiply requests from coordinators. Each connection gets its own thread and handles one request at
+// a time; the products themselves run on the worker's scheduler pool, so a worker uses all of its cores.
+// The service is unauthenticated, so it listens on loopback unless a host is given explicitly.
+// Run standalone with: java MatrixDistributed.MatrixWorker [port [host]]   (port 0 picks a free one)
+public class MatrixWorker implements Closeable {
+    static final String READY_PREFIX = "MatrixWorker listening on port ";
+
+    private final ServerSocketChannel server;
+    private final MatrixScheduler scheduler;
+    private final int maxElements;
+    private final Thread acceptor;
+
+    public MatrixWorker(int port) throws IOException {
+        this(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), MatrixScheduler.shared());
+    }
+
+    public MatrixWorker(InetSocketAddress address, MatrixScheduler scheduler) throws IOException {
+        this(address, scheduler, MatrixWire.DEFAULT_MAX_ELEMENTS);
+    }
+
+    // maxElements caps every array a request may ask the worker to allocate.
+    public MatrixWorker(InetSocketAddress address, MatrixScheduler scheduler, int maxElements) throws IOException {
+        if (maxElements <= 0) {
+            throw new IllegalArgumentException("maxElements must be positive.");
+        }
+        this.server = ServerSocketChannel.open().bind(address);
+        this.scheduler = scheduler;
+        this.maxElements = maxElements;
+        this.acceptor = new Thread(this::acceptLoop, "matrix-worker-" + getPort());
+        this.acceptor.setDaemon(true);
+        this.acceptor.start();
+    }
+
+    public int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    public InetSocketAddress getAddress() {
+        return (InetSocketAddress) server.socket().getLocalSocketAddress();
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 0;
+        InetSocketAddress address = args.length > 1
+                ? new InetSocketAddress(args[1], port)
+                : new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+        MatrixWorker worker = new MatrixWorker(address, MatrixScheduler.shared());
+        System.out.println(READY_PREFIX + worker.getPort());
+        System.out.flush();
+        worker.acceptor.join();
+    }
+
+    private void acceptLoop() {
+        while (server.isOpen()) {
+            try {
+                SocketChannel channel = server.accept();
+                Thread connection = new Thread(() -> serve(channel), "matrix-worker-connection");
+                connection.setDaemon(true);
+                connection.start();
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void serve(SocketChannel channel) {
+        try (MatrixWire wire = new MatrixWire(channel, maxElements)) {
+            while (true) {
+                int operation;
+                try {
+                    operation = wire.readInt();
+                } catch (EOFException e) {
+                    return;
+                }
+                try {
+                    handle(operation, wire);
+                } catch (ProtocolException e) {
+                    // The rest of the request can no longer be located: reply, then drop the connection.
+                    replyError(wire, e);
+                    wire.flush();
+                    return;
+                }
+                wire.flush();
+            }
+        } catch (IOException e) {
+            // The coordinator went away mid-request; nothing to reply to.
+        } catch (RuntimeException | OutOfMemoryError e) {
+            // Only this connection is lost; the worker keeps serving the others.
+        }
+    }
+
+    // Requests are always read in full before anything is computed, so an error reply leaves the stream in sync.
+    private void handle(int operation, MatrixWire wire) throws IOException {
+        switch (operation) {
+            case MatrixWire.MULTIPLY_CSR: {
+                CSRMatrix a = wire.readCSR();
+                CSRMatrix b = wire.readCSR();
+                CSRMatrix c;
+                try {
+                    c = a.multiplyParallel(b, scheduler.getPool());
+                } catch (RuntimeException e) {
+                    replyError(wire, e);
+                    return;
+                }
+                wire.writeInt(MatrixWire.STATUS_OK);
+                wire.writeCSR(c);
+                return;
+            }
+            case MatrixWire.MULTIPLY_DENSE: {
+                double[][] a = wire.readDense();
+                double[][] b = wire.readDense();
+                double[][] c;
+                try {
+                    c = multiplyDense(a, b, null);
+                } catch (RuntimeException e) {
+                    replyError(wire, e);
+                    return;
+                }
+                wire.writeInt(MatrixWire.STATUS_OK);
+                wire.writeDense(c, 0, c.length, 0, b.length == 0 ? 0 : b[0].length);
+                return;
+            }
+            case MatrixWire.SUMMA_TILE:
+                handleSummaTile(wire);
+                return;
+            default:
+                throw new ProtocolException("Unknown operation: " + operation);
+        }
+    }
+
+    // One SUMMA tile: C(i,j) accumulates A(i,s) * B(s,j) over every panel s, and each panel is multiplied as soon
+    // as it arrives while the coordinator is still sending the next one.
+    private void handleSummaTile(MatrixWire wire) throws IOException {
+        int rows = wire.readDimension("rows");
+        int cols = wire.readDimension("cols");
+        int panels = wire.readDimension("panels");
+        wire.checkDenseSize(rows, cols);
+        double[][] tile = new double[rows][cols];
+        RuntimeException failure = null;
+        for (int s = 0; s < panels; s++) {
+            double[][] a = wire.readDense();
+            double[][] b = wire.readDense();
+            if (failure == null) {
+                try {
+                    multiplyDense(a, b, tile);
+                } catch (RuntimeException e) {
+                    failure = e;
+                }
+            }
+        }
+        if (failure != null) {
+            replyError(wire, failure);
+            return;
+        }
+        wire.writeInt(MatrixWire.STATUS_OK);
+        wire.writeDense(tile, 0, rows, 0, cols);
+    }
+
+    private double[][] multiplyDense(double[][] a, double[][] b, double[][] c) {
+        int cols = b.length == 0 ? 0 : b[0].length;
+        if (c == null) {
+            c = new double[a.length][cols];
+        }
+        scheduler.multiply(a, b, c);
+        return c;
+    }
+
+    private static void replyError(MatrixWire wire, Exception e) throws IOException {
+        wire.writeInt(MatrixWire.STATUS_ERROR);
+        wire.writeString(String.valueOf(e.getMessage()));
+    }
+}
@@ -0,0 +1,92 @@
+package MatrixDistributed;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+// A MatrixWorker in its own JVM on this machine, started with the current classpath. Stands in for a remote
+// node when testing the distributed path on a single box.
+public class WorkerProcess implements Closeable {
+    private final Process process;
+    private final InetSocketAddress address;
+
+    private WorkerProcess(Process process, InetSocketAddress address) {
+        this.process = process;
+        this.address = address;
+    }
+
+    public static WorkerProcess start(String... jvmOptions) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        // Classes built with preview features only load in a JVM that enables them too.
+        if (ManagementFactory.getRuntimeMXBean().getInputArguments().contains("--enable-preview")) {
+            command.add("--enable-preview");
+        }
+        command.addAll(List.of(jvmOptions));
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(MatrixWorker.class.getName());
+        command.add("0");
+        command.add(InetAddress.getLoopbackAddress().getHostAddress());
+
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        String line;
+        while ((line = output.readLine()) != null) {
+            if (line.startsWith(MatrixWorker.READY_PREFIX)) {
+                int port = Integer.parseInt(line.substring(MatrixWorker.READY_PREFIX.length()).trim());
+                drain(output);
+                return new WorkerProcess(process, new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+            }
+        }
+        process.destroy();
+        throw new IOException("Worker process exited before it was ready.");
+    }
+
+    public static List<WorkerProcess> start(int count, String... jvmOptions) throws IOException {
+        List<WorkerProcess> workers = new ArrayList<>(count);
+        try {
+            for (int w = 0; w < count; w++) {
+                workers.add(start(jvmOptions));
+            }
+        } catch (IOException e) {
+            for (WorkerProcess worker : workers) {
+                worker.close();
+            }
+            throw e;
+        }
+        return workers;
+    }
+
+    public InetSocketAddress getAddress() {
+        return address;
+    }
+
+    @Override
+    public void close() {
+        process.destroy();
+    }
+
+    // Keeps the child from blocking on a full stdout pipe.
+    private static void drain(BufferedReader output) {
+        Thread drainer = new Thread(() -> {
+            try {
+                while (output.readLine() != null) {
+                    // discard
+                }
+            } catch (IOException e) {
+                // process ended
+            }
+        }, "matrix-worker-output");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+}
@@ -0,0 +1,89 @@
+package MatrixExpression;
+
+import SparseRowCSR.SparseMatrixCSRMul.CSRMatrix;
+
+// A lazily built product expression over CSR and dense operands. Nothing is multiplied until one of the
+// evaluate or multiply terminals is called; the planner then sees the whole graph at once.
+public abstract class Expression {
+    final int rows;
+    final int cols;
+
+    Expression(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+    }
+
+    public static Expression of(CSRMatrix matrix) {
+        return new Leaf(matrix, null, matrix.getRows(), matrix.getCols());
+    }
+
+    public static Expression of(double[][] matrix) {
+        int cols = matrix.length == 0 ? 0 : matrix[0].length;
+        return new Leaf(null, matrix, matrix.length, cols);
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public Expression times(Expression other) {
+        if (this.cols != other.rows) {
+            throw new IllegalArgumentException("Matrix dimensions do not match for multiplication.");
+        }
+        return new Product(this, other);
+    }
+
+    public Expression transpose() {
+        if (this instanceof Transpose) {
+            return ((Transpose) this).child;
+        }
+        return new Transpose(this);
+    }
+
+    public CSRMatrix evaluateSparse() {
+        return ExpressionPlanner.DEFAULT.evaluateSparse(this);
+    }
+
+    public double[][] evaluateDense() {
+        return ExpressionPlanner.DEFAULT.evaluateDense(this);
+    }
+
+    public double[] multiply(double[] x) {
+        return ExpressionPlanner.DEFAULT.multiply(this, x);
+    }
+
+    static final class Leaf extends Expression {
+        final CSRMatrix sparse;
+        final double[][] dense;
+
+        Leaf(CSRMatrix sparse, double[][] dense, int rows, int cols) {
+            super(rows, cols);
+            this.sparse = sparse;
+            this.dense = dense;
+        }
+    }
+
+    static final class Product extends Expression {
+        final Expression left;
+        final Expression right;
+
+        Product(Expression left, Expression right) {
+            super(left.rows, right.cols);
+            this.left = left;
+            this.right = right;
+        }
+    }
+
+    static final class Transpose extends Expression {
+        final Expression child;
+
+        Transpose(Expression child) {
+            super(child.cols, child.rows);
+            this.child = child;
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package MatrixExpression;
+
+import DenseParallel.DenseMatrixMul;
+import MatrixDispatch.Calibration;
+import MatrixExpression.Expression.Leaf;
+import MatrixExpression.Expression.Product;
+import MatrixExpression.Expression.Transpose;
+import SparseColumnCSC.SparseMatrixCSCMul.CSCMatrix;
+import SparseRowCSR.SparseMatrixCSRMul;
+import SparseRowCSR.SparseMatrixCSRMul.CSRMatrix;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Evaluates expression graphs. Transposes are pushed down to the leaves, products are flattened into chains
+// and every chain is ordered by the matrix-chain dynamic program over estimated cost. A subexpression used
+// more than once is evaluated once and reused. A final product with a vector never forms a matrix at all.
+public class ExpressionPlanner {
+    // Rough single-core rates from Calibration on the development machine; only their ratios steer the plan.
+    static final ExpressionPlanner DEFAULT = new ExpressionPlanner(5e-8, 5e-10, 1e-10);
+
+    private final double sparseSecondsPerMultiplyAdd;
+    private final double mixedSecondsPerMultiplyAdd;
+    private final double denseSecondsPerFlop;
+    private final DenseMatrixMul dense = new DenseMatrixMul(DenseMatrixMul.Strategy.PACKED);
+
+    public ExpressionPlanner(double sparseSecondsPerMultiplyAdd, double mixedSecondsPerMultiplyAdd,
+                             double denseSecondsPerFlop) {
+        this.sparseSecondsPerMultiplyAdd = sparseSecondsPerMultiplyAdd;
+        this.mixedSecondsPerMultiplyAdd = mixedSecondsPerMultiplyAdd;
+        this.denseSecondsPerFlop = denseSecondsPerFlop;
+    }
+
+    // A sparse-times-dense multiply-add streams a dense row like one SpMV nonzero does.
+    public ExpressionPlanner(Calibration calibration) {
+        this(calibration.getSparseSecondsPerMultiplyAdd(), calibration.getSpmvSecondsPerNonZero(),
+                calibration.getDensePackedSecondsPerFlop());
+    }
+
+    public CSRMatrix evaluateSparse(Expression expression) {
+        Value value = new Evaluation(expression).evaluate();
+        return value.sparse != null ? value.sparse : SparseMatrixCSRMul.convertToCSR(value.dense);
+    }
+
+    public double[][] evaluateDense(Expression expression) {
+        Value value = new Evaluation(expression).evaluate();
+        return value.dense != null ? value.dense : SparseMatrixCSRMul.convertToDense(value.sparse);
+    }
+
+    // Applies the factors right to left, so A·B·C·x costs nnz(C) + nnz(B) + nnz(A) and keeps one vector alive.
+    // No parenthesization that forms a matrix product can do less work.
+    public double[] multiply(Expression expression, double[] x) {
+        if (x.length != expression.cols) {
+            throw new IllegalArgumentException("Matrix dimensions do not match for multiplication.");
+        }
+        return apply(expression, false, x);
+    }
+
+    private double[] apply(Expression node, boolean transposed, double[] x) {
+        if (node instanceof Transpose) {
+            return apply(((Transpose) node).child, !transposed, x);
+        }
+        if (node instanceof Product) {
+            Product product = (Product) node;
+            return transposed
+                    ? apply(product.right, true, apply(product.left, true, x))
+                    : apply(product.left, false, apply(product.right, false, x));
+        }
+
+        Leaf leaf = (Leaf) node;
+        if (leaf.dense != null) {
+            return transposed ? MixedKernels.multiplyTransposed(leaf.dense, x) : MixedKernels.multiply(leaf.dense, x);
+        }
+        return transposed ? asTransposedCSC(leaf.sparse).multiply(x) : leaf.sparse.multiply(x);
+    }
+
+    private class Evaluation {
+        private final Expression root;
+        private final Map<Expression, Integer> uses = new IdentityHashMap<>();
+        private final Map<Expression, Value> shared = new IdentityHashMap<>();
+        private final Map<Expression, Value> transposedLeaves = new IdentityHashMap<>();
+
+        Evaluation(Expression root) {
+            this.root = root;
+            countUses(root);
+        }
+
+        Value evaluate() {
+            return evaluate(root);
+        }
+
+        private void countUses(Expression node) {
+            if (uses.merge(node, 1, Integer::sum) > 1) {
+                return;
+            }
+            if (node instanceof Product) {
+                countUses(((Product) node).left);
+                countUses(((Product) node).right);
+            } else if (node instanceof Transpose) {
+                countUses(((Transpose) node).child);
+            }
+        }
+
+        private Value evaluate(Expression node) {
+            Value value = shared.get(node);
+            if (value == null) {
+                List<Value> factors = new ArrayList<>();
+                expand(node, false, factors);
+                value = multiplyChain(factors);
+                if (uses.get(node) > 1) {
+                    shared.put(node, value);
+                }
+            }
+            return value;
+        }
+
+        // Flattens nested products into one chain of factors, left to right.
+        private void expand(Expression node, boolean transposed, List<Value> factors) {
+            if (node instanceof Transpose) {
+                collect(((Transpose) node).child, !transposed, factors);
+            } else if (node instanceof Product) {
+                Product product = (Product) node;
+                if (transposed) {
+                    collect(product.right, true, factors);
+                    collect(product.left, true, factors);
+                } else {
+                    collect(product.left, false, factors);
+                    collect(product.right, false, factors);
+                }
+            } else {
+                Leaf leaf = (Leaf) node;
+                Value value = new Value(leaf.sparse, leaf.dense, leaf.rows, leaf.cols);
+                factors.add(transposed ? transposedLeaves.computeIfAbsent(leaf, l -> value.transpose()) : value);
+            }
+        }
+
+        // A product used more than once stays whole, so it is computed once and then reused as a single factor.
+        private void collect(Expression node, boolean transposed, List<Value> factors) {
+            if (node instanceof Product && uses.get(node) > 1) {
+                Value value = evaluate(node);
+                factors.add(transposed ? value.transpose() : value);
+            } else {
+                expand(node, transposed, factors);
+            }
+        }
+    }
+
+    private Value multiplyChain(List<Value> factors) {
+        int n = factors.size();
+        Estimate[][] estimates = new Estimate[n][n];
+        double[][] costs = new double[n][n];
+        int[][] splits = new int[n][n];
+        for (int i = 0; i < n; i++) {
+            Value factor = factors.get(i);
+            estimates[i][i] = new Estimate(factor.rows, factor.cols, factor.nonZeros(), factor.dense != null);
+        }
+
+        for (int length = 2; length <= n; length++) {
+            for (int i = 0; i + length - 1 < n; i++) {
+                int j = i + length - 1;
+                costs[i][j] = Double.POSITIVE_INFINITY;
+                for (int s = i; s < j; s++) {
+                    Estimate left = estimates[i][s];
+                    Estimate right = estimates[s + 1][j];
+                    double cost = costs[i][s] + costs[s + 1][j] + productCost(left, right);
+                    if (cost < costs[i][j]) {
+                        costs[i][j] = cost;
+                        splits[i][j] = s;
+                        estimates[i][j] = left.times(right);
+                    }
+                }
+            }
+        }
+        return multiplyRange(factors, splits, 0, n - 1);
+    }
+
+    private Value multiplyRange(List<Value> factors, int[][] splits, int i, int j) {
+        if (i == j) {
+            return factors.get(i);
+        }
+        int s = splits[i][j];
+        Value left = multiplyRange(factors, splits, i, s);
+        Value right = multiplyRange(factors, splits, s + 1, j);
+        return multiply(left, right);
+    }
+
+    double productCost(Estimate left, Estimate right) {
+        if (left.dense && right.dense) {
+            return 2.0 * left.rows * left.cols * right.cols * denseSecondsPerFlop;
+        }
+        return left.multiplyAdds(right) * (left.dense || right.dense ? mixedSecondsPerMultiplyAdd : sparseSecondsPerMultiplyAdd);
+    }
+
+    private Value multiply(Value left, Value right) {
+        if (left.sparse != null && right.sparse != null) {
+            CSRMatrix product = left.sparse.multiplyTwoPass(right.sparse);
+            return new Value(product, null, product.getRows(), product.getCols());
+        }
+
+        double[][] c;
+        if (left.sparse != null) {
+            c = MixedKernels.multiply(left.sparse, right.dense);
+        } else if (right.sparse != null) {
+            c = MixedKernels.multiply(left.dense, right.sparse);
+        } else {
+            c = new double[left.rows][right.cols];
+            dense.multiply(left.dense, right.dense, c);
+        }
+        return new Value(null, c, left.rows, right.cols);
+    }
+
+    // The CSR arrays of A are the CSC arrays of its transpose, so no data is copied.
+    static CSCMatrix asTransposedCSC(CSRMatrix matrix) {
+        return new CSCMatrix(matrix.getValues(), matrix.getColumnIndices(), matrix.getRowPointers(),
+                matrix.getCols(), matrix.getRows());
+    }
+
+    private static class Value {
+        final CSRMatrix sparse;
+        final double[][] dense;
+        final int rows;
+        final int cols;
+
+        Value(CSRMatrix sparse, double[][] dense, int rows, int cols) {
+            this.sparse = sparse;
+            this.dense = dense;
+            this.rows = rows;
+            this.cols = cols;
+        }
+
+        double nonZeros() {
+            return sparse != null ? sparse.getRowPointers()[rows] : (double) rows * cols;
+        }
+
+        Value transpose() {
+            return sparse != null
+                    ? new Value(sparse.transpose(), null, cols, rows)
+                    : new Value(null, MixedKernels.transpose(dense, rows, cols), cols, rows);
+        }
+    }
+
+    // Sparse products assume uniformly scattered nonzeros: each of the nnz(A) * nnz(B) / k multiply-adds lands
+    // on a random output position. Anything touching a dense operand produces a dense result.
+    static class Estimate {
+        final double rows;
+        final double cols;
+        final double nonZeros;
+        final boolean dense;
+
+        Estimate(double rows, double cols, double nonZeros, boolean dense) {
+            this.rows = rows;
+            this.cols = cols;
+            this.nonZeros = nonZeros;
+            this.dense = dense;
+        }
+
+        double multiplyAdds(Estimate right) {
+            if (dense) {
+                return rows * right.nonZeros;
+            }
+            if (right.dense) {
+                return nonZeros * right.cols;
+            }
+            return cols == 0 ? 0.0 : nonZeros * right.nonZeros / cols;
+        }
+
+        Estimate times(Estimate right) {
+            double positions = rows * right.cols;
+            if (dense || right.dense) {
+                return new Estimate(rows, right.cols, positions, true);
+            }
+            double nonZeros = positions == 0 ? 0.0 : -Math.expm1(-multiplyAdds(right) / positions) * positions;
+            return new Estimate(rows, right.cols, nonZeros, false);
+        }
+    }
+}
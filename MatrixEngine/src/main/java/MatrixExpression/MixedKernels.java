@@ -0,0 +1,87 @@
+package MatrixExpression;
+
+import SparseRowCSR.SparseMatrixCSRMul.CSRMatrix;
+
+class MixedKernels {
+
+    // Row i of the result is a combination of the dense rows selected by row i of A: O(nnz(A) * n).
+    static double[][] multiply(CSRMatrix a, double[][] b) {
+        int rows = a.getRows();
+        int cols = b.length == 0 ? 0 : b[0].length;
+        double[] values = a.getValues();
+        int[] columnIndices = a.getColumnIndices();
+        int[] rowPointers = a.getRowPointers();
+
+        double[][] c = new double[rows][cols];
+        for (int i = 0; i < rows; i++) {
+            double[] cRow = c[i];
+            for (int e = rowPointers[i]; e < rowPointers[i + 1]; e++) {
+                double aik = values[e];
+                double[] bRow = b[columnIndices[e]];
+                for (int j = 0; j < cols; j++) {
+                    cRow[j] += aik * bRow[j];
+                }
+            }
+        }
+        return c;
+    }
+
+    // Scatters every dense entry of A across the matching sparse row of B: O(m * nnz(B)).
+    static double[][] multiply(double[][] a, CSRMatrix b) {
+        int rows = a.length;
+        int inner = b.getRows();
+        double[] values = b.getValues();
+        int[] columnIndices = b.getColumnIndices();
+        int[] rowPointers = b.getRowPointers();
+
+        double[][] c = new double[rows][b.getCols()];
+        for (int i = 0; i < rows; i++) {
+            double[] aRow = a[i];
+            double[] cRow = c[i];
+            for (int k = 0; k < inner; k++) {
+                double aik = aRow[k];
+                for (int e = rowPointers[k]; e < rowPointers[k + 1]; e++) {
+                    cRow[columnIndices[e]] += aik * values[e];
+                }
+            }
+        }
+        return c;
+    }
+
+    static double[] multiply(double[][] a, double[] x) {
+        double[] y = new double[a.length];
+        for (int i = 0; i < a.length; i++) {
+            double[] aRow = a[i];
+            double sum = 0.0;
+            for (int k = 0; k < x.length; k++) {
+                sum += aRow[k] * x[k];
+            }
+            y[i] = sum;
+        }
+        return y;
+    }
+
+    static double[] multiplyTransposed(double[][] a, double[] x) {
+        int cols = a.length == 0 ? 0 : a[0].length;
+        double[] y = new double[cols];
+        for (int i = 0; i < a.length; i++) {
+            double[] aRow = a[i];
+            double xi = x[i];
+            for (int j = 0; j < cols; j++) {
+                y[j] += aRow[j] * xi;
+            }
+        }
+        return y;
+    }
+
+    static double[][] transpose(double[][] a, int rows, int cols) {
+        double[][] t = new double[cols][rows];
+        for (int i = 0; i < rows; i++) {
+            double[] aRow = a[i];
+            for (int j = 0; j < cols; j++) {
+                t[j][i] = aRow[j];
+            }
+        }
+        return t;
+    }
+}
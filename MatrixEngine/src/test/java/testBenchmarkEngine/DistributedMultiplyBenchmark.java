@@ -0,0 +1,133 @@
+package testBenchmarkEngine;
+
+import DenseParallel.MatrixScheduler;
+import MatrixDistributed.DistributedMultiply;
+import MatrixDistributed.WorkerProcess;
+import SparseRowCSR.SparseMatrixCSRMul.CSRMatrix;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Local products against the same products spread over worker JVMs on this machine. On one box this measures
+// the serialization and loopback overhead the distributed path has to win back on real nodes.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+public class DistributedMultiplyBenchmark {
+
+    private CSRMatrix sparseA;
+    private CSRMatrix sparseB;
+    private double[][] denseA;
+    private double[][] denseB;
+    private List<WorkerProcess> workers;
+    private DistributedMultiply distributed;
+
+    @Param({"1", "4"})
+    private int workerCount;
+
+    @Param({"20000"})
+    private int sparseSize;
+
+    @Param({"16"})
+    private int degree;
+
+    @Param({"768"})
+    private int denseSize;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        sparseA = generateSparse(sparseSize, degree, 1);
+        sparseB = generateSparse(sparseSize, degree, 2);
+        denseA = generateDense(denseSize, 3);
+        denseB = generateDense(denseSize, 4);
+        workers = WorkerProcess.start(workerCount);
+        List<InetSocketAddress> addresses = new ArrayList<>();
+        for (WorkerProcess worker : workers) {
+            addresses.add(worker.getAddress());
+        }
+        distributed = new DistributedMultiply(addresses);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        distributed.close();
+        for (WorkerProcess worker : workers) {
+            worker.close();
+        }
+    }
+
+    @Benchmark
+    public CSRMatrix sparseLocal() {
+        return sparseA.multiplyParallel(sparseB, MatrixScheduler.shared().getPool());
+    }
+
+    @Benchmark
+    public CSRMatrix sparseDistributed() throws IOException {
+        return distributed.multiply(sparseA, sparseB);
+    }
+
+    @Benchmark
+    public double[][] denseLocal() {
+        double[][] c = new double[denseSize][denseSize];
+        MatrixScheduler.shared().multiply(denseA, denseB, c);
+        return c;
+    }
+
+    @Benchmark
+    public double[][] denseRowBlocks() throws IOException {
+        return distributed.multiplyRows(denseA, denseB);
+    }
+
+    @Benchmark
+    public double[][] denseSumma() throws IOException {
+        return distributed.multiply(denseA, denseB);
+    }
+
+    private static CSRMatrix generateSparse(int size, int degree, long seed) {
+        Random random = new Random(seed);
+        int[] rowPointers = new int[size + 1];
+        int[] columnIndices = new int[size * degree];
+        double[] values = new double[size * degree];
+        int nonZeros = 0;
+        for (int i = 0; i < size; i++) {
+            int[] columns = random.ints(0, size).distinct().limit(degree).sorted().toArray();
+            for (int column : columns) {
+                columnIndices[nonZeros] = column;
+                values[nonZeros++] = random.nextDouble();
+            }
+            rowPointers[i + 1] = nonZeros;
+        }
+        return new CSRMatrix(values, columnIndices, rowPointers, size, size);
+    }
+
+    private static double[][] generateDense(int size, long seed) {
+        Random random = new Random(seed);
+        double[][] matrix = new double[size][size];
+        for (double[] row : matrix) {
+            for (int j = 0; j < size; j++) {
+                row[j] = random.nextDouble();
+            }
+        }
+        return matrix;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(DistributedMultiplyBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
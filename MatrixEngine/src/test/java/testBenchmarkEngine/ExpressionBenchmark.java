@@ -0,0 +1,89 @@
+package testBenchmarkEngine;
+
+import MatrixExpression.Expression;
+import SparseRowCSR.SparseMatrixCSRMul.CSRMatrix;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Eager left-to-right evaluation against the lazy planner, for A·B·C·x and for A·B·U with a thin U.
+// Run with -prof gc to compare the bytes allocated per operation.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+public class ExpressionBenchmark {
+
+    private CSRMatrix a;
+    private CSRMatrix b;
+    private CSRMatrix c;
+    private CSRMatrix thin;
+    private double[] x;
+
+    @Param({"50000"})
+    private int matrixSize;
+
+    @Param({"8"})
+    private int nonZerosPerRow;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        a = generateRandomCSR(matrixSize, matrixSize, nonZerosPerRow, 1);
+        b = generateRandomCSR(matrixSize, matrixSize, nonZerosPerRow, 2);
+        c = generateRandomCSR(matrixSize, matrixSize, nonZerosPerRow, 3);
+        thin = generateRandomCSR(matrixSize, 16, 1, 4);
+        x = new Random(5).doubles(matrixSize).toArray();
+    }
+
+    @Benchmark
+    public double[] eagerChainVector() {
+        return a.multiplyTwoPass(b).multiplyTwoPass(c).multiply(x);
+    }
+
+    @Benchmark
+    public double[] lazyChainVector() {
+        return Expression.of(a).times(Expression.of(b)).times(Expression.of(c)).multiply(x);
+    }
+
+    @Benchmark
+    public CSRMatrix eagerThinChain() {
+        return a.multiplyTwoPass(b).multiplyTwoPass(thin);
+    }
+
+    @Benchmark
+    public CSRMatrix lazyThinChain() {
+        return Expression.of(a).times(Expression.of(b)).times(Expression.of(thin)).evaluateSparse();
+    }
+
+    private static CSRMatrix generateRandomCSR(int rows, int cols, int perRow, long seed) {
+        Random random = new Random(seed);
+        int[] rowPointers = new int[rows + 1];
+        int[] columnIndices = new int[rows * perRow];
+        double[] values = new double[rows * perRow];
+        int nonZeros = 0;
+        for (int i = 0; i < rows; i++) {
+            int[] row = random.ints(0, cols).distinct().limit(perRow).sorted().toArray();
+            for (int column : row) {
+                columnIndices[nonZeros] = column;
+                values[nonZeros++] = random.nextDouble();
+            }
+            rowPointers[i + 1] = nonZeros;
+        }
+        return new CSRMatrix(values, columnIndices, rowPointers, rows, cols);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(ExpressionBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,93 @@
+package testBenchmarkEngine;
+
+import DenseParallel.DenseMatrixMul;
+import DenseParallel.MatrixScheduler;
+import MatrixDispatch.MatrixEngine;
+import MatrixDispatch.MatrixProfile;
+import SparseRowCSR.SparseMatrixCSRMul;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+public class MatrixEngineBenchmark {
+
+    private MatrixEngine engine;
+    private DenseMatrixMul packed;
+    private MatrixScheduler scheduler;
+    private double[][] a;
+    private double[][] b;
+
+    @Param({"512"})
+    private int matrixSize;
+
+    @Param({"0.9", "0.1", "0.01"})
+    private double density;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        scheduler = MatrixScheduler.shared();
+        engine = new MatrixEngine(scheduler);
+        packed = new DenseMatrixMul(DenseMatrixMul.Strategy.PACKED);
+        a = generateRandomMatrix(matrixSize, density, 1);
+        b = generateRandomMatrix(matrixSize, density, 2);
+        System.out.println();
+        System.out.println(engine.getCalibration());
+        System.out.println(engine.decide(MatrixProfile.of(a, b)));
+    }
+
+    @Benchmark
+    public double[][] engine() {
+        return engine.multiply(a, b);
+    }
+
+    @Benchmark
+    public double[][] densePacked() {
+        double[][] c = new double[matrixSize][matrixSize];
+        packed.multiply(a, b, c);
+        return c;
+    }
+
+    @Benchmark
+    public double[][] denseParallel() {
+        double[][] c = new double[matrixSize][matrixSize];
+        scheduler.multiply(a, b, c);
+        return c;
+    }
+
+    @Benchmark
+    public Object sparse() {
+        return SparseMatrixCSRMul.convertToCSR(a).multiplyTwoPass(SparseMatrixCSRMul.convertToCSR(b));
+    }
+
+    private double[][] generateRandomMatrix(int size, double density, long seed) {
+        Random random = new Random(seed);
+        double[][] matrix = new double[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                if (random.nextDouble() < density) {
+                    matrix[i][j] = random.nextDouble();
+                }
+            }
+        }
+        return matrix;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(MatrixEngineBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(options).run();
+    }
+}
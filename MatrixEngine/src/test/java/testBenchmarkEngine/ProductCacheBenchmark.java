@@ -0,0 +1,119 @@
+package testBenchmarkEngine;
+
+import MatrixCache.ProductCache;
+import SparseRowCSR.SparseMatrixCSRMul.CSRMatrix;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Squares a fixed random adjacency matrix, as a request handler would, with and without the cache in front. The
+// cached benchmarks report the cache's hits and misses as "hits" and "misses" events.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+public class ProductCacheBenchmark {
+
+    private CSRMatrix adjacency;
+    private double[][] dense;
+    private ProductCache cache;
+
+    @Param({"50000"})
+    private int vertices;
+
+    @Param({"8"})
+    private int degree;
+
+    @Param({"256"})
+    private int denseSize;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        adjacency = generateAdjacency(vertices, degree, 1);
+        dense = new double[denseSize][denseSize];
+        Random random = new Random(2);
+        for (double[] row : dense) {
+            for (int j = 0; j < row.length; j++) {
+                row[j] = random.nextDouble();
+            }
+        }
+        cache = new ProductCache(256L << 20);
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class CacheEvents {
+        public long hits;
+        public long misses;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            hits = 0;
+            misses = 0;
+        }
+    }
+
+    @Benchmark
+    public CSRMatrix sparseUncached() {
+        return adjacency.multiplyTwoPass(adjacency);
+    }
+
+    @Benchmark
+    public CSRMatrix sparseCached(CacheEvents events) {
+        long hits = cache.getHits(), misses = cache.getMisses();
+        CSRMatrix product = cache.multiply(adjacency, adjacency);
+        record(events, hits, misses);
+        return product;
+    }
+
+    // A zero-byte cache never stores, so this is the product plus the cost of fingerprinting both operands.
+    @Benchmark
+    public double[][] denseMiss() {
+        return new ProductCache(0).multiply(dense, dense);
+    }
+
+    @Benchmark
+    public double[][] denseCached(CacheEvents events) {
+        long hits = cache.getHits(), misses = cache.getMisses();
+        double[][] product = cache.multiply(dense, dense);
+        record(events, hits, misses);
+        return product;
+    }
+
+    private void record(CacheEvents events, long hits, long misses) {
+        events.hits += cache.getHits() - hits;
+        events.misses += cache.getMisses() - misses;
+    }
+
+    private static CSRMatrix generateAdjacency(int vertices, int degree, long seed) {
+        Random random = new Random(seed);
+        int[] rowPointers = new int[vertices + 1];
+        int[] columnIndices = new int[vertices * degree];
+        double[] values = new double[vertices * degree];
+        int nonZeros = 0;
+        for (int i = 0; i < vertices; i++) {
+            int[] neighbours = random.ints(0, vertices).distinct().limit(degree).sorted().toArray();
+            for (int neighbour : neighbours) {
+                columnIndices[nonZeros] = neighbour;
+                values[nonZeros++] = 1.0;
+            }
+            rowPointers[i + 1] = nonZeros;
+        }
+        return new CSRMatrix(values, columnIndices, rowPointers, vertices, vertices);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(ProductCacheBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
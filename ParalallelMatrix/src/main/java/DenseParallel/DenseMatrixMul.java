@@ -0,0 +1,128 @@
+package DenseParallel;
+
+import DenseBlock.BlockMatrixMul;
+import DenseBlock.DenseMatrix;
+import DenseBlock.FloatDenseMatrix;
+import DenseBlock.FloatMatrixMul;
+import DenseBlock.PackedMatrixMul;
+import DenseBlock.RecursiveMatrixMul;
+import MatrixPrecision.Accumulation;
+
+public class DenseMatrixMul {
+
+    public enum Strategy {
+        NAIVE,
+        IKJ,
+        BLOCKED,
+        PACKED,
+        PARALLEL_BLOCKED,
+        RECURSIVE,
+        STRASSEN
+    }
+
+    private final Strategy strategy;
+    private final int blockSize;
+    private final MatrixScheduler scheduler;
+
+    public DenseMatrixMul(Strategy strategy) {
+        this(strategy, BlockMatrixMul.DEFAULT_BLOCK_SIZE, MatrixScheduler.shared());
+    }
+
+    // blockSize is the tile of the BLOCKED kernel, which PARALLEL_BLOCKED also runs inside each scheduler tile, and
+    // the leaf block of RECURSIVE and STRASSEN; the other strategies have no block size to set.
+    public DenseMatrixMul(Strategy strategy, int blockSize, MatrixScheduler scheduler) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive.");
+        }
+        this.strategy = strategy;
+        this.blockSize = blockSize;
+        this.scheduler = scheduler;
+    }
+
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    public MatrixScheduler getScheduler() {
+        return scheduler;
+    }
+
+    // Accumulates the product into c, i.e. c += a * b.
+    public void multiply(double[][] a, double[][] b, double[][] c) {
+        switch (strategy) {
+            case NAIVE:
+                BlockMatrixMul.multiplyNaive(a, b, c);
+                break;
+            case IKJ:
+                BlockMatrixMul.multiplyIKJ(a, b, c);
+                break;
+            case BLOCKED:
+                BlockMatrixMul.multiplyBlocked(a, b, c, blockSize);
+                break;
+            case PACKED:
+            case RECURSIVE:
+            case STRASSEN:
+                BlockMatrixMul.checkDimensions(a, b, c);
+                DenseMatrix flatC = DenseMatrix.fromArray(c);
+                multiply(DenseMatrix.fromArray(a), DenseMatrix.fromArray(b), flatC);
+                for (int i = 0; i < c.length; i++) {
+                    System.arraycopy(flatC.getData(), i * flatC.getCols(), c[i], 0, flatC.getCols());
+                }
+                break;
+            case PARALLEL_BLOCKED:
+                scheduler.multiply(a, b, c, blockSize);
+                break;
+            default:
+                throw new IllegalStateException("Unknown strategy: " + strategy);
+        }
+    }
+
+    public void multiply(DenseMatrix a, DenseMatrix b, DenseMatrix c) {
+        switch (strategy) {
+            case NAIVE:
+                BlockMatrixMul.multiplyNaive(a, b, c);
+                break;
+            case IKJ:
+                BlockMatrixMul.multiplyIKJ(a, b, c);
+                break;
+            case BLOCKED:
+                BlockMatrixMul.multiplyBlocked(a, b, c, blockSize);
+                break;
+            case PACKED:
+                PackedMatrixMul.multiply(a, b, c);
+                break;
+            case PARALLEL_BLOCKED:
+                scheduler.multiply(a, b, c, blockSize);
+                break;
+            case RECURSIVE:
+                RecursiveMatrixMul.multiply(a, b, c, recursiveSettings(RecursiveMatrixMul.NO_STRASSEN), scheduler.getPool());
+                break;
+            case STRASSEN:
+                RecursiveMatrixMul.multiply(a, b, c, recursiveSettings(RecursiveMatrixMul.Settings.DEFAULT_STRASSEN_CROSSOVER),
+                        scheduler.getPool());
+                break;
+            default:
+                throw new IllegalStateException("Unknown strategy: " + strategy);
+        }
+    }
+
+    // Float storage has one kernel, the panel loop of FloatMatrixMul; the parallel strategies run it on the
+    // scheduler's tiles, the others run it on the calling thread.
+    public void multiply(FloatDenseMatrix a, FloatDenseMatrix b, FloatDenseMatrix c, Accumulation accumulation) {
+        switch (strategy) {
+            case PARALLEL_BLOCKED:
+            case RECURSIVE:
+            case STRASSEN:
+                scheduler.multiply(a, b, c, accumulation);
+                break;
+            default:
+                FloatMatrixMul.multiply(a, b, c, accumulation);
+                break;
+        }
+    }
+
+    private RecursiveMatrixMul.Settings recursiveSettings(int strassenCrossover) {
+        return new RecursiveMatrixMul.Settings(RecursiveMatrixMul.Settings.DEFAULT_LEAF_SIZE, blockSize,
+                RecursiveMatrixMul.Settings.DEFAULT_PARALLEL_CUTOFF, strassenCrossover);
+    }
+}
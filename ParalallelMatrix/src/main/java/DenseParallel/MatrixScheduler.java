@@ -0,0 +1,188 @@
+package DenseParallel;
+
+import DenseBlock.BlockMatrixMul;
+import DenseBlock.DenseMatrix;
+import DenseBlock.FloatDenseMatrix;
+import DenseBlock.FloatMatrixMul;
+import MatrixPrecision.Accumulation;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class MatrixScheduler {
+    public static final long DEFAULT_SEQUENTIAL_CUTOFF = 64L * 64 * 64;
+    public static final int TILES_PER_THREAD = 4;
+
+    private final ForkJoinPool pool;
+    private final long sequentialCutoff;
+    private final int blockSize;
+
+    private static class SharedHolder {
+        static final MatrixScheduler SHARED = new MatrixScheduler(
+                new ForkJoinPool(Runtime.getRuntime().availableProcessors()),
+                DEFAULT_SEQUENTIAL_CUTOFF, BlockMatrixMul.DEFAULT_BLOCK_SIZE);
+    }
+
+    public MatrixScheduler(int parallelism) {
+        this(new ForkJoinPool(parallelism), DEFAULT_SEQUENTIAL_CUTOFF, BlockMatrixMul.DEFAULT_BLOCK_SIZE);
+    }
+
+    public MatrixScheduler(ForkJoinPool pool, long sequentialCutoff, int blockSize) {
+        if (sequentialCutoff < 0 || blockSize <= 0) {
+            throw new IllegalArgumentException("Cutoff must be non-negative and block size positive.");
+        }
+        this.pool = pool;
+        this.sequentialCutoff = sequentialCutoff;
+        this.blockSize = blockSize;
+    }
+
+    public static MatrixScheduler shared() {
+        return SharedHolder.SHARED;
+    }
+
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    public long getSequentialCutoff() {
+        return sequentialCutoff;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    public void multiply(double[][] a, double[][] b, double[][] c) {
+        multiply(a, b, c, blockSize);
+    }
+
+    // Same tiling, with the blocked kernel inside each tile using blockSize instead of the scheduler's own.
+    public void multiply(double[][] a, double[][] b, double[][] c, int blockSize) {
+        checkBlockSize(blockSize);
+        BlockMatrixMul.checkDimensions(a, b, c);
+
+        int rows = a.length;
+        int cols = b.length == 0 ? 0 : b[0].length;
+        int inner = b.length;
+
+        run(rows, cols, inner, (rowStart, rowEnd, colStart, colEnd) ->
+                BlockMatrixMul.multiplyBlocked(a, b, c, blockSize, rowStart, rowEnd, colStart, colEnd));
+    }
+
+    public void multiply(DenseMatrix a, DenseMatrix b, DenseMatrix c) {
+        multiply(a, b, c, blockSize);
+    }
+
+    public void multiply(DenseMatrix a, DenseMatrix b, DenseMatrix c, int blockSize) {
+        checkBlockSize(blockSize);
+        BlockMatrixMul.checkDimensions(a, b, c);
+
+        run(a.getRows(), b.getCols(), a.getCols(), (rowStart, rowEnd, colStart, colEnd) ->
+                BlockMatrixMul.multiplyBlocked(a, b, c, blockSize, rowStart, rowEnd, colStart, colEnd));
+    }
+
+    public void multiply(FloatDenseMatrix a, FloatDenseMatrix b, FloatDenseMatrix c, Accumulation accumulation) {
+        FloatMatrixMul.checkDimensions(a, b, c);
+
+        run(a.getRows(), b.getCols(), a.getCols(), (rowStart, rowEnd, colStart, colEnd) ->
+                FloatMatrixMul.multiply(a, b, c, accumulation, rowStart, rowEnd, colStart, colEnd));
+    }
+
+    public void shutdown() {
+        if (this != SharedHolder.SHARED) {
+            pool.shutdown();
+        }
+    }
+
+    private static void checkBlockSize(int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive.");
+        }
+    }
+
+    private void run(int rows, int cols, int inner, TileKernel kernel) {
+        if (rows == 0 || cols == 0) {
+            return;
+        }
+        if ((long) rows * cols * inner <= sequentialCutoff || pool.getParallelism() == 1) {
+            kernel.multiply(0, rows, 0, cols);
+            return;
+        }
+
+        TileGrid grid = TileGrid.plan(rows, cols, pool.getParallelism() * TILES_PER_THREAD);
+        pool.invoke(new TileTask(grid, kernel, 0, grid.rowTiles, 0, grid.colTiles));
+    }
+
+    static class TileGrid {
+        final int rows, cols;
+        final int rowTiles, colTiles;
+        final int tileRows, tileCols;
+
+        private TileGrid(int rows, int cols, int tileRows, int tileCols) {
+            this.rows = rows;
+            this.cols = cols;
+            this.tileRows = tileRows;
+            this.tileCols = tileCols;
+            this.rowTiles = (rows + tileRows - 1) / tileRows;
+            this.colTiles = (cols + tileCols - 1) / tileCols;
+        }
+
+        // Splits rows x cols into roughly targetTiles tiles of similar aspect ratio. Tile sizes use
+        // ceiling division, so a dimension smaller than the thread count still yields non-empty tiles.
+        static TileGrid plan(int rows, int cols, int targetTiles) {
+            double scale = Math.sqrt((double) targetTiles / ((double) rows * cols));
+            int rowTiles = (int) Math.max(1, Math.min(rows, Math.round(rows * scale)));
+            int colTiles = (int) Math.max(1, Math.min(cols, (targetTiles + rowTiles - 1) / rowTiles));
+
+            return new TileGrid(rows, cols, (rows + rowTiles - 1) / rowTiles, (cols + colTiles - 1) / colTiles);
+        }
+    }
+
+    private interface TileKernel {
+        void multiply(int rowStart, int rowEnd, int colStart, int colEnd);
+    }
+
+    private static class TileTask extends RecursiveAction {
+        private final TileGrid grid;
+        private final TileKernel kernel;
+        private final int rowTileStart, rowTileEnd;
+        private final int colTileStart, colTileEnd;
+
+        TileTask(TileGrid grid, TileKernel kernel, int rowTileStart, int rowTileEnd, int colTileStart, int colTileEnd) {
+            this.grid = grid;
+            this.kernel = kernel;
+            this.rowTileStart = rowTileStart;
+            this.rowTileEnd = rowTileEnd;
+            this.colTileStart = colTileStart;
+            this.colTileEnd = colTileEnd;
+        }
+
+        @Override
+        protected void compute() {
+            int rowSpan = rowTileEnd - rowTileStart;
+            int colSpan = colTileEnd - colTileStart;
+
+            if (rowSpan == 1 && colSpan == 1) {
+                int rowStart = rowTileStart * grid.tileRows;
+                int colStart = colTileStart * grid.tileCols;
+                kernel.multiply(rowStart, Math.min(rowStart + grid.tileRows, grid.rows),
+                        colStart, Math.min(colStart + grid.tileCols, grid.cols));
+                return;
+            }
+
+            if (rowSpan >= colSpan) {
+                int middle = rowTileStart + rowSpan / 2;
+                invokeAll(new TileTask(grid, kernel, rowTileStart, middle, colTileStart, colTileEnd),
+                        new TileTask(grid, kernel, middle, rowTileEnd, colTileStart, colTileEnd));
+            } else {
+                int middle = colTileStart + colSpan / 2;
+                invokeAll(new TileTask(grid, kernel, rowTileStart, rowTileEnd, colTileStart, middle),
+                        new TileTask(grid, kernel, rowTileStart, rowTileEnd, middle, colTileEnd));
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package testBenchmark;
+
+import DenseBlock.DenseMatrix;
+import DenseParallel.MatrixScheduler;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 2, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+public class ParallelDenseMatrixLayoutBenchmark {
+
+    private double[][] a;
+    private double[][] b;
+    private double[][] c;
+
+    private DenseMatrix flatA;
+    private DenseMatrix flatB;
+    private DenseMatrix flatC;
+
+    private final MatrixScheduler scheduler = MatrixScheduler.shared();
+
+    @Param({"1024", "2048", "4096"})
+    private int n;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        a = new double[n][n];
+        b = new double[n][n];
+        c = new double[n][n];
+
+        Random random = new Random(42);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                a[i][j] = random.nextDouble();
+                b[i][j] = random.nextDouble();
+            }
+        }
+
+        flatA = DenseMatrix.fromArray(a);
+        flatB = DenseMatrix.fromArray(b);
+        flatC = new DenseMatrix(n, n);
+    }
+
+    @Benchmark
+    public double[][] parallelBlockedArray() {
+        clear(c);
+        scheduler.multiply(a, b, c);
+        return c;
+    }
+
+    @Benchmark
+    public DenseMatrix parallelBlockedFlat() {
+        flatC.fill(0);
+        scheduler.multiply(flatA, flatB, flatC);
+        return flatC;
+    }
+
+    // The kernels accumulate into C; clearing it is O(n^2) against the O(n^3) product.
+    private static void clear(double[][] matrix) {
+        for (double[] row : matrix) {
+            Arrays.fill(row, 0);
+        }
+    }
+}
@@ -1,13 +1,16 @@
 package testBenchmark;
 
+import DenseBlock.VectorSupport;
+import DenseParallel.DenseMatrixMul;
 import org.openjdk.jmh.annotations.*;
 import java.util.concurrent.*;
+import java.util.Arrays;
 import java.util.Random;
 
 @BenchmarkMode(Mode.AverageTime)
 @OutputTimeUnit(TimeUnit.MILLISECONDS)
 @State(Scope.Thread)
-@Fork(1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
 @Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
 @Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
 public class ParallelMatrixMultiplicationBenchmark {
@@ -15,58 +18,42 @@ public class ParallelMatrixMultiplicationBenchmark {
     private double[][] a;
     private double[][] b;
     private double[][] c;
+    private DenseMatrixMul engine;
 
     @Param({"10", "100", "1024"})
     private int n;
 
+    @Param({"NAIVE", "IKJ", "BLOCKED", "PACKED", "PARALLEL_BLOCKED", "RECURSIVE", "STRASSEN"})
+    private DenseMatrixMul.Strategy strategy;
+
+    @Param({"scalar", "vector"})
+    private String simd;
+
     @Setup(Level.Trial)
     public void setup() {
+        VectorSupport.setEnabled(simd.equals("vector"));
         a = new double[n][n];
         b = new double[n][n];
         c = new double[n][n];
+        engine = new DenseMatrixMul(strategy);
 
-        Random random = new Random();
+        Random random = new Random(42);
         for (int i = 0; i < n; i++) {
             for (int j = 0; j < n; j++) {
                 a[i][j] = random.nextDouble();
                 b[i][j] = random.nextDouble();
-                c[i][j] = 0;
             }
         }
     }
 
-    public void parallelMatrixMultiply(double[][] a, double[][] b, double[][] c) throws InterruptedException {
-        int numThreads = Runtime.getRuntime().availableProcessors();
-        int blockSize = n / numThreads;
-
-        ExecutorService executorService = Executors.newFixedThreadPool(numThreads);
-        CountDownLatch latch = new CountDownLatch(numThreads);
-
-        for (int i = 0; i < numThreads; i++) {
-            final int rowStart = i * blockSize;
-            final int rowEnd = (i == numThreads - 1) ? n : (i + 1) * blockSize;
-
-            executorService.submit(() -> {
-                for (int iRow = rowStart; iRow < rowEnd; iRow++) {
-                    for (int j = 0; j < n; j++) {
-                        for (int k = 0; k < n; k++) {
-                            c[iRow][j] += a[iRow][k] * b[k][j];
-                        }
-                    }
-                }
-                latch.countDown();
-            });
-        }
-
-        latch.await();
-        executorService.shutdown();
-    }
-
-
+    // The kernels accumulate into c, so it is cleared first; O(n^2) against the O(n^3) product.
     @Benchmark
-    public void benchmarkMatrixMultiplication() throws InterruptedException {
-        parallelMatrixMultiply(a, b, c);
+    public double[][] benchmarkMatrixMultiplication() {
+        for (double[] row : c) {
+            Arrays.fill(row, 0);
+        }
+        engine.multiply(a, b, c);
+        return c;
     }
 }
 
-
@@ -0,0 +1,70 @@
+package MatrixMetrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+// Recorded with e.g. java -XX:StartFlightRecording:settings=profile,filename=run.jfr and read with
+// `jfr print --events matrix.Multiply run.jfr` or JDK Mission Control. The event's own duration is the call's
+// wall time.
+@Name("matrix.Multiply")
+@Label("Matrix Multiply")
+@Category({"Matrix", "Multiply"})
+@Description("One matrix multiply with its shape, sparsity, work and phase times")
+@StackTrace(false)
+class MultiplyEvent extends jdk.jfr.Event {
+    @Label("Operation")
+    String operation;
+
+    @Label("Rows")
+    int rows;
+
+    @Label("Inner Dimension")
+    int inner;
+
+    @Label("Columns")
+    int cols;
+
+    @Label("Non-zeros A")
+    long nonZerosA;
+
+    @Label("Non-zeros B")
+    long nonZerosB;
+
+    @Label("Non-zeros C")
+    long nonZerosC;
+
+    @Label("FLOPs")
+    long flops;
+
+    @Label("Compression Ratio")
+    @Description("Multiply-adds per output non-zero")
+    double compressionRatio;
+
+    @Label("Prepare Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long prepareTime;
+
+    @Label("Symbolic Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long symbolicTime;
+
+    @Label("Numeric Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long numericTime;
+
+    @Label("Assemble Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long assembleTime;
+
+    @Label("Allocated")
+    @DataAmount
+    long allocatedBytes;
+
+    @Label("Threads")
+    int threads;
+}
@@ -0,0 +1,8 @@
+package MatrixMetrics;
+
+// Receives one sample per instrumented multiply. Installed with MultiplyTrace.setMetrics; implementations are
+// called on the multiplying thread after the result is built, so they should be cheap and thread-safe.
+@FunctionalInterface
+public interface MultiplyMetrics {
+    void record(MultiplySample sample);
+}
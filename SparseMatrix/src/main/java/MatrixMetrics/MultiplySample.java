@@ -0,0 +1,112 @@
+package MatrixMetrics;
+
+import java.util.Locale;
+
+// What one multiply did: C (rows x cols) = A (rows x inner) * B (inner x cols).
+public final class MultiplySample {
+    final String operation;
+    final int rows, inner, cols;
+    final long nonZerosA, nonZerosB, nonZerosC;
+    final long multiplyAdds;
+    final long totalNanos;
+    final long[] phaseNanos;
+    final long allocatedBytes;
+    final int threads;
+
+    MultiplySample(String operation, int rows, int inner, int cols, long nonZerosA, long nonZerosB, long nonZerosC,
+                   long multiplyAdds, long totalNanos, long[] phaseNanos, long allocatedBytes, int threads) {
+        this.operation = operation;
+        this.rows = rows;
+        this.inner = inner;
+        this.cols = cols;
+        this.nonZerosA = nonZerosA;
+        this.nonZerosB = nonZerosB;
+        this.nonZerosC = nonZerosC;
+        this.multiplyAdds = multiplyAdds;
+        this.totalNanos = totalNanos;
+        this.phaseNanos = phaseNanos;
+        this.allocatedBytes = allocatedBytes;
+        this.threads = threads;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getInner() {
+        return inner;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public long getNonZerosA() {
+        return nonZerosA;
+    }
+
+    public long getNonZerosB() {
+        return nonZerosB;
+    }
+
+    public long getNonZerosC() {
+        return nonZerosC;
+    }
+
+    public long getMultiplyAdds() {
+        return multiplyAdds;
+    }
+
+    // Two FLOPs per multiply-add.
+    public long getFlops() {
+        return 2 * multiplyAdds;
+    }
+
+    // Multiply-adds per output non-zero. High values mean many partial products collapse into few entries,
+    // which is where accumulator choice matters; values near 1 mean the product is as large as the work.
+    public double getCompressionRatio() {
+        return nonZerosC == 0 ? 0 : (double) multiplyAdds / nonZerosC;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public long getPhaseNanos(Phase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    // Bytes allocated during the call; -1 when the JVM cannot measure it. Parallel calls measure every thread
+    // in the process, so concurrent unrelated work is included.
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public double getFlopsPerSecond() {
+        return totalNanos == 0 ? 0 : getFlops() * 1e9 / totalNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder phases = new StringBuilder();
+        for (Phase phase : Phase.values()) {
+            if (phaseNanos[phase.ordinal()] > 0) {
+                phases.append(String.format(Locale.ROOT, " %s=%.3fms", phase.name().toLowerCase(Locale.ROOT),
+                        phaseNanos[phase.ordinal()] / 1e6));
+            }
+        }
+        return String.format(Locale.ROOT,
+                "%s %dx%dx%d nnz(A)=%d nnz(B)=%d nnz(C)=%d flops=%d compression=%.2f time=%.3fms%s"
+                        + " alloc=%dKB threads=%d (%.2f GFLOP/s)",
+                operation, rows, inner, cols, nonZerosA, nonZerosB, nonZerosC, getFlops(), getCompressionRatio(),
+                totalNanos / 1e6, phases, allocatedBytes / 1024, threads, getFlopsPerSecond() / 1e9);
+    }
+}
@@ -0,0 +1,88 @@
+package MatrixMetrics;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Running totals per operation, for watching throughput in a long-lived process. Each operation also keeps its
+// worst sample by FLOP rate, which is usually the pathological input (a hub row, a near-dense block) worth
+// pulling out and looking at.
+public class MultiplyStatistics implements MultiplyMetrics {
+    // Calls below this much work are dominated by fixed overhead and would always look like the worst.
+    private static final long MIN_WORST_FLOPS = 1 << 16;
+
+    private final Map<String, Totals> totals = new ConcurrentHashMap<>();
+
+    @Override
+    public void record(MultiplySample sample) {
+        totals.computeIfAbsent(sample.operation, operation -> new Totals()).add(sample);
+    }
+
+    public long getCalls(String operation) {
+        Totals t = totals.get(operation);
+        return t == null ? 0 : t.calls.sum();
+    }
+
+    public long getFlops(String operation) {
+        Totals t = totals.get(operation);
+        return t == null ? 0 : t.flops.sum();
+    }
+
+    public long getNanos(String operation) {
+        Totals t = totals.get(operation);
+        return t == null ? 0 : t.nanos.sum();
+    }
+
+    public double getFlopsPerSecond(String operation) {
+        long nanos = getNanos(operation);
+        return nanos == 0 ? 0 : getFlops(operation) * 1e9 / nanos;
+    }
+
+    // Slowest call per FLOP among those doing real work; null before any such call.
+    public MultiplySample getWorst(String operation) {
+        Totals t = totals.get(operation);
+        return t == null ? null : t.worst;
+    }
+
+    public void clear() {
+        totals.clear();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder();
+        for (Map.Entry<String, Totals> entry : new TreeMap<>(totals).entrySet()) {
+            String operation = entry.getKey();
+            out.append(String.format(Locale.ROOT, "%s: calls=%d flops=%d time=%.3fms %.2f GFLOP/s%n", operation,
+                    getCalls(operation), getFlops(operation), getNanos(operation) / 1e6,
+                    getFlopsPerSecond(operation) / 1e9));
+            MultiplySample worst = entry.getValue().worst;
+            if (worst != null) {
+                out.append("  worst: ").append(worst).append(System.lineSeparator());
+            }
+        }
+        return out.toString();
+    }
+
+    private static class Totals {
+        final LongAdder calls = new LongAdder();
+        final LongAdder flops = new LongAdder();
+        final LongAdder nanos = new LongAdder();
+        volatile MultiplySample worst;
+
+        void add(MultiplySample sample) {
+            calls.increment();
+            flops.add(sample.getFlops());
+            nanos.add(sample.totalNanos);
+            if (sample.getFlops() >= MIN_WORST_FLOPS) {
+                synchronized (this) {
+                    if (worst == null || sample.getFlopsPerSecond() < worst.getFlopsPerSecond()) {
+                        worst = sample;
+                    }
+                }
+            }
+        }
+    }
+}
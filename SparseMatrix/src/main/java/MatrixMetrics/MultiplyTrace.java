@@ -0,0 +1,166 @@
+package MatrixMetrics;
+
+import SparseRowCSR.SparseMatrixCSRMul.CSRMatrix;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+// Per-call instrumentation handle for the multiply paths. Kernels use it as
+//   MultiplyTrace trace = MultiplyTrace.start("csr.twoPass", 1);
+//   ... if (trace != null) trace.endPhase(Phase.SYMBOLIC); ...
+//   if (trace != null) trace.finish(A, B, C);
+// start returns null unless a metrics sink is installed or the matrix.Multiply JFR event is being recorded, so
+// a disabled trace costs one volatile read and an event allocation that escape analysis removes; nothing is
+// timed, counted or measured.
+// A path that calls other instrumented kernels (the engine, the mixed-format products) uses startOuter instead,
+// inside try/finally with close: until it ends, start returns null on that thread, so one multiply is one sample.
+// Covered: the CSR two-pass, parallel, pruned, masked and delta products, the CSC two-pass, the mixed CSR/CSC
+// products, the float CSR/CSC products, SpMV and batched SpMV on CSR, CSC, BSR and SELL, and MatrixEngine. The
+// List-based multiply baselines, the BSR product, the float SpMV and the off-heap segment kernels emit nothing.
+public final class MultiplyTrace {
+    private static volatile MultiplyMetrics metrics;
+    private static final ThreadLocal<MultiplyTrace> OUTER = new ThreadLocal<>();
+
+    private final String operation;
+    private final int threads;
+    private final MultiplyEvent event;
+    private final MultiplyMetrics sink;
+    private final long startNanos;
+    private final long startAllocated;
+    private final long[] phaseNanos = new long[Phase.values().length];
+    private long markNanos;
+
+    private MultiplyTrace(String operation, int threads, MultiplyEvent event, MultiplyMetrics sink) {
+        this.operation = operation;
+        this.threads = threads;
+        this.event = event;
+        this.sink = sink;
+        this.startAllocated = allocatedBytes(threads);
+        this.startNanos = System.nanoTime();
+        this.markNanos = startNanos;
+        event.begin();
+    }
+
+    public static void setMetrics(MultiplyMetrics sink) {
+        metrics = sink;
+    }
+
+    public static MultiplyMetrics getMetrics() {
+        return metrics;
+    }
+
+    public static MultiplyTrace start(String operation, int threads) {
+        MultiplyMetrics sink = metrics;
+        MultiplyEvent event = new MultiplyEvent();
+        if (sink == null && !event.isEnabled() || OUTER.get() != null) {
+            return null;
+        }
+        return new MultiplyTrace(operation, threads, event, sink);
+    }
+
+    public static MultiplyTrace startOuter(String operation, int threads) {
+        MultiplyTrace trace = start(operation, threads);
+        if (trace != null) {
+            OUTER.set(trace);
+        }
+        return trace;
+    }
+
+    // Ends the suppression of an outer trace; finish does it too, so this only matters when the call throws.
+    public void close() {
+        if (OUTER.get() == this) {
+            OUTER.remove();
+        }
+    }
+
+    // Charges the time since the previous phase ended (or the call started) to `phase`.
+    public void endPhase(Phase phase) {
+        long now = System.nanoTime();
+        phaseNanos[phase.ordinal()] += now - markNanos;
+        markNanos = now;
+    }
+
+    public void finish(CSRMatrix A, CSRMatrix B, CSRMatrix C) {
+        finish(A.getRows(), A.getCols(), B.getCols(), nonZeros(A), nonZeros(B), nonZeros(C), multiplyAdds(A, B));
+    }
+
+    // A times k dense vectors: every stored entry of A is one multiply-add per vector.
+    public void finishVector(int rows, int cols, int k, long storedA) {
+        finish(rows, cols, k, storedA, (long) cols * k, (long) rows * k, storedA * k);
+    }
+
+    public void finish(int rows, int inner, int cols, long nonZerosA, long nonZerosB, long nonZerosC,
+                       long multiplyAdds) {
+        close();
+        long totalNanos = System.nanoTime() - startNanos;
+        long endAllocated = allocatedBytes(threads);
+        long allocated = startAllocated < 0 || endAllocated < 0 ? -1 : endAllocated - startAllocated;
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.rows = rows;
+            event.inner = inner;
+            event.cols = cols;
+            event.nonZerosA = nonZerosA;
+            event.nonZerosB = nonZerosB;
+            event.nonZerosC = nonZerosC;
+            event.flops = 2 * multiplyAdds;
+            event.compressionRatio = nonZerosC == 0 ? 0 : (double) multiplyAdds / nonZerosC;
+            event.prepareTime = phaseNanos[Phase.PREPARE.ordinal()];
+            event.symbolicTime = phaseNanos[Phase.SYMBOLIC.ordinal()];
+            event.numericTime = phaseNanos[Phase.NUMERIC.ordinal()];
+            event.assembleTime = phaseNanos[Phase.ASSEMBLE.ordinal()];
+            event.allocatedBytes = allocated;
+            event.threads = threads;
+            event.commit();
+        }
+        if (sink != null) {
+            sink.record(new MultiplySample(operation, rows, inner, cols, nonZerosA, nonZerosB, nonZerosC,
+                    multiplyAdds, totalNanos, phaseNanos.clone(), allocated, threads));
+        }
+    }
+
+    // Multiply-adds of a row-by-row product: every stored a(i,k) meets every stored entry of row k of B.
+    public static long multiplyAdds(CSRMatrix A, CSRMatrix B) {
+        int[] aRowPointers = A.getRowPointers();
+        int[] aColumns = A.getColumnIndices();
+        int[] bRowPointers = B.getRowPointers();
+        long total = 0;
+        for (int p = 0; p < aRowPointers[A.getRows()]; p++) {
+            int k = aColumns[p];
+            total += bRowPointers[k + 1] - bRowPointers[k];
+        }
+        return total;
+    }
+
+    private static long nonZeros(CSRMatrix matrix) {
+        return matrix.getRowPointers()[matrix.getRows()];
+    }
+
+    // The calling thread's counter is exact; a parallel call has to fall back to the process-wide total.
+    private static long allocatedBytes(int threads) {
+        com.sun.management.ThreadMXBean counter = AllocationCounter.INSTANCE;
+        if (counter == null) {
+            return -1;
+        }
+        long bytes = threads > 1 ? counter.getTotalThreadAllocatedBytes() : counter.getCurrentThreadAllocatedBytes();
+        return bytes < 0 ? -1 : bytes;
+    }
+
+    // Loaded on the first live trace only; bringing up the management beans is too slow for every process that
+    // merely multiplies.
+    private static class AllocationCounter {
+        static final com.sun.management.ThreadMXBean INSTANCE = create();
+
+        private static com.sun.management.ThreadMXBean create() {
+            ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean counter = (com.sun.management.ThreadMXBean) bean;
+                if (counter.isThreadAllocatedMemorySupported() && counter.isThreadAllocatedMemoryEnabled()) {
+                    return counter;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package MatrixMetrics;
+
+// Wall-time buckets of a multiply. Kernels only report the phases they have: the parallel SpGEMM runs its
+// symbolic and numeric passes fused per chunk and reports them together as NUMERIC.
+public enum Phase {
+    PREPARE,
+    SYMBOLIC,
+    NUMERIC,
+    ASSEMBLE
+}
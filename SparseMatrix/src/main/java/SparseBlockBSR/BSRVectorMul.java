@@ -0,0 +1,152 @@
+package SparseBlockBSR;
+
+import SparseBlockBSR.SparseMatrixBSRMul.BSRMatrix;
+import SparseKernels.WorkPartition;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+class BSRVectorMul {
+    // One column index per block instead of per nonzero, and blockWidth consecutive x values per
+    // block, so the inner loop is a short dense dot product with no gather. The common square sizes
+    // are unrolled with the block row sums kept in registers.
+    static void multiplyVector(BSRMatrix A, double[] x, double[] y, int blockRowStart, int blockRowEnd) {
+        // Blocks on the right or bottom edge can be cut off by the matrix dimensions; the unrolled kernels
+        // only run when no block is, so they need no bounds checks.
+        boolean aligned = A.rows % A.blockHeight == 0 && A.cols % A.blockWidth == 0;
+        if (aligned && A.blockHeight == 2 && A.blockWidth == 2) {
+            multiply2x2(A, x, y, blockRowStart, blockRowEnd);
+        } else if (aligned && A.blockHeight == 4 && A.blockWidth == 4) {
+            multiply4x4(A, x, y, blockRowStart, blockRowEnd);
+        } else {
+            multiplyGeneral(A, x, y, blockRowStart, blockRowEnd);
+        }
+    }
+
+    private static void multiply2x2(BSRMatrix A, double[] x, double[] y, int blockRowStart, int blockRowEnd) {
+        int[] blockRowPointers = A.blockRowPointers;
+        int[] blockColumnIndices = A.blockColumnIndices;
+        double[] values = A.values;
+
+        for (int I = blockRowStart; I < blockRowEnd; I++) {
+            double s0 = 0.0;
+            double s1 = 0.0;
+            for (int b = blockRowPointers[I]; b < blockRowPointers[I + 1]; b++) {
+                int xOffset = blockColumnIndices[b] * 2;
+                int v = b * 4;
+                double x0 = x[xOffset];
+                double x1 = x[xOffset + 1];
+                s0 += values[v] * x0 + values[v + 1] * x1;
+                s1 += values[v + 2] * x0 + values[v + 3] * x1;
+            }
+            y[2 * I] = s0;
+            y[2 * I + 1] = s1;
+        }
+    }
+
+    private static void multiply4x4(BSRMatrix A, double[] x, double[] y, int blockRowStart, int blockRowEnd) {
+        int[] blockRowPointers = A.blockRowPointers;
+        int[] blockColumnIndices = A.blockColumnIndices;
+        double[] values = A.values;
+
+        for (int I = blockRowStart; I < blockRowEnd; I++) {
+            double s0 = 0.0;
+            double s1 = 0.0;
+            double s2 = 0.0;
+            double s3 = 0.0;
+            for (int b = blockRowPointers[I]; b < blockRowPointers[I + 1]; b++) {
+                int xOffset = blockColumnIndices[b] * 4;
+                int v = b * 16;
+                double x0 = x[xOffset];
+                double x1 = x[xOffset + 1];
+                double x2 = x[xOffset + 2];
+                double x3 = x[xOffset + 3];
+                s0 += values[v] * x0 + values[v + 1] * x1 + values[v + 2] * x2 + values[v + 3] * x3;
+                s1 += values[v + 4] * x0 + values[v + 5] * x1 + values[v + 6] * x2 + values[v + 7] * x3;
+                s2 += values[v + 8] * x0 + values[v + 9] * x1 + values[v + 10] * x2 + values[v + 11] * x3;
+                s3 += values[v + 12] * x0 + values[v + 13] * x1 + values[v + 14] * x2 + values[v + 15] * x3;
+            }
+            y[4 * I] = s0;
+            y[4 * I + 1] = s1;
+            y[4 * I + 2] = s2;
+            y[4 * I + 3] = s3;
+        }
+    }
+
+    private static void multiplyGeneral(BSRMatrix A, double[] x, double[] y, int blockRowStart, int blockRowEnd) {
+        int blockHeight = A.blockHeight;
+        int blockWidth = A.blockWidth;
+        int blockSize = blockHeight * blockWidth;
+        int[] blockRowPointers = A.blockRowPointers;
+        int[] blockColumnIndices = A.blockColumnIndices;
+        double[] values = A.values;
+        double[] sums = new double[blockHeight];
+
+        for (int I = blockRowStart; I < blockRowEnd; I++) {
+            Arrays.fill(sums, 0.0);
+            for (int b = blockRowPointers[I]; b < blockRowPointers[I + 1]; b++) {
+                int xOffset = blockColumnIndices[b] * blockWidth;
+                int width = Math.min(blockWidth, A.cols - xOffset);
+                int base = b * blockSize;
+                for (int ii = 0; ii < blockHeight; ii++) {
+                    int row = base + ii * blockWidth;
+                    double sum = 0.0;
+                    for (int jj = 0; jj < width; jj++) {
+                        sum += values[row + jj] * x[xOffset + jj];
+                    }
+                    sums[ii] += sum;
+                }
+            }
+            int rowStart = I * blockHeight;
+            int rowEnd = Math.min(A.rows, rowStart + blockHeight);
+            for (int i = rowStart; i < rowEnd; i++) {
+                y[i] = sums[i - rowStart];
+            }
+        }
+    }
+
+    static void multiplyBatch(BSRMatrix A, double[] X, double[] Y, int k) {
+        int blockHeight = A.blockHeight;
+        int blockWidth = A.blockWidth;
+        int blockSize = blockHeight * blockWidth;
+        double[] sums = new double[blockHeight * k];
+
+        for (int I = 0; I < A.blockRows; I++) {
+            Arrays.fill(sums, 0.0);
+            for (int b = A.blockRowPointers[I]; b < A.blockRowPointers[I + 1]; b++) {
+                int colOffset = A.blockColumnIndices[b] * blockWidth;
+                int width = Math.min(blockWidth, A.cols - colOffset);
+                int base = b * blockSize;
+                for (int ii = 0; ii < blockHeight; ii++) {
+                    int sumOffset = ii * k;
+                    for (int jj = 0; jj < width; jj++) {
+                        double value = A.values[base + ii * blockWidth + jj];
+                        int xOffset = (colOffset + jj) * k;
+                        for (int c = 0; c < k; c++) {
+                            sums[sumOffset + c] += value * X[xOffset + c];
+                        }
+                    }
+                }
+            }
+            int rowStart = I * blockHeight;
+            int rowEnd = Math.min(A.rows, rowStart + blockHeight);
+            System.arraycopy(sums, 0, Y, rowStart * k, (rowEnd - rowStart) * k);
+        }
+    }
+
+    static void multiplyVectorParallel(BSRMatrix A, double[] x, double[] y, ForkJoinPool pool) {
+        int[] bounds = WorkPartition.byPointers(A.blockRowPointers, A.blockRows,
+                pool.getParallelism() * WorkPartition.CHUNKS_PER_THREAD);
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(bounds.length - 1);
+        for (int c = 0; c + 1 < bounds.length; c++) {
+            int blockRowStart = bounds[c];
+            int blockRowEnd = bounds[c + 1];
+            tasks.add(ForkJoinTask.adapt(() -> multiplyVector(A, x, y, blockRowStart, blockRowEnd)));
+        }
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+    }
+
+}
@@ -0,0 +1,352 @@
+package SparseBlockBSR;
+
+import MatrixMetrics.MultiplyTrace;
+import MatrixMetrics.Phase;
+import SparseRowCSR.SparseMatrixCSRMul;
+import SparseRowCSR.SparseMatrixCSRMul.CSRMatrix;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+public class SparseMatrixBSRMul {
+
+    // Block compressed sparse row storage: the nonzero blocks of each block row are stored as dense
+    // blockHeight x blockWidth tiles, row-major and zero-padded, sorted by block column.
+    public static class BSRMatrix {
+        double[] values;
+        int[] blockColumnIndices;
+        int[] blockRowPointers;
+
+        int rows, cols;
+        int blockHeight, blockWidth;
+        int blockRows, blockCols;
+
+        public BSRMatrix(double[] values, int[] blockColumnIndices, int[] blockRowPointers, int rows, int cols,
+                         int blockHeight, int blockWidth) {
+            if (blockHeight <= 0 || blockWidth <= 0) {
+                throw new IllegalArgumentException("Block dimensions must be positive.");
+            }
+            this.blockRows = Math.ceilDiv(rows, blockHeight);
+            this.blockCols = Math.ceilDiv(cols, blockWidth);
+            if (blockRowPointers.length != blockRows + 1
+                    || blockColumnIndices.length != blockRowPointers[blockRows]
+                    || values.length != (long) blockColumnIndices.length * blockHeight * blockWidth) {
+                throw new IllegalArgumentException("BSR arrays do not match the matrix dimensions.");
+            }
+            this.values = values;
+            this.blockColumnIndices = blockColumnIndices;
+            this.blockRowPointers = blockRowPointers;
+            this.rows = rows;
+            this.cols = cols;
+            this.blockHeight = blockHeight;
+            this.blockWidth = blockWidth;
+        }
+
+        public double[] getValues() {
+            return values;
+        }
+
+        public int[] getBlockColumnIndices() {
+            return blockColumnIndices;
+        }
+
+        public int[] getBlockRowPointers() {
+            return blockRowPointers;
+        }
+
+        public int getRows() {
+            return rows;
+        }
+
+        public int getCols() {
+            return cols;
+        }
+
+        public int getBlockHeight() {
+            return blockHeight;
+        }
+
+        public int getBlockWidth() {
+            return blockWidth;
+        }
+
+        public int getBlockCount() {
+            return blockRowPointers[blockRows];
+        }
+
+        // Stored values per actual nonzero. Close to 1 means the block size matches the structure;
+        // the SpMV cost grows with this ratio, so anything much above 2 is usually slower than CSR.
+        public double fillRatio() {
+            long nonZeros = 0;
+            for (double value : values) {
+                if (value != 0.0) {
+                    nonZeros++;
+                }
+            }
+            return nonZeros == 0 ? 0.0 : (double) values.length / nonZeros;
+        }
+
+        public double[] multiply(double[] x) {
+            double[] y = new double[rows];
+            multiply(x, y);
+            return y;
+        }
+
+        public void multiply(double[] x, double[] y) {
+            checkVectorDimensions(x, y);
+            MultiplyTrace trace = MultiplyTrace.start("bsr.spmv", 1);
+            BSRVectorMul.multiplyVector(this, x, y, 0, blockRows);
+            if (trace != null) {
+                trace.endPhase(Phase.NUMERIC);
+                trace.finishVector(rows, cols, 1, values.length);
+            }
+        }
+
+        public double[] multiplyParallel(double[] x) {
+            double[] y = new double[rows];
+            multiplyParallel(x, y, ForkJoinPool.commonPool());
+            return y;
+        }
+
+        public void multiplyParallel(double[] x, double[] y, ForkJoinPool pool) {
+            checkVectorDimensions(x, y);
+            MultiplyTrace trace = MultiplyTrace.start("bsr.spmv", pool.getParallelism());
+            BSRVectorMul.multiplyVectorParallel(this, x, y, pool);
+            if (trace != null) {
+                trace.endPhase(Phase.NUMERIC);
+                trace.finishVector(rows, cols, 1, values.length);
+            }
+        }
+
+        public double[] multiplyBatch(double[] X, int k) {
+            double[] Y = new double[Math.multiplyExact(rows, k)];
+            multiplyBatch(X, Y, k);
+            return Y;
+        }
+
+        public void multiplyBatch(double[] X, double[] Y, int k) {
+            if (k <= 0 || X.length != (long) cols * k || Y.length != (long) rows * k) {
+                throw new IllegalArgumentException("Matrix dimensions do not match for multiplication.");
+            }
+            MultiplyTrace trace = MultiplyTrace.start("bsr.spmm", 1);
+            BSRVectorMul.multiplyBatch(this, X, Y, k);
+            if (trace != null) {
+                trace.endPhase(Phase.NUMERIC);
+                trace.finishVector(rows, cols, k, values.length);
+            }
+        }
+
+        // Block Gustavson: every pair of blocks A(I,K) B(K,J) is a small dense product accumulated into
+        // the C(I,J) tile, so the index work is per block instead of per nonzero.
+        public BSRMatrix multiply(BSRMatrix B) {
+            if (this.cols != B.rows) {
+                throw new IllegalArgumentException("Matrix dimensions do not match for multiplication.");
+            }
+            if (this.blockWidth != B.blockHeight) {
+                throw new IllegalArgumentException("Block width of A must equal block height of B.");
+            }
+
+            int inner = this.blockWidth;
+            int tileSize = this.blockHeight * B.blockWidth;
+            int aBlockSize = this.blockHeight * inner;
+            int bBlockSize = inner * B.blockWidth;
+
+            int[] marker = new int[B.blockCols];
+            Arrays.fill(marker, -1);
+            int[] resultBlockRowPointers = new int[blockRows + 1];
+            int capacity = Math.max(16, getBlockCount() + B.getBlockCount());
+            int[] resultColumns = new int[capacity];
+            double[] resultValues = new double[Math.multiplyExact(capacity, tileSize)];
+            int count = 0;
+
+            for (int I = 0; I < blockRows; I++) {
+                int rowStart = count;
+                for (int a = blockRowPointers[I]; a < blockRowPointers[I + 1]; a++) {
+                    int K = blockColumnIndices[a];
+                    int aBase = a * aBlockSize;
+                    for (int b = B.blockRowPointers[K]; b < B.blockRowPointers[K + 1]; b++) {
+                        int J = B.blockColumnIndices[b];
+                        int slot = marker[J];
+                        if (slot < rowStart) {
+                            if (count == capacity) {
+                                capacity = Math.multiplyExact(capacity, 2);
+                                resultColumns = Arrays.copyOf(resultColumns, capacity);
+                                resultValues = Arrays.copyOf(resultValues, Math.multiplyExact(capacity, tileSize));
+                            }
+                            slot = count++;
+                            marker[J] = slot;
+                            resultColumns[slot] = J;
+                        }
+                        multiplyTile(values, aBase, B.values, b * bBlockSize, resultValues, slot * tileSize,
+                                blockHeight, inner, B.blockWidth);
+                    }
+                }
+                sortBlockRow(resultColumns, resultValues, rowStart, count, tileSize);
+                resultBlockRowPointers[I + 1] = count;
+            }
+
+            return new BSRMatrix(Arrays.copyOf(resultValues, count * tileSize), Arrays.copyOf(resultColumns, count),
+                    resultBlockRowPointers, rows, B.cols, blockHeight, B.blockWidth);
+        }
+
+        public CSRMatrix toCSR() {
+            int[] rowPointers = new int[rows + 1];
+            for (int I = 0; I < blockRows; I++) {
+                for (int ii = 0; ii < blockHeight && I * blockHeight + ii < rows; ii++) {
+                    int count = 0;
+                    for (int b = blockRowPointers[I]; b < blockRowPointers[I + 1]; b++) {
+                        int base = (b * blockHeight + ii) * blockWidth;
+                        for (int jj = 0; jj < blockWidth; jj++) {
+                            if (values[base + jj] != 0.0) {
+                                count++;
+                            }
+                        }
+                    }
+                    int i = I * blockHeight + ii;
+                    rowPointers[i + 1] = Math.addExact(rowPointers[i], count);
+                }
+            }
+
+            int[] columnIndices = new int[rowPointers[rows]];
+            double[] csrValues = new double[rowPointers[rows]];
+            for (int I = 0; I < blockRows; I++) {
+                for (int ii = 0; ii < blockHeight && I * blockHeight + ii < rows; ii++) {
+                    int position = rowPointers[I * blockHeight + ii];
+                    for (int b = blockRowPointers[I]; b < blockRowPointers[I + 1]; b++) {
+                        int base = (b * blockHeight + ii) * blockWidth;
+                        int colOffset = blockColumnIndices[b] * blockWidth;
+                        for (int jj = 0; jj < blockWidth; jj++) {
+                            double value = values[base + jj];
+                            if (value != 0.0) {
+                                columnIndices[position] = colOffset + jj;
+                                csrValues[position++] = value;
+                            }
+                        }
+                    }
+                }
+            }
+            return new CSRMatrix(csrValues, columnIndices, rowPointers, rows, cols);
+        }
+
+        private void checkVectorDimensions(double[] x, double[] y) {
+            if (x.length != cols || y.length != rows) {
+                throw new IllegalArgumentException("Matrix dimensions do not match for multiplication.");
+            }
+        }
+    }
+
+    public static BSRMatrix convertToBSR(CSRMatrix A, int blockHeight, int blockWidth) {
+        if (blockHeight <= 0 || blockWidth <= 0) {
+            throw new IllegalArgumentException("Block dimensions must be positive.");
+        }
+        int rows = A.getRows();
+        int cols = A.getCols();
+        int[] rowPointers = A.getRowPointers();
+        int[] columnIndices = A.getColumnIndices();
+        double[] values = A.getValues();
+
+        int blockRows = Math.ceilDiv(rows, blockHeight);
+        int blockCols = Math.ceilDiv(cols, blockWidth);
+        int blockSize = blockHeight * blockWidth;
+
+        int[] marker = new int[blockCols];
+        Arrays.fill(marker, -1);
+        int[] blockRowPointers = new int[blockRows + 1];
+        for (int I = 0; I < blockRows; I++) {
+            int count = 0;
+            int rowStart = I * blockHeight;
+            int rowEnd = Math.min(rows, rowStart + blockHeight);
+            for (int i = rowStart; i < rowEnd; i++) {
+                for (int p = rowPointers[i]; p < rowPointers[i + 1]; p++) {
+                    int J = columnIndices[p] / blockWidth;
+                    if (marker[J] != I) {
+                        marker[J] = I;
+                        count++;
+                    }
+                }
+            }
+            blockRowPointers[I + 1] = Math.addExact(blockRowPointers[I], count);
+        }
+
+        int blockCount = blockRowPointers[blockRows];
+        int[] blockColumnIndices = new int[blockCount];
+        double[] blockValues = new double[Math.multiplyExact(blockCount, blockSize)];
+        int[] slot = new int[blockCols];
+        Arrays.fill(marker, -1);
+        for (int I = 0; I < blockRows; I++) {
+            int start = blockRowPointers[I];
+            int next = start;
+            int rowStart = I * blockHeight;
+            int rowEnd = Math.min(rows, rowStart + blockHeight);
+            for (int i = rowStart; i < rowEnd; i++) {
+                for (int p = rowPointers[i]; p < rowPointers[i + 1]; p++) {
+                    int J = columnIndices[p] / blockWidth;
+                    if (marker[J] != I) {
+                        marker[J] = I;
+                        blockColumnIndices[next++] = J;
+                    }
+                }
+            }
+            Arrays.sort(blockColumnIndices, start, next);
+            for (int b = start; b < next; b++) {
+                slot[blockColumnIndices[b]] = b;
+            }
+            for (int i = rowStart; i < rowEnd; i++) {
+                for (int p = rowPointers[i]; p < rowPointers[i + 1]; p++) {
+                    int J = columnIndices[p] / blockWidth;
+                    blockValues[slot[J] * blockSize + (i - rowStart) * blockWidth + columnIndices[p] - J * blockWidth] += values[p];
+                }
+            }
+        }
+
+        return new BSRMatrix(blockValues, blockColumnIndices, blockRowPointers, rows, cols, blockHeight, blockWidth);
+    }
+
+    public static BSRMatrix convertToBSR(double[][] matrix, int blockHeight, int blockWidth) {
+        return convertToBSR(SparseMatrixCSRMul.convertToCSR(matrix), blockHeight, blockWidth);
+    }
+
+    private static void multiplyTile(double[] a, int aBase, double[] b, int bBase, double[] c, int cBase,
+                                     int height, int inner, int width) {
+        for (int ii = 0; ii < height; ii++) {
+            int cRow = cBase + ii * width;
+            for (int kk = 0; kk < inner; kk++) {
+                double value = a[aBase + ii * inner + kk];
+                if (value == 0.0) {
+                    continue;
+                }
+                int bRow = bBase + kk * width;
+                for (int jj = 0; jj < width; jj++) {
+                    c[cRow + jj] += value * b[bRow + jj];
+                }
+            }
+        }
+    }
+
+    // Orders the tiles of one block row by block column. The row is short, so the tiles are moved
+    // through a scratch copy after sorting (column, slot) keys.
+    private static void sortBlockRow(int[] columns, double[] values, int from, int to, int tileSize) {
+        int length = to - from;
+        if (length < 2) {
+            return;
+        }
+        long[] keys = new long[length];
+        boolean sorted = true;
+        for (int s = 0; s < length; s++) {
+            keys[s] = ((long) columns[from + s] << 32) | s;
+            if (s > 0 && columns[from + s] < columns[from + s - 1]) {
+                sorted = false;
+            }
+        }
+        if (sorted) {
+            return;
+        }
+        Arrays.sort(keys);
+        double[] tiles = Arrays.copyOfRange(values, from * tileSize, to * tileSize);
+        for (int s = 0; s < length; s++) {
+            int source = (int) keys[s];
+            columns[from + s] = (int) (keys[s] >>> 32);
+            System.arraycopy(tiles, source * tileSize, values, (from + s) * tileSize, tileSize);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package SparseColumnCSC;
+
+import SparseColumnCSC.SparseMatrixCSCMul.CSCMatrix;
+import SparseKernels.WorkPartition;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+class CSCVectorMul {
+
+    static void multiplyVector(CSCMatrix A, double[] x, double[] y) {
+        Arrays.fill(y, 0.0);
+        accumulateVector(A, x, y, 0, A.cols);
+    }
+
+    static void multiplyBatch(CSCMatrix A, double[] X, double[] Y, int k) {
+        Arrays.fill(Y, 0.0);
+        accumulateBatch(A, X, Y, k, 0, A.cols);
+    }
+
+    static void accumulateVector(CSCMatrix A, double[] x, double[] y, int colStart, int colEnd) {
+        int[] colPointers = A.colPointers;
+        int[] rowIndices = A.rowIndices;
+        double[] values = A.values;
+
+        for (int j = colStart; j < colEnd; j++) {
+            double xj = x[j];
+            if (xj == 0.0) {
+                continue;
+            }
+            for (int k = colPointers[j]; k < colPointers[j + 1]; k++) {
+                y[rowIndices[k]] += values[k] * xj;
+            }
+        }
+    }
+
+    static void accumulateBatch(CSCMatrix A, double[] X, double[] Y, int k, int colStart, int colEnd) {
+        int[] colPointers = A.colPointers;
+        int[] rowIndices = A.rowIndices;
+        double[] values = A.values;
+
+        for (int j = colStart; j < colEnd; j++) {
+            int xOffset = j * k;
+            for (int p = colPointers[j]; p < colPointers[j + 1]; p++) {
+                double value = values[p];
+                int yOffset = rowIndices[p] * k;
+                for (int c = 0; c < k; c++) {
+                    Y[yOffset + c] += value * X[xOffset + c];
+                }
+            }
+        }
+    }
+
+    // Column slices scatter into arbitrary rows, so each chunk accumulates into a private output and
+    // the partial outputs are summed afterwards, split by rows. One chunk per thread bounds the extra
+    // memory to parallelism copies of y. The copies belong to the call, so the matrix holds no scratch state.
+    static void multiplyVectorParallel(CSCMatrix A, double[] x, double[] y, ForkJoinPool pool) {
+        int[] bounds = WorkPartition.byPointers(A.colPointers, A.cols, pool.getParallelism());
+        int chunkCount = bounds.length - 1;
+        if (chunkCount <= 1) {
+            multiplyVector(A, x, y);
+            return;
+        }
+
+        double[][] partials = partials(y, chunkCount);
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(chunkCount);
+        for (int c = 0; c < chunkCount; c++) {
+            int chunk = c;
+            tasks.add(ForkJoinTask.adapt(() -> accumulateVector(A, x, partials[chunk], bounds[chunk], bounds[chunk + 1])));
+        }
+        invokeAll(pool, tasks);
+
+        runRowRanges(A.rows, chunkCount, pool, (rowStart, rowEnd) -> {
+            for (int c = 1; c < chunkCount; c++) {
+                double[] partial = partials[c];
+                for (int i = rowStart; i < rowEnd; i++) {
+                    y[i] += partial[i];
+                }
+            }
+        });
+    }
+
+    static void multiplyBatchParallel(CSCMatrix A, double[] X, double[] Y, int k, ForkJoinPool pool) {
+        int[] bounds = WorkPartition.byPointers(A.colPointers, A.cols, pool.getParallelism());
+        int chunkCount = bounds.length - 1;
+        if (chunkCount <= 1) {
+            multiplyBatch(A, X, Y, k);
+            return;
+        }
+
+        double[][] partials = partials(Y, chunkCount);
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(chunkCount);
+        for (int c = 0; c < chunkCount; c++) {
+            int chunk = c;
+            tasks.add(ForkJoinTask.adapt(() -> accumulateBatch(A, X, partials[chunk], k, bounds[chunk], bounds[chunk + 1])));
+        }
+        invokeAll(pool, tasks);
+
+        runRowRanges(A.rows, chunkCount, pool, (rowStart, rowEnd) -> {
+            for (int c = 1; c < chunkCount; c++) {
+                double[] partial = partials[c];
+                for (int e = rowStart * k; e < rowEnd * k; e++) {
+                    Y[e] += partial[e];
+                }
+            }
+        });
+    }
+
+    // Chunk 0 accumulates straight into the output, so only chunkCount - 1 extra arrays are allocated.
+    private static double[][] partials(double[] output, int chunkCount) {
+        Arrays.fill(output, 0.0);
+        double[][] partials = new double[chunkCount][];
+        partials[0] = output;
+        for (int c = 1; c < chunkCount; c++) {
+            partials[c] = new double[output.length];
+        }
+        return partials;
+    }
+
+    private static void runRowRanges(int rows, int chunkCount, ForkJoinPool pool, RangeKernel kernel) {
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(chunkCount);
+        for (int c = 0; c < chunkCount; c++) {
+            int rowStart = (int) ((long) rows * c / chunkCount);
+            int rowEnd = (int) ((long) rows * (c + 1) / chunkCount);
+            tasks.add(ForkJoinTask.adapt(() -> kernel.apply(rowStart, rowEnd)));
+        }
+        invokeAll(pool, tasks);
+    }
+
+    private static void invokeAll(ForkJoinPool pool, List<ForkJoinTask<?>> tasks) {
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+    }
+
+    private interface RangeKernel {
+        void apply(int start, int end);
+    }
+}
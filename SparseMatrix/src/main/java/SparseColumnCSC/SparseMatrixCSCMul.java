@@ -1,19 +1,33 @@
 package SparseColumnCSC;
 
+import MatrixMetrics.MultiplyTrace;
+import MatrixMetrics.Phase;
+import SparseKernels.Accumulator;
+import SparseKernels.CompressedTranspose;
+import SparseKernels.CoordinateCompressor;
+import SparseKernels.Dataflow;
+import SparseKernels.HashAccumulator;
+import SparseKernels.SparseAccumulator;
+import SparseRowCSR.SparseMatrixCSRMul.CSRMatrix;
+
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 public class SparseMatrixCSCMul {
 
     public static class CSCMatrix {
+        static final int HASH_ACCUMULATOR_MIN_ROWS = 1 << 15;
+        static final int HASH_ACCUMULATOR_SPARSITY_RATIO = 64;
+
         double[] values;
         int[] rowIndices;
         int[] colPointers;
 
         int rows, cols;
 
-        CSCMatrix(double[] values, int[] rowIndices, int[] colPointers, int rows, int cols) {
+        public CSCMatrix(double[] values, int[] rowIndices, int[] colPointers, int rows, int cols) {
             this.values = values;
             this.rowIndices = rowIndices;
             this.colPointers = colPointers;
@@ -21,6 +35,26 @@ public class SparseMatrixCSCMul {
             this.cols = cols;
         }
 
+        public double[] getValues() {
+            return values;
+        }
+
+        public int[] getRowIndices() {
+            return rowIndices;
+        }
+
+        public int[] getColPointers() {
+            return colPointers;
+        }
+
+        public int getRows() {
+            return rows;
+        }
+
+        public int getCols() {
+            return cols;
+        }
+
         public void printCSCDetails() {
             System.out.println("CSC Representation:");
             System.out.println("Values: " + Arrays.toString(values));
@@ -87,6 +121,282 @@ public class SparseMatrixCSCMul {
 
             return new CSCMatrix(resultValuesArray, resultRowIndicesArray, resultColPointersArray, this.rows, B.cols);
         }
+
+        public CSCMatrix multiplyTwoPass(CSCMatrix B) {
+            if (this.cols != B.rows) {
+                throw new IllegalArgumentException("Matrix dimensions do not match for multiplication.");
+            }
+
+            MultiplyTrace trace = MultiplyTrace.start("csc.twoPass", 1);
+            int[] resultColPointers = symbolicColPointers(B);
+            int nonZeroTotal = resultColPointers[B.cols];
+            if (trace != null) {
+                trace.endPhase(Phase.SYMBOLIC);
+            }
+
+            double[] resultValues = new double[nonZeroTotal];
+            int[] resultRowIndices = new int[nonZeroTotal];
+
+            SparseAccumulator sparseAccumulator = null;
+            HashAccumulator hashAccumulator = null;
+
+            for (int jB = 0; jB < B.cols; jB++) {
+                int colNonZeros = resultColPointers[jB + 1] - resultColPointers[jB];
+                if (colNonZeros == 0) {
+                    continue;
+                }
+
+                Accumulator accumulator;
+                if (useHashAccumulator(colNonZeros, this.rows)) {
+                    if (hashAccumulator == null) {
+                        hashAccumulator = new HashAccumulator(colNonZeros);
+                    } else {
+                        hashAccumulator.prepare(colNonZeros);
+                    }
+                    accumulator = hashAccumulator;
+                } else {
+                    if (sparseAccumulator == null) {
+                        sparseAccumulator = new SparseAccumulator(this.rows);
+                    }
+                    accumulator = sparseAccumulator;
+                }
+
+                accumulateColumn(jB, B, accumulator);
+                accumulator.drainSorted(resultRowIndices, resultValues, resultColPointers[jB]);
+            }
+
+            CSCMatrix result = new CSCMatrix(resultValues, resultRowIndices, resultColPointers, this.rows, B.cols);
+            if (trace != null) {
+                trace.endPhase(Phase.NUMERIC);
+                trace.finish(rows, cols, B.cols, colPointers[cols], B.colPointers[B.cols], nonZeroTotal,
+                        multiplyAdds(B));
+            }
+            return result;
+        }
+
+        // Every stored b(k,j) meets every stored entry of column k of A.
+        long multiplyAdds(CSCMatrix B) {
+            long total = 0;
+            for (int p = 0; p < B.colPointers[B.cols]; p++) {
+                int k = B.rowIndices[p];
+                total += this.colPointers[k + 1] - this.colPointers[k];
+            }
+            return total;
+        }
+
+        public double[] multiply(double[] x) {
+            double[] y = new double[rows];
+            multiply(x, y);
+            return y;
+        }
+
+        public void multiply(double[] x, double[] y) {
+            checkVectorDimensions(x, y);
+            MultiplyTrace trace = MultiplyTrace.start("csc.spmv", 1);
+            CSCVectorMul.multiplyVector(this, x, y);
+            if (trace != null) {
+                trace.endPhase(Phase.NUMERIC);
+                trace.finishVector(rows, cols, 1, colPointers[cols]);
+            }
+        }
+
+        public double[] multiplyParallel(double[] x) {
+            double[] y = new double[rows];
+            multiplyParallel(x, y, ForkJoinPool.commonPool());
+            return y;
+        }
+
+        public void multiplyParallel(double[] x, double[] y, ForkJoinPool pool) {
+            checkVectorDimensions(x, y);
+            MultiplyTrace trace = MultiplyTrace.start("csc.spmv", pool.getParallelism());
+            CSCVectorMul.multiplyVectorParallel(this, x, y, pool);
+            if (trace != null) {
+                trace.endPhase(Phase.NUMERIC);
+                trace.finishVector(rows, cols, 1, colPointers[cols]);
+            }
+        }
+
+        public double[] multiplyBatch(double[] X, int k) {
+            double[] Y = new double[Math.multiplyExact(rows, k)];
+            multiplyBatch(X, Y, k);
+            return Y;
+        }
+
+        public void multiplyBatch(double[] X, double[] Y, int k) {
+            checkBatchDimensions(X, Y, k);
+            MultiplyTrace trace = MultiplyTrace.start("csc.spmm", 1);
+            CSCVectorMul.multiplyBatch(this, X, Y, k);
+            if (trace != null) {
+                trace.endPhase(Phase.NUMERIC);
+                trace.finishVector(rows, cols, k, colPointers[cols]);
+            }
+        }
+
+        public double[] multiplyBatchParallel(double[] X, int k) {
+            double[] Y = new double[Math.multiplyExact(rows, k)];
+            multiplyBatchParallel(X, Y, k, ForkJoinPool.commonPool());
+            return Y;
+        }
+
+        public void multiplyBatchParallel(double[] X, double[] Y, int k, ForkJoinPool pool) {
+            checkBatchDimensions(X, Y, k);
+            MultiplyTrace trace = MultiplyTrace.start("csc.spmm", pool.getParallelism());
+            CSCVectorMul.multiplyBatchParallel(this, X, Y, k, pool);
+            if (trace != null) {
+                trace.endPhase(Phase.NUMERIC);
+                trace.finishVector(rows, cols, k, colPointers[cols]);
+            }
+        }
+
+        public CSCMatrix multiply(CSRMatrix B) {
+            return multiply(B, chooseDataflow(B));
+        }
+
+        public CSCMatrix multiply(CSRMatrix B, Dataflow dataflow) {
+            if (this.cols != B.getRows()) {
+                throw new IllegalArgumentException("Matrix dimensions do not match for multiplication.");
+            }
+
+            MultiplyTrace trace = MultiplyTrace.startOuter("mixed.cscCsr", 1);
+            try {
+                CSCMatrix result;
+                switch (dataflow) {
+                    case INNER_PRODUCT:
+                        result = this.toCSR().multiply(B.toCSC(), Dataflow.INNER_PRODUCT).toCSC();
+                        break;
+                    case OUTER_PRODUCT:
+                        result = multiplyOuterProduct(B);
+                        break;
+                    case GUSTAVSON:
+                        result = multiplyTwoPass(B.toCSC());
+                        break;
+                    default:
+                        throw new IllegalStateException("Unknown dataflow: " + dataflow);
+                }
+                if (trace != null) {
+                    trace.endPhase(Phase.NUMERIC);
+                    trace.finish(rows, cols, B.getCols(), colPointers[cols], B.getRowPointers()[B.getRows()],
+                            result.colPointers[result.cols], flops(B));
+                }
+                return result;
+            } finally {
+                if (trace != null) {
+                    trace.close();
+                }
+            }
+        }
+
+        // Column k of A and row k of B are both at hand, so outer products need no conversion, but every
+        // multiply-add becomes a coordinate entry that two counting sorts then compress. Gustavson converts
+        // B to CSC once and makes a symbolic and a numeric pass, which is cheaper once the product is
+        // bigger than B itself. Inner products would need both operands converted and never win here.
+        public Dataflow chooseDataflow(CSRMatrix B) {
+            long flops = flops(B);
+            long nonZerosB = B.getRowPointers()[B.getRows()];
+            long outerCost = 3 * flops;
+            long gustavsonCost = nonZerosB + 2 * flops;
+            return outerCost <= gustavsonCost && flops <= Integer.MAX_VALUE ? Dataflow.OUTER_PRODUCT : Dataflow.GUSTAVSON;
+        }
+
+        long flops(CSRMatrix B) {
+            int[] rowPointersB = B.getRowPointers();
+            long flops = 0;
+            for (int k = 0; k < this.cols; k++) {
+                flops += (long) (this.colPointers[k + 1] - this.colPointers[k]) * (rowPointersB[k + 1] - rowPointersB[k]);
+            }
+            return flops;
+        }
+
+        CSCMatrix multiplyOuterProduct(CSRMatrix B) {
+            int[] rowPointersB = B.getRowPointers();
+            int[] columnIndicesB = B.getColumnIndices();
+            double[] valuesB = B.getValues();
+
+            int entryCount = Math.toIntExact(flops(B));
+            int[] entryRows = new int[entryCount];
+            int[] entryCols = new int[entryCount];
+            double[] entryValues = new double[entryCount];
+
+            int e = 0;
+            for (int k = 0; k < this.cols; k++) {
+                for (int p = this.colPointers[k]; p < this.colPointers[k + 1]; p++) {
+                    int rowA = this.rowIndices[p];
+                    double valA = this.values[p];
+                    for (int q = rowPointersB[k]; q < rowPointersB[k + 1]; q++) {
+                        entryRows[e] = rowA;
+                        entryCols[e] = columnIndicesB[q];
+                        entryValues[e] = valA * valuesB[q];
+                        e++;
+                    }
+                }
+            }
+
+            return convertCOOToCSC(this.rows, B.getCols(), entryRows, entryCols, entryValues, entryCount);
+        }
+
+        public CSRMatrix toCSR() {
+            CoordinateCompressor.Compressed transposed =
+                    CompressedTranspose.transpose(cols, rows, colPointers, rowIndices, values);
+            return new CSRMatrix(transposed.getValues(), transposed.getIndices(), transposed.getPointers(), rows, cols);
+        }
+
+        public CSCMatrix transpose() {
+            CoordinateCompressor.Compressed transposed =
+                    CompressedTranspose.transpose(cols, rows, colPointers, rowIndices, values);
+            return new CSCMatrix(transposed.getValues(), transposed.getIndices(), transposed.getPointers(), cols, rows);
+        }
+
+        void accumulateColumn(int jB, CSCMatrix B, Accumulator accumulator) {
+            for (int k = B.colPointers[jB]; k < B.colPointers[jB + 1]; k++) {
+                int rowB = B.rowIndices[k];
+                double valB = B.values[k];
+
+                for (int i = this.colPointers[rowB]; i < this.colPointers[rowB + 1]; i++) {
+                    accumulator.accumulate(this.rowIndices[i], this.values[i] * valB);
+                }
+            }
+        }
+
+        int[] symbolicColPointers(CSCMatrix B) {
+            int[] resultColPointers = new int[B.cols + 1];
+            int[] marker = new int[this.rows];
+            Arrays.fill(marker, -1);
+
+            for (int jB = 0; jB < B.cols; jB++) {
+                int nonZeroCount = 0;
+                for (int k = B.colPointers[jB]; k < B.colPointers[jB + 1]; k++) {
+                    int rowB = B.rowIndices[k];
+
+                    for (int i = this.colPointers[rowB]; i < this.colPointers[rowB + 1]; i++) {
+                        int rowA = this.rowIndices[i];
+                        if (marker[rowA] != jB) {
+                            marker[rowA] = jB;
+                            nonZeroCount++;
+                        }
+                    }
+                }
+                resultColPointers[jB + 1] = Math.addExact(resultColPointers[jB], nonZeroCount);
+            }
+
+            return resultColPointers;
+        }
+
+        private void checkVectorDimensions(double[] x, double[] y) {
+            if (x.length != cols || y.length != rows) {
+                throw new IllegalArgumentException("Matrix dimensions do not match for multiplication.");
+            }
+        }
+
+        private void checkBatchDimensions(double[] X, double[] Y, int k) {
+            if (k <= 0 || X.length != (long) cols * k || Y.length != (long) rows * k) {
+                throw new IllegalArgumentException("Matrix dimensions do not match for multiplication.");
+            }
+        }
+
+        static boolean useHashAccumulator(int colNonZeros, int resultRows) {
+            return resultRows >= HASH_ACCUMULATOR_MIN_ROWS
+                    && (long) colNonZeros * HASH_ACCUMULATOR_SPARSITY_RATIO <= resultRows;
+        }
     }
 
     public static CSCMatrix convertToCSC(double[][] matrix) {
@@ -118,6 +428,12 @@ public class SparseMatrixCSCMul {
         return new CSCMatrix(values, rowIndices, colPointers, rows, cols);
     }
 
+    public static CSCMatrix convertCOOToCSC(int rows, int cols, int[] rowIndices, int[] columnIndices, double[] values, int count) {
+        CoordinateCompressor.Compressed compressed =
+                CoordinateCompressor.compress(cols, rows, columnIndices, rowIndices, values, count);
+        return new CSCMatrix(compressed.getValues(), compressed.getIndices(), compressed.getPointers(), rows, cols);
+    }
+
     public static void main(String[] args) {
         double[][] matrixA = {
                 {1, 0, 0, 0},
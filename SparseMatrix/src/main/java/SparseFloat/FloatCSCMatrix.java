@@ -0,0 +1,157 @@
+package SparseFloat;
+
+import MatrixPrecision.Accumulation;
+import SparseColumnCSC.SparseMatrixCSCMul.CSCMatrix;
+
+import java.util.Arrays;
+
+// CSCMatrix with float values. Its arrays are the CSR arrays of the transpose, which is how the product and the
+// conversion reuse the CSR kernels: (A B)^T = B^T A^T.
+public class FloatCSCMatrix {
+    final float[] values;
+    final int[] rowIndices;
+    final int[] colPointers;
+
+    final int rows, cols;
+
+    public FloatCSCMatrix(float[] values, int[] rowIndices, int[] colPointers, int rows, int cols) {
+        this.values = values;
+        this.rowIndices = rowIndices;
+        this.colPointers = colPointers;
+        this.rows = rows;
+        this.cols = cols;
+    }
+
+    // Rounds every value to the nearest float; the structure arrays are shared with `matrix`.
+    public static FloatCSCMatrix fromDouble(CSCMatrix matrix) {
+        return new FloatCSCMatrix(FloatSparseKernels.toFloat(matrix.getValues()), matrix.getRowIndices(),
+                matrix.getColPointers(), matrix.getRows(), matrix.getCols());
+    }
+
+    public CSCMatrix toDouble() {
+        return new CSCMatrix(FloatSparseKernels.toDouble(values), rowIndices, colPointers, rows, cols);
+    }
+
+    public float[] getValues() {
+        return values;
+    }
+
+    public int[] getRowIndices() {
+        return rowIndices;
+    }
+
+    public int[] getColPointers() {
+        return colPointers;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public float[] multiply(float[] x) {
+        return multiply(x, Accumulation.DOUBLE);
+    }
+
+    public float[] multiply(float[] x, Accumulation accumulation) {
+        float[] y = new float[rows];
+        multiply(x, y, accumulation);
+        return y;
+    }
+
+    // Column by column, scattering x_j times column j into y; the double and Kahan modes keep a row-length
+    // scratch of running sums or compensations.
+    public void multiply(float[] x, float[] y, Accumulation accumulation) {
+        if (x.length != cols || y.length != rows) {
+            throw new IllegalArgumentException("Matrix dimensions do not match for multiplication.");
+        }
+        switch (accumulation) {
+            case FLOAT:
+                Arrays.fill(y, 0.0f);
+                for (int j = 0; j < cols; j++) {
+                    float valX = x[j];
+                    for (int k = colPointers[j]; k < colPointers[j + 1]; k++) {
+                        y[rowIndices[k]] += values[k] * valX;
+                    }
+                }
+                break;
+            case DOUBLE: {
+                double[] sums = new double[rows];
+                for (int j = 0; j < cols; j++) {
+                    double valX = x[j];
+                    for (int k = colPointers[j]; k < colPointers[j + 1]; k++) {
+                        sums[rowIndices[k]] += values[k] * valX;
+                    }
+                }
+                for (int i = 0; i < rows; i++) {
+                    y[i] = (float) sums[i];
+                }
+                break;
+            }
+            case KAHAN: {
+                Arrays.fill(y, 0.0f);
+                float[] compensations = new float[rows];
+                for (int j = 0; j < cols; j++) {
+                    float valX = x[j];
+                    for (int k = colPointers[j]; k < colPointers[j + 1]; k++) {
+                        int i = rowIndices[k];
+                        float term = values[k] * valX - compensations[i];
+                        float next = y[i] + term;
+                        compensations[i] = (next - y[i]) - term;
+                        y[i] = next;
+                    }
+                }
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown accumulation: " + accumulation);
+        }
+    }
+
+    public FloatCSCMatrix multiply(FloatCSCMatrix B) {
+        return multiply(B, Accumulation.DOUBLE);
+    }
+
+    public FloatCSCMatrix multiply(FloatCSCMatrix B, Accumulation accumulation) {
+        if (this.cols != B.rows) {
+            throw new IllegalArgumentException("Matrix dimensions do not match for multiplication.");
+        }
+        FloatCSRMatrix transposed = FloatSparseKernels.multiply(B.transposeView(), transposeView(), accumulation);
+        return new FloatCSCMatrix(transposed.values, transposed.columnIndices, transposed.rowPointers, rows, B.cols);
+    }
+
+    public FloatCSRMatrix toCSR() {
+        FloatCSRMatrix transposed = FloatSparseKernels.transpose(transposeView());
+        return new FloatCSRMatrix(transposed.values, transposed.columnIndices, transposed.rowPointers, rows, cols);
+    }
+
+    // Same bound as FloatCSRMatrix.errorBound: errorCoefficient(entries in row i) * (|A| |x|)_i.
+    public double[] errorBound(float[] x, Accumulation accumulation) {
+        if (x.length != cols) {
+            throw new IllegalArgumentException("Matrix dimensions do not match for multiplication.");
+        }
+        double[] sums = new double[rows];
+        int[] counts = new int[rows];
+        for (int j = 0; j < cols; j++) {
+            for (int k = colPointers[j]; k < colPointers[j + 1]; k++) {
+                sums[rowIndices[k]] += Math.abs((double) values[k] * x[j]);
+                counts[rowIndices[k]]++;
+            }
+        }
+        for (int i = 0; i < rows; i++) {
+            sums[i] *= accumulation.errorCoefficient(counts[i]);
+        }
+        return sums;
+    }
+
+    public double errorBound(FloatCSCMatrix B, Accumulation accumulation) {
+        return toCSR().errorBound(B.toCSR(), accumulation);
+    }
+
+    private FloatCSRMatrix transposeView() {
+        return new FloatCSRMatrix(values, rowIndices, colPointers, cols, rows);
+    }
+}
@@ -0,0 +1,154 @@
+package SparseFloat;
+
+import MatrixPrecision.Accumulation;
+import SparseRowCSR.SparseMatrixCSRMul.CSRMatrix;
+
+// CSRMatrix with float values. Indices stay int, so an entry takes 8 bytes instead of 12 and a SpMV streams a
+// third less; the Accumulation decides whether sums run in float, double or compensated float.
+public class FloatCSRMatrix {
+    final float[] values;
+    final int[] columnIndices;
+    final int[] rowPointers;
+
+    final int rows, cols;
+
+    public FloatCSRMatrix(float[] values, int[] columnIndices, int[] rowPointers, int rows, int cols) {
+        this.values = values;
+        this.columnIndices = columnIndices;
+        this.rowPointers = rowPointers;
+        this.rows = rows;
+        this.cols = cols;
+    }
+
+    // Rounds every value to the nearest float; the structure arrays are shared with `matrix`.
+    public static FloatCSRMatrix fromDouble(CSRMatrix matrix) {
+        return new FloatCSRMatrix(FloatSparseKernels.toFloat(matrix.getValues()), matrix.getColumnIndices(),
+                matrix.getRowPointers(), matrix.getRows(), matrix.getCols());
+    }
+
+    public CSRMatrix toDouble() {
+        return new CSRMatrix(FloatSparseKernels.toDouble(values), columnIndices, rowPointers, rows, cols);
+    }
+
+    public float[] getValues() {
+        return values;
+    }
+
+    public int[] getColumnIndices() {
+        return columnIndices;
+    }
+
+    public int[] getRowPointers() {
+        return rowPointers;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public float[] multiply(float[] x) {
+        return multiply(x, Accumulation.DOUBLE);
+    }
+
+    public float[] multiply(float[] x, Accumulation accumulation) {
+        float[] y = new float[rows];
+        multiply(x, y, accumulation);
+        return y;
+    }
+
+    public void multiply(float[] x, float[] y, Accumulation accumulation) {
+        if (x.length != cols || y.length != rows) {
+            throw new IllegalArgumentException("Matrix dimensions do not match for multiplication.");
+        }
+        switch (accumulation) {
+            case FLOAT:
+                for (int i = 0; i < rows; i++) {
+                    float sum = 0.0f;
+                    for (int k = rowPointers[i]; k < rowPointers[i + 1]; k++) {
+                        sum += values[k] * x[columnIndices[k]];
+                    }
+                    y[i] = sum;
+                }
+                break;
+            case DOUBLE:
+                for (int i = 0; i < rows; i++) {
+                    double sum = 0.0;
+                    for (int k = rowPointers[i]; k < rowPointers[i + 1]; k++) {
+                        sum += (double) values[k] * x[columnIndices[k]];
+                    }
+                    y[i] = (float) sum;
+                }
+                break;
+            case KAHAN:
+                for (int i = 0; i < rows; i++) {
+                    float sum = 0.0f;
+                    float compensation = 0.0f;
+                    for (int k = rowPointers[i]; k < rowPointers[i + 1]; k++) {
+                        float term = values[k] * x[columnIndices[k]] - compensation;
+                        float next = sum + term;
+                        compensation = (next - sum) - term;
+                        sum = next;
+                    }
+                    y[i] = sum;
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown accumulation: " + accumulation);
+        }
+    }
+
+    public FloatCSRMatrix multiply(FloatCSRMatrix B) {
+        return multiply(B, Accumulation.DOUBLE);
+    }
+
+    public FloatCSRMatrix multiply(FloatCSRMatrix B, Accumulation accumulation) {
+        if (this.cols != B.rows) {
+            throw new IllegalArgumentException("Matrix dimensions do not match for multiplication.");
+        }
+        return FloatSparseKernels.multiply(this, B, accumulation);
+    }
+
+    public FloatCSCMatrix toCSC() {
+        FloatCSRMatrix transposed = FloatSparseKernels.transpose(this);
+        return new FloatCSCMatrix(transposed.values, transposed.columnIndices, transposed.rowPointers, rows, cols);
+    }
+
+    // Entrywise bound on |y - A x| for y = multiply(x, accumulation): row i sums its stored entries, so it gets
+    // errorCoefficient(row length) * (|A| |x|)_i.
+    public double[] errorBound(float[] x, Accumulation accumulation) {
+        if (x.length != cols) {
+            throw new IllegalArgumentException("Matrix dimensions do not match for multiplication.");
+        }
+        double[] bound = new double[rows];
+        for (int i = 0; i < rows; i++) {
+            double sum = 0.0;
+            for (int k = rowPointers[i]; k < rowPointers[i + 1]; k++) {
+                sum += Math.abs((double) values[k] * x[columnIndices[k]]);
+            }
+            bound[i] = accumulation.errorCoefficient(rowPointers[i + 1] - rowPointers[i]) * sum;
+        }
+        return bound;
+    }
+
+    // Bound on the largest entry of |C - A B| for C = multiply(B, accumulation). Entry (i, j) sums at most
+    // nnz(row i of A) terms and (|A| |B|)_ij <= sum_k |a_ik| * max |B|, so no second product is needed.
+    public double errorBound(FloatCSRMatrix B, Accumulation accumulation) {
+        if (this.cols != B.rows) {
+            throw new IllegalArgumentException("Matrix dimensions do not match for multiplication.");
+        }
+        double maxB = FloatSparseKernels.maxAbs(B.values, B.rowPointers[B.rows]);
+        double bound = 0.0;
+        for (int i = 0; i < rows; i++) {
+            double rowSum = 0.0;
+            for (int k = rowPointers[i]; k < rowPointers[i + 1]; k++) {
+                rowSum += Math.abs(values[k]);
+            }
+            bound = Math.max(bound, accumulation.errorCoefficient(rowPointers[i + 1] - rowPointers[i]) * rowSum);
+        }
+        return bound * maxB;
+    }
+}
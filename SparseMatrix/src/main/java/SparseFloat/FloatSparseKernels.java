@@ -0,0 +1,198 @@
+package SparseFloat;
+
+import MatrixMetrics.MultiplyTrace;
+import MatrixMetrics.Phase;
+import MatrixPrecision.Accumulation;
+
+import java.util.Arrays;
+
+class FloatSparseKernels {
+
+    // Two-pass Gustavson, as CSRMatrix.multiplyTwoPass: a symbolic pass sizes every row, then each row is
+    // accumulated in a dense row of the chosen precision, its columns sorted, and the sums rounded to float.
+    static FloatCSRMatrix multiply(FloatCSRMatrix A, FloatCSRMatrix B, Accumulation accumulation) {
+        MultiplyTrace trace = MultiplyTrace.start("csr.float", 1);
+        int width = B.cols;
+        int[] marker = new int[width];
+        Arrays.fill(marker, -1);
+
+        int[] resultRowPointers = new int[A.rows + 1];
+        long multiplyAdds = 0;
+        for (int i = 0; i < A.rows; i++) {
+            int count = 0;
+            for (int p = A.rowPointers[i]; p < A.rowPointers[i + 1]; p++) {
+                int colA = A.columnIndices[p];
+                multiplyAdds += B.rowPointers[colA + 1] - B.rowPointers[colA];
+                for (int q = B.rowPointers[colA]; q < B.rowPointers[colA + 1]; q++) {
+                    int colB = B.columnIndices[q];
+                    if (marker[colB] != i) {
+                        marker[colB] = i;
+                        count++;
+                    }
+                }
+            }
+            resultRowPointers[i + 1] = Math.addExact(resultRowPointers[i], count);
+        }
+        if (trace != null) {
+            trace.endPhase(Phase.SYMBOLIC);
+        }
+
+        int nonZeros = resultRowPointers[A.rows];
+        int[] resultColumnIndices = new int[nonZeros];
+        float[] resultValues = new float[nonZeros];
+        Arrays.fill(marker, -1);
+        switch (accumulation) {
+            case FLOAT:
+                numericFloat(A, B, marker, resultRowPointers, resultColumnIndices, resultValues);
+                break;
+            case DOUBLE:
+                numericDouble(A, B, marker, resultRowPointers, resultColumnIndices, resultValues);
+                break;
+            case KAHAN:
+                numericKahan(A, B, marker, resultRowPointers, resultColumnIndices, resultValues);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown accumulation: " + accumulation);
+        }
+
+        FloatCSRMatrix result = new FloatCSRMatrix(resultValues, resultColumnIndices, resultRowPointers, A.rows, width);
+        if (trace != null) {
+            trace.endPhase(Phase.NUMERIC);
+            trace.finish(A.rows, A.cols, width, A.rowPointers[A.rows], B.rowPointers[B.rows], nonZeros, multiplyAdds);
+        }
+        return result;
+    }
+
+    private static void numericFloat(FloatCSRMatrix A, FloatCSRMatrix B, int[] marker, int[] resultRowPointers,
+                                     int[] resultColumnIndices, float[] resultValues) {
+        float[] sums = new float[B.cols];
+        for (int i = 0; i < A.rows; i++) {
+            int position = resultRowPointers[i];
+            for (int p = A.rowPointers[i]; p < A.rowPointers[i + 1]; p++) {
+                int colA = A.columnIndices[p];
+                float valA = A.values[p];
+                for (int q = B.rowPointers[colA]; q < B.rowPointers[colA + 1]; q++) {
+                    int colB = B.columnIndices[q];
+                    if (marker[colB] != i) {
+                        marker[colB] = i;
+                        resultColumnIndices[position++] = colB;
+                    }
+                    sums[colB] += valA * B.values[q];
+                }
+            }
+            int start = resultRowPointers[i];
+            Arrays.sort(resultColumnIndices, start, position);
+            for (int e = start; e < position; e++) {
+                int col = resultColumnIndices[e];
+                resultValues[e] = sums[col];
+                sums[col] = 0.0f;
+            }
+        }
+    }
+
+    private static void numericDouble(FloatCSRMatrix A, FloatCSRMatrix B, int[] marker, int[] resultRowPointers,
+                                      int[] resultColumnIndices, float[] resultValues) {
+        double[] sums = new double[B.cols];
+        for (int i = 0; i < A.rows; i++) {
+            int position = resultRowPointers[i];
+            for (int p = A.rowPointers[i]; p < A.rowPointers[i + 1]; p++) {
+                int colA = A.columnIndices[p];
+                double valA = A.values[p];
+                for (int q = B.rowPointers[colA]; q < B.rowPointers[colA + 1]; q++) {
+                    int colB = B.columnIndices[q];
+                    if (marker[colB] != i) {
+                        marker[colB] = i;
+                        resultColumnIndices[position++] = colB;
+                    }
+                    sums[colB] += valA * B.values[q];
+                }
+            }
+            int start = resultRowPointers[i];
+            Arrays.sort(resultColumnIndices, start, position);
+            for (int e = start; e < position; e++) {
+                int col = resultColumnIndices[e];
+                resultValues[e] = (float) sums[col];
+                sums[col] = 0.0;
+            }
+        }
+    }
+
+    private static void numericKahan(FloatCSRMatrix A, FloatCSRMatrix B, int[] marker, int[] resultRowPointers,
+                                     int[] resultColumnIndices, float[] resultValues) {
+        float[] sums = new float[B.cols];
+        float[] compensations = new float[B.cols];
+        for (int i = 0; i < A.rows; i++) {
+            int position = resultRowPointers[i];
+            for (int p = A.rowPointers[i]; p < A.rowPointers[i + 1]; p++) {
+                int colA = A.columnIndices[p];
+                float valA = A.values[p];
+                for (int q = B.rowPointers[colA]; q < B.rowPointers[colA + 1]; q++) {
+                    int colB = B.columnIndices[q];
+                    if (marker[colB] != i) {
+                        marker[colB] = i;
+                        resultColumnIndices[position++] = colB;
+                    }
+                    float term = valA * B.values[q] - compensations[colB];
+                    float next = sums[colB] + term;
+                    compensations[colB] = (next - sums[colB]) - term;
+                    sums[colB] = next;
+                }
+            }
+            int start = resultRowPointers[i];
+            Arrays.sort(resultColumnIndices, start, position);
+            for (int e = start; e < position; e++) {
+                int col = resultColumnIndices[e];
+                resultValues[e] = sums[col];
+                sums[col] = 0.0f;
+                compensations[col] = 0.0f;
+            }
+        }
+    }
+
+    // Counting-sort transpose; rows of the result come out with sorted columns.
+    static FloatCSRMatrix transpose(FloatCSRMatrix A) {
+        int nonZeros = A.rowPointers[A.rows];
+        int[] pointers = new int[A.cols + 1];
+        for (int p = 0; p < nonZeros; p++) {
+            pointers[A.columnIndices[p] + 1]++;
+        }
+        for (int j = 0; j < A.cols; j++) {
+            pointers[j + 1] += pointers[j];
+        }
+        int[] next = Arrays.copyOf(pointers, A.cols);
+        int[] indices = new int[nonZeros];
+        float[] values = new float[nonZeros];
+        for (int i = 0; i < A.rows; i++) {
+            for (int p = A.rowPointers[i]; p < A.rowPointers[i + 1]; p++) {
+                int position = next[A.columnIndices[p]]++;
+                indices[position] = i;
+                values[position] = A.values[p];
+            }
+        }
+        return new FloatCSRMatrix(values, indices, pointers, A.cols, A.rows);
+    }
+
+    static float[] toFloat(double[] values) {
+        float[] result = new float[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = (float) values[i];
+        }
+        return result;
+    }
+
+    static double[] toDouble(float[] values) {
+        double[] result = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = values[i];
+        }
+        return result;
+    }
+
+    static double maxAbs(float[] values, int count) {
+        double max = 0.0;
+        for (int i = 0; i < count; i++) {
+            max = Math.max(max, Math.abs(values[i]));
+        }
+        return max;
+    }
+}
@@ -0,0 +1,548 @@
+package SparseIO;
+
+import SparseColumnCSC.SparseMatrixCSCMul;
+import SparseColumnCSC.SparseMatrixCSCMul.CSCMatrix;
+import SparseKernels.WorkPartition;
+import SparseRowCSR.SparseMatrixCSRMul;
+import SparseRowCSR.SparseMatrixCSRMul.CSRMatrix;
+import SparseSegment.SegmentCSCMatrix;
+import SparseSegment.SegmentCSRMatrix;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+public class MatrixMarketReader {
+    static final long MIN_CHUNK_BYTES = 1 << 20;
+
+    public enum Field {
+        REAL,
+        INTEGER,
+        PATTERN
+    }
+
+    public enum Symmetry {
+        GENERAL,
+        SYMMETRIC,
+        SKEW_SYMMETRIC
+    }
+
+    public static class Header {
+        final Field field;
+        final Symmetry symmetry;
+        final int rows, cols;
+        final long entries;
+
+        Header(Field field, Symmetry symmetry, int rows, int cols, long entries) {
+            this.field = field;
+            this.symmetry = symmetry;
+            this.rows = rows;
+            this.cols = cols;
+            this.entries = entries;
+        }
+
+        public Field getField() {
+            return field;
+        }
+
+        public Symmetry getSymmetry() {
+            return symmetry;
+        }
+
+        public int getRows() {
+            return rows;
+        }
+
+        public int getCols() {
+            return cols;
+        }
+
+        public long getEntries() {
+            return entries;
+        }
+    }
+
+    public static class Entries {
+        final Header header;
+        final int[] rowIndices;
+        final int[] columnIndices;
+        final double[] values;
+        final int count;
+
+        Entries(Header header, int[] rowIndices, int[] columnIndices, double[] values, int count) {
+            this.header = header;
+            this.rowIndices = rowIndices;
+            this.columnIndices = columnIndices;
+            this.values = values;
+            this.count = count;
+        }
+
+        public CSRMatrix toCSR() {
+            return SparseMatrixCSRMul.convertCOOToCSR(header.rows, header.cols, rowIndices, columnIndices, values, count);
+        }
+
+        public CSCMatrix toCSC() {
+            return SparseMatrixCSCMul.convertCOOToCSC(header.rows, header.cols, rowIndices, columnIndices, values, count);
+        }
+
+        public SegmentCSRMatrix toSegmentCSR(Arena arena) {
+            try (Arena scratch = Arena.ofConfined()) {
+                return SegmentCSRMatrix.fromCOO(header.rows, header.cols, copy(rowIndices, scratch),
+                        copy(columnIndices, scratch), copy(values, scratch), count, arena);
+            }
+        }
+
+        public SegmentCSCMatrix toSegmentCSC(Arena arena) {
+            try (Arena scratch = Arena.ofConfined()) {
+                return SegmentCSCMatrix.fromCOO(header.rows, header.cols, copy(rowIndices, scratch),
+                        copy(columnIndices, scratch), copy(values, scratch), count, arena);
+            }
+        }
+
+        private MemorySegment copy(int[] array, Arena scratch) {
+            MemorySegment segment = scratch.allocate((long) count * Integer.BYTES, Integer.BYTES);
+            MemorySegment.copy(array, 0, segment, SegmentCSRMatrix.INDEX_LAYOUT, 0, count);
+            return segment;
+        }
+
+        private MemorySegment copy(double[] array, Arena scratch) {
+            MemorySegment segment = scratch.allocate((long) count * Double.BYTES, Double.BYTES);
+            MemorySegment.copy(array, 0, segment, SegmentCSRMatrix.VALUE_LAYOUT, 0, count);
+            return segment;
+        }
+
+        public Header getHeader() {
+            return header;
+        }
+
+        public int[] getRowIndices() {
+            return rowIndices;
+        }
+
+        public int[] getColumnIndices() {
+            return columnIndices;
+        }
+
+        public double[] getValues() {
+            return values;
+        }
+
+        public int getCount() {
+            return count;
+        }
+    }
+
+    public static CSRMatrix readCSR(Path path) throws IOException {
+        return read(path).toCSR();
+    }
+
+    public static CSCMatrix readCSC(Path path) throws IOException {
+        return read(path).toCSC();
+    }
+
+    public static Entries read(Path path) throws IOException {
+        return read(path, ForkJoinPool.commonPool());
+    }
+
+    public static Entries read(Path path, ForkJoinPool pool) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+             Arena arena = Arena.ofShared()) {
+            long size = channel.size();
+            if (size == 0) {
+                throw new IOException("Empty Matrix Market file: " + path);
+            }
+            MemorySegment segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, size, arena);
+
+            ChunkParser headerParser = new ChunkParser(segment, 0, size, null);
+            Header header = headerParser.parseHeader();
+            long[] bounds = chunkBounds(segment, headerParser.position, size,
+                    pool.getParallelism() * WorkPartition.CHUNKS_PER_THREAD);
+            int chunkCount = bounds.length - 1;
+
+            // The first pass only counts entry lines, so every chunk knows where its entries start and the
+            // second pass can parse straight into the shared primitive arrays without synchronisation.
+            ChunkParser[] parsers = new ChunkParser[chunkCount];
+            int[] counts = new int[chunkCount];
+            List<ForkJoinTask<?>> countTasks = new ArrayList<>(chunkCount);
+            for (int c = 0; c < chunkCount; c++) {
+                final int chunk = c;
+                parsers[c] = new ChunkParser(segment, bounds[c], bounds[c + 1], header);
+                countTasks.add(ForkJoinTask.adapt(() -> {
+                    counts[chunk] = parsers[chunk].countEntries();
+                }));
+            }
+            invokeAll(pool, countTasks);
+
+            long total = 0;
+            int[] offsets = new int[chunkCount];
+            for (int c = 0; c < chunkCount; c++) {
+                offsets[c] = (int) Math.min(total, Integer.MAX_VALUE);
+                total += counts[c];
+            }
+            if (total != header.entries) {
+                throw new IOException("Expected " + header.entries + " entries but found " + total + " in " + path);
+            }
+
+            long expanded = header.symmetry == Symmetry.GENERAL ? total : 2 * total;
+            if (expanded > Integer.MAX_VALUE) {
+                throw new IOException("Too many entries for an int-indexed matrix: " + expanded);
+            }
+            int stored = (int) total;
+            int capacity = (int) expanded;
+            int[] rowIndices = new int[capacity];
+            int[] columnIndices = new int[capacity];
+            double[] values = new double[capacity];
+
+            IOException[] errors = new IOException[chunkCount];
+            List<ForkJoinTask<?>> parseTasks = new ArrayList<>(chunkCount);
+            for (int c = 0; c < chunkCount; c++) {
+                final int chunk = c;
+                parseTasks.add(ForkJoinTask.adapt(() -> {
+                    try {
+                        parsers[chunk].parseEntries(rowIndices, columnIndices, values, offsets[chunk]);
+                    } catch (IOException e) {
+                        errors[chunk] = e;
+                    }
+                }));
+            }
+            invokeAll(pool, parseTasks);
+            for (IOException error : errors) {
+                if (error != null) {
+                    throw error;
+                }
+            }
+
+            int count = stored;
+            if (header.symmetry != Symmetry.GENERAL) {
+                double sign = header.symmetry == Symmetry.SKEW_SYMMETRIC ? -1.0 : 1.0;
+                for (int e = 0; e < stored; e++) {
+                    if (rowIndices[e] != columnIndices[e]) {
+                        rowIndices[count] = columnIndices[e];
+                        columnIndices[count] = rowIndices[e];
+                        values[count] = sign * values[e];
+                        count++;
+                    }
+                }
+            }
+
+            return new Entries(header, rowIndices, columnIndices, values, count);
+        }
+    }
+
+    static long[] chunkBounds(MemorySegment segment, long start, long end, int maxChunks) {
+        long span = end - start;
+        int chunkCount = (int) Math.max(1, Math.min(maxChunks, span / MIN_CHUNK_BYTES));
+
+        long[] bounds = new long[chunkCount + 1];
+        bounds[0] = start;
+        bounds[chunkCount] = end;
+        for (int c = 1; c < chunkCount; c++) {
+            long position = Math.max(bounds[c - 1], start + span * c / chunkCount);
+            while (position < end && position > start && segment.get(ValueLayout.JAVA_BYTE, position - 1) != '\n') {
+                position++;
+            }
+            bounds[c] = position;
+        }
+        return bounds;
+    }
+
+    private static void invokeAll(ForkJoinPool pool, List<ForkJoinTask<?>> tasks) {
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+    }
+
+    private static class ChunkParser {
+        private static final double[] POWERS_OF_TEN = {
+                1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+                1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+        };
+        private static final long MAX_EXACT_MANTISSA = 1L << 53;
+        private static final int MAX_MANTISSA_DIGITS = 18;
+
+        private final MemorySegment segment;
+        private final long start;
+        private final long end;
+        private final Header header;
+        private long position;
+
+        ChunkParser(MemorySegment segment, long start, long end, Header header) {
+            this.segment = segment;
+            this.start = start;
+            this.end = end;
+            this.header = header;
+            this.position = start;
+        }
+
+        Header parseHeader() throws IOException {
+            String banner = readLine().trim().toLowerCase(Locale.ROOT);
+            String[] tokens = banner.split("[ \t]+");
+            if (tokens.length != 5 || !tokens[0].equals("%%matrixmarket") || !tokens[1].equals("matrix")) {
+                throw new IOException("Missing Matrix Market banner: " + banner);
+            }
+            if (!tokens[2].equals("coordinate")) {
+                throw new IOException("Unsupported Matrix Market format: " + tokens[2]);
+            }
+
+            Field field;
+            switch (tokens[3]) {
+                case "real":
+                    field = Field.REAL;
+                    break;
+                case "integer":
+                    field = Field.INTEGER;
+                    break;
+                case "pattern":
+                    field = Field.PATTERN;
+                    break;
+                default:
+                    throw new IOException("Unsupported Matrix Market field: " + tokens[3]);
+            }
+
+            Symmetry symmetry;
+            switch (tokens[4]) {
+                case "general":
+                    symmetry = Symmetry.GENERAL;
+                    break;
+                case "symmetric":
+                    symmetry = Symmetry.SYMMETRIC;
+                    break;
+                case "skew-symmetric":
+                    symmetry = Symmetry.SKEW_SYMMETRIC;
+                    break;
+                default:
+                    throw new IOException("Unsupported Matrix Market symmetry: " + tokens[4]);
+            }
+
+            while (position < end && isCommentOrBlankLine()) {
+                skipLine();
+            }
+            long rows = parseUnsigned();
+            long cols = parseUnsigned();
+            long entries = parseUnsigned();
+            skipLine();
+
+            if (rows > Integer.MAX_VALUE || cols > Integer.MAX_VALUE) {
+                throw new IOException("Matrix dimensions exceed the supported range: " + rows + " x " + cols);
+            }
+            if (symmetry != Symmetry.GENERAL && rows != cols) {
+                throw new IOException("Symmetric Matrix Market file with non-square size: " + rows + " x " + cols);
+            }
+            return new Header(field, symmetry, (int) rows, (int) cols, entries);
+        }
+
+        int countEntries() {
+            int count = 0;
+            position = start;
+            while (position < end) {
+                if (!isCommentOrBlankLine()) {
+                    count++;
+                }
+                skipLine();
+            }
+            return count;
+        }
+
+        void parseEntries(int[] rowIndices, int[] columnIndices, double[] values, int offset) throws IOException {
+            int e = offset;
+            position = start;
+            while (position < end) {
+                if (isCommentOrBlankLine()) {
+                    skipLine();
+                    continue;
+                }
+                long row = parseUnsigned();
+                long col = parseUnsigned();
+                if (row < 1 || row > header.rows || col < 1 || col > header.cols) {
+                    throw new IOException("Entry (" + row + ", " + col + ") outside a "
+                            + header.rows + " x " + header.cols + " matrix at byte " + position);
+                }
+
+                rowIndices[e] = (int) row - 1;
+                columnIndices[e] = (int) col - 1;
+                values[e] = header.field == Field.PATTERN ? 1.0 : parseDouble();
+                e++;
+                skipLine();
+            }
+        }
+
+        private boolean isCommentOrBlankLine() {
+            long p = position;
+            while (p < end) {
+                byte b = byteAt(p);
+                if (b != ' ' && b != '\t') {
+                    return b == '%' || b == '\n' || b == '\r';
+                }
+                p++;
+            }
+            return true;
+        }
+
+        private long parseUnsigned() throws IOException {
+            skipBlanks();
+            long tokenStart = position;
+            long p = position;
+            long value = 0;
+            while (p < end) {
+                int digit = byteAt(p) - '0';
+                if (digit < 0 || digit > 9) {
+                    break;
+                }
+                value = value * 10 + digit;
+                p++;
+            }
+            position = p;
+            // The digits have to be the whole token, so "12x" or "1.5" is an error rather than 12 or 1.
+            if (p == tokenStart || !isTokenEnd()) {
+                throw new IOException("Expected an integer at byte " + tokenStart);
+            }
+            if (p - tokenStart > MAX_MANTISSA_DIGITS) {
+                throw new IOException("Integer too large at byte " + tokenStart);
+            }
+            return value;
+        }
+
+        // Exact fast path (Clinger): a mantissa below 2^53 scaled by a power of ten up to 10^22 is the
+        // correctly rounded result of a single multiplication or division. Anything else goes through
+        // Double.parseDouble on the token bytes.
+        private double parseDouble() throws IOException {
+            skipBlanks();
+            long tokenStart = position;
+
+            boolean negative = false;
+            if (position < end && (byteAt(position) == '-' || byteAt(position) == '+')) {
+                negative = byteAt(position) == '-';
+                position++;
+            }
+
+            long mantissa = 0;
+            int digits = 0;
+            int exponent = 0;
+            boolean seenDigit = false;
+            boolean exact = true;
+
+            while (position < end) {
+                int digit = byteAt(position) - '0';
+                if (digit < 0 || digit > 9) {
+                    break;
+                }
+                seenDigit = true;
+                if (digits < MAX_MANTISSA_DIGITS) {
+                    mantissa = mantissa * 10 + digit;
+                    if (mantissa != 0) {
+                        digits++;
+                    }
+                } else {
+                    exponent++;
+                    exact &= digit == 0;
+                }
+                position++;
+            }
+            if (position < end && byteAt(position) == '.') {
+                position++;
+                while (position < end) {
+                    int digit = byteAt(position) - '0';
+                    if (digit < 0 || digit > 9) {
+                        break;
+                    }
+                    seenDigit = true;
+                    if (digits < MAX_MANTISSA_DIGITS) {
+                        mantissa = mantissa * 10 + digit;
+                        exponent--;
+                        if (mantissa != 0) {
+                            digits++;
+                        }
+                    } else {
+                        exact &= digit == 0;
+                    }
+                    position++;
+                }
+            }
+            if (seenDigit && position < end && (byteAt(position) == 'e' || byteAt(position) == 'E')) {
+                position++;
+                boolean negativeExponent = false;
+                if (position < end && (byteAt(position) == '-' || byteAt(position) == '+')) {
+                    negativeExponent = byteAt(position) == '-';
+                    position++;
+                }
+                // Scanned in place: no blanks may sit between the 'e' and its digits, and an exponent without
+                // digits is left to the slow path to reject.
+                long explicit = 0;
+                boolean seenExponentDigit = false;
+                while (position < end) {
+                    int digit = byteAt(position) - '0';
+                    if (digit < 0 || digit > 9) {
+                        break;
+                    }
+                    seenExponentDigit = true;
+                    explicit = Math.min(explicit * 10 + digit, 100_000);
+                    position++;
+                }
+                exact &= seenExponentDigit;
+                exponent += negativeExponent ? -explicit : explicit;
+            }
+
+            if (seenDigit && exact && isTokenEnd() && mantissa < MAX_EXACT_MANTISSA
+                    && exponent >= -22 && exponent <= 22) {
+                double value = exponent >= 0 ? mantissa * POWERS_OF_TEN[exponent] : mantissa / POWERS_OF_TEN[-exponent];
+                return negative ? -value : value;
+            }
+            return parseDoubleSlow(tokenStart);
+        }
+
+        private double parseDoubleSlow(long tokenStart) throws IOException {
+            position = tokenStart;
+            while (!isTokenEnd()) {
+                position++;
+            }
+            byte[] token = segment.asSlice(tokenStart, position - tokenStart).toArray(ValueLayout.JAVA_BYTE);
+            try {
+                return Double.parseDouble(new String(token, StandardCharsets.US_ASCII));
+            } catch (NumberFormatException e) {
+                throw new IOException("Malformed number at byte " + tokenStart, e);
+            }
+        }
+
+        private boolean isTokenEnd() {
+            if (position >= end) {
+                return true;
+            }
+            byte b = byteAt(position);
+            return b == ' ' || b == '\t' || b == '\n' || b == '\r';
+        }
+
+        private void skipBlanks() {
+            while (position < end && (byteAt(position) == ' ' || byteAt(position) == '\t')) {
+                position++;
+            }
+        }
+
+        private void skipLine() {
+            long p = position;
+            while (p < end && byteAt(p) != '\n') {
+                p++;
+            }
+            position = p + 1;
+        }
+
+        private String readLine() {
+            long lineStart = position;
+            skipLine();
+            long lineEnd = Math.min(position, end);
+            byte[] line = segment.asSlice(lineStart, lineEnd - lineStart).toArray(ValueLayout.JAVA_BYTE);
+            return new String(line, StandardCharsets.US_ASCII);
+        }
+
+        private byte byteAt(long p) {
+            return segment.get(ValueLayout.JAVA_BYTE, p);
+        }
+    }
+}
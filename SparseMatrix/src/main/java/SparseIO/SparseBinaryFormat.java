@@ -0,0 +1,207 @@
+package SparseIO;
+
+import SparseColumnCSC.SparseMatrixCSCMul.CSCMatrix;
+import SparseRowCSR.SparseMatrixCSRMul.CSRMatrix;
+import SparseSegment.SegmentCSCMatrix;
+import SparseSegment.SegmentCSRMatrix;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Layout, all little-endian:
+//   0  int  magic "SPMX"      4  int  version       8  int  kind (0 = CSR, 1 = CSC)   12 int reserved
+//   16 long rows              24 long cols          32 long nonzeros
+//   40 long pointers offset   48 long indices offset 56 long values offset
+// followed by the pointer section ((major + 1) longs), the index section (nonzeros ints) and the value
+// section (nonzeros doubles), each starting on a 64-byte boundary.
+public class SparseBinaryFormat {
+    static final int MAGIC = 0x584D5053;
+    static final int VERSION = 1;
+    static final int KIND_CSR = 0;
+    static final int KIND_CSC = 1;
+    static final long HEADER_BYTES = 64;
+    static final long SECTION_ALIGNMENT = 64;
+
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfDouble DOUBLE = ValueLayout.JAVA_DOUBLE_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+    public static void write(CSRMatrix matrix, Path path) throws IOException {
+        write(path, KIND_CSR, matrix.getRows(), matrix.getCols(),
+                matrix.getRowPointers(), matrix.getColumnIndices(), matrix.getValues());
+    }
+
+    public static void write(CSCMatrix matrix, Path path) throws IOException {
+        write(path, KIND_CSC, matrix.getRows(), matrix.getCols(),
+                matrix.getColPointers(), matrix.getRowIndices(), matrix.getValues());
+    }
+
+    public static void write(SegmentCSRMatrix matrix, Path path) throws IOException {
+        write(path, KIND_CSR, matrix.getRows(), matrix.getCols(), matrix.getRows(), matrix.getNonZeros(),
+                matrix.getRowPointers(), matrix.getColumnIndices(), matrix.getValues());
+    }
+
+    public static void write(SegmentCSCMatrix matrix, Path path) throws IOException {
+        write(path, KIND_CSC, matrix.getRows(), matrix.getCols(), matrix.getCols(), matrix.getNonZeros(),
+                matrix.getColPointers(), matrix.getRowIndices(), matrix.getValues());
+    }
+
+    // The returned matrix reads straight from the page cache and stays valid until the arena is closed.
+    public static SegmentCSRMatrix mapCSR(Path path, Arena arena) throws IOException {
+        MemorySegment file = map(path, arena, KIND_CSR);
+        int rows = (int) file.get(LONG, 16);
+        int cols = (int) file.get(LONG, 24);
+        MemorySegment[] sections = sections(file, rows);
+        return new SegmentCSRMatrix(sections[0], sections[1], sections[2], rows, cols);
+    }
+
+    public static SegmentCSCMatrix mapCSC(Path path, Arena arena) throws IOException {
+        MemorySegment file = map(path, arena, KIND_CSC);
+        int rows = (int) file.get(LONG, 16);
+        int cols = (int) file.get(LONG, 24);
+        MemorySegment[] sections = sections(file, cols);
+        return new SegmentCSCMatrix(sections[0], sections[1], sections[2], rows, cols);
+    }
+
+    public static CSRMatrix readCSR(Path path) throws IOException {
+        try (Arena arena = Arena.ofConfined()) {
+            return mapCSR(path, arena).toCSR();
+        }
+    }
+
+    public static CSCMatrix readCSC(Path path) throws IOException {
+        try (Arena arena = Arena.ofConfined()) {
+            return mapCSC(path, arena).toCSC();
+        }
+    }
+
+    private static void write(Path path, int kind, int rows, int cols,
+                              int[] pointers, int[] indices, double[] values) throws IOException {
+        // The pointer array may be longer than the matrix needs, so the major size comes from the stored dimensions.
+        int major = kind == KIND_CSR ? rows : cols;
+        if (pointers.length < major + 1) {
+            throw new IllegalArgumentException("Pointer array does not match the matrix dimensions.");
+        }
+        long nonZeros = pointers[major];
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment file = create(path, arena, kind, rows, cols, major, nonZeros);
+            MemorySegment pointerSection = file.asSlice(file.get(LONG, 40), (major + 1L) * Long.BYTES);
+            for (int i = 0; i <= major; i++) {
+                pointerSection.setAtIndex(LONG, i, pointers[i]);
+            }
+            MemorySegment.copy(indices, 0, file, INT, file.get(LONG, 48), (int) nonZeros);
+            MemorySegment.copy(values, 0, file, DOUBLE, file.get(LONG, 56), (int) nonZeros);
+            file.force();
+        }
+    }
+
+    private static void write(Path path, int kind, int rows, int cols, int major, long nonZeros,
+                              MemorySegment pointers, MemorySegment indices, MemorySegment values) throws IOException {
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment file = create(path, arena, kind, rows, cols, major, nonZeros);
+            MemorySegment.copy(pointers, 0, file, file.get(LONG, 40), (major + 1L) * Long.BYTES);
+            MemorySegment.copy(indices, 0, file, file.get(LONG, 48), nonZeros * Integer.BYTES);
+            MemorySegment.copy(values, 0, file, file.get(LONG, 56), nonZeros * Double.BYTES);
+            file.force();
+        }
+    }
+
+    private static MemorySegment create(Path path, Arena arena, int kind, int rows, int cols, int major, long nonZeros)
+            throws IOException {
+        long pointersOffset = HEADER_BYTES;
+        long indicesOffset = align(pointersOffset + (major + 1L) * Long.BYTES);
+        long valuesOffset = align(indicesOffset + nonZeros * Integer.BYTES);
+        long size = valuesOffset + nonZeros * Double.BYTES;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MemorySegment file = channel.map(FileChannel.MapMode.READ_WRITE, 0, size, arena);
+            file.set(INT, 0, MAGIC);
+            file.set(INT, 4, VERSION);
+            file.set(INT, 8, kind);
+            file.set(INT, 12, 0);
+            file.set(LONG, 16, rows);
+            file.set(LONG, 24, cols);
+            file.set(LONG, 32, nonZeros);
+            file.set(LONG, 40, pointersOffset);
+            file.set(LONG, 48, indicesOffset);
+            file.set(LONG, 56, valuesOffset);
+            return file;
+        }
+    }
+
+    private static MemorySegment map(Path path, Arena arena, int expectedKind) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                throw new IOException("File too small for a sparse matrix header: " + path);
+            }
+            MemorySegment file = channel.map(FileChannel.MapMode.READ_ONLY, 0, size, arena);
+            if (file.get(INT, 0) != MAGIC) {
+                throw new IOException("Not a sparse binary matrix file: " + path);
+            }
+            if (file.get(INT, 4) != VERSION) {
+                throw new IOException("Unsupported sparse binary format version " + file.get(INT, 4) + ": " + path);
+            }
+            if (file.get(INT, 8) != expectedKind) {
+                throw new IOException("File holds a " + (file.get(INT, 8) == KIND_CSR ? "CSR" : "CSC")
+                        + " matrix: " + path);
+            }
+            long rows = file.get(LONG, 16);
+            long cols = file.get(LONG, 24);
+            if (rows < 0 || cols < 0 || rows > Integer.MAX_VALUE || cols > Integer.MAX_VALUE) {
+                throw new IOException("Invalid matrix dimensions " + rows + " x " + cols + ": " + path);
+            }
+            return file;
+        }
+    }
+
+    private static MemorySegment[] sections(MemorySegment file, int major) throws IOException {
+        long nonZeros = file.get(LONG, 32);
+        long pointersOffset = file.get(LONG, 40);
+        long indicesOffset = file.get(LONG, 48);
+        long valuesOffset = file.get(LONG, 56);
+        MemorySegment[] sections;
+        try {
+            sections = new MemorySegment[]{
+                    file.asSlice(pointersOffset, (major + 1L) * Long.BYTES, Long.BYTES),
+                    file.asSlice(indicesOffset, nonZeros * Integer.BYTES, Integer.BYTES),
+                    file.asSlice(valuesOffset, nonZeros * Double.BYTES, Double.BYTES)
+            };
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Truncated or corrupt sparse binary matrix file.", e);
+        }
+        checkPointers(sections[0], major, nonZeros);
+        return sections;
+    }
+
+    // The kernels index the other sections through the pointers without bounds checks of their own, so a
+    // corrupt pointer section is rejected here rather than surfacing later as a bad read or a wrong result.
+    private static void checkPointers(MemorySegment pointers, int major, long nonZeros) throws IOException {
+        long previous = pointers.get(LONG, 0);
+        if (previous != 0) {
+            throw new IOException("Corrupt sparse binary matrix file: first pointer is " + previous + ", expected 0.");
+        }
+        for (int i = 1; i <= major; i++) {
+            long pointer = pointers.get(LONG, (long) i * Long.BYTES);
+            if (pointer < previous) {
+                throw new IOException("Corrupt sparse binary matrix file: pointer " + i + " decreases.");
+            }
+            previous = pointer;
+        }
+        if (previous != nonZeros) {
+            throw new IOException("Corrupt sparse binary matrix file: last pointer is " + previous
+                    + " but the header stores " + nonZeros + " nonzeros.");
+        }
+    }
+
+    private static long align(long offset) {
+        return (offset + SECTION_ALIGNMENT - 1) / SECTION_ALIGNMENT * SECTION_ALIGNMENT;
+    }
+}
@@ -0,0 +1,21 @@
+package SparseKernels;
+
+public interface Accumulator {
+
+    void accumulate(int index, double value);
+
+    default void accumulateScaled(double scale, int[] indices, double[] values, int from, int to) {
+        for (int k = from; k < to; k++) {
+            accumulate(indices[k], scale * values[k]);
+        }
+    }
+
+    int size();
+
+    int drainSorted(int[] indices, double[] values, int offset);
+
+    // Same as drainSorted but in no particular order, for callers that select before they sort.
+    default int drain(int[] indices, double[] values, int offset) {
+        return drainSorted(indices, values, offset);
+    }
+}
@@ -0,0 +1,32 @@
+package SparseKernels;
+
+public class CompressedTranspose {
+
+    // Re-compresses a CSR matrix by column (or a CSC matrix by row) with one counting sort. Majors are
+    // visited in order, so the indices inside every new slice come out sorted. O(nnz + minorSize).
+    public static CoordinateCompressor.Compressed transpose(int majorSize, int minorSize,
+                                                            int[] pointers, int[] indices, double[] values) {
+        int nonZeros = pointers[majorSize];
+        int[] transposedPointers = new int[minorSize + 1];
+        for (int e = 0; e < nonZeros; e++) {
+            transposedPointers[indices[e] + 1]++;
+        }
+        for (int m = 0; m < minorSize; m++) {
+            transposedPointers[m + 1] += transposedPointers[m];
+        }
+
+        int[] next = new int[minorSize];
+        System.arraycopy(transposedPointers, 0, next, 0, minorSize);
+        int[] transposedIndices = new int[nonZeros];
+        double[] transposedValues = new double[nonZeros];
+        for (int i = 0; i < majorSize; i++) {
+            for (int e = pointers[i]; e < pointers[i + 1]; e++) {
+                int position = next[indices[e]]++;
+                transposedIndices[position] = i;
+                transposedValues[position] = values[e];
+            }
+        }
+
+        return new CoordinateCompressor.Compressed(transposedPointers, transposedIndices, transposedValues);
+    }
+}
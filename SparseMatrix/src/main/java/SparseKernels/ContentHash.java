@@ -0,0 +1,92 @@
+package SparseKernels;
+
+public class ContentHash {
+    private static final long PRIME_1 = 0x9E3779B97F4A7C15L;
+    private static final long PRIME_2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME_3 = 0x165667B19E3779F9L;
+
+    public static long seed(long value) {
+        return mix(value * PRIME_1);
+    }
+
+    // Four independent lanes keep the multiply chains off the critical path; the lanes are folded once at the end.
+    public static long hash(long seed, double[] data, int from, int to) {
+        return hash(seed, data, from, to, PRIME_2);
+    }
+
+    public static long hash(long seed, int[] data, int from, int to) {
+        return hash(seed, data, from, to, PRIME_2);
+    }
+
+    public static long hash(double[][] matrix) {
+        return hash(matrix, PRIME_2);
+    }
+
+    // The hashHigh variants run the same lanes with another multiplier, so together with hash they give a 128-bit
+    // fingerprint for callers that key on the hash alone.
+    public static long hashHigh(long seed, double[] data, int from, int to) {
+        return hash(seed, data, from, to, PRIME_3);
+    }
+
+    public static long hashHigh(long seed, int[] data, int from, int to) {
+        return hash(seed, data, from, to, PRIME_3);
+    }
+
+    public static long hashHigh(double[][] matrix) {
+        return hash(matrix, PRIME_3);
+    }
+
+    private static long hash(long seed, double[] data, int from, int to, long prime) {
+        long h0 = seed, h1 = seed ^ PRIME_1, h2 = seed ^ PRIME_2, h3 = ~seed;
+        int i = from;
+        for (; i + 3 < to; i += 4) {
+            h0 = (h0 ^ Double.doubleToLongBits(data[i])) * prime;
+            h1 = (h1 ^ Double.doubleToLongBits(data[i + 1])) * prime;
+            h2 = (h2 ^ Double.doubleToLongBits(data[i + 2])) * prime;
+            h3 = (h3 ^ Double.doubleToLongBits(data[i + 3])) * prime;
+        }
+        for (; i < to; i++) {
+            h0 = (h0 ^ Double.doubleToLongBits(data[i])) * prime;
+        }
+        return fold(h0, h1, h2, h3, to - from);
+    }
+
+    private static long hash(long seed, int[] data, int from, int to, long prime) {
+        long h0 = seed, h1 = seed ^ PRIME_1, h2 = seed ^ PRIME_2, h3 = ~seed;
+        int i = from;
+        for (; i + 3 < to; i += 4) {
+            h0 = (h0 ^ data[i]) * prime;
+            h1 = (h1 ^ data[i + 1]) * prime;
+            h2 = (h2 ^ data[i + 2]) * prime;
+            h3 = (h3 ^ data[i + 3]) * prime;
+        }
+        for (; i < to; i++) {
+            h0 = (h0 ^ data[i]) * prime;
+        }
+        return fold(h0, h1, h2, h3, to - from);
+    }
+
+    private static long hash(double[][] matrix, long prime) {
+        int cols = matrix.length == 0 ? 0 : matrix[0].length;
+        long h = seed(((long) matrix.length << 32) ^ cols);
+        for (double[] row : matrix) {
+            h = hash(h, row, 0, row.length, prime);
+        }
+        return h;
+    }
+
+    private static long fold(long h0, long h1, long h2, long h3, int length) {
+        long h = Long.rotateLeft(h0, 1) + Long.rotateLeft(h1, 7) + Long.rotateLeft(h2, 12) + Long.rotateLeft(h3, 18);
+        return mix(h ^ length);
+    }
+
+    // Murmur3 finalizer: every input bit affects every output bit.
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
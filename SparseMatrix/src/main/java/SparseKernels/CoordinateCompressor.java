@@ -0,0 +1,105 @@
+package SparseKernels;
+
+public class CoordinateCompressor {
+
+    public static class Compressed {
+        final int[] pointers;
+        final int[] indices;
+        final double[] values;
+
+        Compressed(int[] pointers, int[] indices, double[] values) {
+            this.pointers = pointers;
+            this.indices = indices;
+            this.values = values;
+        }
+
+        public int[] getPointers() {
+            return pointers;
+        }
+
+        public int[] getIndices() {
+            return indices;
+        }
+
+        public double[] getValues() {
+            return values;
+        }
+    }
+
+    // Compresses count coordinate entries along the major dimension (rows for CSR, columns for CSC).
+    // Two stable counting sorts, first by minor then by major index, leave each major slice sorted by
+    // minor index in O(nnz + majorSize + minorSize). Duplicate coordinates are summed.
+    public static Compressed compress(int majorSize, int minorSize, int[] major, int[] minor, double[] values, int count) {
+        int[] minorPointers = new int[minorSize + 1];
+        for (int e = 0; e < count; e++) {
+            int m = minor[e];
+            if (m < 0 || m >= minorSize || major[e] < 0 || major[e] >= majorSize) {
+                throw new IllegalArgumentException("Coordinate entry out of bounds: (" + major[e] + ", " + m + ")");
+            }
+            minorPointers[m + 1]++;
+        }
+        for (int m = 0; m < minorSize; m++) {
+            minorPointers[m + 1] += minorPointers[m];
+        }
+
+        int[] byMinorMajor = new int[count];
+        double[] byMinorValues = new double[count];
+        for (int e = 0; e < count; e++) {
+            int position = minorPointers[minor[e]]++;
+            byMinorMajor[position] = major[e];
+            byMinorValues[position] = values[e];
+        }
+
+        int[] pointers = new int[majorSize + 1];
+        for (int e = 0; e < count; e++) {
+            pointers[byMinorMajor[e] + 1]++;
+        }
+        for (int i = 0; i < majorSize; i++) {
+            pointers[i + 1] += pointers[i];
+        }
+
+        int[] next = new int[majorSize];
+        System.arraycopy(pointers, 0, next, 0, majorSize);
+        int[] indices = new int[count];
+        double[] sortedValues = new double[count];
+        int m = 0;
+        for (int e = 0; e < count; e++) {
+            while (e >= minorPointers[m]) {
+                m++;
+            }
+            int position = next[byMinorMajor[e]]++;
+            indices[position] = m;
+            sortedValues[position] = byMinorValues[e];
+        }
+
+        return mergeDuplicates(majorSize, pointers, indices, sortedValues);
+    }
+
+    private static Compressed mergeDuplicates(int majorSize, int[] pointers, int[] indices, double[] values) {
+        int write = 0;
+        int start = 0;
+        for (int i = 0; i < majorSize; i++) {
+            int end = pointers[i + 1];
+            for (int e = start; e < end; e++) {
+                if (write > pointers[i] && indices[write - 1] == indices[e]) {
+                    values[write - 1] += values[e];
+                } else {
+                    indices[write] = indices[e];
+                    values[write] = values[e];
+                    write++;
+                }
+            }
+            start = end;
+            pointers[i + 1] = write;
+        }
+
+        if (write == indices.length) {
+            return new Compressed(pointers, indices, values);
+        }
+        int[] trimmedIndices = new int[write];
+        double[] trimmedValues = new double[write];
+        System.arraycopy(indices, 0, trimmedIndices, 0, write);
+        System.arraycopy(values, 0, trimmedValues, 0, write);
+        return new Compressed(pointers, trimmedIndices, trimmedValues);
+    }
+}
@@ -0,0 +1,7 @@
+package SparseKernels;
+
+public enum Dataflow {
+    INNER_PRODUCT,
+    OUTER_PRODUCT,
+    GUSTAVSON
+}
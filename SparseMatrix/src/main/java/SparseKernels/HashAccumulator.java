@@ -0,0 +1,129 @@
+package SparseKernels;
+
+import java.util.Arrays;
+
+public class HashAccumulator implements Accumulator {
+    private static final int EMPTY = -1;
+    private static final int HASH_MULTIPLIER = 0x9E3779B9;
+
+    private int[] keys = new int[0];
+    private double[] values = new double[0];
+    private int mask;
+    private int shift;
+    private int count;
+
+    public HashAccumulator(int expectedSize) {
+        prepare(expectedSize);
+    }
+
+    public void prepare(int expectedSize) {
+        if (count != 0) {
+            throw new IllegalStateException("Accumulator must be drained before it is resized.");
+        }
+        resize(tableSizeFor(expectedSize));
+    }
+
+    @Override
+    public void accumulate(int index, double value) {
+        int slot = slotFor(index);
+        while (true) {
+            int key = keys[slot];
+            if (key == index) {
+                values[slot] += value;
+                return;
+            }
+            if (key == EMPTY) {
+                keys[slot] = index;
+                values[slot] = value;
+                if (++count * 2 > mask + 1) {
+                    grow();
+                }
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    @Override
+    public int drainSorted(int[] indices, double[] values, int offset) {
+        int written = 0;
+        for (int slot = 0; slot <= mask; slot++) {
+            if (keys[slot] != EMPTY) {
+                indices[offset + written] = keys[slot];
+                written++;
+            }
+        }
+        Arrays.sort(indices, offset, offset + written);
+
+        for (int t = 0; t < written; t++) {
+            values[offset + t] = this.values[find(indices[offset + t])];
+        }
+
+        Arrays.fill(keys, 0, mask + 1, EMPTY);
+        count = 0;
+        return written;
+    }
+
+    @Override
+    public int drain(int[] indices, double[] values, int offset) {
+        int written = 0;
+        for (int slot = 0; slot <= mask; slot++) {
+            if (keys[slot] != EMPTY) {
+                indices[offset + written] = keys[slot];
+                values[offset + written++] = this.values[slot];
+                keys[slot] = EMPTY;
+            }
+        }
+        count = 0;
+        return written;
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        return Integer.highestOneBit(Math.max(2, expectedSize) * 2 - 1) << 1;
+    }
+
+    private void resize(int capacity) {
+        if (keys.length < capacity) {
+            keys = new int[capacity];
+            values = new double[capacity];
+            Arrays.fill(keys, EMPTY);
+        }
+        mask = capacity - 1;
+        shift = Integer.numberOfLeadingZeros(capacity) + 1;
+    }
+
+    private void grow() {
+        int[] oldKeys = Arrays.copyOf(keys, mask + 1);
+        double[] oldValues = Arrays.copyOf(values, mask + 1);
+        Arrays.fill(keys, 0, mask + 1, EMPTY);
+        resize((mask + 1) * 2);
+
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldKeys[slot] != EMPTY) {
+                int newSlot = slotFor(oldKeys[slot]);
+                while (keys[newSlot] != EMPTY) {
+                    newSlot = (newSlot + 1) & mask;
+                }
+                keys[newSlot] = oldKeys[slot];
+                values[newSlot] = oldValues[slot];
+            }
+        }
+    }
+
+    private int slotFor(int index) {
+        return (index * HASH_MULTIPLIER) >>> shift;
+    }
+
+    private int find(int index) {
+        int slot = slotFor(index);
+        while (keys[slot] != index) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+}
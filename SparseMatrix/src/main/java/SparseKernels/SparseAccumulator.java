@@ -0,0 +1,72 @@
+package SparseKernels;
+
+import DenseBlock.VectorSupport;
+
+import java.util.Arrays;
+
+public class SparseAccumulator implements Accumulator {
+    private final double[] values;
+    private final boolean[] occupied;
+    private final int[] touched;
+    private int touchedCount;
+
+    public SparseAccumulator(int length) {
+        this.values = new double[length];
+        this.occupied = new boolean[length];
+        this.touched = new int[length];
+    }
+
+    @Override
+    public void accumulate(int index, double value) {
+        if (!occupied[index]) {
+            occupied[index] = true;
+            touched[touchedCount++] = index;
+        }
+        values[index] += value;
+    }
+
+    @Override
+    public void accumulateScaled(double scale, int[] indices, double[] values, int from, int to) {
+        for (int k = from; k < to; k++) {
+            int index = indices[k];
+            if (!occupied[index]) {
+                occupied[index] = true;
+                touched[touchedCount++] = index;
+            }
+        }
+
+        if (VectorSupport.isEnabled()) {
+            VectorAccumulate.scatterAdd(scale, indices, values, from, to, this.values);
+            return;
+        }
+        for (int k = from; k < to; k++) {
+            this.values[indices[k]] += scale * values[k];
+        }
+    }
+
+    @Override
+    public int size() {
+        return touchedCount;
+    }
+
+    @Override
+    public int drainSorted(int[] indices, double[] values, int offset) {
+        Arrays.sort(touched, 0, touchedCount);
+        return drain(indices, values, offset);
+    }
+
+    @Override
+    public int drain(int[] indices, double[] values, int offset) {
+        int count = touchedCount;
+        for (int t = 0; t < count; t++) {
+            int index = touched[t];
+            indices[offset + t] = index;
+            values[offset + t] = this.values[index];
+            this.values[index] = 0.0;
+            occupied[index] = false;
+        }
+
+        touchedCount = 0;
+        return count;
+    }
+}
@@ -0,0 +1,23 @@
+package SparseKernels;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+class VectorAccumulate {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    // The indices of one sparse row are distinct, so the gathered lanes never collide on scatter.
+    static void scatterAdd(double scale, int[] indices, double[] values, int from, int to, double[] target) {
+        DoubleVector factor = DoubleVector.broadcast(SPECIES, scale);
+        int upper = from + SPECIES.loopBound(to - from);
+
+        int k = from;
+        for (; k < upper; k += SPECIES.length()) {
+            DoubleVector current = DoubleVector.fromArray(SPECIES, target, 0, indices, k);
+            DoubleVector.fromArray(SPECIES, values, k).fma(factor, current).intoArray(target, 0, indices, k);
+        }
+        for (; k < to; k++) {
+            target[indices[k]] += scale * values[k];
+        }
+    }
+}
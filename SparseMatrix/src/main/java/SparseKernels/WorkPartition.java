@@ -0,0 +1,33 @@
+package SparseKernels;
+
+public class WorkPartition {
+    // Parallel kernels cut their work into this many chunks per pool thread, so a thread that finishes early can
+    // steal another chunk instead of waiting on the slowest one.
+    public static final int CHUNKS_PER_THREAD = 4;
+
+    // Splits majors [0, count) of a compressed matrix into at most maxChunks contiguous ranges with about the same
+    // stored entries plus majors each, so skewed rows (columns, block rows, slices) don't serialise the product on
+    // one thread. pointers[m] is where major m starts; the result holds the chunk bounds, from 0 to count.
+    public static int[] byPointers(int[] pointers, int count, int maxChunks) {
+        int chunkCount = Math.max(1, Math.min(maxChunks, count));
+        long totalWork = (long) pointers[count] + count;
+
+        int[] bounds = new int[chunkCount + 1];
+        bounds[chunkCount] = count;
+        for (int c = 1; c < chunkCount; c++) {
+            long target = totalWork * c / chunkCount;
+            int low = bounds[c - 1];
+            int high = count;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if ((long) pointers[mid] + mid < target) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            bounds[c] = low;
+        }
+        return bounds;
+    }
+}
@@ -0,0 +1,71 @@
+package SparseRowCSR;
+
+import SparseKernels.WorkPartition;
+import SparseRowCSR.SparseMatrixCSRMul.CSRMatrix;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+class CSRVectorMul {
+
+    static void multiplyVector(CSRMatrix A, double[] x, double[] y, int rowStart, int rowEnd) {
+        int[] rowPointers = A.rowPointers;
+        int[] columnIndices = A.columnIndices;
+        double[] values = A.values;
+
+        for (int i = rowStart; i < rowEnd; i++) {
+            double sum = 0.0;
+            for (int k = rowPointers[i]; k < rowPointers[i + 1]; k++) {
+                sum += values[k] * x[columnIndices[k]];
+            }
+            y[i] = sum;
+        }
+    }
+
+    // X and Y hold k right-hand sides row-major (X[j * k + c]). Each nonzero of A is loaded once and
+    // applied to all k of them, and the k values it touches are contiguous, so the inner loop is a
+    // vectorizable axpy over one or two cache lines.
+    static void multiplyBatch(CSRMatrix A, double[] X, double[] Y, int k, int rowStart, int rowEnd) {
+        int[] rowPointers = A.rowPointers;
+        int[] columnIndices = A.columnIndices;
+        double[] values = A.values;
+
+        for (int i = rowStart; i < rowEnd; i++) {
+            int yOffset = i * k;
+            Arrays.fill(Y, yOffset, yOffset + k, 0.0);
+            for (int p = rowPointers[i]; p < rowPointers[i + 1]; p++) {
+                double value = values[p];
+                int xOffset = columnIndices[p] * k;
+                for (int c = 0; c < k; c++) {
+                    Y[yOffset + c] += value * X[xOffset + c];
+                }
+            }
+        }
+    }
+
+    static void multiplyVectorParallel(CSRMatrix A, double[] x, double[] y, ForkJoinPool pool) {
+        runChunks(A, pool, (rowStart, rowEnd) -> multiplyVector(A, x, y, rowStart, rowEnd));
+    }
+
+    static void multiplyBatchParallel(CSRMatrix A, double[] X, double[] Y, int k, ForkJoinPool pool) {
+        runChunks(A, pool, (rowStart, rowEnd) -> multiplyBatch(A, X, Y, k, rowStart, rowEnd));
+    }
+
+    private static void runChunks(CSRMatrix A, ForkJoinPool pool, RowRangeKernel kernel) {
+        int[] bounds = WorkPartition.byPointers(A.rowPointers, A.rows, pool.getParallelism() * WorkPartition.CHUNKS_PER_THREAD);
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(bounds.length - 1);
+        for (int c = 0; c + 1 < bounds.length; c++) {
+            int rowStart = bounds[c];
+            int rowEnd = bounds[c + 1];
+            tasks.add(ForkJoinTask.adapt(() -> kernel.multiply(rowStart, rowEnd)));
+        }
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+    }
+
+    private interface RowRangeKernel {
+        void multiply(int rowStart, int rowEnd);
+    }
+}
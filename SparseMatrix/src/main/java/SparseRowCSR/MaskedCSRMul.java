@@ -0,0 +1,173 @@
+package SparseRowCSR;
+
+import SparseColumnCSC.SparseMatrixCSCMul.CSCMatrix;
+import SparseRowCSR.SparseMatrixCSRMul.CSRMatrix;
+
+import java.util.Arrays;
+
+// C = (A * B) restricted to the structure of a mask; mask values are ignored. The output is allocated at
+// nnz(mask) up front and trimmed once, so it never holds an entry the mask would discard.
+class MaskedCSRMul {
+
+    // Gustavson with a filter: every multiply-add is still visited, but only mask columns are accumulated.
+    static CSRMatrix multiplyGustavson(CSRMatrix A, CSRMatrix B, CSRMatrix mask) {
+        int width = B.cols;
+        int[] allowedRow = new int[width];
+        Arrays.fill(allowedRow, -1);
+        boolean[] structural = new boolean[width];
+        double[] accumulator = new double[width];
+
+        int maskNonZeros = mask.rowPointers[mask.rows];
+        int[] resultRowPointers = new int[A.rows + 1];
+        int[] resultColumnIndices = new int[maskNonZeros];
+        double[] resultValues = new double[maskNonZeros];
+        int count = 0;
+
+        for (int i = 0; i < A.rows; i++) {
+            int maskStart = mask.rowPointers[i];
+            int maskEnd = mask.rowPointers[i + 1];
+            if (maskStart < maskEnd) {
+                for (int p = maskStart; p < maskEnd; p++) {
+                    allowedRow[mask.columnIndices[p]] = i;
+                }
+
+                for (int j = A.rowPointers[i]; j < A.rowPointers[i + 1]; j++) {
+                    int colA = A.columnIndices[j];
+                    double valA = A.values[j];
+                    for (int k = B.rowPointers[colA]; k < B.rowPointers[colA + 1]; k++) {
+                        int colB = B.columnIndices[k];
+                        if (allowedRow[colB] == i) {
+                            accumulator[colB] += valA * B.values[k];
+                            structural[colB] = true;
+                        }
+                    }
+                }
+
+                for (int p = maskStart; p < maskEnd; p++) {
+                    int col = mask.columnIndices[p];
+                    if (structural[col]) {
+                        resultColumnIndices[count] = col;
+                        resultValues[count++] = accumulator[col];
+                        accumulator[col] = 0.0;
+                        structural[col] = false;
+                    }
+                }
+            }
+            resultRowPointers[i + 1] = count;
+        }
+
+        return trimmed(resultValues, resultColumnIndices, resultRowPointers, A.rows, width, count);
+    }
+
+    // Columns this much longer than the row of A are searched instead of scanned.
+    private static final int SEARCH_RATIO = 16;
+
+    // Pull-based: one sparse dot product per mask entry. Row i of A is scattered once; a column of B is scanned
+    // against it, or, when the column is much longer (hubs in power-law graphs), the row's entries are binary
+    // searched in the column. Work is independent of the size of A * B. Columns of B must have sorted row indices.
+    static CSRMatrix multiplyInnerProduct(CSRMatrix A, CSCMatrix B, CSRMatrix mask) {
+        int[] colPointersB = B.getColPointers();
+        int[] rowIndicesB = B.getRowIndices();
+        double[] valuesB = B.getValues();
+
+        int[] presentRow = new int[A.cols];
+        Arrays.fill(presentRow, -1);
+        double[] rowA = new double[A.cols];
+
+        int maskNonZeros = mask.rowPointers[mask.rows];
+        int[] resultRowPointers = new int[A.rows + 1];
+        int[] resultColumnIndices = new int[maskNonZeros];
+        double[] resultValues = new double[maskNonZeros];
+        int count = 0;
+
+        for (int i = 0; i < A.rows; i++) {
+            int maskStart = mask.rowPointers[i];
+            int maskEnd = mask.rowPointers[i + 1];
+            int rowStart = A.rowPointers[i];
+            int rowEnd = A.rowPointers[i + 1];
+            if (maskStart < maskEnd && rowStart < rowEnd) {
+                for (int j = rowStart; j < rowEnd; j++) {
+                    presentRow[A.columnIndices[j]] = i;
+                    rowA[A.columnIndices[j]] = A.values[j];
+                }
+                long searchLimit = (long) (rowEnd - rowStart) * SEARCH_RATIO;
+
+                for (int p = maskStart; p < maskEnd; p++) {
+                    int col = mask.columnIndices[p];
+                    int colStart = colPointersB[col];
+                    int colEnd = colPointersB[col + 1];
+                    boolean structural = false;
+                    double sum = 0.0;
+                    if (colEnd - colStart > searchLimit) {
+                        for (int j = rowStart; j < rowEnd; j++) {
+                            int q = Arrays.binarySearch(rowIndicesB, colStart, colEnd, A.columnIndices[j]);
+                            if (q >= 0) {
+                                sum += A.values[j] * valuesB[q];
+                                structural = true;
+                            }
+                        }
+                    } else {
+                        for (int q = colStart; q < colEnd; q++) {
+                            int rowB = rowIndicesB[q];
+                            if (presentRow[rowB] == i) {
+                                sum += rowA[rowB] * valuesB[q];
+                                structural = true;
+                            }
+                        }
+                    }
+                    if (structural) {
+                        resultColumnIndices[count] = col;
+                        resultValues[count++] = sum;
+                    }
+                }
+            }
+            resultRowPointers[i + 1] = count;
+        }
+
+        return trimmed(resultValues, resultColumnIndices, resultRowPointers, A.rows, B.getCols(), count);
+    }
+
+    // Gustavson pays for every multiply-add of A * B; the inner product pays, per mask entry, the shorter of
+    // scanning the column of B and searching it once per entry of the row of A, plus converting B to CSC.
+    static boolean preferInnerProduct(CSRMatrix A, CSRMatrix B, CSRMatrix mask) {
+        long gustavsonCost = 0;
+        for (int e = 0; e < A.rowPointers[A.rows]; e++) {
+            int colA = A.columnIndices[e];
+            gustavsonCost += B.rowPointers[colA + 1] - B.rowPointers[colA];
+        }
+
+        int[] colCountsB = new int[B.cols];
+        int nonZerosB = B.rowPointers[B.rows];
+        for (int e = 0; e < nonZerosB; e++) {
+            colCountsB[B.columnIndices[e]]++;
+        }
+        long innerCost = 2L * nonZerosB + A.rowPointers[A.rows];
+        for (int i = 0; i < mask.rows; i++) {
+            long rowLength = A.rowPointers[i + 1] - A.rowPointers[i];
+            if (rowLength == 0) {
+                continue;
+            }
+            for (int p = mask.rowPointers[i]; p < mask.rowPointers[i + 1]; p++) {
+                int colLength = colCountsB[mask.columnIndices[p]];
+                innerCost += colLength > rowLength * SEARCH_RATIO
+                        ? rowLength * (33 - Integer.numberOfLeadingZeros(colLength))
+                        : colLength;
+            }
+        }
+        return innerCost < gustavsonCost;
+    }
+
+    static void checkMask(CSRMatrix A, int resultCols, CSRMatrix mask) {
+        if (mask.rows != A.rows || mask.cols != resultCols) {
+            throw new IllegalArgumentException("Mask dimensions do not match the product.");
+        }
+    }
+
+    private static CSRMatrix trimmed(double[] values, int[] columnIndices, int[] rowPointers, int rows, int cols, int count) {
+        if (count < values.length) {
+            values = Arrays.copyOf(values, count);
+            columnIndices = Arrays.copyOf(columnIndices, count);
+        }
+        return new CSRMatrix(values, columnIndices, rowPointers, rows, cols);
+    }
+}
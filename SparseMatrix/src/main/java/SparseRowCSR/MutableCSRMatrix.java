@@ -0,0 +1,380 @@
+package SparseRowCSR;
+
+import MatrixMetrics.MultiplyTrace;
+import MatrixMetrics.Phase;
+import SparseColumnCSC.SparseMatrixCSCMul.CSCMatrix;
+import SparseKernels.Accumulator;
+import SparseRowCSR.SparseMatrixCSRMul.CSRMatrix;
+
+import java.util.Arrays;
+
+// CSR that can be updated in place. Each row owns a slot range [rowStart, rowStart + rowCapacity) of the shared
+// arrays, of which the first rowLength entries are used; the rest is slack, so a row takes new columns without
+// moving its neighbours. A row that outgrows its slot moves to the free tail with room to spare, and once the tail
+// runs out the whole matrix is re-laid out with fresh slack, so inserts cost O(1) amortized on top of the row merge.
+//
+// The delta products keep a product C = A * B current while the operands change:
+//   (A + dA) * (B + dB) = A * B + A * dB + dA * (B + dB)
+// i.e. C.addProduct(A.toCSC(), dB) with the old A, then C.addProduct(dA, B + dB). Only rows of C that the change
+// reaches are touched; the work is the multiply-adds of the change plus merging it into those rows. Appended rows
+// and columns start empty and are filled the same way. Entries are never removed: one that cancels to zero stays
+// stored, as in the products themselves, and values drift from a recompute by rounding only.
+public class MutableCSRMatrix {
+    static final double DEFAULT_SLACK = 0.25;
+    private static final int MIN_ROW_CAPACITY = 4;
+
+    private final double slack;
+    private int rows, cols;
+    private int[] rowStart, rowLength, rowCapacity;
+    private int[] columnIndices;
+    private double[] values;
+    // First unowned slot; everything from here to the end of the arrays is free.
+    private int end;
+    private int nonZeros;
+
+    private RowWorkspace workspace;
+    private int[] rowColumns = new int[16];
+    private double[] rowValues = new double[16];
+
+    public MutableCSRMatrix(int rows, int cols) {
+        this(new CSRMatrix(new double[0], new int[0], new int[rows + 1], rows, cols), DEFAULT_SLACK);
+    }
+
+    public MutableCSRMatrix(CSRMatrix source) {
+        this(source, DEFAULT_SLACK);
+    }
+
+    // `slack` is the spare capacity each row gets, as a fraction of its length, whenever the matrix is laid out.
+    public MutableCSRMatrix(CSRMatrix source, double slack) {
+        if (!(slack >= 0)) {
+            throw new IllegalArgumentException("Slack must be non-negative.");
+        }
+        this.slack = slack;
+        this.rows = source.rows;
+        this.cols = source.cols;
+        this.rowStart = new int[rows];
+        this.rowLength = new int[rows];
+        this.rowCapacity = new int[rows];
+        for (int i = 0; i < rows; i++) {
+            rowLength[i] = source.rowPointers[i + 1] - source.rowPointers[i];
+        }
+        this.nonZeros = source.rowPointers[rows];
+        this.columnIndices = source.columnIndices;
+        this.values = source.values;
+        relayout(0, source.rowPointers);
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getNonZeros() {
+        return nonZeros;
+    }
+
+    public double get(int i, int j) {
+        checkPosition(i, j);
+        int p = Arrays.binarySearch(columnIndices, rowStart[i], rowStart[i] + rowLength[i], j);
+        return p >= 0 ? values[p] : 0.0;
+    }
+
+    // Adds `value` to entry (i, j), inserting it if it is not stored.
+    public void add(int i, int j, double value) {
+        checkPosition(i, j);
+        rowColumns[0] = j;
+        rowValues[0] = value;
+        mergeRow(i, rowColumns, rowValues, 0, 1);
+    }
+
+    // New rows and columns are empty; appending columns is free in CSR.
+    public void appendRows(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Row count must be non-negative.");
+        }
+        int grown = Math.addExact(rows, count);
+        if (grown > rowStart.length) {
+            int length = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(grown, rowStart.length + (long) (rowStart.length >> 1)));
+            rowStart = Arrays.copyOf(rowStart, length);
+            rowLength = Arrays.copyOf(rowLength, length);
+            rowCapacity = Arrays.copyOf(rowCapacity, length);
+        }
+        for (int i = rows; i < grown; i++) {
+            rowStart[i] = end;
+            rowLength[i] = 0;
+            rowCapacity[i] = 0;
+        }
+        rows = grown;
+    }
+
+    public void appendColumns(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Column count must be non-negative.");
+        }
+        cols = Math.addExact(cols, count);
+        workspace = null;
+    }
+
+    // C += delta, merging row by row; rows where delta is empty are not visited beyond their row pointer.
+    public void add(CSRMatrix delta) {
+        if (delta.rows != rows || delta.cols != cols) {
+            throw new IllegalArgumentException("Matrix dimensions do not match for addition.");
+        }
+        for (int i = 0; i < rows; i++) {
+            int from = delta.rowPointers[i];
+            int to = delta.rowPointers[i + 1];
+            if (from < to) {
+                mergeRow(i, delta.columnIndices, delta.values, from, to);
+            }
+        }
+    }
+
+    // C += dA * B. Only rows where dA has entries are computed and merged.
+    public void addProduct(CSRMatrix deltaA, CSRMatrix B) {
+        if (deltaA.cols != B.rows || deltaA.rows != rows || B.cols != cols) {
+            throw new IllegalArgumentException("Matrix dimensions do not match for multiplication.");
+        }
+
+        MultiplyTrace trace = MultiplyTrace.start("csr.deltaA", 1);
+        RowWorkspace workspace = workspace();
+        long multiplyAdds = 0;
+        long changed = 0;
+        for (int i = 0; i < rows; i++) {
+            long rowAdds = 0;
+            for (int j = deltaA.rowPointers[i]; j < deltaA.rowPointers[i + 1]; j++) {
+                int colA = deltaA.columnIndices[j];
+                rowAdds += B.rowPointers[colA + 1] - B.rowPointers[colA];
+            }
+            if (rowAdds == 0) {
+                continue;
+            }
+
+            int bound = (int) Math.min(rowAdds, cols);
+            ensureScratch(bound);
+            Accumulator accumulator = workspace.accumulatorFor(bound);
+            deltaA.accumulateRow(i, B, accumulator);
+            int count = accumulator.drainSorted(rowColumns, rowValues, 0);
+            mergeRow(i, rowColumns, rowValues, 0, count);
+            multiplyAdds += rowAdds;
+            changed += count;
+        }
+
+        if (trace != null) {
+            trace.endPhase(Phase.NUMERIC);
+            // nnz(C) here is the size of the update dA * B, not of the whole product.
+            trace.finish(rows, deltaA.cols, cols, deltaA.rowPointers[deltaA.rows], B.rowPointers[B.rows], changed,
+                    multiplyAdds);
+        }
+    }
+
+    // C += A * dB. Row i of C changes when a(i,k) is stored for a row k where dB has entries, so A is taken by
+    // columns: the affected (i, k) pairs are read straight off the changed columns of A and grouped by row.
+    public void addProduct(CSCMatrix A, CSRMatrix deltaB) {
+        if (A.getCols() != deltaB.rows || A.getRows() != rows || deltaB.cols != cols) {
+            throw new IllegalArgumentException("Matrix dimensions do not match for multiplication.");
+        }
+
+        MultiplyTrace trace = MultiplyTrace.start("csr.deltaB", 1);
+        int[] colPointersA = A.getColPointers();
+        int[] rowIndicesA = A.getRowIndices();
+        double[] valuesA = A.getValues();
+
+        int pairs = 0;
+        for (int k = 0; k < deltaB.rows; k++) {
+            if (deltaB.rowPointers[k] < deltaB.rowPointers[k + 1]) {
+                pairs = Math.addExact(pairs, colPointersA[k + 1] - colPointersA[k]);
+            }
+        }
+        // Sort keys are (row of A) << 32 | pair index; the pair index leads back to the entry of A and its column.
+        long[] order = new long[pairs];
+        int[] pairEntry = new int[pairs];
+        int[] pairColumn = new int[pairs];
+        int pair = 0;
+        for (int k = 0; k < deltaB.rows; k++) {
+            if (deltaB.rowPointers[k] == deltaB.rowPointers[k + 1]) {
+                continue;
+            }
+            for (int p = colPointersA[k]; p < colPointersA[k + 1]; p++) {
+                order[pair] = (long) rowIndicesA[p] << 32 | pair;
+                pairEntry[pair] = p;
+                pairColumn[pair++] = k;
+            }
+        }
+        Arrays.sort(order);
+        if (trace != null) {
+            trace.endPhase(Phase.PREPARE);
+        }
+
+        RowWorkspace workspace = workspace();
+        long multiplyAdds = 0;
+        long changed = 0;
+        int first = 0;
+        while (first < pairs) {
+            int i = (int) (order[first] >>> 32);
+            int last = first;
+            long rowAdds = 0;
+            while (last < pairs && (int) (order[last] >>> 32) == i) {
+                int k = pairColumn[(int) order[last]];
+                rowAdds += deltaB.rowPointers[k + 1] - deltaB.rowPointers[k];
+                last++;
+            }
+
+            int bound = (int) Math.min(rowAdds, cols);
+            ensureScratch(bound);
+            Accumulator accumulator = workspace.accumulatorFor(bound);
+            for (int e = first; e < last; e++) {
+                int index = (int) order[e];
+                int k = pairColumn[index];
+                accumulator.accumulateScaled(valuesA[pairEntry[index]], deltaB.columnIndices, deltaB.values,
+                        deltaB.rowPointers[k], deltaB.rowPointers[k + 1]);
+            }
+            int count = accumulator.drainSorted(rowColumns, rowValues, 0);
+            mergeRow(i, rowColumns, rowValues, 0, count);
+            multiplyAdds += rowAdds;
+            changed += count;
+            first = last;
+        }
+
+        if (trace != null) {
+            trace.endPhase(Phase.NUMERIC);
+            trace.finish(rows, A.getCols(), cols, colPointersA[A.getCols()], deltaB.rowPointers[deltaB.rows], changed,
+                    multiplyAdds);
+        }
+    }
+
+    // Packs the rows into a fresh CSRMatrix; the mutable matrix stays usable.
+    public CSRMatrix toCSR() {
+        int[] resultRowPointers = new int[rows + 1];
+        int[] resultColumnIndices = new int[nonZeros];
+        double[] resultValues = new double[nonZeros];
+        for (int i = 0; i < rows; i++) {
+            int position = resultRowPointers[i];
+            System.arraycopy(columnIndices, rowStart[i], resultColumnIndices, position, rowLength[i]);
+            System.arraycopy(values, rowStart[i], resultValues, position, rowLength[i]);
+            resultRowPointers[i + 1] = position + rowLength[i];
+        }
+        return new CSRMatrix(resultValues, resultColumnIndices, resultRowPointers, rows, cols);
+    }
+
+    // Merges sorted entries columns[from, to) into row i, adding values where the column is already stored. New
+    // columns are counted first, so the row is grown at most once and then merged backwards into its slack.
+    void mergeRow(int i, int[] columns, double[] deltas, int from, int to) {
+        int start = rowStart[i];
+        int rowEnd = start + rowLength[i];
+        int added = 0;
+        int p = start;
+        for (int e = from; e < to; e++) {
+            int column = columns[e];
+            while (p < rowEnd && columnIndices[p] < column) {
+                p++;
+            }
+            if (p < rowEnd && columnIndices[p] == column) {
+                values[p] += deltas[e];
+            } else {
+                added++;
+            }
+        }
+        if (added == 0) {
+            return;
+        }
+
+        // The stored columns already have their deltas; the backward merge only places the new ones.
+        reserve(i, rowLength[i] + added);
+        start = rowStart[i];
+        int read = start + rowLength[i] - 1;
+        int write = read + added;
+        for (int e = to - 1; e >= from && write > read; e--) {
+            int column = columns[e];
+            while (read >= start && columnIndices[read] > column) {
+                columnIndices[write] = columnIndices[read];
+                values[write--] = values[read--];
+            }
+            if (read >= start && columnIndices[read] == column) {
+                columnIndices[write] = column;
+                values[write--] = values[read--];
+            } else {
+                columnIndices[write] = column;
+                values[write--] = deltas[e];
+            }
+        }
+        rowLength[i] += added;
+        nonZeros += added;
+    }
+
+    private void reserve(int i, int needed) {
+        if (needed <= rowCapacity[i]) {
+            return;
+        }
+        int capacity = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(MIN_ROW_CAPACITY, needed + (long) (needed >> 1)));
+        // The row owning the slots just before the free tail grows where it is.
+        if (rowStart[i] + rowCapacity[i] == end && rowStart[i] + (long) capacity <= columnIndices.length) {
+            end = rowStart[i] + capacity;
+            rowCapacity[i] = capacity;
+            return;
+        }
+        if (end + (long) capacity > columnIndices.length) {
+            relayout(capacity, null);
+            if (needed <= rowCapacity[i]) {
+                return;
+            }
+        }
+        System.arraycopy(columnIndices, rowStart[i], columnIndices, end, rowLength[i]);
+        System.arraycopy(values, rowStart[i], values, end, rowLength[i]);
+        rowStart[i] = end;
+        rowCapacity[i] = capacity;
+        end += capacity;
+    }
+
+    // Copies every row into new arrays with `slack` spare capacity each and leaves a free tail of at least `extra`
+    // slots and a quarter of the laid-out size, so the next relayout is paid for by that many inserts. Row i is read from
+    // [pointers[i], pointers[i + 1]) when pointers is given, from its slot otherwise.
+    private void relayout(int extra, int[] pointers) {
+        long laidOut = 0;
+        for (int i = 0; i < rows; i++) {
+            laidOut += rowLength[i] + (long) (rowLength[i] * slack);
+        }
+        long length = laidOut + Math.max(extra, laidOut >> 2);
+        if (laidOut + extra > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Matrix has too many non-zeros for CSR storage.");
+        }
+        int[] newColumnIndices = new int[(int) Math.min(Integer.MAX_VALUE - 8, length)];
+        double[] newValues = new double[newColumnIndices.length];
+
+        int position = 0;
+        for (int i = 0; i < rows; i++) {
+            int from = pointers != null ? pointers[i] : rowStart[i];
+            System.arraycopy(columnIndices, from, newColumnIndices, position, rowLength[i]);
+            System.arraycopy(values, from, newValues, position, rowLength[i]);
+            rowStart[i] = position;
+            rowCapacity[i] = rowLength[i] + (int) (rowLength[i] * slack);
+            position += rowCapacity[i];
+        }
+        columnIndices = newColumnIndices;
+        values = newValues;
+        end = position;
+    }
+
+    private RowWorkspace workspace() {
+        if (workspace == null) {
+            workspace = new RowWorkspace(cols);
+        }
+        return workspace;
+    }
+
+    private void ensureScratch(int size) {
+        if (size > rowColumns.length) {
+            int grown = Math.max(size, Math.min(cols, rowColumns.length * 2));
+            rowColumns = new int[grown];
+            rowValues = new double[grown];
+        }
+    }
+
+    private void checkPosition(int i, int j) {
+        if (i < 0 || i >= rows || j < 0 || j >= cols) {
+            throw new IndexOutOfBoundsException("Entry (" + i + ", " + j + ") is outside a " + rows + "x" + cols + " matrix.");
+        }
+    }
+}
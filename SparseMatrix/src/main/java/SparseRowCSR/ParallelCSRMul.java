@@ -0,0 +1,171 @@
+package SparseRowCSR;
+
+import MatrixMetrics.MultiplyTrace;
+import MatrixMetrics.Phase;
+import SparseKernels.WorkPartition;
+import SparseRowCSR.SparseMatrixCSRMul.CSRMatrix;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+class ParallelCSRMul {
+    private final CSRMatrix A;
+    private final CSRMatrix B;
+    private final ForkJoinPool pool;
+    // Workspaces not currently held by a chunk. A chunk borrows one and hands it back, so a call allocates at
+    // most one per concurrently running chunk, and they are all garbage once the call returns; a ThreadLocal
+    // would leave a B.cols-wide workspace attached to every pool thread after each call.
+    private final ConcurrentLinkedQueue<RowWorkspace> idleWorkspaces = new ConcurrentLinkedQueue<>();
+
+    ParallelCSRMul(CSRMatrix A, CSRMatrix B, ForkJoinPool pool) {
+        this.A = A;
+        this.B = B;
+        this.pool = pool;
+    }
+
+    CSRMatrix multiply() {
+        MultiplyTrace trace = MultiplyTrace.start("csr.parallel", pool.getParallelism());
+        int[] chunkBounds = partitionByFlops(pool.getParallelism() * WorkPartition.CHUNKS_PER_THREAD);
+        int chunkCount = chunkBounds.length - 1;
+        if (trace != null) {
+            trace.endPhase(Phase.PREPARE);
+        }
+
+        int[] resultRowPointers = new int[A.rows + 1];
+        ChunkResult[] chunks = new ChunkResult[chunkCount];
+
+        List<ForkJoinTask<?>> computeTasks = new ArrayList<>(chunkCount);
+        for (int c = 0; c < chunkCount; c++) {
+            final int chunk = c;
+            computeTasks.add(ForkJoinTask.adapt(() -> {
+                chunks[chunk] = computeChunk(chunkBounds[chunk], chunkBounds[chunk + 1]);
+            }));
+        }
+        invokeAll(computeTasks);
+        if (trace != null) {
+            trace.endPhase(Phase.NUMERIC);
+        }
+
+        for (ChunkResult chunk : chunks) {
+            for (int i = chunk.rowStart; i < chunk.rowEnd; i++) {
+                int rowNonZeros = chunk.rowPointers[i - chunk.rowStart + 1] - chunk.rowPointers[i - chunk.rowStart];
+                resultRowPointers[i + 1] = CSRMatrix.addProductNonZeros(resultRowPointers[i], rowNonZeros);
+            }
+        }
+
+        int nonZeroTotal = resultRowPointers[A.rows];
+        double[] resultValues = new double[nonZeroTotal];
+        int[] resultColumnIndices = new int[nonZeroTotal];
+
+        List<ForkJoinTask<?>> copyTasks = new ArrayList<>(chunkCount);
+        for (ChunkResult chunk : chunks) {
+            copyTasks.add(ForkJoinTask.adapt(() -> {
+                int offset = resultRowPointers[chunk.rowStart];
+                int length = chunk.values.length;
+                System.arraycopy(chunk.values, 0, resultValues, offset, length);
+                System.arraycopy(chunk.columnIndices, 0, resultColumnIndices, offset, length);
+            }));
+        }
+        invokeAll(copyTasks);
+
+        CSRMatrix result = new CSRMatrix(resultValues, resultColumnIndices, resultRowPointers, A.rows, B.cols);
+        if (trace != null) {
+            trace.endPhase(Phase.ASSEMBLE);
+            trace.finish(A, B, result);
+        }
+        return result;
+    }
+
+    int[] partitionByFlops(int maxChunks) {
+        long[] flopPrefix = new long[A.rows + 1];
+        for (int i = 0; i < A.rows; i++) {
+            long rowFlops = 0;
+            for (int j = A.rowPointers[i]; j < A.rowPointers[i + 1]; j++) {
+                int colA = A.columnIndices[j];
+                rowFlops += B.rowPointers[colA + 1] - B.rowPointers[colA];
+            }
+            flopPrefix[i + 1] = flopPrefix[i] + rowFlops;
+        }
+
+        int chunkCount = Math.max(1, Math.min(maxChunks, A.rows));
+        long totalFlops = flopPrefix[A.rows];
+
+        int[] bounds = new int[chunkCount + 1];
+        bounds[chunkCount] = A.rows;
+        for (int c = 1; c < chunkCount; c++) {
+            long target = totalFlops * c / chunkCount;
+            bounds[c] = Math.max(bounds[c - 1], lowerBound(flopPrefix, target));
+        }
+
+        return bounds;
+    }
+
+    private ChunkResult computeChunk(int rowStart, int rowEnd) {
+        RowWorkspace workspace = idleWorkspaces.poll();
+        if (workspace == null) {
+            workspace = new RowWorkspace(B.cols);
+        }
+        try {
+            return computeChunk(rowStart, rowEnd, workspace);
+        } finally {
+            idleWorkspaces.offer(workspace);
+        }
+    }
+
+    private ChunkResult computeChunk(int rowStart, int rowEnd, RowWorkspace workspace) {
+        int[] rowPointers = new int[rowEnd - rowStart + 1];
+        for (int i = rowStart; i < rowEnd; i++) {
+            int local = i - rowStart;
+            rowPointers[local + 1] = CSRMatrix.addProductNonZeros(rowPointers[local], workspace.symbolicRow(A, i, B));
+        }
+
+        int nonZeroCount = rowPointers[rowEnd - rowStart];
+        double[] values = new double[nonZeroCount];
+        int[] columnIndices = new int[nonZeroCount];
+
+        for (int i = rowStart; i < rowEnd; i++) {
+            int local = i - rowStart;
+            int rowNonZeros = rowPointers[local + 1] - rowPointers[local];
+            workspace.numericRow(A, i, B, rowNonZeros, columnIndices, values, rowPointers[local]);
+        }
+
+        return new ChunkResult(rowStart, rowEnd, rowPointers, values, columnIndices);
+    }
+
+    private void invokeAll(List<ForkJoinTask<?>> tasks) {
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+    }
+
+    private static int lowerBound(long[] prefix, long target) {
+        int low = 0;
+        int high = prefix.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (prefix[mid] < target) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static class ChunkResult {
+        final int rowStart;
+        final int rowEnd;
+        final int[] rowPointers;
+        final double[] values;
+        final int[] columnIndices;
+
+        ChunkResult(int rowStart, int rowEnd, int[] rowPointers, double[] values, int[] columnIndices) {
+            this.rowStart = rowStart;
+            this.rowEnd = rowEnd;
+            this.rowPointers = rowPointers;
+            this.values = values;
+            this.columnIndices = columnIndices;
+        }
+    }
+}
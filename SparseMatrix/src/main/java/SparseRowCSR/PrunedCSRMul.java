@@ -0,0 +1,195 @@
+package SparseRowCSR;
+
+import SparseKernels.Accumulator;
+import SparseRowCSR.SparseMatrixCSRMul.CSRMatrix;
+
+import java.util.Arrays;
+
+// Keeps at most k entries per row of A * B, all of them >= threshold. Each row is pruned as soon as its
+// accumulator is drained, so the output only ever grows by kept entries; the row scratch is bounded by B.cols.
+// Rows are drained unsorted and only the kept entries are sorted by column.
+class PrunedCSRMul {
+    private final CSRMatrix A;
+    private final CSRMatrix B;
+    private final int k;
+    private final double threshold;
+    private final RowWorkspace workspace;
+
+    private int[] rowColumns = new int[16];
+    private double[] rowValues = new double[16];
+    private double[] selection = new double[16];
+    private int[] ties = new int[16];
+    private long[] order = new long[16];
+
+    PrunedCSRMul(CSRMatrix A, CSRMatrix B, int k, double threshold) {
+        this.A = A;
+        this.B = B;
+        this.k = k;
+        this.threshold = threshold;
+        this.workspace = new RowWorkspace(B.cols);
+    }
+
+    CSRMatrix multiply() {
+        int[] resultRowPointers = new int[A.rows + 1];
+        int[] resultColumnIndices = new int[Math.max(16, A.rows)];
+        double[] resultValues = new double[resultColumnIndices.length];
+        int count = 0;
+
+        for (int i = 0; i < A.rows; i++) {
+            int kept = prune(drainRow(i));
+
+            if (count + kept > resultColumnIndices.length) {
+                int grown = Math.max(Math.addExact(count, kept), count + (count >> 1));
+                resultColumnIndices = Arrays.copyOf(resultColumnIndices, grown);
+                resultValues = Arrays.copyOf(resultValues, grown);
+            }
+            for (int e = 0; e < kept; e++) {
+                int position = (int) order[e];
+                resultColumnIndices[count] = rowColumns[position];
+                resultValues[count++] = rowValues[position];
+            }
+            resultRowPointers[i + 1] = count;
+        }
+
+        return new CSRMatrix(Arrays.copyOf(resultValues, count), Arrays.copyOf(resultColumnIndices, count),
+                resultRowPointers, A.rows, B.cols);
+    }
+
+    // The row's multiply-add count bounds its distinct columns, which sizes the accumulator without a symbolic pass.
+    private int drainRow(int i) {
+        long multiplyAdds = 0;
+        for (int j = A.rowPointers[i]; j < A.rowPointers[i + 1]; j++) {
+            int colA = A.columnIndices[j];
+            multiplyAdds += B.rowPointers[colA + 1] - B.rowPointers[colA];
+        }
+        if (multiplyAdds == 0) {
+            return 0;
+        }
+
+        int bound = (int) Math.min(multiplyAdds, B.cols);
+        if (bound > rowColumns.length) {
+            int grown = Math.max(bound, Math.min(B.cols, rowColumns.length * 2));
+            rowColumns = new int[grown];
+            rowValues = new double[grown];
+            selection = new double[grown];
+            ties = new int[grown];
+            order = new long[grown];
+        }
+
+        Accumulator accumulator = workspace.accumulatorFor(bound);
+        A.accumulateRow(i, B, accumulator);
+        return accumulator.drain(rowColumns, rowValues, 0);
+    }
+
+    // Leaves the positions of the kept entries, sorted by column, in order[0, kept). Ties at the k-th largest
+    // value go to the lowest columns, so the result does not depend on the accumulator's drain order.
+    private int prune(int rowNonZeros) {
+        if (k == 0) {
+            return 0;
+        }
+        int candidates = 0;
+        for (int e = 0; e < rowNonZeros; e++) {
+            if (rowValues[e] >= threshold) {
+                rowColumns[candidates] = rowColumns[e];
+                rowValues[candidates++] = rowValues[e];
+            }
+        }
+
+        int kept = 0;
+        if (candidates <= k) {
+            for (int e = 0; e < candidates; e++) {
+                order[kept++] = (long) rowColumns[e] << 32 | e;
+            }
+        } else {
+            System.arraycopy(rowValues, 0, selection, 0, candidates);
+            double kthLargest = select(selection, candidates, candidates - k);
+
+            int above = 0;
+            int tieCount = 0;
+            for (int e = 0; e < candidates; e++) {
+                if (rowValues[e] > kthLargest) {
+                    above++;
+                } else if (rowValues[e] == kthLargest) {
+                    ties[tieCount++] = rowColumns[e];
+                }
+            }
+            int lastTieColumn = selectColumn(ties, tieCount, k - above - 1);
+
+            for (int e = 0; e < candidates; e++) {
+                double value = rowValues[e];
+                if (value > kthLargest || (value == kthLargest && rowColumns[e] <= lastTieColumn)) {
+                    order[kept++] = (long) rowColumns[e] << 32 | e;
+                }
+            }
+        }
+
+        Arrays.sort(order, 0, kept);
+        for (int e = 0; e < kept; e++) {
+            order[e] &= 0xFFFFFFFFL;
+        }
+        return kept;
+    }
+
+    // Quickselect: returns the value that would sit at position rank if data[0, length) were sorted ascending.
+    private static double select(double[] data, int length, int rank) {
+        int low = 0;
+        int high = length - 1;
+        while (low < high) {
+            double pivot = data[(low + high) >>> 1];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (data[i] < pivot) {
+                    i++;
+                }
+                while (data[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    double swap = data[i];
+                    data[i++] = data[j];
+                    data[j--] = swap;
+                }
+            }
+            if (rank <= j) {
+                high = j;
+            } else if (rank >= i) {
+                low = i;
+            } else {
+                return data[rank];
+            }
+        }
+        return data[low];
+    }
+
+    private static int selectColumn(int[] data, int length, int rank) {
+        int low = 0;
+        int high = length - 1;
+        while (low < high) {
+            int pivot = data[(low + high) >>> 1];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (data[i] < pivot) {
+                    i++;
+                }
+                while (data[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    int swap = data[i];
+                    data[i++] = data[j];
+                    data[j--] = swap;
+                }
+            }
+            if (rank <= j) {
+                high = j;
+            } else if (rank >= i) {
+                low = i;
+            } else {
+                return data[rank];
+            }
+        }
+        return data[low];
+    }
+}
@@ -0,0 +1,64 @@
+package SparseRowCSR;
+
+import SparseKernels.Accumulator;
+import SparseKernels.HashAccumulator;
+import SparseKernels.SparseAccumulator;
+import SparseRowCSR.SparseMatrixCSRMul.CSRMatrix;
+
+import java.util.Arrays;
+
+class RowWorkspace {
+    private final int width;
+    private final int[] marker;
+    private SparseAccumulator sparseAccumulator;
+    private HashAccumulator hashAccumulator;
+
+    RowWorkspace(int width) {
+        this.width = width;
+        this.marker = new int[width];
+        Arrays.fill(marker, -1);
+    }
+
+    int symbolicRow(CSRMatrix A, int i, CSRMatrix B) {
+        int nonZeroCount = 0;
+        for (int j = A.rowPointers[i]; j < A.rowPointers[i + 1]; j++) {
+            int colA = A.columnIndices[j];
+
+            for (int k = B.rowPointers[colA]; k < B.rowPointers[colA + 1]; k++) {
+                int colB = B.columnIndices[k];
+                if (marker[colB] != i) {
+                    marker[colB] = i;
+                    nonZeroCount++;
+                }
+            }
+        }
+        return nonZeroCount;
+    }
+
+    void numericRow(CSRMatrix A, int i, CSRMatrix B, int rowNonZeros,
+                    int[] resultColumnIndices, double[] resultValues, int offset) {
+        if (rowNonZeros == 0) {
+            return;
+        }
+
+        Accumulator accumulator = accumulatorFor(rowNonZeros);
+        A.accumulateRow(i, B, accumulator);
+        accumulator.drainSorted(resultColumnIndices, resultValues, offset);
+    }
+
+    Accumulator accumulatorFor(int rowNonZeros) {
+        if (CSRMatrix.useHashAccumulator(rowNonZeros, width)) {
+            if (hashAccumulator == null) {
+                hashAccumulator = new HashAccumulator(rowNonZeros);
+            } else {
+                hashAccumulator.prepare(rowNonZeros);
+            }
+            return hashAccumulator;
+        }
+
+        if (sparseAccumulator == null) {
+            sparseAccumulator = new SparseAccumulator(width);
+        }
+        return sparseAccumulator;
+    }
+}
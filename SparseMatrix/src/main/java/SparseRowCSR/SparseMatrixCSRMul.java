@@ -1,19 +1,35 @@
 package SparseRowCSR;
 
+import MatrixMetrics.MultiplyTrace;
+import MatrixMetrics.Phase;
+import SparseColumnCSC.SparseMatrixCSCMul.CSCMatrix;
+import SparseKernels.Accumulator;
+import SparseKernels.CompressedTranspose;
+import SparseKernels.ContentHash;
+import SparseKernels.CoordinateCompressor;
+import SparseKernels.Dataflow;
+
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 public class SparseMatrixCSRMul {
 
     public static class CSRMatrix {
+        static final int HASH_ACCUMULATOR_MIN_COLUMNS = 1 << 15;
+        static final int HASH_ACCUMULATOR_SPARSITY_RATIO = 64;
+
         double[] values;
         int[] columnIndices;
         int[] rowPointers;
 
         int rows, cols;
 
-        CSRMatrix(double[] values, int[] columnIndices, int[] rowPointers, int rows, int cols) {
+        // Cached like String.hashCode: zero means not computed yet, and a racing recompute stores the same value.
+        private long fingerprint, fingerprintHigh;
+
+        public CSRMatrix(double[] values, int[] columnIndices, int[] rowPointers, int rows, int cols) {
             this.values = values;
             this.columnIndices = columnIndices;
             this.rowPointers = rowPointers;
@@ -21,6 +37,61 @@ public class SparseMatrixCSRMul {
             this.cols = cols;
         }
 
+        public double[] getValues() {
+            return values;
+        }
+
+        public int[] getColumnIndices() {
+            return columnIndices;
+        }
+
+        public int[] getRowPointers() {
+            return rowPointers;
+        }
+
+        public int getRows() {
+            return rows;
+        }
+
+        public int getCols() {
+            return cols;
+        }
+
+        // Content hash over the shape and all three arrays. Computed on first use and cached, so the arrays
+        // must not be modified once a fingerprint has been taken.
+        public long fingerprint() {
+            long h = fingerprint;
+            if (h == 0) {
+                int nonZeros = rowPointers[rows];
+                h = ContentHash.seed(((long) rows << 32) ^ cols);
+                h = ContentHash.hash(h, rowPointers, 0, rows + 1);
+                h = ContentHash.hash(h, columnIndices, 0, nonZeros);
+                h = ContentHash.hash(h, values, 0, nonZeros);
+                h = h == 0 ? 1 : h;
+                fingerprint = h;
+            }
+            return h;
+        }
+
+        // Second, independently mixed 64 bits of the same content, for callers that key on the fingerprint alone.
+        public long fingerprintHigh() {
+            long h = fingerprintHigh;
+            if (h == 0) {
+                int nonZeros = rowPointers[rows];
+                h = ContentHash.seed(((long) rows << 32) ^ cols);
+                h = ContentHash.hashHigh(h, rowPointers, 0, rows + 1);
+                h = ContentHash.hashHigh(h, columnIndices, 0, nonZeros);
+                h = ContentHash.hashHigh(h, values, 0, nonZeros);
+                h = h == 0 ? 1 : h;
+                fingerprintHigh = h;
+            }
+            return h;
+        }
+
+        public long sizeInBytes() {
+            return 8L * values.length + 4L * columnIndices.length + 4L * rowPointers.length;
+        }
+
         public void printCSRDetails() {
             System.out.println("CSR Representation:");
             System.out.println("Values: " + Arrays.toString(values));
@@ -29,13 +100,7 @@ public class SparseMatrixCSRMul {
         }
 
         public void printDenseMatrix() {
-            double[][] denseMatrix = new double[rows][cols];
-
-            for (int i = 0; i < rows; i++) {
-                for (int j = rowPointers[i]; j < rowPointers[i + 1]; j++) {
-                    denseMatrix[i][columnIndices[j]] = values[j];
-                }
-            }
+            double[][] denseMatrix = convertToDense(this);
 
             System.out.println("Dense Matrix:");
             for (double[] row : denseMatrix) {
@@ -87,37 +152,408 @@ public class SparseMatrixCSRMul {
 
             return new CSRMatrix(resultValuesArray, resultColumnIndicesArray, resultRowPointersArray, this.rows, B.cols);
         }
+
+        public CSRMatrix multiplyTwoPass(CSRMatrix B) {
+            if (this.cols != B.rows) {
+                throw new IllegalArgumentException("Matrix dimensions do not match for multiplication.");
+            }
+
+            MultiplyTrace trace = MultiplyTrace.start("csr.twoPass", 1);
+            RowWorkspace workspace = new RowWorkspace(B.cols);
+
+            int[] resultRowPointers = new int[this.rows + 1];
+            for (int i = 0; i < this.rows; i++) {
+                resultRowPointers[i + 1] = addProductNonZeros(resultRowPointers[i], workspace.symbolicRow(this, i, B));
+            }
+            int nonZeroTotal = resultRowPointers[this.rows];
+            if (trace != null) {
+                trace.endPhase(Phase.SYMBOLIC);
+            }
+
+            double[] resultValues = new double[nonZeroTotal];
+            int[] resultColumnIndices = new int[nonZeroTotal];
+
+            for (int i = 0; i < this.rows; i++) {
+                int rowNonZeros = resultRowPointers[i + 1] - resultRowPointers[i];
+                workspace.numericRow(this, i, B, rowNonZeros, resultColumnIndices, resultValues, resultRowPointers[i]);
+            }
+
+            CSRMatrix result = new CSRMatrix(resultValues, resultColumnIndices, resultRowPointers, this.rows, B.cols);
+            if (trace != null) {
+                trace.endPhase(Phase.NUMERIC);
+                trace.finish(this, B, result);
+            }
+            return result;
+        }
+
+        public CSRMatrix multiplyMasked(CSRMatrix B, CSRMatrix mask) {
+            // Checked before the dataflow choice, which reads the mask and B by index.
+            checkMasked(B, mask);
+            return multiplyMasked(B, mask, MaskedCSRMul.preferInnerProduct(this, B, mask)
+                    ? Dataflow.INNER_PRODUCT : Dataflow.GUSTAVSON);
+        }
+
+        // Only positions stored in the mask are computed; the mask's values are ignored.
+        public CSRMatrix multiplyMasked(CSRMatrix B, CSRMatrix mask, Dataflow dataflow) {
+            checkMasked(B, mask);
+
+            MultiplyTrace trace = MultiplyTrace.start("csr.masked", 1);
+            CSRMatrix result;
+            switch (dataflow) {
+                case INNER_PRODUCT:
+                    CSCMatrix columnsB = B.toCSC();
+                    if (trace != null) {
+                        trace.endPhase(Phase.PREPARE);
+                    }
+                    result = MaskedCSRMul.multiplyInnerProduct(this, columnsB, mask);
+                    break;
+                case GUSTAVSON:
+                    result = MaskedCSRMul.multiplyGustavson(this, B, mask);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported dataflow for a masked product: " + dataflow);
+            }
+            if (trace != null) {
+                // Reports the multiply-adds of the unmasked product, an upper bound on the work actually done.
+                trace.endPhase(Phase.NUMERIC);
+                trace.finish(this, B, result);
+            }
+            return result;
+        }
+
+        private void checkMasked(CSRMatrix B, CSRMatrix mask) {
+            if (this.cols != B.rows) {
+                throw new IllegalArgumentException("Matrix dimensions do not match for multiplication.");
+            }
+            MaskedCSRMul.checkMask(this, B.cols, mask);
+        }
+
+        public CSRMatrix multiplyMasked(CSCMatrix B, CSRMatrix mask) {
+            if (this.cols != B.getRows()) {
+                throw new IllegalArgumentException("Matrix dimensions do not match for multiplication.");
+            }
+            MaskedCSRMul.checkMask(this, B.getCols(), mask);
+            MultiplyTrace trace = MultiplyTrace.start("csr.masked", 1);
+            CSRMatrix result = MaskedCSRMul.multiplyInnerProduct(this, B, mask);
+            if (trace != null) {
+                trace.endPhase(Phase.NUMERIC);
+                trace.finish(rows, cols, B.getCols(), rowPointers[rows], B.getColPointers()[B.getCols()],
+                        result.rowPointers[rows], flops(B));
+            }
+            return result;
+        }
+
+        public CSRMatrix multiplyTopK(CSRMatrix B, int k) {
+            return multiplyPruned(B, k, Double.NEGATIVE_INFINITY);
+        }
+
+        public CSRMatrix multiplyThreshold(CSRMatrix B, double threshold) {
+            return multiplyPruned(B, Integer.MAX_VALUE, threshold);
+        }
+
+        // Keeps, per row, the k largest values among those >= threshold, in column order.
+        public CSRMatrix multiplyPruned(CSRMatrix B, int k, double threshold) {
+            if (this.cols != B.rows) {
+                throw new IllegalArgumentException("Matrix dimensions do not match for multiplication.");
+            }
+            if (k < 0) {
+                throw new IllegalArgumentException("k must be non-negative.");
+            }
+            MultiplyTrace trace = MultiplyTrace.start("csr.pruned", 1);
+            CSRMatrix result = new PrunedCSRMul(this, B, k, threshold).multiply();
+            if (trace != null) {
+                trace.endPhase(Phase.NUMERIC);
+                trace.finish(this, B, result);
+            }
+            return result;
+        }
+
+        public CSRMatrix multiplyParallel(CSRMatrix B) {
+            return multiplyParallel(B, ForkJoinPool.commonPool());
+        }
+
+        public CSRMatrix multiplyParallel(CSRMatrix B, ForkJoinPool pool) {
+            if (this.cols != B.rows) {
+                throw new IllegalArgumentException("Matrix dimensions do not match for multiplication.");
+            }
+
+            return new ParallelCSRMul(this, B, pool).multiply();
+        }
+
+        public double[] multiply(double[] x) {
+            double[] y = new double[rows];
+            multiply(x, y);
+            return y;
+        }
+
+        public void multiply(double[] x, double[] y) {
+            checkVectorDimensions(x, y);
+            MultiplyTrace trace = MultiplyTrace.start("csr.spmv", 1);
+            CSRVectorMul.multiplyVector(this, x, y, 0, rows);
+            if (trace != null) {
+                trace.endPhase(Phase.NUMERIC);
+                trace.finishVector(rows, cols, 1, rowPointers[rows]);
+            }
+        }
+
+        public double[] multiplyParallel(double[] x) {
+            double[] y = new double[rows];
+            multiplyParallel(x, y, ForkJoinPool.commonPool());
+            return y;
+        }
+
+        public void multiplyParallel(double[] x, double[] y, ForkJoinPool pool) {
+            checkVectorDimensions(x, y);
+            MultiplyTrace trace = MultiplyTrace.start("csr.spmv", pool.getParallelism());
+            CSRVectorMul.multiplyVectorParallel(this, x, y, pool);
+            if (trace != null) {
+                trace.endPhase(Phase.NUMERIC);
+                trace.finishVector(rows, cols, 1, rowPointers[rows]);
+            }
+        }
+
+        public double[] multiplyBatch(double[] X, int k) {
+            double[] Y = new double[Math.multiplyExact(rows, k)];
+            multiplyBatch(X, Y, k);
+            return Y;
+        }
+
+        public void multiplyBatch(double[] X, double[] Y, int k) {
+            checkBatchDimensions(X, Y, k);
+            MultiplyTrace trace = MultiplyTrace.start("csr.spmm", 1);
+            CSRVectorMul.multiplyBatch(this, X, Y, k, 0, rows);
+            if (trace != null) {
+                trace.endPhase(Phase.NUMERIC);
+                trace.finishVector(rows, cols, k, rowPointers[rows]);
+            }
+        }
+
+        public double[] multiplyBatchParallel(double[] X, int k) {
+            double[] Y = new double[Math.multiplyExact(rows, k)];
+            multiplyBatchParallel(X, Y, k, ForkJoinPool.commonPool());
+            return Y;
+        }
+
+        public void multiplyBatchParallel(double[] X, double[] Y, int k, ForkJoinPool pool) {
+            checkBatchDimensions(X, Y, k);
+            MultiplyTrace trace = MultiplyTrace.start("csr.spmm", pool.getParallelism());
+            CSRVectorMul.multiplyBatchParallel(this, X, Y, k, pool);
+            if (trace != null) {
+                trace.endPhase(Phase.NUMERIC);
+                trace.finishVector(rows, cols, k, rowPointers[rows]);
+            }
+        }
+
+        public CSRMatrix multiply(CSCMatrix B) {
+            return multiply(B, chooseDataflow(B));
+        }
+
+        public CSRMatrix multiply(CSCMatrix B, Dataflow dataflow) {
+            if (this.cols != B.getRows()) {
+                throw new IllegalArgumentException("Matrix dimensions do not match for multiplication.");
+            }
+
+            MultiplyTrace trace = MultiplyTrace.startOuter("mixed.csrCsc", 1);
+            try {
+                CSRMatrix result;
+                switch (dataflow) {
+                    case INNER_PRODUCT:
+                        result = multiplyInnerProduct(B);
+                        break;
+                    case OUTER_PRODUCT:
+                        result = this.toCSC().multiply(B.toCSR(), Dataflow.OUTER_PRODUCT).toCSR();
+                        break;
+                    case GUSTAVSON:
+                        result = multiplyTwoPass(B.toCSR());
+                        break;
+                    default:
+                        throw new IllegalStateException("Unknown dataflow: " + dataflow);
+                }
+                if (trace != null) {
+                    trace.endPhase(Phase.NUMERIC);
+                    trace.finish(rows, cols, B.getCols(), rowPointers[rows], B.getColPointers()[B.getCols()],
+                            result.rowPointers[rows], flops(B));
+                }
+                return result;
+            } finally {
+                if (trace != null) {
+                    trace.close();
+                }
+            }
+        }
+
+        // Inner products merge row i of A with column j of B for every output position, so they only pay
+        // off when the result is small. Gustavson converts B to CSR once and makes a symbolic and a numeric
+        // pass over the multiply-adds. Outer products would need both operands converted and never win here.
+        public Dataflow chooseDataflow(CSCMatrix B) {
+            int[] colPointersB = B.getColPointers();
+            long nonZerosB = colPointersB[B.getCols()];
+            long innerCost = (long) this.rows * nonZerosB + (long) B.getCols() * this.rowPointers[this.rows];
+            long gustavsonCost = nonZerosB + 2 * flops(B);
+            return innerCost < gustavsonCost ? Dataflow.INNER_PRODUCT : Dataflow.GUSTAVSON;
+        }
+
+        long flops(CSCMatrix B) {
+            int[] rowCountsB = new int[B.getRows()];
+            int[] rowIndicesB = B.getRowIndices();
+            for (int e = 0; e < B.getColPointers()[B.getCols()]; e++) {
+                rowCountsB[rowIndicesB[e]]++;
+            }
+
+            long flops = 0;
+            for (int e = 0; e < this.rowPointers[this.rows]; e++) {
+                flops += rowCountsB[this.columnIndices[e]];
+            }
+            return flops;
+        }
+
+        CSRMatrix multiplyInnerProduct(CSCMatrix B) {
+            int[] colPointersB = B.getColPointers();
+            int[] rowIndicesB = B.getRowIndices();
+            double[] valuesB = B.getValues();
+
+            int[] resultRowPointers = new int[this.rows + 1];
+            int[] resultColumnIndices = new int[16];
+            double[] resultValues = new double[16];
+            int count = 0;
+
+            for (int i = 0; i < this.rows; i++) {
+                int rowStart = this.rowPointers[i];
+                int rowEnd = this.rowPointers[i + 1];
+
+                for (int j = 0; j < B.getCols() && rowStart < rowEnd; j++) {
+                    int p = rowStart;
+                    int q = colPointersB[j];
+                    int qEnd = colPointersB[j + 1];
+                    boolean structural = false;
+                    double sum = 0.0;
+
+                    while (p < rowEnd && q < qEnd) {
+                        int colA = this.columnIndices[p];
+                        int rowB = rowIndicesB[q];
+                        if (colA == rowB) {
+                            sum += this.values[p++] * valuesB[q++];
+                            structural = true;
+                        } else if (colA < rowB) {
+                            p++;
+                        } else {
+                            q++;
+                        }
+                    }
+
+                    if (structural) {
+                        if (count == resultColumnIndices.length) {
+                            int capacity = Math.addExact(count, Math.max(count >> 1, 16));
+                            resultColumnIndices = Arrays.copyOf(resultColumnIndices, capacity);
+                            resultValues = Arrays.copyOf(resultValues, capacity);
+                        }
+                        resultColumnIndices[count] = j;
+                        resultValues[count] = sum;
+                        count++;
+                    }
+                }
+                resultRowPointers[i + 1] = count;
+            }
+
+            return new CSRMatrix(Arrays.copyOf(resultValues, count), Arrays.copyOf(resultColumnIndices, count),
+                    resultRowPointers, this.rows, B.getCols());
+        }
+
+        public CSCMatrix toCSC() {
+            CoordinateCompressor.Compressed transposed =
+                    CompressedTranspose.transpose(rows, cols, rowPointers, columnIndices, values);
+            return new CSCMatrix(transposed.getValues(), transposed.getIndices(), transposed.getPointers(), rows, cols);
+        }
+
+        public CSRMatrix transpose() {
+            CoordinateCompressor.Compressed transposed =
+                    CompressedTranspose.transpose(rows, cols, rowPointers, columnIndices, values);
+            return new CSRMatrix(transposed.getValues(), transposed.getIndices(), transposed.getPointers(), cols, rows);
+        }
+
+        void accumulateRow(int i, CSRMatrix B, Accumulator accumulator) {
+            for (int j = this.rowPointers[i]; j < this.rowPointers[i + 1]; j++) {
+                int colA = this.columnIndices[j];
+                accumulator.accumulateScaled(this.values[j], B.columnIndices, B.values,
+                        B.rowPointers[colA], B.rowPointers[colA + 1]);
+            }
+        }
+
+        private void checkVectorDimensions(double[] x, double[] y) {
+            if (x.length != cols || y.length != rows) {
+                throw new IllegalArgumentException("Matrix dimensions do not match for multiplication.");
+            }
+        }
+
+        private void checkBatchDimensions(double[] X, double[] Y, int k) {
+            if (k <= 0 || X.length != (long) cols * k || Y.length != (long) rows * k) {
+                throw new IllegalArgumentException("Matrix dimensions do not match for multiplication.");
+            }
+        }
+
+        // Heap products stop at Integer.MAX_VALUE nonzeros. Larger products only exist off-heap, through
+        // SparseSegment's SegmentCSRMatrix.multiply(B, arena); nothing here routes to it automatically.
+        static int addProductNonZeros(int total, int rowNonZeros) {
+            int sum = total + rowNonZeros;
+            if (sum < 0) {
+                throw new ArithmeticException("Product has more than " + Integer.MAX_VALUE
+                        + " nonzeros; multiply off-heap with SegmentCSRMatrix.multiply(B, arena).");
+            }
+            return sum;
+        }
+
+        public static boolean useHashAccumulator(int rowNonZeros, int resultCols) {
+            return resultCols >= HASH_ACCUMULATOR_MIN_COLUMNS
+                    && (long) rowNonZeros * HASH_ACCUMULATOR_SPARSITY_RATIO <= resultCols;
+        }
     }
 
     public static CSRMatrix convertToCSR(double[][] matrix) {
-        List<Double> valuesList = new ArrayList<>();
-        List<Integer> columnIndicesList = new ArrayList<>();
-        List<Integer> rowPointersList = new ArrayList<>();
-
         int rows = matrix.length;
-        int cols = matrix[0].length;
-
-        rowPointersList.add(0);
+        int cols = rows == 0 ? 0 : matrix[0].length;
 
+        int[] rowPointers = new int[rows + 1];
         for (int i = 0; i < rows; i++) {
             int nonZeroCount = 0;
             for (int j = 0; j < cols; j++) {
                 if (matrix[i][j] != 0) {
-                    valuesList.add(matrix[i][j]);
-                    columnIndicesList.add(j);
                     nonZeroCount++;
                 }
             }
-            rowPointersList.add(rowPointersList.get(rowPointersList.size() - 1) + nonZeroCount);
+            rowPointers[i + 1] = Math.addExact(rowPointers[i], nonZeroCount);
         }
 
-        double[] values = valuesList.stream().mapToDouble(Double::doubleValue).toArray();
-        int[] columnIndices = columnIndicesList.stream().mapToInt(Integer::intValue).toArray();
-        int[] rowPointers = rowPointersList.stream().mapToInt(Integer::intValue).toArray();
+        double[] values = new double[rowPointers[rows]];
+        int[] columnIndices = new int[rowPointers[rows]];
+        for (int i = 0; i < rows; i++) {
+            int position = rowPointers[i];
+            for (int j = 0; j < cols; j++) {
+                if (matrix[i][j] != 0) {
+                    values[position] = matrix[i][j];
+                    columnIndices[position++] = j;
+                }
+            }
+        }
 
         return new CSRMatrix(values, columnIndices, rowPointers, rows, cols);
     }
 
+    public static double[][] convertToDense(CSRMatrix matrix) {
+        double[][] dense = new double[matrix.rows][matrix.cols];
+        for (int i = 0; i < matrix.rows; i++) {
+            for (int p = matrix.rowPointers[i]; p < matrix.rowPointers[i + 1]; p++) {
+                dense[i][matrix.columnIndices[p]] = matrix.values[p];
+            }
+        }
+        return dense;
+    }
+
+    public static CSRMatrix convertCOOToCSR(int rows, int cols, int[] rowIndices, int[] columnIndices, double[] values, int count) {
+        CoordinateCompressor.Compressed compressed =
+                CoordinateCompressor.compress(rows, cols, rowIndices, columnIndices, values, count);
+        return new CSRMatrix(compressed.getValues(), compressed.getIndices(), compressed.getPointers(), rows, cols);
+    }
+
     public static void main(String[] args) {
         double[][] matrixA = {
                 {1, 0, 0, 0},
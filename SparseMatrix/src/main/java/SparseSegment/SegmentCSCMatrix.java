@@ -0,0 +1,93 @@
+package SparseSegment;
+
+import SparseColumnCSC.SparseMatrixCSCMul.CSCMatrix;
+import SparseRowCSR.SparseMatrixCSRMul.CSRMatrix;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+// The CSC counterpart of SegmentCSRMatrix, and standalone in the same way: it crosses to CSCMatrix through fromCSC
+// and toCSC, SparseBinaryFormat.mapCSC and write, or MatrixMarketReader's toSegmentCSC.
+public class SegmentCSCMatrix {
+    public static final ValueLayout.OfLong POINTER_LAYOUT = SegmentStorage.POINTER;
+    public static final ValueLayout.OfInt INDEX_LAYOUT = SegmentStorage.INDEX;
+    public static final ValueLayout.OfDouble VALUE_LAYOUT = SegmentStorage.VALUE;
+
+    final SegmentStorage storage;
+
+    final int rows, cols;
+
+    public SegmentCSCMatrix(MemorySegment colPointers, MemorySegment rowIndices, MemorySegment values, int rows, int cols) {
+        this(new SegmentStorage(colPointers, rowIndices, values, cols, rows));
+    }
+
+    SegmentCSCMatrix(SegmentStorage storage) {
+        this.storage = storage;
+        this.rows = storage.minorSize;
+        this.cols = storage.majorSize;
+    }
+
+    public static SegmentCSCMatrix fromCSC(CSCMatrix matrix, Arena arena) {
+        return new SegmentCSCMatrix(SegmentStorage.copyOf(matrix.getColPointers(), matrix.getRowIndices(),
+                matrix.getValues(), matrix.getCols(), matrix.getRows(), arena));
+    }
+
+    public static SegmentCSCMatrix fromCOO(int rows, int cols, MemorySegment rowIndices, MemorySegment columnIndices,
+                                           MemorySegment values, long count, Arena arena) {
+        return new SegmentCSCMatrix(SegmentCompressor.compress(cols, rows, columnIndices, rowIndices, values, count, arena));
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public long getNonZeros() {
+        return storage.nonZeros;
+    }
+
+    public long colStart(int j) {
+        return storage.start(j);
+    }
+
+    public long colEnd(int j) {
+        return storage.end(j);
+    }
+
+    public int rowIndex(long k) {
+        return storage.index(k);
+    }
+
+    public double value(long k) {
+        return storage.value(k);
+    }
+
+    public MemorySegment getColPointers() {
+        return storage.pointers;
+    }
+
+    public MemorySegment getRowIndices() {
+        return storage.indices;
+    }
+
+    public MemorySegment getValues() {
+        return storage.values;
+    }
+
+    public CSCMatrix multiply(SegmentCSCMatrix B) {
+        CSRMatrix transposed = new SegmentProduct(B.storage, storage).multiplyToHeap();
+        return new CSCMatrix(transposed.getValues(), transposed.getColumnIndices(), transposed.getRowPointers(), rows, B.cols);
+    }
+
+    public SegmentCSCMatrix multiply(SegmentCSCMatrix B, Arena arena) {
+        return new SegmentCSCMatrix(new SegmentProduct(B.storage, storage).multiplyOffHeap(arena));
+    }
+
+    public CSCMatrix toCSC() {
+        return new CSCMatrix(storage.valuesToArray(), storage.indicesToArray(), storage.pointersToArray(), rows, cols);
+    }
+}
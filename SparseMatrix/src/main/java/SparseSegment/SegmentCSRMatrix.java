@@ -0,0 +1,93 @@
+package SparseSegment;
+
+import SparseRowCSR.SparseMatrixCSRMul.CSRMatrix;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+// Off-heap CSR with long row pointers, for matrices past the int nonzero limit of CSRMatrix or mapped from a file.
+// It is a standalone backend: CSRMatrix.multiply, the SparseMatrixCSRMul converters and MatrixEngine only take heap
+// matrices, so a segment matrix multiplies with other segment matrices and crosses over explicitly, with fromCSR
+// and toCSR, SparseBinaryFormat.mapCSR and write, or MatrixMarketReader's toSegmentCSR.
+public class SegmentCSRMatrix {
+    public static final ValueLayout.OfLong POINTER_LAYOUT = SegmentStorage.POINTER;
+    public static final ValueLayout.OfInt INDEX_LAYOUT = SegmentStorage.INDEX;
+    public static final ValueLayout.OfDouble VALUE_LAYOUT = SegmentStorage.VALUE;
+
+    final SegmentStorage storage;
+
+    final int rows, cols;
+
+    public SegmentCSRMatrix(MemorySegment rowPointers, MemorySegment columnIndices, MemorySegment values, int rows, int cols) {
+        this(new SegmentStorage(rowPointers, columnIndices, values, rows, cols));
+    }
+
+    SegmentCSRMatrix(SegmentStorage storage) {
+        this.storage = storage;
+        this.rows = storage.majorSize;
+        this.cols = storage.minorSize;
+    }
+
+    public static SegmentCSRMatrix fromCSR(CSRMatrix matrix, Arena arena) {
+        return new SegmentCSRMatrix(SegmentStorage.copyOf(matrix.getRowPointers(), matrix.getColumnIndices(),
+                matrix.getValues(), matrix.getRows(), matrix.getCols(), arena));
+    }
+
+    public static SegmentCSRMatrix fromCOO(int rows, int cols, MemorySegment rowIndices, MemorySegment columnIndices,
+                                           MemorySegment values, long count, Arena arena) {
+        return new SegmentCSRMatrix(SegmentCompressor.compress(rows, cols, rowIndices, columnIndices, values, count, arena));
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public long getNonZeros() {
+        return storage.nonZeros;
+    }
+
+    public long rowStart(int i) {
+        return storage.start(i);
+    }
+
+    public long rowEnd(int i) {
+        return storage.end(i);
+    }
+
+    public int columnIndex(long k) {
+        return storage.index(k);
+    }
+
+    public double value(long k) {
+        return storage.value(k);
+    }
+
+    public MemorySegment getRowPointers() {
+        return storage.pointers;
+    }
+
+    public MemorySegment getColumnIndices() {
+        return storage.indices;
+    }
+
+    public MemorySegment getValues() {
+        return storage.values;
+    }
+
+    public CSRMatrix multiply(SegmentCSRMatrix B) {
+        return new SegmentProduct(storage, B.storage).multiplyToHeap();
+    }
+
+    public SegmentCSRMatrix multiply(SegmentCSRMatrix B, Arena arena) {
+        return new SegmentCSRMatrix(new SegmentProduct(storage, B.storage).multiplyOffHeap(arena));
+    }
+
+    public CSRMatrix toCSR() {
+        return new CSRMatrix(storage.valuesToArray(), storage.indicesToArray(), storage.pointersToArray(), rows, cols);
+    }
+}
@@ -0,0 +1,99 @@
+package SparseSegment;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+
+import static SparseSegment.SegmentStorage.ALIGNMENT;
+import static SparseSegment.SegmentStorage.INDEX;
+import static SparseSegment.SegmentStorage.POINTER;
+import static SparseSegment.SegmentStorage.VALUE;
+
+// Off-heap counterpart of SparseKernels.CoordinateCompressor: the same two stable counting sorts and
+// duplicate merge, with long offsets and all scratch space in a confined arena released on return.
+class SegmentCompressor {
+
+    static SegmentStorage compress(int majorSize, int minorSize, MemorySegment major, MemorySegment minor,
+                                   MemorySegment values, long count, Arena arena) {
+        try (Arena scratch = Arena.ofConfined()) {
+            MemorySegment minorPointers = scratch.allocate((minorSize + 1L) * Long.BYTES, ALIGNMENT);
+            for (long e = 0; e < count; e++) {
+                int m = minor.getAtIndex(INDEX, e);
+                int i = major.getAtIndex(INDEX, e);
+                if (m < 0 || m >= minorSize || i < 0 || i >= majorSize) {
+                    throw new IllegalArgumentException("Coordinate entry out of bounds: (" + i + ", " + m + ")");
+                }
+                increment(minorPointers, m + 1);
+            }
+            prefixSum(minorPointers, minorSize);
+
+            MemorySegment byMinorMajor = scratch.allocate(count * Integer.BYTES, ALIGNMENT);
+            MemorySegment byMinorValues = scratch.allocate(count * Double.BYTES, ALIGNMENT);
+            for (long e = 0; e < count; e++) {
+                long position = increment(minorPointers, minor.getAtIndex(INDEX, e));
+                byMinorMajor.setAtIndex(INDEX, position, major.getAtIndex(INDEX, e));
+                byMinorValues.setAtIndex(VALUE, position, values.getAtIndex(VALUE, e));
+            }
+
+            MemorySegment pointers = arena.allocate((majorSize + 1L) * Long.BYTES, ALIGNMENT);
+            for (long e = 0; e < count; e++) {
+                increment(pointers, byMinorMajor.getAtIndex(INDEX, e) + 1);
+            }
+            prefixSum(pointers, majorSize);
+
+            MemorySegment next = scratch.allocate(Math.max(1, majorSize) * (long) Long.BYTES, ALIGNMENT);
+            MemorySegment.copy(pointers, 0, next, 0, majorSize * (long) Long.BYTES);
+            MemorySegment indices = arena.allocate(count * Integer.BYTES, ALIGNMENT);
+            MemorySegment sortedValues = arena.allocate(count * Double.BYTES, ALIGNMENT);
+            int m = 0;
+            for (long e = 0; e < count; e++) {
+                while (e >= minorPointers.getAtIndex(POINTER, m)) {
+                    m++;
+                }
+                long position = increment(next, byMinorMajor.getAtIndex(INDEX, e));
+                indices.setAtIndex(INDEX, position, m);
+                sortedValues.setAtIndex(VALUE, position, byMinorValues.getAtIndex(VALUE, e));
+            }
+
+            long nonZeros = mergeDuplicates(majorSize, pointers, indices, sortedValues);
+            return new SegmentStorage(pointers, indices.asSlice(0, nonZeros * Integer.BYTES),
+                    sortedValues.asSlice(0, nonZeros * Double.BYTES), majorSize, minorSize);
+        }
+    }
+
+    private static long mergeDuplicates(int majorSize, MemorySegment pointers, MemorySegment indices, MemorySegment values) {
+        long write = 0;
+        long start = 0;
+        for (int i = 0; i < majorSize; i++) {
+            long rowStart = write;
+            long end = pointers.getAtIndex(POINTER, i + 1);
+            for (long e = start; e < end; e++) {
+                int index = indices.getAtIndex(INDEX, e);
+                double value = values.getAtIndex(VALUE, e);
+                if (write > rowStart && indices.getAtIndex(INDEX, write - 1) == index) {
+                    values.setAtIndex(VALUE, write - 1, values.getAtIndex(VALUE, write - 1) + value);
+                } else {
+                    indices.setAtIndex(INDEX, write, index);
+                    values.setAtIndex(VALUE, write, value);
+                    write++;
+                }
+            }
+            start = end;
+            pointers.setAtIndex(POINTER, i + 1, write);
+        }
+        return write;
+    }
+
+    private static long increment(MemorySegment counters, int index) {
+        long value = counters.getAtIndex(POINTER, index);
+        counters.setAtIndex(POINTER, index, value + 1);
+        return value;
+    }
+
+    private static void prefixSum(MemorySegment counters, int size) {
+        long running = 0;
+        for (int i = 0; i <= size; i++) {
+            running += counters.getAtIndex(POINTER, i);
+            counters.setAtIndex(POINTER, i, running);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package SparseSegment;
+
+import SparseKernels.Accumulator;
+import SparseKernels.HashAccumulator;
+import SparseKernels.SparseAccumulator;
+import SparseRowCSR.SparseMatrixCSRMul.CSRMatrix;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.util.Arrays;
+
+// Gustavson product of two compressed operands along their major dimension, so a CSR product reads
+// A and B row by row and a CSC product is the same loop over the transposed operands (B^T A^T).
+class SegmentProduct {
+    private final SegmentStorage left;
+    private final SegmentStorage right;
+    private final int[] marker;
+    private SparseAccumulator sparseAccumulator;
+    private HashAccumulator hashAccumulator;
+
+    SegmentProduct(SegmentStorage left, SegmentStorage right) {
+        if (left.minorSize != right.majorSize) {
+            throw new IllegalArgumentException("Matrix dimensions do not match for multiplication.");
+        }
+        this.left = left;
+        this.right = right;
+        this.marker = new int[right.minorSize];
+        Arrays.fill(marker, -1);
+    }
+
+    CSRMatrix multiplyToHeap() {
+        int[] resultPointers = new int[left.majorSize + 1];
+        for (int i = 0; i < left.majorSize; i++) {
+            resultPointers[i + 1] = Math.addExact(resultPointers[i], symbolicRow(i));
+        }
+
+        int nonZeroTotal = resultPointers[left.majorSize];
+        int[] resultIndices = new int[nonZeroTotal];
+        double[] resultValues = new double[nonZeroTotal];
+        for (int i = 0; i < left.majorSize; i++) {
+            numericRow(i, resultPointers[i + 1] - resultPointers[i], resultIndices, resultValues, resultPointers[i]);
+        }
+
+        return new CSRMatrix(resultValues, resultIndices, resultPointers, left.majorSize, right.minorSize);
+    }
+
+    // Same two passes as multiplyToHeap, but row pointers are longs in off-heap memory, so the result
+    // may exceed 2^31 nonzeros. Each row is drained into small reusable heap buffers and copied out.
+    SegmentStorage multiplyOffHeap(Arena arena) {
+        MemorySegment resultPointers = arena.allocate((left.majorSize + 1L) * Long.BYTES, SegmentStorage.ALIGNMENT);
+        long nonZeroTotal = 0;
+        for (int i = 0; i < left.majorSize; i++) {
+            nonZeroTotal += symbolicRow(i);
+            resultPointers.setAtIndex(SegmentStorage.POINTER, i + 1, nonZeroTotal);
+        }
+
+        MemorySegment resultIndices = arena.allocate(nonZeroTotal * Integer.BYTES, SegmentStorage.ALIGNMENT);
+        MemorySegment resultValues = arena.allocate(nonZeroTotal * Double.BYTES, SegmentStorage.ALIGNMENT);
+        int[] rowIndices = new int[0];
+        double[] rowValues = new double[0];
+        for (int i = 0; i < left.majorSize; i++) {
+            long offset = resultPointers.getAtIndex(SegmentStorage.POINTER, i);
+            int rowNonZeros = (int) (resultPointers.getAtIndex(SegmentStorage.POINTER, i + 1) - offset);
+            if (rowNonZeros == 0) {
+                continue;
+            }
+            if (rowIndices.length < rowNonZeros) {
+                rowIndices = new int[Math.max(rowNonZeros, rowIndices.length * 2)];
+                rowValues = new double[rowIndices.length];
+            }
+
+            numericRow(i, rowNonZeros, rowIndices, rowValues, 0);
+            MemorySegment.copy(rowIndices, 0, resultIndices, SegmentStorage.INDEX, offset * Integer.BYTES, rowNonZeros);
+            MemorySegment.copy(rowValues, 0, resultValues, SegmentStorage.VALUE, offset * Double.BYTES, rowNonZeros);
+        }
+
+        return new SegmentStorage(resultPointers, resultIndices, resultValues, left.majorSize, right.minorSize);
+    }
+
+    int symbolicRow(int i) {
+        int nonZeroCount = 0;
+        for (long j = left.start(i), jEnd = left.end(i); j < jEnd; j++) {
+            int inner = left.index(j);
+            for (long k = right.start(inner), kEnd = right.end(inner); k < kEnd; k++) {
+                int col = right.index(k);
+                if (marker[col] != i) {
+                    marker[col] = i;
+                    nonZeroCount++;
+                }
+            }
+        }
+        return nonZeroCount;
+    }
+
+    void numericRow(int i, int rowNonZeros, int[] resultIndices, double[] resultValues, int offset) {
+        if (rowNonZeros == 0) {
+            return;
+        }
+
+        Accumulator accumulator = accumulatorFor(rowNonZeros);
+        for (long j = left.start(i), jEnd = left.end(i); j < jEnd; j++) {
+            int inner = left.index(j);
+            double scale = left.value(j);
+            for (long k = right.start(inner), kEnd = right.end(inner); k < kEnd; k++) {
+                accumulator.accumulate(right.index(k), scale * right.value(k));
+            }
+        }
+        accumulator.drainSorted(resultIndices, resultValues, offset);
+    }
+
+    private Accumulator accumulatorFor(int rowNonZeros) {
+        if (CSRMatrix.useHashAccumulator(rowNonZeros, right.minorSize)) {
+            if (hashAccumulator == null) {
+                hashAccumulator = new HashAccumulator(rowNonZeros);
+            } else {
+                hashAccumulator.prepare(rowNonZeros);
+            }
+            return hashAccumulator;
+        }
+
+        if (sparseAccumulator == null) {
+            sparseAccumulator = new SparseAccumulator(right.minorSize);
+        }
+        return sparseAccumulator;
+    }
+}
@@ -0,0 +1,89 @@
+package SparseSegment;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+
+class SegmentStorage {
+    static final ValueLayout.OfLong POINTER = ValueLayout.JAVA_LONG.withOrder(ByteOrder.LITTLE_ENDIAN);
+    static final ValueLayout.OfInt INDEX = ValueLayout.JAVA_INT.withOrder(ByteOrder.LITTLE_ENDIAN);
+    static final ValueLayout.OfDouble VALUE = ValueLayout.JAVA_DOUBLE.withOrder(ByteOrder.LITTLE_ENDIAN);
+    static final long ALIGNMENT = 64;
+
+    final MemorySegment pointers;
+    final MemorySegment indices;
+    final MemorySegment values;
+    final int majorSize;
+    final int minorSize;
+    final long nonZeros;
+
+    SegmentStorage(MemorySegment pointers, MemorySegment indices, MemorySegment values, int majorSize, int minorSize) {
+        if (majorSize < 0 || minorSize < 0 || pointers.byteSize() < (majorSize + 1L) * Long.BYTES) {
+            throw new IllegalArgumentException("Pointer section does not match the matrix dimensions.");
+        }
+        long nonZeros = pointers.getAtIndex(POINTER, majorSize);
+        if (pointers.getAtIndex(POINTER, 0) != 0 || nonZeros < 0
+                || indices.byteSize() < nonZeros * Integer.BYTES || values.byteSize() < nonZeros * Double.BYTES) {
+            throw new IllegalArgumentException("Index and value sections do not match the pointer section.");
+        }
+        this.pointers = pointers;
+        this.indices = indices;
+        this.values = values;
+        this.majorSize = majorSize;
+        this.minorSize = minorSize;
+        this.nonZeros = nonZeros;
+    }
+
+    static SegmentStorage copyOf(int[] pointers, int[] indices, double[] values, int majorSize, int minorSize, Arena arena) {
+        long nonZeros = pointers[majorSize];
+        MemorySegment pointerSegment = arena.allocate((majorSize + 1L) * Long.BYTES, ALIGNMENT);
+        for (int i = 0; i <= majorSize; i++) {
+            pointerSegment.setAtIndex(POINTER, i, pointers[i]);
+        }
+        MemorySegment indexSegment = arena.allocate(nonZeros * Integer.BYTES, ALIGNMENT);
+        MemorySegment valueSegment = arena.allocate(nonZeros * Double.BYTES, ALIGNMENT);
+        MemorySegment.copy(indices, 0, indexSegment, INDEX, 0, (int) nonZeros);
+        MemorySegment.copy(values, 0, valueSegment, VALUE, 0, (int) nonZeros);
+        return new SegmentStorage(pointerSegment, indexSegment, valueSegment, majorSize, minorSize);
+    }
+
+    long start(int i) {
+        return pointers.getAtIndex(POINTER, i);
+    }
+
+    long end(int i) {
+        return pointers.getAtIndex(POINTER, i + 1);
+    }
+
+    int index(long k) {
+        return indices.getAtIndex(INDEX, k);
+    }
+
+    double value(long k) {
+        return values.getAtIndex(VALUE, k);
+    }
+
+    int[] pointersToArray() {
+        if (nonZeros > Integer.MAX_VALUE) {
+            throw new ArithmeticException("Matrix has " + nonZeros + " nonzeros, more than a heap matrix can index.");
+        }
+        int[] result = new int[majorSize + 1];
+        for (int i = 0; i <= majorSize; i++) {
+            result[i] = (int) pointers.getAtIndex(POINTER, i);
+        }
+        return result;
+    }
+
+    int[] indicesToArray() {
+        int[] result = new int[(int) nonZeros];
+        MemorySegment.copy(indices, INDEX, 0, result, 0, result.length);
+        return result;
+    }
+
+    double[] valuesToArray() {
+        double[] result = new double[(int) nonZeros];
+        MemorySegment.copy(values, VALUE, 0, result, 0, result.length);
+        return result;
+    }
+}
@@ -0,0 +1,109 @@
+package SparseSlicedELL;
+
+import DenseBlock.VectorSupport;
+import SparseKernels.WorkPartition;
+import SparseSlicedELL.SparseMatrixSELLMul.SELLMatrix;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+class SELLVectorMul {
+    static void multiplyVector(SELLMatrix A, double[] x, double[] y, int sliceStart, int sliceEnd) {
+        int sliceHeight = A.sliceHeight;
+        int[] slicePointers = A.slicePointers;
+        int[] columnIndices = A.columnIndices;
+        double[] values = A.values;
+        double[] sums = new double[sliceHeight];
+        boolean vector = VectorSupport.isEnabled() && SliceGather.fits(sliceHeight);
+
+        for (int s = sliceStart; s < sliceEnd; s++) {
+            int base = slicePointers[s];
+            int end = slicePointers[s + 1];
+            if (vector) {
+                SliceGather.accumulate(values, columnIndices, x, base, end, sliceHeight, sums);
+            } else if (sliceHeight == 8) {
+                accumulateSlice8(values, columnIndices, x, base, end, sums);
+            } else {
+                // The rows of a slice advance together, so every step of the inner loop reads
+                // sliceHeight consecutive values and indices.
+                Arrays.fill(sums, 0.0);
+                for (int p = base; p < end; p += sliceHeight) {
+                    for (int r = 0; r < sliceHeight; r++) {
+                        sums[r] += values[p + r] * x[columnIndices[p + r]];
+                    }
+                }
+            }
+            scatterSlice(A, s, sums, y);
+        }
+    }
+
+    private static void accumulateSlice8(double[] values, int[] columnIndices, double[] x, int base, int end,
+                                         double[] sums) {
+        double s0 = 0.0, s1 = 0.0, s2 = 0.0, s3 = 0.0, s4 = 0.0, s5 = 0.0, s6 = 0.0, s7 = 0.0;
+        for (int p = base; p < end; p += 8) {
+            s0 += values[p] * x[columnIndices[p]];
+            s1 += values[p + 1] * x[columnIndices[p + 1]];
+            s2 += values[p + 2] * x[columnIndices[p + 2]];
+            s3 += values[p + 3] * x[columnIndices[p + 3]];
+            s4 += values[p + 4] * x[columnIndices[p + 4]];
+            s5 += values[p + 5] * x[columnIndices[p + 5]];
+            s6 += values[p + 6] * x[columnIndices[p + 6]];
+            s7 += values[p + 7] * x[columnIndices[p + 7]];
+        }
+        sums[0] = s0;
+        sums[1] = s1;
+        sums[2] = s2;
+        sums[3] = s3;
+        sums[4] = s4;
+        sums[5] = s5;
+        sums[6] = s6;
+        sums[7] = s7;
+    }
+
+    static void multiplyBatch(SELLMatrix A, double[] X, double[] Y, int k) {
+        int sliceHeight = A.sliceHeight;
+        double[] sums = new double[sliceHeight * k];
+
+        for (int s = 0; s < A.sliceCount; s++) {
+            Arrays.fill(sums, 0.0);
+            for (int p = A.slicePointers[s]; p < A.slicePointers[s + 1]; p += sliceHeight) {
+                for (int r = 0; r < sliceHeight; r++) {
+                    double value = A.values[p + r];
+                    int xOffset = A.columnIndices[p + r] * k;
+                    int sumOffset = r * k;
+                    for (int c = 0; c < k; c++) {
+                        sums[sumOffset + c] += value * X[xOffset + c];
+                    }
+                }
+            }
+            int positionStart = s * sliceHeight;
+            int positionEnd = Math.min(A.rows, positionStart + sliceHeight);
+            for (int position = positionStart; position < positionEnd; position++) {
+                System.arraycopy(sums, (position - positionStart) * k, Y, A.rowOrder[position] * k, k);
+            }
+        }
+    }
+
+    static void multiplyVectorParallel(SELLMatrix A, double[] x, double[] y, ForkJoinPool pool) {
+        int[] bounds = WorkPartition.byPointers(A.slicePointers, A.sliceCount,
+                pool.getParallelism() * WorkPartition.CHUNKS_PER_THREAD);
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(bounds.length - 1);
+        for (int c = 0; c + 1 < bounds.length; c++) {
+            int sliceStart = bounds[c];
+            int sliceEnd = bounds[c + 1];
+            tasks.add(ForkJoinTask.adapt(() -> multiplyVector(A, x, y, sliceStart, sliceEnd)));
+        }
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+    }
+
+    private static void scatterSlice(SELLMatrix A, int s, double[] sums, double[] y) {
+        int positionStart = s * A.sliceHeight;
+        int positionEnd = Math.min(A.rows, positionStart + A.sliceHeight);
+        for (int position = positionStart; position < positionEnd; position++) {
+            y[A.rowOrder[position]] = sums[position - positionStart];
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package SparseSlicedELL;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+class SliceGather {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    static boolean fits(int sliceHeight) {
+        return sliceHeight % SPECIES.length() == 0;
+    }
+
+    // One lane per row of the slice: each step loads a column of the slice and gathers the matching x.
+    static void accumulate(double[] values, int[] columnIndices, double[] x, int base, int end, int sliceHeight,
+                           double[] sums) {
+        for (int r = 0; r < sliceHeight; r += SPECIES.length()) {
+            DoubleVector sum = DoubleVector.zero(SPECIES);
+            for (int p = base + r; p < end; p += sliceHeight) {
+                DoubleVector gathered = DoubleVector.fromArray(SPECIES, x, 0, columnIndices, p);
+                sum = DoubleVector.fromArray(SPECIES, values, p).fma(gathered, sum);
+            }
+            sum.intoArray(sums, r);
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package SparseSlicedELL;
+
+import MatrixMetrics.MultiplyTrace;
+import MatrixMetrics.Phase;
+import SparseRowCSR.SparseMatrixCSRMul;
+import SparseRowCSR.SparseMatrixCSRMul.CSRMatrix;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+public class SparseMatrixSELLMul {
+
+    // SELL-C-sigma: rows are sorted by length inside windows of sortWindow rows, then cut into slices of
+    // sliceHeight rows. Each slice is padded to its longest row and stored column-major, so entry j of
+    // the r-th row of slice s sits at slicePointers[s] + j * sliceHeight + r. rowOrder maps a sorted
+    // position back to the original row.
+    public static class SELLMatrix {
+        double[] values;
+        int[] columnIndices;
+        int[] slicePointers;
+        int[] rowOrder;
+
+        int rows, cols;
+        int sliceHeight, sortWindow;
+        int sliceCount;
+
+        public SELLMatrix(double[] values, int[] columnIndices, int[] slicePointers, int[] rowOrder,
+                          int rows, int cols, int sliceHeight, int sortWindow) {
+            if (sliceHeight <= 0 || sortWindow <= 0) {
+                throw new IllegalArgumentException("Slice height and sort window must be positive.");
+            }
+            this.sliceCount = Math.ceilDiv(rows, sliceHeight);
+            if (slicePointers.length != sliceCount + 1 || rowOrder.length != rows
+                    || values.length != slicePointers[sliceCount] || columnIndices.length != values.length) {
+                throw new IllegalArgumentException("SELL arrays do not match the matrix dimensions.");
+            }
+            this.values = values;
+            this.columnIndices = columnIndices;
+            this.slicePointers = slicePointers;
+            this.rowOrder = rowOrder;
+            this.rows = rows;
+            this.cols = cols;
+            this.sliceHeight = sliceHeight;
+            this.sortWindow = sortWindow;
+        }
+
+        public double[] getValues() {
+            return values;
+        }
+
+        public int[] getColumnIndices() {
+            return columnIndices;
+        }
+
+        public int[] getSlicePointers() {
+            return slicePointers;
+        }
+
+        public int[] getRowOrder() {
+            return rowOrder;
+        }
+
+        public int getRows() {
+            return rows;
+        }
+
+        public int getCols() {
+            return cols;
+        }
+
+        public int getSliceHeight() {
+            return sliceHeight;
+        }
+
+        public int getSortWindow() {
+            return sortWindow;
+        }
+
+        // Stored entries, padding included, per actual nonzero.
+        public double fillRatio() {
+            long nonZeros = 0;
+            for (double value : values) {
+                if (value != 0.0) {
+                    nonZeros++;
+                }
+            }
+            return nonZeros == 0 ? 0.0 : (double) values.length / nonZeros;
+        }
+
+        public double[] multiply(double[] x) {
+            double[] y = new double[rows];
+            multiply(x, y);
+            return y;
+        }
+
+        public void multiply(double[] x, double[] y) {
+            checkVectorDimensions(x, y);
+            MultiplyTrace trace = MultiplyTrace.start("sell.spmv", 1);
+            SELLVectorMul.multiplyVector(this, x, y, 0, sliceCount);
+            if (trace != null) {
+                trace.endPhase(Phase.NUMERIC);
+                trace.finishVector(rows, cols, 1, values.length);
+            }
+        }
+
+        public double[] multiplyParallel(double[] x) {
+            double[] y = new double[rows];
+            multiplyParallel(x, y, ForkJoinPool.commonPool());
+            return y;
+        }
+
+        public void multiplyParallel(double[] x, double[] y, ForkJoinPool pool) {
+            checkVectorDimensions(x, y);
+            MultiplyTrace trace = MultiplyTrace.start("sell.spmv", pool.getParallelism());
+            SELLVectorMul.multiplyVectorParallel(this, x, y, pool);
+            if (trace != null) {
+                trace.endPhase(Phase.NUMERIC);
+                trace.finishVector(rows, cols, 1, values.length);
+            }
+        }
+
+        public double[] multiplyBatch(double[] X, int k) {
+            double[] Y = new double[Math.multiplyExact(rows, k)];
+            multiplyBatch(X, Y, k);
+            return Y;
+        }
+
+        public void multiplyBatch(double[] X, double[] Y, int k) {
+            if (k <= 0 || X.length != (long) cols * k || Y.length != (long) rows * k) {
+                throw new IllegalArgumentException("Matrix dimensions do not match for multiplication.");
+            }
+            MultiplyTrace trace = MultiplyTrace.start("sell.spmm", 1);
+            SELLVectorMul.multiplyBatch(this, X, Y, k);
+            if (trace != null) {
+                trace.endPhase(Phase.NUMERIC);
+                trace.finishVector(rows, cols, k, values.length);
+            }
+        }
+
+        public CSRMatrix toCSR() {
+            int[] rowPointers = new int[rows + 1];
+            for (int position = 0; position < rows; position++) {
+                int s = position / sliceHeight;
+                int r = position % sliceHeight;
+                int count = 0;
+                for (int p = slicePointers[s] + r; p < slicePointers[s + 1]; p += sliceHeight) {
+                    if (values[p] != 0.0) {
+                        count++;
+                    }
+                }
+                rowPointers[rowOrder[position] + 1] = count;
+            }
+            for (int i = 0; i < rows; i++) {
+                rowPointers[i + 1] = Math.addExact(rowPointers[i + 1], rowPointers[i]);
+            }
+
+            int[] csrColumns = new int[rowPointers[rows]];
+            double[] csrValues = new double[rowPointers[rows]];
+            for (int position = 0; position < rows; position++) {
+                int s = position / sliceHeight;
+                int r = position % sliceHeight;
+                int write = rowPointers[rowOrder[position]];
+                for (int p = slicePointers[s] + r; p < slicePointers[s + 1]; p += sliceHeight) {
+                    if (values[p] != 0.0) {
+                        csrColumns[write] = columnIndices[p];
+                        csrValues[write++] = values[p];
+                    }
+                }
+            }
+            return new CSRMatrix(csrValues, csrColumns, rowPointers, rows, cols);
+        }
+
+        private void checkVectorDimensions(double[] x, double[] y) {
+            if (x.length != cols || y.length != rows) {
+                throw new IllegalArgumentException("Matrix dimensions do not match for multiplication.");
+            }
+        }
+    }
+
+    public static SELLMatrix convertToSELL(CSRMatrix A, int sliceHeight, int sortWindow) {
+        if (sliceHeight <= 0 || sortWindow <= 0) {
+            throw new IllegalArgumentException("Slice height and sort window must be positive.");
+        }
+        int rows = A.getRows();
+        int[] rowPointers = A.getRowPointers();
+        int[] columnIndices = A.getColumnIndices();
+        double[] values = A.getValues();
+
+        // Longest rows first inside each window; the row number breaks ties so the order is stable.
+        int[] rowOrder = new int[rows];
+        long[] keys = new long[Math.min(sortWindow, rows)];
+        for (int windowStart = 0; windowStart < rows; windowStart += sortWindow) {
+            int windowEnd = Math.min(rows, windowStart + sortWindow);
+            int length = windowEnd - windowStart;
+            for (int i = windowStart; i < windowEnd; i++) {
+                int rowLength = rowPointers[i + 1] - rowPointers[i];
+                keys[i - windowStart] = ((long) (Integer.MAX_VALUE - rowLength) << 32) | i;
+            }
+            Arrays.sort(keys, 0, length);
+            for (int e = 0; e < length; e++) {
+                rowOrder[windowStart + e] = (int) keys[e];
+            }
+        }
+
+        int sliceCount = Math.ceilDiv(rows, sliceHeight);
+        int[] slicePointers = new int[sliceCount + 1];
+        for (int s = 0; s < sliceCount; s++) {
+            int width = 0;
+            int positionEnd = Math.min(rows, (s + 1) * sliceHeight);
+            for (int position = s * sliceHeight; position < positionEnd; position++) {
+                int row = rowOrder[position];
+                width = Math.max(width, rowPointers[row + 1] - rowPointers[row]);
+            }
+            slicePointers[s + 1] = Math.addExact(slicePointers[s], Math.multiplyExact(width, sliceHeight));
+        }
+
+        int stored = slicePointers[sliceCount];
+        int[] sellColumns = new int[stored];
+        double[] sellValues = new double[stored];
+        for (int position = 0; position < rows; position++) {
+            int row = rowOrder[position];
+            int p = slicePointers[position / sliceHeight] + position % sliceHeight;
+            for (int e = rowPointers[row]; e < rowPointers[row + 1]; e++, p += sliceHeight) {
+                sellColumns[p] = columnIndices[e];
+                sellValues[p] = values[e];
+            }
+        }
+
+        return new SELLMatrix(sellValues, sellColumns, slicePointers, rowOrder, rows, A.getCols(), sliceHeight, sortWindow);
+    }
+
+    public static SELLMatrix convertToSELL(double[][] matrix, int sliceHeight, int sortWindow) {
+        return convertToSELL(SparseMatrixCSRMul.convertToCSR(matrix), sliceHeight, sortWindow);
+    }
+}
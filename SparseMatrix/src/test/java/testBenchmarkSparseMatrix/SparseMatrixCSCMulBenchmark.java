@@ -20,11 +20,11 @@ public class SparseMatrixCSCMulBenchmark {
 
     @Setup(Level.Trial)
     public void setup() {
-        double[][] matrixA = generateRandomSparseMatrix(matrixSize, matrixSize, 0.1);
-        double[][] matrixB = generateRandomSparseMatrix(matrixSize, matrixSize, 0.1);
+        double[][] matrixA = generateRandomSparseMatrix(matrixSize, matrixSize, 0.1, 1);
+        double[][] matrixB = generateRandomSparseMatrix(matrixSize, matrixSize, 0.1, 2);
 
         cscMatrixA = SparseMatrixCSCMul.convertToCSC(matrixA);
-        cscMatrixB = SparseMatrixCSCMul.convertToCSC(matrixB);;
+        cscMatrixB = SparseMatrixCSCMul.convertToCSC(matrixB);
     }
 
     @Benchmark
@@ -35,13 +35,21 @@ public class SparseMatrixCSCMulBenchmark {
         return cscMatrixA.multiply(cscMatrixB);
     }
 
-    private double[][] generateRandomSparseMatrix(int rows, int cols, double sparsity) {
+    @Benchmark
+    @Fork(1)
+    @Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+    @Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+    public CSCMatrix benchmarkCSCMultiplicationTwoPass() {
+        return cscMatrixA.multiplyTwoPass(cscMatrixB);
+    }
+
+    private double[][] generateRandomSparseMatrix(int rows, int cols, double density, long seed) {
         double[][] matrix = new double[rows][cols];
-        Random random = new Random();
+        Random random = new Random(seed);
 
         for (int i = 0; i < rows; i++) {
             for (int j = 0; j < cols; j++) {
-                if (random.nextDouble() > sparsity) {
+                if (random.nextDouble() < density) {
                     matrix[i][j] = random.nextDouble() * 10;
                 }
             }
@@ -1,6 +1,12 @@
 package testBenchmarkSparseMatrix;
+import DenseBlock.VectorSupport;
 import SparseRowCSR.SparseMatrixCSRMul.*;
 import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.concurrent.TimeUnit;
 import java.util.Random;
@@ -16,34 +22,63 @@ public class SparseMatrixCSRMulBenchmark {
     @Param({"10", "100", "1024"})
     private int matrixSize;
 
+    // Only the two-pass kernel has a vectorized path, so only its benchmark takes this state and runs per mode.
+    @State(Scope.Thread)
+    public static class SimdMode {
+        @Param({"scalar", "vector"})
+        private String simd;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            VectorSupport.setEnabled(simd.equals("vector"));
+        }
+    }
+
     @Setup(Level.Trial)
     public void setup() {
-        double[][] matrixA = generateRandomSparseMatrix(matrixSize, matrixSize, 0.1);
-        double[][] matrixB = generateRandomSparseMatrix(matrixSize, matrixSize, 0.1);
+        double[][] matrixA = generateRandomSparseMatrix(matrixSize, matrixSize, 0.1, 1);
+        double[][] matrixB = generateRandomSparseMatrix(matrixSize, matrixSize, 0.1, 2);
 
         csrMatrixA = SparseRowCSR.SparseMatrixCSRMul.convertToCSR(matrixA);
         csrMatrixB = SparseRowCSR.SparseMatrixCSRMul.convertToCSR(matrixB);
     }
 
     @Benchmark
-    @Fork(1)
+    @Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
     @Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
     @Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
     public CSRMatrix benchmarkCSRMultiplication() {
         return csrMatrixA.multiply(csrMatrixB);
     }
 
-    private double[][] generateRandomSparseMatrix(int rows, int cols, double sparsity) {
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+    @Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+    @Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+    public CSRMatrix benchmarkCSRMultiplicationTwoPass(SimdMode mode) {
+        return csrMatrixA.multiplyTwoPass(csrMatrixB);
+    }
+
+    private double[][] generateRandomSparseMatrix(int rows, int cols, double density, long seed) {
         double[][] matrix = new double[rows][cols];
-        Random random = new Random();
+        Random random = new Random(seed);
 
         for (int i = 0; i < rows; i++) {
             for (int j = 0; j < cols; j++) {
-                if (random.nextDouble() > sparsity) {
+                if (random.nextDouble() < density) {
                     matrix[i][j] = random.nextDouble() * 10;
                 }
             }
         }
         return matrix;
     }
-}
\ No newline at end of file
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SparseMatrixCSRMulBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,59 @@
+package testBenchmarkSparseMatrix;
+
+import SparseRowCSR.SparseMatrixCSRMul;
+import SparseRowCSR.SparseMatrixCSRMul.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+public class SparseMatrixCSRParallelBenchmark {
+
+    private CSRMatrix csrMatrixA;
+    private CSRMatrix csrMatrixB;
+    private ForkJoinPool pool;
+
+    @Param({"1024", "4096"})
+    private int matrixSize;
+
+    @Param({"1", "2", "4", "8", "16", "32"})
+    private int threads;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        csrMatrixA = SparseMatrixCSRMul.convertToCSR(generateRandomSparseMatrix(matrixSize, matrixSize, 0.01, 1));
+        csrMatrixB = SparseMatrixCSRMul.convertToCSR(generateRandomSparseMatrix(matrixSize, matrixSize, 0.01, 2));
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public CSRMatrix benchmarkCSRMultiplicationParallel() {
+        return csrMatrixA.multiplyParallel(csrMatrixB, pool);
+    }
+
+    private double[][] generateRandomSparseMatrix(int rows, int cols, double density, long seed) {
+        double[][] matrix = new double[rows][cols];
+        Random random = new Random(seed);
+
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                if (random.nextDouble() < density) {
+                    matrix[i][j] = random.nextDouble() * 10;
+                }
+            }
+        }
+        return matrix;
+    }
+}
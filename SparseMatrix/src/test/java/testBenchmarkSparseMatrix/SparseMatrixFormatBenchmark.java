@@ -0,0 +1,196 @@
+package testBenchmarkSparseMatrix;
+
+import DenseBlock.VectorSupport;
+import SparseBlockBSR.SparseMatrixBSRMul;
+import SparseBlockBSR.SparseMatrixBSRMul.BSRMatrix;
+import SparseRowCSR.SparseMatrixCSRMul;
+import SparseRowCSR.SparseMatrixCSRMul.CSRMatrix;
+import SparseSlicedELL.SparseMatrixSELLMul;
+import SparseSlicedELL.SparseMatrixSELLMul.SELLMatrix;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// "blocked" is made of dense 4x4 tiles, "stencil" is a 5-point grid operator like mc2depi and
+// "skewed" has power-law row lengths. The flops counter always counts 2 * nnz of the CSR matrix, so
+// padding done by BSR and SELL shows up as lower FLOP/s instead of being counted as useful work.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+public class SparseMatrixFormatBenchmark {
+
+    private CSRMatrix csr;
+    private BSRMatrix bsr2;
+    private BSRMatrix bsr4;
+    private SELLMatrix sell;
+    private double[] x;
+    private double[] y;
+
+    @Param({"262144"})
+    private int matrixSize;
+
+    @Param({"blocked", "stencil", "skewed"})
+    private String structure;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Work {
+        public long flops;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            flops = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        switch (structure) {
+            case "blocked" -> csr = generateBlocked(matrixSize, 4, 4, 1);
+            case "stencil" -> csr = generateStencil((int) Math.sqrt(matrixSize));
+            case "skewed" -> csr = generateSkewed(matrixSize, 1);
+            default -> throw new IllegalArgumentException("Unknown structure: " + structure);
+        }
+        bsr2 = SparseMatrixBSRMul.convertToBSR(csr, 2, 2);
+        bsr4 = SparseMatrixBSRMul.convertToBSR(csr, 4, 4);
+        sell = SparseMatrixSELLMul.convertToSELL(csr, 8, 256);
+
+        Random random = new Random(2);
+        x = new double[csr.getCols()];
+        y = new double[csr.getRows()];
+        for (int j = 0; j < x.length; j++) {
+            x[j] = random.nextDouble();
+        }
+        System.out.printf("%n%s: nnz=%d, fill BSR 2x2=%.2f, BSR 4x4=%.2f, SELL-8-256=%.2f%n", structure,
+                csr.getRowPointers()[csr.getRows()], bsr2.fillRatio(), bsr4.fillRatio(), sell.fillRatio());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        VectorSupport.setEnabled(true);
+    }
+
+    @Benchmark
+    public double csr(Work work) {
+        csr.multiply(x, y);
+        return count(work);
+    }
+
+    @Benchmark
+    public double bsr2x2(Work work) {
+        bsr2.multiply(x, y);
+        return count(work);
+    }
+
+    @Benchmark
+    public double bsr4x4(Work work) {
+        bsr4.multiply(x, y);
+        return count(work);
+    }
+
+    @Benchmark
+    public double sellScalar(Work work) {
+        VectorSupport.setEnabled(false);
+        sell.multiply(x, y);
+        return count(work);
+    }
+
+    @Benchmark
+    public double sellVector(Work work) {
+        VectorSupport.setEnabled(true);
+        sell.multiply(x, y);
+        return count(work);
+    }
+
+    private double count(Work work) {
+        work.flops += 2L * csr.getRowPointers()[csr.getRows()];
+        return y[0];
+    }
+
+    private CSRMatrix generateBlocked(int size, int blockSize, int blocksPerRow, long seed) {
+        Random random = new Random(seed);
+        int blockRows = size / blockSize;
+        int count = blockRows * blocksPerRow * blockSize * blockSize;
+        int[] rowIndices = new int[count];
+        int[] columnIndices = new int[count];
+        double[] values = new double[count];
+
+        int e = 0;
+        for (int I = 0; I < blockRows; I++) {
+            for (int b = 0; b < blocksPerRow; b++) {
+                int J = random.nextInt(blockRows);
+                for (int ii = 0; ii < blockSize; ii++) {
+                    for (int jj = 0; jj < blockSize; jj++, e++) {
+                        rowIndices[e] = I * blockSize + ii;
+                        columnIndices[e] = J * blockSize + jj;
+                        values[e] = random.nextDouble();
+                    }
+                }
+            }
+        }
+        return SparseMatrixCSRMul.convertCOOToCSR(size, size, rowIndices, columnIndices, values, count);
+    }
+
+    private CSRMatrix generateStencil(int grid) {
+        int size = grid * grid;
+        int[] rowIndices = new int[5 * size];
+        int[] columnIndices = new int[5 * size];
+        double[] values = new double[5 * size];
+
+        int e = 0;
+        for (int gi = 0; gi < grid; gi++) {
+            for (int gj = 0; gj < grid; gj++) {
+                int row = gi * grid + gj;
+                int[][] neighbours = {{gi, gj}, {gi - 1, gj}, {gi + 1, gj}, {gi, gj - 1}, {gi, gj + 1}};
+                for (int[] n : neighbours) {
+                    if (n[0] >= 0 && n[0] < grid && n[1] >= 0 && n[1] < grid) {
+                        rowIndices[e] = row;
+                        columnIndices[e] = n[0] * grid + n[1];
+                        values[e++] = n[0] == gi && n[1] == gj ? -4.0 : 1.0;
+                    }
+                }
+            }
+        }
+        return SparseMatrixCSRMul.convertCOOToCSR(size, size, rowIndices, columnIndices, values, e);
+    }
+
+    private CSRMatrix generateSkewed(int size, long seed) {
+        Random random = new Random(seed);
+        int[] lengths = new int[size];
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+            lengths[i] = (int) Math.min(size, 2 / Math.pow(1 - random.nextDouble(), 1 / 1.5));
+            total += lengths[i];
+        }
+        int count = Math.toIntExact(total);
+        int[] rowIndices = new int[count];
+        int[] columnIndices = new int[count];
+        double[] values = new double[count];
+
+        int e = 0;
+        for (int i = 0; i < size; i++) {
+            for (int k = 0; k < lengths[i]; k++, e++) {
+                rowIndices[e] = i;
+                columnIndices[e] = random.nextInt(size);
+                values[e] = random.nextDouble();
+            }
+        }
+        return SparseMatrixCSRMul.convertCOOToCSR(size, size, rowIndices, columnIndices, values, count);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SparseMatrixFormatBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,98 @@
+package testBenchmarkSparseMatrix;
+
+import SparseColumnCSC.SparseMatrixCSCMul.CSCMatrix;
+import SparseRowCSR.MutableCSRMatrix;
+import SparseRowCSR.SparseMatrixCSRMul;
+import SparseRowCSR.SparseMatrixCSRMul.CSRMatrix;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Keeping C = A * B current after `changes` entries of A (or B) change: recomputing the product against merging
+// dA * B (or A * dB) into a MutableCSRMatrix. Deltas rotate through a fixed pool, so the first pass through the
+// pool inserts new entries into C and later ones update stored values, as repeated edits to the same data do.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+public class SparseMatrixIncrementalBenchmark {
+    private static final int POOL = 16;
+
+    private CSRMatrix a;
+    private CSRMatrix b;
+    private CSCMatrix aColumns;
+    private CSRMatrix[] deltas;
+    private MutableCSRMatrix c;
+    private int next;
+
+    @Param({"65536"})
+    private int n;
+
+    @Param({"8"})
+    private int degree;
+
+    @Param({"1000", "10000"})
+    private int changes;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+        a = randomMatrix(n, n, n * degree, random);
+        b = randomMatrix(n, n, n * degree, random);
+        aColumns = a.toCSC();
+        deltas = new CSRMatrix[POOL];
+        for (int d = 0; d < POOL; d++) {
+            deltas[d] = randomMatrix(n, n, changes, random);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void resetProduct() {
+        c = new MutableCSRMatrix(a.multiplyTwoPass(b));
+        next = 0;
+    }
+
+    @Benchmark
+    public CSRMatrix recompute() {
+        return a.multiplyTwoPass(b);
+    }
+
+    @Benchmark
+    public MutableCSRMatrix incrementalDeltaA() {
+        c.addProduct(deltas[next++ % POOL], b);
+        return c;
+    }
+
+    @Benchmark
+    public MutableCSRMatrix incrementalDeltaB() {
+        c.addProduct(aColumns, deltas[next++ % POOL]);
+        return c;
+    }
+
+    private static CSRMatrix randomMatrix(int rows, int cols, int entries, Random random) {
+        int[] rowIndices = new int[entries];
+        int[] columnIndices = new int[entries];
+        double[] values = new double[entries];
+        for (int e = 0; e < entries; e++) {
+            rowIndices[e] = random.nextInt(rows);
+            columnIndices[e] = random.nextInt(cols);
+            values[e] = random.nextDouble() * 2 - 1;
+        }
+        return SparseMatrixCSRMul.convertCOOToCSR(rows, cols, rowIndices, columnIndices, values, entries);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(SparseMatrixIncrementalBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
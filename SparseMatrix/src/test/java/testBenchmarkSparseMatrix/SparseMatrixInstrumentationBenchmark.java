@@ -0,0 +1,87 @@
+package testBenchmarkSparseMatrix;
+
+import MatrixMetrics.MultiplyStatistics;
+import MatrixMetrics.MultiplyTrace;
+import SparseRowCSR.SparseMatrixCSRMul.CSRMatrix;
+import jdk.jfr.Recording;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Cost of the multiply instrumentation on products small enough (a few microseconds) that a per-call overhead
+// would show: "off" is the production default, "metrics" feeds a MultiplyStatistics sink, "jfr" records the
+// matrix.Multiply event.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+public class SparseMatrixInstrumentationBenchmark {
+
+    @Param({"off", "metrics", "jfr"})
+    private String mode;
+
+    @Param({"200", "5000"})
+    private int matrixSize;
+
+    private CSRMatrix a;
+    private CSRMatrix b;
+    private Recording recording;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        a = generate(matrixSize, 4, 1);
+        b = generate(matrixSize, 4, 2);
+        if (mode.equals("metrics")) {
+            MultiplyTrace.setMetrics(new MultiplyStatistics());
+        } else if (mode.equals("jfr")) {
+            recording = new Recording();
+            recording.enable("matrix.Multiply");
+            recording.start();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        MultiplyTrace.setMetrics(null);
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    @Benchmark
+    public CSRMatrix twoPass() {
+        return a.multiplyTwoPass(b);
+    }
+
+    private static CSRMatrix generate(int size, int degree, long seed) {
+        Random random = new Random(seed);
+        int[] rowPointers = new int[size + 1];
+        int[] columnIndices = new int[size * degree];
+        double[] values = new double[size * degree];
+        int nonZeros = 0;
+        for (int i = 0; i < size; i++) {
+            int[] columns = random.ints(0, size).distinct().limit(degree).sorted().toArray();
+            for (int column : columns) {
+                columnIndices[nonZeros] = column;
+                values[nonZeros++] = random.nextDouble();
+            }
+            rowPointers[i + 1] = nonZeros;
+        }
+        return new CSRMatrix(values, columnIndices, rowPointers, size, size);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SparseMatrixInstrumentationBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,150 @@
+package testBenchmarkSparseMatrix;
+
+import SparseKernels.Dataflow;
+import SparseRowCSR.SparseMatrixCSRMul;
+import SparseRowCSR.SparseMatrixCSRMul.CSRMatrix;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Triangle counting (sum of L * L restricted to L) and top-k similarity (A * A^T, k per row) on an undirected
+// power-law graph, each against the full product followed by filtering. Run with -prof gc for bytes per op.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+public class SparseMatrixMaskedBenchmark {
+
+    private CSRMatrix adjacency;
+    private CSRMatrix lower;
+
+    @Param({"65536"})
+    private int vertices;
+
+    @Param({"16"})
+    private int averageDegree;
+
+    @Param({"10"})
+    private int k;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        adjacency = generatePowerLawGraph(vertices, averageDegree, 1);
+        lower = lowerTriangle(adjacency);
+    }
+
+    @Benchmark
+    public double trianglesFullProduct() {
+        return maskedSum(lower.multiplyTwoPass(lower), lower);
+    }
+
+    @Benchmark
+    public double trianglesMaskedGustavson() {
+        return sum(lower.multiplyMasked(lower, lower, Dataflow.GUSTAVSON));
+    }
+
+    @Benchmark
+    public double trianglesMaskedInnerProduct() {
+        return sum(lower.multiplyMasked(lower, lower, Dataflow.INNER_PRODUCT));
+    }
+
+    @Benchmark
+    public CSRMatrix similarityFullProduct() {
+        return adjacency.multiplyTwoPass(adjacency.transpose());
+    }
+
+    @Benchmark
+    public CSRMatrix similarityTopK() {
+        return adjacency.multiplyTopK(adjacency.transpose(), k);
+    }
+
+    private static double sum(CSRMatrix matrix) {
+        double total = 0.0;
+        for (double value : matrix.getValues()) {
+            total += value;
+        }
+        return total;
+    }
+
+    private static double maskedSum(CSRMatrix product, CSRMatrix mask) {
+        double total = 0.0;
+        for (int i = 0; i < product.getRows(); i++) {
+            int p = product.getRowPointers()[i];
+            int q = mask.getRowPointers()[i];
+            while (p < product.getRowPointers()[i + 1] && q < mask.getRowPointers()[i + 1]) {
+                int colP = product.getColumnIndices()[p];
+                int colQ = mask.getColumnIndices()[q];
+                if (colP == colQ) {
+                    total += product.getValues()[p++];
+                    q++;
+                } else if (colP < colQ) {
+                    p++;
+                } else {
+                    q++;
+                }
+            }
+        }
+        return total;
+    }
+
+    // Endpoints are drawn with density proportional to x^(-2/3) over [0, 1), which gives a few hub vertices
+    // with thousands of neighbours and a long tail of low-degree ones.
+    private static CSRMatrix generatePowerLawGraph(int vertices, int averageDegree, long seed) {
+        Random random = new Random(seed);
+        int edges = vertices / 2 * averageDegree;
+        int[] rows = new int[2 * edges];
+        int[] cols = new int[2 * edges];
+        int count = 0;
+        while (count < 2 * edges) {
+            double u = random.nextDouble();
+            double v = random.nextDouble();
+            int from = (int) (vertices * u * u * u);
+            int to = (int) (vertices * v * v * v);
+            if (from != to) {
+                rows[count] = from;
+                cols[count++] = to;
+                rows[count] = to;
+                cols[count++] = from;
+            }
+        }
+
+        double[] values = new double[count];
+        CSRMatrix graph = SparseMatrixCSRMul.convertCOOToCSR(vertices, vertices, rows, cols, values, count);
+        Arrays.fill(graph.getValues(), 1.0);
+        return graph;
+    }
+
+    private static CSRMatrix lowerTriangle(CSRMatrix matrix) {
+        int[] rowPointers = new int[matrix.getRows() + 1];
+        int[] columnIndices = new int[matrix.getValues().length];
+        double[] values = new double[matrix.getValues().length];
+        int count = 0;
+        for (int i = 0; i < matrix.getRows(); i++) {
+            for (int e = matrix.getRowPointers()[i]; e < matrix.getRowPointers()[i + 1]; e++) {
+                if (matrix.getColumnIndices()[e] < i) {
+                    columnIndices[count] = matrix.getColumnIndices()[e];
+                    values[count++] = matrix.getValues()[e];
+                }
+            }
+            rowPointers[i + 1] = count;
+        }
+        return new CSRMatrix(Arrays.copyOf(values, count), Arrays.copyOf(columnIndices, count), rowPointers,
+                matrix.getRows(), matrix.getCols());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(SparseMatrixMaskedBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
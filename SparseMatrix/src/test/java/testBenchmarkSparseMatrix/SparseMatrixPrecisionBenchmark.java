@@ -0,0 +1,165 @@
+package testBenchmarkSparseMatrix;
+
+import MatrixPrecision.Accumulation;
+import SparseFloat.FloatCSRMatrix;
+import SparseRowCSR.SparseMatrixCSRMul;
+import SparseRowCSR.SparseMatrixCSRMul.CSRMatrix;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Double CSR against float CSR in each accumulation mode, for SpMV and SpGEMM on the same matrix. As in
+// SparseMatrixVectorBenchmark, "bytes" is the minimum SpMV traffic, so its rate is the effective bandwidth; the
+// tear-down prints each mode's largest error against the double result next to the reported bound. The squared
+// matrix holds ~51M entries, hence the larger heap.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+public class SparseMatrixPrecisionBenchmark {
+
+    private CSRMatrix csr;
+    private FloatCSRMatrix floatCsr;
+    private double[] x;
+    private double[] y;
+    private float[] floatX;
+    private float[] floatY;
+
+    @Param({"200000"})
+    private int matrixSize;
+
+    @Param({"16"})
+    private int nonZerosPerRow;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Traffic {
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(2);
+        int entries = matrixSize * nonZerosPerRow;
+        int[] rowIndices = new int[entries];
+        int[] columnIndices = new int[entries];
+        double[] values = new double[entries];
+        for (int i = 0, e = 0; i < matrixSize; i++) {
+            for (int k = 0; k < nonZerosPerRow; k++, e++) {
+                rowIndices[e] = i;
+                columnIndices[e] = random.nextInt(matrixSize);
+                values[e] = random.nextDouble() * 2 - 1;
+            }
+        }
+        // Round the double matrix too, so both sides multiply the same numbers and the errors are the kernels' own.
+        floatCsr = FloatCSRMatrix.fromDouble(SparseMatrixCSRMul.convertCOOToCSR(matrixSize, matrixSize, rowIndices,
+                columnIndices, values, entries));
+        csr = floatCsr.toDouble();
+
+        x = new double[matrixSize];
+        y = new double[matrixSize];
+        floatX = new float[matrixSize];
+        floatY = new float[matrixSize];
+        for (int i = 0; i < matrixSize; i++) {
+            floatX[i] = (float) random.nextDouble();
+            x[i] = floatX[i];
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void reportAccuracy() {
+        double[] reference = csr.multiply(x);
+        CSRMatrix product = csr.multiplyTwoPass(csr);
+        for (Accumulation accumulation : Accumulation.values()) {
+            float[] result = floatCsr.multiply(floatX, accumulation);
+            double[] bound = floatCsr.errorBound(floatX, accumulation);
+            double error = 0.0;
+            double maxBound = 0.0;
+            for (int i = 0; i < matrixSize; i++) {
+                error = Math.max(error, Math.abs(result[i] - reference[i]));
+                maxBound = Math.max(maxBound, bound[i]);
+            }
+            float[] productValues = floatCsr.multiply(floatCsr, accumulation).getValues();
+            double[] referenceValues = product.getValues();
+            double productError = 0.0;
+            for (int p = 0; p < productValues.length; p++) {
+                productError = Math.max(productError, Math.abs(productValues[p] - referenceValues[p]));
+            }
+            System.out.printf("%n%s: SpMV max error %.3e, bound %.3e; SpGEMM max error %.3e, bound %.3e%n",
+                    accumulation, error, maxBound, productError, floatCsr.errorBound(floatCsr, accumulation));
+        }
+    }
+
+    @Benchmark
+    public double spmvDouble(Traffic traffic) {
+        csr.multiply(x, y);
+        traffic.bytes += traffic(Double.BYTES);
+        return y[0];
+    }
+
+    @Benchmark
+    public float spmvFloat(Traffic traffic) {
+        floatCsr.multiply(floatX, floatY, Accumulation.FLOAT);
+        traffic.bytes += traffic(Float.BYTES);
+        return floatY[0];
+    }
+
+    @Benchmark
+    public float spmvMixed(Traffic traffic) {
+        floatCsr.multiply(floatX, floatY, Accumulation.DOUBLE);
+        traffic.bytes += traffic(Float.BYTES);
+        return floatY[0];
+    }
+
+    @Benchmark
+    public float spmvKahan(Traffic traffic) {
+        floatCsr.multiply(floatX, floatY, Accumulation.KAHAN);
+        traffic.bytes += traffic(Float.BYTES);
+        return floatY[0];
+    }
+
+    @Benchmark
+    public CSRMatrix spgemmDouble() {
+        return csr.multiplyTwoPass(csr);
+    }
+
+    @Benchmark
+    public FloatCSRMatrix spgemmFloat() {
+        return floatCsr.multiply(floatCsr, Accumulation.FLOAT);
+    }
+
+    @Benchmark
+    public FloatCSRMatrix spgemmMixed() {
+        return floatCsr.multiply(floatCsr, Accumulation.DOUBLE);
+    }
+
+    @Benchmark
+    public FloatCSRMatrix spgemmKahan() {
+        return floatCsr.multiply(floatCsr, Accumulation.KAHAN);
+    }
+
+    private long traffic(int valueBytes) {
+        long nonZeros = csr.getRowPointers()[matrixSize];
+        return nonZeros * (valueBytes + Integer.BYTES) + (matrixSize + 1L) * Integer.BYTES + 2L * matrixSize * valueBytes;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SparseMatrixPrecisionBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(options).run();
+    }
+}
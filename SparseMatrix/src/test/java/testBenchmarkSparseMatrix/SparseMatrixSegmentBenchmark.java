@@ -0,0 +1,89 @@
+package testBenchmarkSparseMatrix;
+
+import SparseRowCSR.SparseMatrixCSRMul;
+import SparseRowCSR.SparseMatrixCSRMul.CSRMatrix;
+import SparseSegment.SegmentCSRMatrix;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.foreign.Arena;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+public class SparseMatrixSegmentBenchmark {
+
+    private CSRMatrix heapA;
+    private CSRMatrix heapB;
+    private Arena operandArena;
+    private SegmentCSRMatrix segmentA;
+    private SegmentCSRMatrix segmentB;
+
+    @Param({"2048", "8192"})
+    private int matrixSize;
+
+    @Param({"0.005"})
+    private double density;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        heapA = generateRandomSparseMatrix(matrixSize, density, 1);
+        heapB = generateRandomSparseMatrix(matrixSize, density, 2);
+
+        operandArena = Arena.ofConfined();
+        segmentA = SegmentCSRMatrix.fromCSR(heapA, operandArena);
+        segmentB = SegmentCSRMatrix.fromCSR(heapB, operandArena);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        operandArena.close();
+    }
+
+    @Benchmark
+    public CSRMatrix heapTwoPass() {
+        return heapA.multiplyTwoPass(heapB);
+    }
+
+    @Benchmark
+    public long offHeap() {
+        try (Arena arena = Arena.ofConfined()) {
+            return segmentA.multiply(segmentB, arena).getNonZeros();
+        }
+    }
+
+    private CSRMatrix generateRandomSparseMatrix(int size, double density, long seed) {
+        Random random = new Random(seed);
+        int perRow = Math.max(1, (int) Math.round(size * density));
+        int[] rowIndices = new int[size * perRow];
+        int[] columnIndices = new int[size * perRow];
+        double[] values = new double[size * perRow];
+
+        for (int i = 0, e = 0; i < size; i++) {
+            for (int k = 0; k < perRow; k++, e++) {
+                rowIndices[e] = i;
+                columnIndices[e] = random.nextInt(size);
+                values[e] = random.nextDouble() * 10;
+            }
+        }
+        return SparseMatrixCSRMul.convertCOOToCSR(size, size, rowIndices, columnIndices, values, values.length);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SparseMatrixSegmentBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(options).run();
+    }
+}
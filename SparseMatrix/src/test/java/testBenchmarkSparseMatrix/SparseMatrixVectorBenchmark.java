@@ -0,0 +1,151 @@
+package testBenchmarkSparseMatrix;
+
+import SparseColumnCSC.SparseMatrixCSCMul.CSCMatrix;
+import SparseRowCSR.SparseMatrixCSRMul;
+import SparseRowCSR.SparseMatrixCSRMul.CSRMatrix;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+// Throughput mode turns the auxiliary counters into rates: "flops" is FLOP/s and "bytes" is the
+// effective memory bandwidth in B/s, counting the minimum traffic of one pass over A, x and y.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+public class SparseMatrixVectorBenchmark {
+
+    private CSRMatrix csr;
+    private CSCMatrix csc;
+    private ForkJoinPool pool;
+    private double[] x;
+    private double[] y;
+    private double[] X;
+    private double[] Y;
+
+    @Param({"200000"})
+    private int matrixSize;
+
+    @Param({"16"})
+    private int nonZerosPerRow;
+
+    @Param({"1", "8"})
+    private int rightHandSides;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Traffic {
+        public long flops;
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            flops = 0;
+            bytes = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        csr = generateRandomSparseMatrix(matrixSize, nonZerosPerRow, 1);
+        csc = csr.toCSC();
+        pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+        Random random = new Random(2);
+        x = new double[matrixSize];
+        y = new double[matrixSize];
+        X = new double[matrixSize * rightHandSides];
+        Y = new double[matrixSize * rightHandSides];
+        for (int i = 0; i < matrixSize; i++) {
+            x[i] = random.nextDouble();
+        }
+        for (int e = 0; e < X.length; e++) {
+            X[e] = random.nextDouble();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public double csrSequential(Traffic traffic) {
+        if (rightHandSides == 1) {
+            csr.multiply(x, y);
+        } else {
+            csr.multiplyBatch(X, Y, rightHandSides);
+        }
+        return count(traffic);
+    }
+
+    @Benchmark
+    public double csrParallel(Traffic traffic) {
+        if (rightHandSides == 1) {
+            csr.multiplyParallel(x, y, pool);
+        } else {
+            csr.multiplyBatchParallel(X, Y, rightHandSides, pool);
+        }
+        return count(traffic);
+    }
+
+    @Benchmark
+    public double cscSequential(Traffic traffic) {
+        if (rightHandSides == 1) {
+            csc.multiply(x, y);
+        } else {
+            csc.multiplyBatch(X, Y, rightHandSides);
+        }
+        return count(traffic);
+    }
+
+    @Benchmark
+    public double cscParallel(Traffic traffic) {
+        if (rightHandSides == 1) {
+            csc.multiplyParallel(x, y, pool);
+        } else {
+            csc.multiplyBatchParallel(X, Y, rightHandSides, pool);
+        }
+        return count(traffic);
+    }
+
+    private double count(Traffic traffic) {
+        long nonZeros = csr.getRowPointers()[matrixSize];
+        traffic.flops += 2L * nonZeros * rightHandSides;
+        traffic.bytes += nonZeros * (Double.BYTES + Integer.BYTES) + (matrixSize + 1L) * Integer.BYTES
+                + 2L * matrixSize * rightHandSides * Double.BYTES;
+        return rightHandSides == 1 ? y[0] : Y[0];
+    }
+
+    private CSRMatrix generateRandomSparseMatrix(int size, int perRow, long seed) {
+        Random random = new Random(seed);
+        int[] rowIndices = new int[size * perRow];
+        int[] columnIndices = new int[size * perRow];
+        double[] values = new double[size * perRow];
+
+        for (int i = 0, e = 0; i < size; i++) {
+            for (int k = 0; k < perRow; k++, e++) {
+                rowIndices[e] = i;
+                columnIndices[e] = random.nextInt(size);
+                values[e] = random.nextDouble() * 10;
+            }
+        }
+        return SparseMatrixCSRMul.convertCOOToCSR(size, size, rowIndices, columnIndices, values, values.length);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SparseMatrixVectorBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(options).run();
+    }
+}